@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.mule.runtime.core.internal.connection.ConcurrentBag.Entry;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentBagTestCase extends AbstractMuleTestCase {
+
+  private final ConcurrentBag<String> bag = new ConcurrentBag<>();
+
+  @Test
+  public void emptyBag() throws Exception {
+    assertThat(bag.borrow(0, MILLISECONDS), is(nullValue()));
+    assertThat(bag.borrow(10, MILLISECONDS), is(nullValue()));
+  }
+
+  @Test
+  public void returnedItemIsBorrowedAgain() throws Exception {
+    Entry<String> entry = bag.add("item");
+    assertThat(bag.getIdleCount(), is(0));
+
+    bag.requite(entry);
+    assertThat(bag.getIdleCount(), is(1));
+
+    assertThat(bag.borrow(0, MILLISECONDS), is(sameInstance(entry)));
+    assertThat(bag.getIdleCount(), is(0));
+    assertThat(bag.borrow(0, MILLISECONDS), is(nullValue()));
+  }
+
+  @Test
+  public void itemReturnedByOtherThreadIsBorrowed() throws Exception {
+    Entry<String> entry = bag.add("item");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> bag.requite(entry)).get();
+      assertThat(bag.borrow(0, MILLISECONDS), is(sameInstance(entry)));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void itemHandedOffToWaiter() throws Exception {
+    Entry<String> entry = bag.add("item");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Entry<String>> borrowed = executor.submit(() -> bag.borrow(-1, MILLISECONDS));
+      while (bag.getWaitingCount() == 0) {
+        Thread.yield();
+      }
+      bag.requite(entry);
+      assertThat(borrowed.get(5, SECONDS), is(sameInstance(entry)));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void itemHandedOffToAsyncWaiter() throws Exception {
+    Entry<String> entry = bag.add("item");
+
+    CompletableFuture<Entry<String>> borrowed = bag.borrowAsync();
+    assertThat(borrowed.isDone(), is(false));
+    assertThat(bag.getWaitingCount(), is(1));
+
+    bag.requite(entry);
+    assertThat(borrowed.get(), is(sameInstance(entry)));
+    assertThat(bag.getWaitingCount(), is(0));
+    assertThat(bag.getIdleCount(), is(0));
+  }
+
+  @Test
+  public void abandonedAsyncWaiterSkipped() throws Exception {
+    Entry<String> entry = bag.add("item");
+
+    CompletableFuture<Entry<String>> abandoned = bag.borrowAsync();
+    abandoned.cancel(false);
+    assertThat(bag.getWaitingCount(), is(0));
+
+    bag.requite(entry);
+    assertThat(bag.borrow(0, MILLISECONDS), is(sameInstance(entry)));
+  }
+
+  @Test
+  public void asyncWaitersServedInOrder() throws Exception {
+    Entry<String> first = bag.add("first");
+    Entry<String> second = bag.add("second");
+
+    CompletableFuture<Entry<String>> firstWaiter = bag.borrowAsync();
+    CompletableFuture<Entry<String>> secondWaiter = bag.borrowAsync();
+
+    bag.requite(first);
+    assertThat(firstWaiter.get(), is(sameInstance(first)));
+    assertThat(secondWaiter.isDone(), is(false));
+
+    bag.requite(second);
+    assertThat(secondWaiter.get(), is(sameInstance(second)));
+  }
+
+  @Test
+  public void closeWakesUpWaiter() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Entry<String>> borrowed = executor.submit(() -> bag.borrow(-1, MILLISECONDS));
+      while (bag.getWaitingCount() == 0) {
+        Thread.yield();
+      }
+      bag.close(new IllegalStateException());
+      assertThat(borrowed.get(5, SECONDS), is(nullValue()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void closeFailsAsyncWaiter() throws Exception {
+    CompletableFuture<Entry<String>> borrowed = bag.borrowAsync();
+    bag.close(new IllegalStateException());
+    assertThat(borrowed.isCompletedExceptionally(), is(true));
+  }
+
+  @Test
+  public void reservedItemNotBorrowed() throws Exception {
+    Entry<String> entry = bag.add("item");
+    bag.requite(entry);
+
+    assertThat(bag.reserve(entry), is(true));
+    assertThat(bag.borrow(0, MILLISECONDS), is(nullValue()));
+
+    bag.unreserve(entry);
+    assertThat(bag.borrow(0, MILLISECONDS), is(sameInstance(entry)));
+  }
+
+  @Test
+  public void removedItemNotBorrowed() throws Exception {
+    Entry<String> entry = bag.add("item");
+
+    assertThat(bag.remove(entry), is(true));
+    assertThat(bag.size(), is(0));
+    assertThat(bag.borrow(0, MILLISECONDS), is(nullValue()));
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.core.internal.profiling.context.ConnectionPoolBorrowWaitProfilingEventContext.BORROW_WAIT_TIMES;
+import static org.mule.runtime.core.internal.profiling.context.ConnectionPoolBorrowWaitProfilingEventContext.CONNECTION_POOL_BORROW_WAIT;
+import static org.mule.runtime.core.internal.profiling.context.ConnectionPoolBorrowWaitProfilingEventContext.WAIT_TIME;
+
+import static java.lang.Thread.State.TIMED_WAITING;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
+import org.mule.runtime.core.internal.management.stats.LatencyHistogram;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ConcurrentPoolingConnectionManagementStrategyTestCase extends AbstractMuleContextTestCase {
+
+  private static final int MAX_ACTIVE = 2;
+  private static final String OWNER_CONFIG_NAME = "SomeConfigName";
+
+  private ConnectionProvider<Object> connectionProvider;
+  private PoolingProfile poolingProfile =
+      new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+  private PoolingListener<Object> poolingListener;
+  private ProfilingDataProducer<ExtensionProfilingEventContext, Object> borrowWaitDataProducer;
+  private ConcurrentPoolingConnectionManagementStrategy<Object> strategy;
+
+  @Before
+  public void before() throws Exception {
+    poolingListener = mock(PoolingListener.class);
+    borrowWaitDataProducer = mock(ProfilingDataProducer.class);
+    muleContext.start();
+
+    ConnectionProvider<Object> delegate = mock(ConnectionProvider.class);
+    when(delegate.connect()).thenAnswer(i -> mock(Lifecycle.class));
+    when(delegate.validate(any())).thenReturn(ConnectionValidationResult.success());
+    connectionProvider = spy(new DefaultConnectionProviderWrapper<>(delegate, muleContext));
+  }
+
+  @After
+  public void after() throws Exception {
+    if (strategy != null) {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void getConnection() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connection1 = strategy.getConnectionHandler();
+    ConnectionHandler<Object> connection2 = strategy.getConnectionHandler();
+
+    assertThat(connection1.getConnection(), is(not(sameInstance(connection2.getConnection()))));
+    verify(connectionProvider, times(2)).connect();
+    verify(poolingListener).onBorrow(connection1.getConnection());
+    verify(poolingListener).onBorrow(connection2.getConnection());
+  }
+
+  @Test
+  public void releasedConnectionIsReused() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connection = strategy.getConnectionHandler();
+    Object underlying = connection.getConnection();
+    connection.release();
+
+    verify(poolingListener).onReturn(underlying);
+    assertThat(strategy.getConnectionHandler().getConnection(), is(sameInstance(underlying)));
+    verify(connectionProvider, times(1)).connect();
+    assertThat(strategy.getBorrowWaitTimes().getCount(), is(2L));
+  }
+
+  @Test
+  public void exhaustion() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connectionHandler = strategy.getConnectionHandler();
+    try {
+      strategy.getConnectionHandler();
+      fail("Was expecting the pool to be exhausted");
+    } catch (ConnectionException e) {
+      // expected
+    }
+
+    connectionHandler.release();
+    strategy.getConnectionHandler();
+  }
+
+  @Test
+  public void invalidatedConnectionIsDisconnected() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connection = strategy.getConnectionHandler();
+    Object underlying = connection.getConnection();
+    connection.invalidate();
+
+    verify(connectionProvider).disconnect(underlying);
+    assertThat(strategy.getConnectionHandler().getConnection(), is(not(sameInstance(underlying))));
+  }
+
+  @Test
+  public void invalidatedConnectionIsReplacedForWaiter() throws Exception {
+    // long enough for the waiting thread not to time out before the connection is replaced
+    poolingProfile = new PoolingProfile(1, 1, 60000, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connection = strategy.getConnectionHandler();
+    Object underlying = connection.getConnection();
+
+    AtomicReference<Thread> waitingThread = new AtomicReference<>();
+    CompletableFuture<ConnectionHandler<Object>> pending = supplyAsync(() -> {
+      waitingThread.set(currentThread());
+      try {
+        return strategy.getConnectionHandler();
+      } catch (ConnectionException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> waitingThread.get() != null
+        && waitingThread.get().getState() == TIMED_WAITING));
+
+    connection.invalidate();
+
+    assertThat(pending.get(5, SECONDS).getConnection(), is(not(sameInstance(underlying))));
+    verify(connectionProvider).disconnect(underlying);
+    verify(connectionProvider, times(2)).connect();
+  }
+
+  @Test
+  public void invalidatedConnectionIsReplacedForAsyncWaiter() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connection = strategy.getConnectionHandler();
+    Object underlying = connection.getConnection();
+    CompletableFuture<ConnectionHandler<Object>> pending = strategy.getConnectionHandlerAsync();
+    assertThat(pending.isDone(), is(false));
+
+    connection.invalidate();
+
+    assertThat(pending.get(5, SECONDS).getConnection(), is(not(sameInstance(underlying))));
+    verify(connectionProvider, times(2)).connect();
+  }
+
+  @Test
+  public void borrowWaitIsPublished() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connection = strategy.getConnectionHandler();
+    verify(borrowWaitDataProducer, never()).triggerProfilingEvent(any());
+
+    CompletableFuture<ConnectionHandler<Object>> pending = strategy.getConnectionHandlerAsync();
+    connection.release();
+    pending.get(5, SECONDS);
+
+    ArgumentCaptor<ExtensionProfilingEventContext> eventContext = ArgumentCaptor.forClass(ExtensionProfilingEventContext.class);
+    verify(borrowWaitDataProducer).triggerProfilingEvent(eventContext.capture());
+    assertThat(eventContext.getValue().getProfilingDataSourceIdentifier(), is(strategy.getPoolId()));
+    assertThat(eventContext.getValue().getExtensionEventSubtypeIdentifier(), is(CONNECTION_POOL_BORROW_WAIT));
+    assertThat(eventContext.getValue().get(WAIT_TIME).isPresent(), is(true));
+    assertThat(((LatencyHistogram.Snapshot) eventContext.getValue().get(BORROW_WAIT_TIMES).get()).getCount(), is(2L));
+  }
+
+  @Test
+  public void poolingListenerFailsOnBorrow() throws Exception {
+    initStrategy();
+    final RuntimeException exception = new RuntimeException();
+    doThrow(exception).when(poolingListener).onBorrow(any(Lifecycle.class));
+
+    try {
+      strategy.getConnectionHandler();
+      fail("was expecting poolingListener to fail");
+    } catch (ConnectionException e) {
+      assertThat(e.getCause(), is(sameInstance(exception)));
+      verify(connectionProvider).disconnect(any(Lifecycle.class));
+    }
+  }
+
+  @Test
+  public void asyncBorrowWaitsForRelease() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connection = strategy.getConnectionHandler();
+    Object underlying = connection.getConnection();
+    CompletableFuture<ConnectionHandler<Object>> pending = strategy.getConnectionHandlerAsync();
+    assertThat(pending.isDone(), is(false));
+
+    connection.release();
+    assertThat(pending.get(5, SECONDS).getConnection(), is(sameInstance(underlying)));
+  }
+
+  @Test
+  public void asyncBorrowFailsWhenExhausted() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    initStrategy();
+
+    strategy.getConnectionHandler();
+    try {
+      strategy.getConnectionHandlerAsync().get(5, SECONDS);
+      fail("Was expecting the pool to be exhausted");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(ConnectionException.class)));
+    }
+  }
+
+  @Test
+  public void initialiseAll() throws Exception {
+    poolingProfile = new PoolingProfile(5, 3, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_ALL);
+    initStrategy();
+
+    verify(connectionProvider, times(3)).connect();
+  }
+
+  @Test
+  public void closeDisconnectsIdleConnections() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connection1 = strategy.getConnectionHandler();
+    ConnectionHandler<Object> connection2 = strategy.getConnectionHandler();
+    connection1.release();
+    connection2.release();
+
+    strategy.close();
+    strategy = null;
+
+    verify(connectionProvider, times(2)).disconnect(any());
+  }
+
+  @Test
+  public void closeFailsBorrowerWaitingIndefinitely() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    strategy.getConnectionHandler();
+
+    AtomicReference<Thread> waitingThread = new AtomicReference<>();
+    CompletableFuture<Throwable> borrowError = supplyAsync(() -> {
+      waitingThread.set(currentThread());
+      try {
+        strategy.getConnectionHandler();
+        return null;
+      } catch (ConnectionException e) {
+        return e;
+      }
+    });
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> waitingThread.get() != null
+        && waitingThread.get().getState() == TIMED_WAITING));
+
+    strategy.close();
+    assertThat(borrowError.get(5, SECONDS), is(instanceOf(ConnectionException.class)));
+    strategy = null;
+  }
+
+  private void initStrategy() {
+    strategy = new ConcurrentPoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener,
+                                                                   muleContext, OWNER_CONFIG_NAME, borrowWaitDataProducer);
+  }
+}
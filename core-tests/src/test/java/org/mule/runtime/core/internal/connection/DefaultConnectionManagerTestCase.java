@@ -31,6 +31,9 @@ import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.testmodels.fruit.Apple;
 import org.mule.tck.testmodels.fruit.Banana;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -84,6 +87,24 @@ public class DefaultConnectionManagerTestCase extends AbstractMuleTestCase {
     connectionManager.getConnection(config);
   }
 
+  @Test
+  public void getConnectionAsync() throws Exception {
+    connectionManager.bind(config, connectionProvider);
+    CompletableFuture<ConnectionHandler<Banana>> connectionHandler = connectionManager.getConnectionAsync(config);
+    assertThat(connectionHandler.get().getConnection(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void assertUnboundedConnectionAsync() throws Exception {
+    CompletableFuture<ConnectionHandler<Banana>> connectionHandler = connectionManager.getConnectionAsync(config);
+    assertThat(connectionHandler.isCompletedExceptionally(), is(true));
+    try {
+      connectionHandler.get();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(ConnectionException.class)));
+    }
+  }
+
   @Test
   public void hasBinding() throws Exception {
     assertBound(false);
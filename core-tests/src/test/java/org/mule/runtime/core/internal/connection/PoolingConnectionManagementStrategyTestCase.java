@@ -10,6 +10,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +35,9 @@ import static org.mule.runtime.core.privileged.util.LoggingTestUtils.createMockL
 import static org.mule.runtime.core.privileged.util.LoggingTestUtils.setLogger;
 import static org.mule.runtime.core.privileged.util.LoggingTestUtils.verifyLogRegex;
 import static org.mule.tck.MuleTestUtils.spyInjector;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import static org.slf4j.event.Level.DEBUG;
 
 import org.mule.runtime.api.config.PoolingProfile;
@@ -49,6 +53,9 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 
@@ -156,6 +163,102 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     assertThat(strategy.getConnectionHandler(), is(notNullValue()));
   }
 
+  @Test
+  public void asyncBorrowOfIdleConnection() throws Exception {
+    initStrategy();
+    connection1 = strategy.getConnectionHandler();
+    Object underlying = connection1.getConnection();
+    connection1.release();
+
+    CompletableFuture<ConnectionHandler<Object>> borrowed = strategy.getConnectionHandlerAsync();
+    assertThat(borrowed.isDone(), is(true));
+    assertThat(borrowed.get().getConnection(), is(sameInstance(underlying)));
+  }
+
+  @Test
+  public void asyncBorrowWaitsForReleaseWithoutBlocking() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    try {
+      connection1 = strategy.getConnectionHandler();
+      Object underlying = connection1.getConnection();
+
+      CompletableFuture<ConnectionHandler<Object>> pending = strategy.getConnectionHandlerAsync();
+      assertThat(pending.isDone(), is(false));
+
+      connection1.release();
+      assertThat(pending.get(5, SECONDS).getConnection(), is(sameInstance(underlying)));
+    } finally {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void asyncBorrowDoesNotCreateInCallingThread() throws Exception {
+    AtomicReference<Thread> connectingThread = new AtomicReference<>();
+    when(connectionProvider.connect()).thenAnswer(i -> {
+      connectingThread.set(Thread.currentThread());
+      return mock(Lifecycle.class);
+    });
+    initStrategy();
+    try {
+      assertThat(strategy.getConnectionHandlerAsync().get(5, SECONDS), is(notNullValue()));
+      assertThat(connectingThread.get(), is(not(sameInstance(Thread.currentThread()))));
+    } finally {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void asyncBorrowGetsNewConnectionAfterInvalidation() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    try {
+      connection1 = strategy.getConnectionHandler();
+      Object underlying = connection1.getConnection();
+
+      CompletableFuture<ConnectionHandler<Object>> pending = strategy.getConnectionHandlerAsync();
+      assertThat(pending.isDone(), is(false));
+
+      connection1.invalidate();
+      assertThat(pending.get(5, SECONDS).getConnection(), is(not(sameInstance(underlying))));
+    } finally {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void asyncBorrowTimesOut() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    try {
+      connection1 = strategy.getConnectionHandler();
+      strategy.getConnectionHandlerAsync().get(5, SECONDS);
+      fail("Was expecting the borrow to time out");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(ConnectionException.class)));
+    } finally {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void asyncBorrowFailsOnClose() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    connection1 = strategy.getConnectionHandler();
+    CompletableFuture<ConnectionHandler<Object>> pending = strategy.getConnectionHandlerAsync();
+    try {
+      // give the borrow time to be queued, it must be failed either way
+      Thread.sleep(100);
+      strategy.close();
+      pending.get(5, SECONDS);
+      fail("Was expecting the borrow to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(ConnectionException.class)));
+    }
+  }
+
   @Test
   public void release() throws Exception {
     initStrategy();
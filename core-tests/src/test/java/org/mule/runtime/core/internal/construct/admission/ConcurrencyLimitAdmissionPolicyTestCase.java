@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrencyLimitAdmissionPolicyTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void maxConcurrencyBeforeFirstCompletion() {
+    ConcurrencyLimitAdmissionPolicy policy = new ConcurrencyLimitAdmissionPolicy(100, 2);
+
+    assertThat(policy.tryAdmit(0), is(0L));
+    assertThat(policy.tryAdmit(0), is(0L));
+    assertThat(policy.tryAdmit(0), is(greaterThan(0L)));
+    assertThat(policy.getInFlight(), is(2));
+  }
+
+  @Test
+  public void limitFollowsLittlesLaw() {
+    ConcurrencyLimitAdmissionPolicy policy = new ConcurrencyLimitAdmissionPolicy(150, 64);
+
+    for (int i = 0; i < 4; ++i) {
+      assertThat(policy.tryAdmit(0), is(0L));
+    }
+    // 4 events in flight taking 400ms is a throughput of 10 events per second, so 1.5 events fit in a 150ms latency
+    policy.onCompletion(0, MILLISECONDS.toNanos(400));
+
+    assertThat(policy.getLimit(), is(2));
+    assertThat(policy.getInFlight(), is(3));
+    assertThat(policy.tryAdmit(0), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void limitProbedWhileWithinTarget() {
+    ConcurrencyLimitAdmissionPolicy policy = new ConcurrencyLimitAdmissionPolicy(100, 8);
+
+    policy.tryAdmit(0);
+    policy.onCompletion(0, MILLISECONDS.toNanos(1000));
+    assertThat(policy.getLimit(), is(1));
+
+    // 1 event in flight taking exactly the target latency would keep the estimated limit at 1
+    policy.tryAdmit(0);
+    policy.onCompletion(0, MILLISECONDS.toNanos(100));
+    assertThat(policy.getLimit(), is(2));
+
+    policy.tryAdmit(0);
+    policy.onCompletion(0, MILLISECONDS.toNanos(100));
+    assertThat(policy.getLimit(), is(3));
+  }
+
+  @Test
+  public void limitBoundedByMaxConcurrency() {
+    ConcurrencyLimitAdmissionPolicy policy = new ConcurrencyLimitAdmissionPolicy(1000, 4);
+
+    policy.tryAdmit(0);
+    policy.onCompletion(0, MILLISECONDS.toNanos(1));
+
+    assertThat(policy.getLimit(), is(4));
+  }
+
+  @Test
+  public void abortReleases() {
+    ConcurrencyLimitAdmissionPolicy policy = new ConcurrencyLimitAdmissionPolicy(100, 1);
+
+    assertThat(policy.tryAdmit(0), is(0L));
+    policy.onAbort();
+
+    assertThat(policy.getInFlight(), is(0));
+    assertThat(policy.tryAdmit(0), is(0L));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+import static java.lang.Thread.State.TIMED_WAITING;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+
+@SmallTest
+public class FlowAdmissionControllerTestCase extends AbstractMuleTestCase {
+
+  // long enough for the timed wait not to be what wakes up the waiting thread
+  private static final long TARGET_LATENCY_MILLIS = SECONDS.toMillis(60);
+
+  private final FlowConstructStatistics statistics = mock(FlowConstructStatistics.class);
+  private final List<BiConsumer<CoreEvent, Throwable>> completionCallbacks = new ArrayList<>();
+
+  @Test
+  public void waitingThreadWokenUpOnCompletion() throws Exception {
+    FlowAdmissionController controller =
+        new FlowAdmissionController(singletonList(new ConcurrencyLimitAdmissionPolicy(TARGET_LATENCY_MILLIS, 1)), statistics);
+
+    assertThat(controller.tryAdmit(mockEvent()), is(0L));
+
+    CoreEvent waitingEvent = mockEvent();
+    CompletableFuture<Void> admitted = new CompletableFuture<>();
+    Thread waiting = new Thread(() -> {
+      try {
+        controller.admit(waitingEvent);
+        admitted.complete(null);
+      } catch (Throwable t) {
+        admitted.completeExceptionally(t);
+      }
+    });
+    waiting.start();
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> waiting.getState() == TIMED_WAITING));
+
+    completionCallbacks.get(0).accept(null, null);
+
+    admitted.get(5, SECONDS);
+    verify(statistics, times(2)).incAdmittedEvents();
+  }
+
+  @Test
+  public void notAdmittedDoesNotCount() {
+    FlowAdmissionController controller =
+        new FlowAdmissionController(singletonList(new ConcurrencyLimitAdmissionPolicy(TARGET_LATENCY_MILLIS, 1)), statistics);
+
+    assertThat(controller.tryAdmit(mockEvent()), is(0L));
+    assertThat(controller.tryAdmit(mockEvent()), is(greaterThan(0L)));
+
+    verify(statistics).incAdmittedEvents();
+    verify(statistics, never()).incRejectedEvents();
+    assertThat(completionCallbacks.size(), is(1));
+  }
+
+  private CoreEvent mockEvent() {
+    BaseEventContext context = mock(BaseEventContext.class);
+    doAnswer(inv -> {
+      synchronized (completionCallbacks) {
+        completionCallbacks.add(inv.getArgument(0));
+      }
+      return null;
+    }).when(context).onComplete(any());
+
+    CoreEvent event = mock(CoreEvent.class);
+    when(event.getContext()).thenReturn(context);
+    return event;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class TokenBucketAdmissionPolicyTestCase extends AbstractMuleTestCase {
+
+  private static final long START = 1_000_000_000L;
+
+  @Test
+  public void admitsBurst() {
+    TokenBucketAdmissionPolicy policy = new TokenBucketAdmissionPolicy(10, 3, START);
+
+    assertThat(policy.tryAdmit(START), is(0L));
+    assertThat(policy.tryAdmit(START), is(0L));
+    assertThat(policy.tryAdmit(START), is(0L));
+    assertThat(policy.tryAdmit(START), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void rejectedReportsTimeUntilNextToken() {
+    TokenBucketAdmissionPolicy policy = new TokenBucketAdmissionPolicy(10, 1, START);
+
+    assertThat(policy.tryAdmit(START), is(0L));
+    assertThat(policy.tryAdmit(START), is(MILLISECONDS.toNanos(100)));
+    assertThat(policy.tryAdmit(START + MILLISECONDS.toNanos(40)), is(MILLISECONDS.toNanos(60)));
+  }
+
+  @Test
+  public void refillsAtRate() {
+    TokenBucketAdmissionPolicy policy = new TokenBucketAdmissionPolicy(10, 1, START);
+
+    assertThat(policy.tryAdmit(START), is(0L));
+    assertThat(policy.tryAdmit(START + MILLISECONDS.toNanos(100)), is(0L));
+    assertThat(policy.tryAdmit(START + MILLISECONDS.toNanos(150)), is(greaterThan(0L)));
+    assertThat(policy.tryAdmit(START + MILLISECONDS.toNanos(200)), is(0L));
+  }
+
+  @Test
+  public void idleTimeDoesNotAccumulateBeyondBurst() {
+    TokenBucketAdmissionPolicy policy = new TokenBucketAdmissionPolicy(10, 2, START);
+    long later = START + MILLISECONDS.toNanos(10_000);
+
+    assertThat(policy.tryAdmit(later), is(0L));
+    assertThat(policy.tryAdmit(later), is(0L));
+    assertThat(policy.tryAdmit(later), is(greaterThan(0L)));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.metadata.DataType.NUMBER;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.internal.el.CompiledExpressionCache.shape;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+@SmallTest
+public class CompiledExpressionCacheTestCase extends AbstractMuleTestCase {
+
+  private final CompiledExpressionCache cache = new CompiledExpressionCache(2);
+  private final AtomicInteger compilations = new AtomicInteger();
+  private final Function<String, CompiledExpression> compiler = expression -> {
+    compilations.incrementAndGet();
+    return mock(CompiledExpression.class);
+  };
+
+  @Test
+  public void sameShapeReusesCompiledExpression() {
+    CompiledExpression first = cache.compile("vars.foo", shape(true, false, context("hello")), compiler);
+    CompiledExpression second = cache.compile("vars.foo", shape(true, false, context("bye")), compiler);
+
+    assertThat(second, is(sameInstance(first)));
+    assertThat(compilations.get(), is(1));
+  }
+
+  @Test
+  public void bindingTypesAreNotPartOfTheShape() {
+    CompiledExpression first = cache.compile("vars.foo", shape(false, false, context("hello")), compiler);
+    CompiledExpression second = cache.compile("vars.foo", shape(false, false, BindingContext.builder()
+        .addBinding("vars", new TypedValue<>(1, NUMBER))
+        .build()), compiler);
+
+    assertThat(second, is(sameInstance(first)));
+    assertThat(compilations.get(), is(1));
+  }
+
+  @Test
+  public void differentIdentifiersCompileAgain() {
+    CompiledExpression first = cache.compile("vars.foo", shape(false, false, context("hello")), compiler);
+    CompiledExpression second = cache.compile("vars.foo", shape(false, false, BindingContext.builder()
+        .addBinding("other", new TypedValue<>("hello", STRING))
+        .build()), compiler);
+
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(compilations.get(), is(2));
+  }
+
+  @Test
+  public void eventAndLocationBindingsArePartOfTheShape() {
+    cache.compile("vars.foo", shape(false, false, NULL_BINDING_CONTEXT), compiler);
+    cache.compile("vars.foo", shape(true, false, NULL_BINDING_CONTEXT), compiler);
+    cache.compile("vars.foo", shape(true, true, NULL_BINDING_CONTEXT), compiler);
+
+    assertThat(compilations.get(), is(3));
+  }
+
+  @Test
+  public void emptyContextShapeNotCreatedAgain() {
+    assertThat(shape(true, true, NULL_BINDING_CONTEXT), is(sameInstance(shape(true, true, null))));
+  }
+
+  @Test
+  public void differentExpressionCompilesAgain() {
+    cache.compile("vars.foo", shape(false, false, context("hello")), compiler);
+    cache.compile("vars.bar", shape(false, false, context("hello")), compiler);
+
+    assertThat(compilations.get(), is(2));
+  }
+
+  @Test
+  public void invalidateAll() {
+    CompiledExpression first = cache.compile("vars.foo", shape(false, false, context("hello")), compiler);
+    cache.invalidateAll();
+
+    assertThat(cache.compile("vars.foo", shape(false, false, context("hello")), compiler), is(not(sameInstance(first))));
+    assertThat(compilations.get(), is(2));
+  }
+
+  private BindingContext context(String value) {
+    return BindingContext.builder().addBinding("vars", new TypedValue<>(value, STRING)).build();
+  }
+}
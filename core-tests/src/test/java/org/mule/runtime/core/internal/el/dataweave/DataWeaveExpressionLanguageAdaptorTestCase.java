@@ -33,6 +33,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
@@ -76,6 +77,7 @@ import org.mule.runtime.api.el.DefaultExpressionLanguageFactoryService;
 import org.mule.runtime.api.el.ExpressionCompilationException;
 import org.mule.runtime.api.el.ExpressionExecutionException;
 import org.mule.runtime.api.el.ExpressionLanguage;
+import org.mule.runtime.api.el.ExpressionLanguageSession;
 import org.mule.runtime.api.exception.DefaultMuleException;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Error;
@@ -141,6 +143,7 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
   public void before() {
     genericExpressionLanguageService = mock(DefaultExpressionLanguageFactoryService.class);
     when(genericExpressionLanguageService.create(any())).thenReturn(genericExpressionLanguage);
+    doReturn(mock(ExpressionLanguageSession.class)).when(genericExpressionLanguage).openSession(any());
   }
 
   @Test
@@ -492,7 +495,7 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
                                            genericExpressionLanguageService, getFeatureFlaggingService())
                                                .evaluate("#[payload]", testEvent(), bindingContext);
-    verify(genericExpressionLanguage, never()).evaluate(eq("payload"), any(BindingContext.class));
+    verify(genericExpressionLanguage, never()).compile(eq("payload"), any(BindingContext.class));
   }
 
   @Test
@@ -501,7 +504,8 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
                                            genericExpressionLanguageService, getFeatureFlaggingService())
                                                .evaluate("#['Hello World']", null, bindingContext);
-    verify(genericExpressionLanguage).evaluate(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).compile(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).openSession(eq(bindingContext));
   }
 
   @Test
@@ -510,7 +514,8 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
                                            genericExpressionLanguageService, getFeatureFlaggingService())
                                                .evaluate("#['Hello World']", OBJECT, null, bindingContext);
-    verify(genericExpressionLanguage).evaluate(anyString(), eq(OBJECT), eq(bindingContext));
+    verify(genericExpressionLanguage).compile(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).openSession(eq(bindingContext));
   }
 
   @Test
@@ -519,7 +524,8 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
                                            genericExpressionLanguageService, getFeatureFlaggingService())
                                                .evaluate("#['Hello World']", OBJECT, null, null, bindingContext, false);
-    verify(genericExpressionLanguage).evaluate(anyString(), eq(OBJECT), eq(bindingContext));
+    verify(genericExpressionLanguage).compile(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).openSession(eq(bindingContext));
   }
 
   @Test
@@ -528,7 +534,8 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
                                            genericExpressionLanguageService, getFeatureFlaggingService())
                                                .evaluate("#['Hello World']", null, null, null, bindingContext);
-    verify(genericExpressionLanguage).evaluate(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).compile(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).openSession(eq(bindingContext));
   }
 
   @Test
@@ -537,7 +544,23 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
                                            genericExpressionLanguageService, getFeatureFlaggingService())
                                                .evaluateLogExpression("#['Hello World']", null, null, bindingContext);
-    verify(genericExpressionLanguage).evaluateLogExpression(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).compile(anyString(), eq(bindingContext));
+    verify(genericExpressionLanguage).openSession(eq(bindingContext));
+  }
+
+  @Test
+  @Description("Evaluating the same expression with contexts of the same shape compiles it only once.")
+  public void evaluationsReuseCompiledExpression() throws MuleException {
+    doReturn(mock(CompiledExpression.class)).when(genericExpressionLanguage).compile(anyString(), any(BindingContext.class));
+    DataWeaveExpressionLanguageAdaptor adaptor =
+        new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
+                                               genericExpressionLanguageService, getFeatureFlaggingService());
+
+    adaptor.evaluate("#['Hello World']", testEvent(), bindingContext);
+    adaptor.evaluate("#['Hello World']", testEvent(), bindingContext);
+
+    verify(genericExpressionLanguage, times(1)).compile(anyString(), any(BindingContext.class));
+    verify(genericExpressionLanguage, times(2)).openSession(any(BindingContext.class));
   }
 
   @Test
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.internal.event.ProcessorStartTimes.NOT_STARTED;
+import static org.mule.runtime.core.internal.event.ProcessorStartTimes.end;
+import static org.mule.runtime.core.internal.event.ProcessorStartTimes.start;
+
+import static java.util.Optional.empty;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.event.EventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class ProcessorStartTimesTestCase extends AbstractMuleTestCase {
+
+  private final EventContext context =
+      create("id", ProcessorStartTimesTestCase.class.getName(), TEST_CONNECTOR_LOCATION, null, empty());
+  private final Object scope = new Object();
+  private final Object inner = new Object();
+
+  @Test
+  public void nestedProcessors() {
+    start(context, scope, 1);
+    start(context, inner, 2);
+
+    assertThat(end(context, inner), is(2L));
+    assertThat(end(context, scope), is(1L));
+    assertThat(end(context, scope), is(NOT_STARTED));
+  }
+
+  @Test
+  public void processorThatNeverEndedIsDiscarded() {
+    start(context, scope, 1);
+    start(context, inner, 2);
+
+    assertThat(end(context, scope), is(1L));
+    assertThat(end(context, inner), is(NOT_STARTED));
+  }
+
+  @Test
+  public void processorStartedAgain() {
+    start(context, scope, 1);
+    start(context, inner, 2);
+    start(context, inner, 3);
+
+    assertThat(end(context, inner), is(3L));
+    assertThat(end(context, inner), is(NOT_STARTED));
+    assertThat(end(context, scope), is(1L));
+  }
+
+  @Test
+  public void manyProcessors() {
+    Object[] processors = new Object[10];
+    for (int i = 0; i < processors.length; ++i) {
+      processors[i] = new Object();
+      start(context, processors[i], i);
+    }
+
+    for (int i = processors.length - 1; i >= 0; --i) {
+      assertThat(end(context, processors[i]), is((long) i));
+    }
+  }
+
+  @Test
+  public void otherContextsNotMeasured() {
+    EventContext other = mock(EventContext.class);
+    start(other, scope, 1);
+
+    assertThat(end(other, scope), is(NOT_STARTED));
+  }
+}
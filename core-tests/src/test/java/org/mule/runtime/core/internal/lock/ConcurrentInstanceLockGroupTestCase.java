@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentInstanceLockGroupTestCase extends AbstractMuleTestCase {
+
+  private static final int THREAD_COUNT = 50;
+  private static final int ITERATIONS_PER_THREAD = 200;
+  private static final int LOCK_IDS = 10;
+
+  private final TestLockProviderWrapper lockProvider = new TestLockProviderWrapper(new SingleServerLockProvider());
+  private final ConcurrentInstanceLockGroup lockGroup = new ConcurrentInstanceLockGroup(lockProvider);
+
+  @Test
+  public void singleServerProviderCreatesConcurrentGroup() {
+    assertThat(new SingleServerLockProvider().createLockGroup(1000), is(instanceOf(ConcurrentInstanceLockGroup.class)));
+  }
+
+  @Test
+  public void mutualExclusionOnManyIds() throws Exception {
+    testHighConcurrency(false);
+  }
+
+  @Test
+  public void mutualExclusionOnManyIdsWithTryLock() throws Exception {
+    testHighConcurrency(true);
+  }
+
+  @Test
+  public void entriesAreRemovedWhenUnlocked() {
+    lockGroup.lock("a");
+    lockGroup.lock("a");
+    lockGroup.lock("b");
+    assertThat(lockGroup.size(), is(2));
+
+    lockGroup.unlock("a");
+    assertThat(lockGroup.size(), is(2));
+    lockGroup.unlock("a");
+    lockGroup.unlock("b");
+    assertThat(lockGroup.size(), is(0));
+  }
+
+  @Test
+  public void failedTryLockDoesNotKeepEntry() throws Exception {
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread owner = new Thread(() -> {
+      lockGroup.lock("a");
+      locked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        lockGroup.unlock("a");
+      }
+    });
+    owner.start();
+    locked.await();
+
+    assertThat(lockGroup.tryLock("a"), is(false));
+    assertThat(lockGroup.tryLock("a", 10, MILLISECONDS), is(false));
+    assertThat(lockGroup.size(), is(1));
+
+    release.countDown();
+    owner.join();
+    assertThat(lockGroup.size(), is(0));
+  }
+
+  @Test
+  public void whenTryLockIsInterruptedTheLockGroupDoesNotGenerateALockEntry() {
+    lockProvider.makeLocksRaiseExceptions();
+
+    try {
+      lockGroup.tryLock("a", 5L, SECONDS);
+      fail("tryLock should have thrown an InterruptedException");
+    } catch (InterruptedException e) {
+      assertThat(lockGroup.size(), is(0));
+    }
+  }
+
+  @Test
+  public void whenUnlockRaisesIllegalMonitorStateExceptionTheLockGroupDoesNotReleaseTheEntry() {
+    lockGroup.lock("a");
+    lockProvider.makeLocksRaiseExceptions();
+
+    try {
+      lockGroup.unlock("a");
+      fail("unlock should have thrown a IllegalMonitorStateException");
+    } catch (IllegalMonitorStateException e) {
+      assertThat(lockGroup.size(), is(1));
+    }
+  }
+
+  @Test
+  public void disposeWaitsForLocksToBeUnlocked() throws Exception {
+    lockGroup.lock("a");
+
+    AtomicReference<Boolean> emptyAfterDispose = new AtomicReference<>();
+    Thread disposer = new Thread(() -> {
+      lockGroup.dispose();
+      emptyAfterDispose.set(lockGroup.size() == 0);
+    });
+    disposer.start();
+
+    Thread.sleep(100);
+    lockGroup.unlock("a");
+    disposer.join();
+
+    assertThat(emptyAfterDispose.get(), is(true));
+  }
+
+  private void testHighConcurrency(boolean useTryLock) throws InterruptedException {
+    // the test provider wrapper is not thread safe
+    ConcurrentInstanceLockGroup concurrentLockGroup = new ConcurrentInstanceLockGroup(new SingleServerLockProvider());
+    int[] counters = new int[LOCK_IDS];
+    AtomicInteger failures = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT);
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < ITERATIONS_PER_THREAD; i++) {
+            int id = i % LOCK_IDS;
+            String key = "key-" + id;
+            if (useTryLock) {
+              while (!concurrentLockGroup.tryLock(key, 100, MILLISECONDS));
+            } else {
+              concurrentLockGroup.lock(key);
+            }
+            try {
+              counters[id]++;
+            } finally {
+              concurrentLockGroup.unlock(key);
+            }
+          }
+        } catch (Exception e) {
+          failures.incrementAndGet();
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failures.get(), is(0));
+    for (int counter : counters) {
+      assertThat(counter, is(THREAD_COUNT * ITERATIONS_PER_THREAD / LOCK_IDS));
+    }
+    assertThat(concurrentLockGroup.size(), is(0));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.mule.runtime.core.internal.management.stats.LatencyHistogram.bucketIndex;
+import static org.mule.runtime.core.internal.management.stats.LatencyHistogram.highestValueInBucket;
+
+import static java.lang.Long.MAX_VALUE;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void empty() {
+    assertThat(histogram.getCount(), is(0L));
+    assertThat(histogram.getValueAtPercentile(99), is(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long i = 1; i <= 10; ++i) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getCount(), is(10L));
+    assertThat(histogram.getValueAtPercentile(50), is(5L));
+    assertThat(histogram.getValueAtPercentile(90), is(9L));
+    assertThat(histogram.getValueAtPercentile(100), is(10L));
+  }
+
+  @Test
+  public void largeValuesWithinPrecision() {
+    for (long i = 1; i <= 10000; ++i) {
+      histogram.record(i);
+    }
+
+    long p99 = histogram.getValueAtPercentile(99);
+    assertThat(p99, greaterThanOrEqualTo(9900L));
+    assertThat(p99, lessThanOrEqualTo((long) (9900 * 1.07)));
+  }
+
+  @Test
+  public void bucketsCoverAllValues() {
+    long[] values = {0, 31, 32, 33, 63, 64, 1000, 123456789, MAX_VALUE};
+    for (long value : values) {
+      int index = bucketIndex(value);
+      assertThat(highestValueInBucket(index), greaterThanOrEqualTo(value));
+      if (index > 0) {
+        assertThat(highestValueInBucket(index - 1), is(lessThanOrEqualTo(value - 1)));
+      }
+    }
+  }
+
+  @Test
+  public void snapshotNotAffectedByLaterValues() {
+    histogram.record(5);
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    histogram.record(500);
+
+    assertThat(snapshot.getCount(), is(1L));
+    assertThat(snapshot.getValueAtPercentile(100), is(5L));
+  }
+
+  @Test
+  public void clear() {
+    histogram.record(5);
+    histogram.clear();
+
+    assertThat(histogram.getCount(), is(0L));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.mule.runtime.core.internal.construct.AbstractFlowConstruct.FLOW_FLOW_CONSTRUCT_TYPE;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.runtime.core.api.management.stats.AllStatistics;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatisticsSnapshot;
+import org.mule.runtime.core.api.management.stats.ResetOnQueryCounter;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class StripedFlowConstructStatisticsTestCase extends AbstractMuleTestCase {
+
+  private final StripedFlowConstructStatistics statistics =
+      new StripedFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow");
+
+  @Before
+  public void before() {
+    statistics.setEnabled(true);
+  }
+
+  @Test
+  public void countersIgnoredWhenDisabled() {
+    statistics.setEnabled(false);
+    statistics.incReceivedEvents();
+    statistics.incExecutionError();
+
+    assertThat(statistics.getTotalEventsReceived(), is(0L));
+    assertThat(statistics.getExecutionErrors(), is(0L));
+  }
+
+  @Test
+  public void processingTimesSameAsDefault() {
+    DefaultFlowConstructStatistics defaultStatistics = new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow");
+    defaultStatistics.setEnabled(true);
+
+    recordProcessingTimes(defaultStatistics);
+    recordProcessingTimes(statistics);
+
+    assertThat(statistics.getProcessedEvents(), is(defaultStatistics.getProcessedEvents()));
+    assertThat(statistics.getTotalProcessingTime(), is(defaultStatistics.getTotalProcessingTime()));
+    assertThat(statistics.getAverageProcessingTime(), is(defaultStatistics.getAverageProcessingTime()));
+    assertThat(statistics.getMaxProcessingTime(), is(defaultStatistics.getMaxProcessingTime()));
+    assertThat(statistics.getMinProcessingTime(), is(defaultStatistics.getMinProcessingTime()));
+  }
+
+  private void recordProcessingTimes(FlowConstructStatistics statistics) {
+    statistics.addFlowExecutionBranchTime(25, 25);
+    statistics.addFlowExecutionBranchTime(25, 50);
+    statistics.addCompleteFlowExecutionTime(50);
+    statistics.addFlowExecutionBranchTime(10, 10);
+    statistics.addCompleteFlowExecutionTime(10);
+  }
+
+  @Test
+  public void completeTimeIgnoredWithoutProcessedEvents() {
+    // the first branch of the event was recorded before clearing the statistics
+    statistics.addCompleteFlowExecutionTime(5);
+    statistics.addFlowExecutionBranchTime(10, 10);
+    statistics.addCompleteFlowExecutionTime(10);
+
+    assertThat(statistics.getMinProcessingTime(), is(10L));
+    assertThat(statistics.snapshot().getProcessingTimes().getCount(), is(1L));
+  }
+
+  @Test
+  public void clear() {
+    statistics.incReceivedEvents();
+    statistics.addFlowExecutionBranchTime(10, 10);
+    statistics.addCompleteFlowExecutionTime(10);
+    statistics.clear();
+
+    assertThat(statistics.getTotalEventsReceived(), is(0L));
+    assertThat(statistics.getProcessedEvents(), is(0L));
+    assertThat(statistics.getMinProcessingTime(), is(0L));
+    assertThat(statistics.getMaxProcessingTime(), is(0L));
+    assertThat(statistics.snapshot().getProcessingTimes().getCount(), is(0L));
+  }
+
+  @Test
+  public void resetOnQueryCounterNotAffectedByClear() {
+    statistics.incReceivedEvents();
+    ResetOnQueryCounter counter = statistics.getEventsReceivedCounter();
+    statistics.incReceivedEvents();
+    statistics.clear();
+
+    assertThat(counter.getAndReset(), is(2L));
+    assertThat(counter.get(), is(0L));
+  }
+
+  @Test
+  public void snapshot() {
+    statistics.incReceivedEvents();
+    statistics.addFlowExecutionBranchTime(10, 10);
+    statistics.addCompleteFlowExecutionTime(10);
+    statistics.addProcessorExecutionTime("flow/processors/0", 4);
+
+    FlowConstructStatisticsSnapshot snapshot = statistics.snapshot();
+    statistics.incReceivedEvents();
+
+    assertThat(snapshot.getName(), is("flow"));
+    assertThat(snapshot.getReceivedEvents(), is(1L));
+    assertThat(snapshot.getProcessingTimes().getValueAtPercentile(50), is(10L));
+    assertThat(snapshot.getProcessorProcessingTimes(), hasKey("flow/processors/0"));
+    assertThat(snapshot.getProcessorProcessingTimes().get("flow/processors/0").getValueAtPercentile(50), is(4L));
+  }
+
+  @Test
+  public void snapshotFromAllStatistics() {
+    AllStatistics allStatistics = new AllStatistics();
+    allStatistics.add(statistics);
+    statistics.setEnabled(true);
+    statistics.incReceivedEvents();
+
+    assertThat(allStatistics.getFlowConstructStatisticsSnapshot("flow").get().getReceivedEvents(), is(1L));
+    assertThat(allStatistics.getFlowConstructStatisticsSnapshot("other").isPresent(), is(false));
+  }
+
+  @Test
+  public void deserialized() {
+    statistics.incReceivedEvents();
+    statistics.addProcessorExecutionTime("flow/processors/0", 4);
+
+    StripedFlowConstructStatistics deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(statistics));
+    deserialized.incReceivedEvents();
+    deserialized.addProcessorExecutionTime("flow/processors/0", 4);
+
+    assertThat(deserialized.getTotalEventsReceived(), is(2L));
+    assertThat(deserialized.getEventsReceivedCounter().get(), is(2L));
+    assertThat(deserialized.snapshot().getProcessorProcessingTimes().get("flow/processors/0").getCount(), is(1L));
+  }
+
+  @Test
+  public void concurrentIncrements() throws Exception {
+    ExecutorService executor = newFixedThreadPool(4);
+    try {
+      for (int i = 0; i < 4; ++i) {
+        executor.submit(() -> {
+          for (int j = 0; j < 1000; ++j) {
+            statistics.incReceivedEvents();
+            statistics.addFlowExecutionBranchTime(1, 1);
+          }
+        });
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, SECONDS);
+    }
+
+    assertThat(statistics.getTotalEventsReceived(), is(4000L));
+    assertThat(statistics.getProcessedEvents(), is(4000L));
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimit.NO_PERMIT;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.ADAPTIVE;
+
+import static java.util.Collections.sort;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+@Story(ADAPTIVE)
+public class AdaptiveConcurrencyLimitTestCase extends AbstractMuleTestCase {
+
+  private static final long WINDOW = 10;
+  private static final long LATENCY = 1000;
+  private static final int WORKERS = 8;
+  private static final long SERVICE_TIME = 1000;
+
+  private long now = 0;
+  private final Deque<long[]> queued = new ArrayDeque<>();
+
+  @Test
+  public void limitIsEnforced() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 100, WINDOW, now);
+
+    int permit = limit.tryAcquire();
+    assertThat(permit, is(not(NO_PERMIT)));
+    assertThat(limit.tryAcquire(), is(not(NO_PERMIT)));
+    assertThat(limit.tryAcquire(), is(NO_PERMIT));
+
+    limit.releaseWithoutSample(permit);
+    assertThat(limit.tryAcquire(), is(not(NO_PERMIT)));
+    assertThat(limit.getInFlight(), is(2));
+  }
+
+  @Test
+  public void releaseOfPermitAcquiredBeforeResetIsIgnored() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 100, WINDOW, now);
+
+    int beforeReset = limit.tryAcquire();
+    limit.reset();
+    int afterReset = limit.tryAcquire();
+
+    limit.release(beforeReset, LATENCY, now);
+    limit.releaseWithoutSample(beforeReset);
+    assertThat(limit.getInFlight(), is(1));
+
+    limit.releaseWithoutSample(afterReset);
+    assertThat(limit.getInFlight(), is(0));
+  }
+
+  @Test
+  public void growsWhileLatencyIsStable() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, WINDOW, now);
+
+    runWindows(limit, 50, LATENCY);
+
+    assertThat(limit.getLimit(), greaterThan(10));
+  }
+
+  @Test
+  public void doesNotGrowWhenNotReached() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, WINDOW, now);
+
+    for (int i = 0; i < 50; i++) {
+      now += WINDOW;
+      limit.release(limit.tryAcquire(), LATENCY, now);
+    }
+
+    assertThat(limit.getLimit(), is(10));
+  }
+
+  @Test
+  public void shrinksWhenLatencyGoesUp() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, WINDOW, now);
+    runWindows(limit, 20, LATENCY);
+    int stableLimit = limit.getLimit();
+
+    runWindows(limit, 10, LATENCY * 5);
+
+    assertThat(limit.getLimit(), lessThan(stableLimit));
+  }
+
+  @Test
+  public void shrinksOnOverload() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, WINDOW, now);
+
+    for (int i = 0; i < 10; i++) {
+      limit.onOverload();
+      runWindows(limit, 1, LATENCY);
+    }
+
+    assertThat(limit.getLimit(), lessThan(20));
+  }
+
+  @Test
+  public void staysWithinBounds() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 4, 12, WINDOW, now);
+
+    runWindows(limit, 200, LATENCY);
+    assertThat(limit.getLimit(), is(12));
+
+    for (int i = 0; i < 200; i++) {
+      limit.onOverload();
+      runWindows(limit, 1, LATENCY);
+    }
+    assertThat(limit.getLimit(), is(4));
+  }
+
+  @Test
+  public void p99LatencyStaysLowUnderSustainedOverload() {
+    AdaptiveConcurrencyLimit adaptive = new AdaptiveConcurrencyLimit(32, WORKERS, 1000, WINDOW * SERVICE_TIME, now);
+    AdaptiveConcurrencyLimit fixed = new AdaptiveConcurrencyLimit(1000, 1000, 1000, WINDOW * SERVICE_TIME, now);
+
+    long adaptiveP99 = p99(simulateOverload(adaptive, 20000, 20000));
+    long fixedP99 = p99(simulateOverload(fixed, 20000, 20000));
+
+    // the adaptive limit keeps just enough events in flight to keep the workers busy
+    assertThat(adaptiveP99, lessThanOrEqualTo(SERVICE_TIME * 4));
+    assertThat(adaptiveP99, lessThan(fixedP99 / 10));
+  }
+
+  @Test
+  public void noLoadLatencyIsProbedAfterSlowdown() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(32, 1, 1000, WINDOW * SERVICE_TIME, now);
+
+    List<Long> latencies = simulateOverload(limit, 20000, 10000);
+    int limitBeforeSlowdown = limit.getLimit();
+    latencies.clear();
+    // after the processing gets slower, the limit must not stay pinned to its minimum
+    long slowerServiceTime = SERVICE_TIME * 3;
+    for (int tick = 0; tick < 10000; tick++) {
+      latencies.addAll(runTick(limit, slowerServiceTime));
+    }
+
+    assertThat(limit.getLimit(), greaterThan(WORKERS));
+    assertThat(limit.getLimit(), lessThanOrEqualTo(limitBeforeSlowdown * 2));
+    assertThat(p99(latencies), lessThanOrEqualTo(slowerServiceTime * 4));
+  }
+
+  /**
+   * Simulates a source which always has events to process, feeding a flow that can process {@link #WORKERS} events each
+   * {@link #SERVICE_TIME}. Events wait in a queue until a worker can take them.
+   *
+   * @return the latencies of the events completed after the warm up ticks
+   */
+  private List<Long> simulateOverload(AdaptiveConcurrencyLimit limit, int ticks, int warmUpTicks) {
+    List<Long> latencies = new ArrayList<>();
+    for (int tick = 0; tick < ticks; tick++) {
+      List<Long> tickLatencies = runTick(limit, SERVICE_TIME);
+      if (tick >= warmUpTicks) {
+        latencies.addAll(tickLatencies);
+      }
+    }
+    return latencies;
+  }
+
+  private List<Long> runTick(AdaptiveConcurrencyLimit limit, long serviceTime) {
+    int permit;
+    while ((permit = limit.tryAcquire()) != NO_PERMIT) {
+      queued.add(new long[] {now, permit});
+    }
+
+    now += serviceTime;
+    List<Long> latencies = new ArrayList<>();
+    for (int i = 0; i < WORKERS && !queued.isEmpty(); i++) {
+      long[] event = queued.poll();
+      latencies.add(now - event[0]);
+      limit.release((int) event[1], now - event[0], now);
+    }
+    return latencies;
+  }
+
+  private static long p99(List<Long> latencies) {
+    sort(latencies);
+    return latencies.get((int) (latencies.size() * 0.99));
+  }
+
+  private void runWindows(AdaptiveConcurrencyLimit limit, int windows, long latency) {
+    for (int i = 0; i < windows; i++) {
+      List<Integer> permits = new ArrayList<>();
+      int permit;
+      while ((permit = limit.tryAcquire()) != NO_PERMIT) {
+        permits.add(permit);
+      }
+
+      now += WINDOW;
+      for (Integer acquired : permits) {
+        limit.release(acquired, latency, now);
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.mule.runtime.core.api.construct.BackPressureReason.EVENTS_ACCUMULATED;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.ADAPTIVE;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.ReactorSink;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveProactorStreamEmitterProcessingStrategyFactory.AdaptiveRoundRobinReactorSink;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+@Story(ADAPTIVE)
+public class AdaptiveRoundRobinReactorSinkTestCase extends AbstractMuleTestCase {
+
+  private final CoreEvent event = mock(CoreEvent.class);
+  private final AtomicInteger queuedEvents = new AtomicInteger();
+
+  private List<ReactorSink<CoreEvent>> sinks;
+  private AdaptiveRoundRobinReactorSink<CoreEvent> sink;
+
+  @Before
+  public void before() {
+    sinks = asList(mock(ReactorSink.class), mock(ReactorSink.class), mock(ReactorSink.class), mock(ReactorSink.class));
+    // adjust on every event
+    sink = new AdaptiveRoundRobinReactorSink<>(sinks, queuedEvents, 0);
+  }
+
+  @Test
+  public void allEmittersUsedWhileEventsQueue() {
+    for (int i = 0; i < 16; i++) {
+      sink.accept(event);
+    }
+
+    assertThat(sink.getActiveSinks(), is(4));
+    assertThat(queuedEvents.get(), is(16));
+    for (ReactorSink<CoreEvent> emitterSink : sinks) {
+      verify(emitterSink, atLeastOnce()).accept(event);
+    }
+  }
+
+  @Test
+  public void emittersReducedWhenEventsDoNotQueue() {
+    acceptAndDispatch(10);
+
+    assertThat(sink.getActiveSinks(), is(1));
+  }
+
+  @Test
+  public void emittersGrowWhenEventsQueueAgain() {
+    acceptAndDispatch(10);
+
+    for (int i = 0; i < 8; i++) {
+      sink.accept(event);
+    }
+
+    assertThat(sink.getActiveSinks(), is(4));
+  }
+
+  @Test
+  public void rejectedEmissionIsNotQueued() {
+    for (ReactorSink<CoreEvent> emitterSink : sinks) {
+      when(emitterSink.emit(any())).thenReturn(EVENTS_ACCUMULATED);
+    }
+
+    assertThat(sink.emit(event), is(EVENTS_ACCUMULATED));
+    assertThat(queuedEvents.get(), is(0));
+  }
+
+  @Test
+  public void disposeAllEmitters() {
+    acceptAndDispatch(10);
+
+    sink.dispose();
+
+    for (ReactorSink<CoreEvent> emitterSink : sinks) {
+      verify(emitterSink).prepareDispose();
+      verify(emitterSink).dispose();
+      verify(emitterSink, never()).emit(any());
+    }
+  }
+
+  private void acceptAndDispatch(int events) {
+    for (int i = 0; i < events; i++) {
+      sink.accept(event);
+      // as done by the emitter's subscriber
+      queuedEvents.decrementAndGet();
+    }
+  }
+}
@@ -114,6 +114,24 @@ public class FlowProcessingStrategyTestCase extends AbstractMuleTestCase {
                            });
   }
 
+  @Test
+  public void processingStrategySetBySystemPropertyAlias() throws Exception {
+    testWithSystemProperty(ProcessingStrategyFactory.class.getName(), "adaptive", () -> {
+      MuleConfiguration muleConfiguration = new DefaultMuleConfiguration();
+      assertThat(muleConfiguration.getDefaultProcessingStrategyFactory(),
+                 is(instanceOf(AdaptiveProactorStreamEmitterProcessingStrategyFactory.class)));
+    });
+  }
+
+  @Test
+  public void virtualThreadsProcessingStrategySetBySystemPropertyAlias() throws Exception {
+    testWithSystemProperty(ProcessingStrategyFactory.class.getName(), "virtualThreads", () -> {
+      MuleConfiguration muleConfiguration = new DefaultMuleConfiguration();
+      assertThat(muleConfiguration.getDefaultProcessingStrategyFactory(),
+                 is(instanceOf(VirtualThreadProactorStreamEmitterProcessingStrategyFactory.class)));
+    });
+  }
+
 
   public static class TestProcessingStrategyFactory extends AbstractProcessingStrategyFactory {
 
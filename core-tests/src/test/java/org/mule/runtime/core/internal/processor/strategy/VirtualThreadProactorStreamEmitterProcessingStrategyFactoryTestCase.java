@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
+import static org.mule.runtime.core.api.construct.Flow.builder;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.getInstance;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.tck.util.MuleContextUtils.getNotificationDispatcher;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.VIRTUAL_THREADS;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.singletonMap;
+import static java.util.Collections.synchronizedList;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assume.assumeThat;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
+import org.mule.runtime.core.internal.util.rx.VirtualThreadScheduler;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.testmodels.mule.TestTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(PROCESSING_STRATEGIES)
+@Story(VIRTUAL_THREADS)
+public class VirtualThreadProactorStreamEmitterProcessingStrategyFactoryTestCase extends AbstractMuleContextTestCase {
+
+  private final List<Thread> threads = synchronizedList(new ArrayList<>());
+  private final Processor blockingProcessor = new Processor() {
+
+    @Override
+    public CoreEvent process(CoreEvent event) {
+      threads.add(currentThread());
+      return event;
+    }
+
+    @Override
+    public ProcessingType getProcessingType() {
+      return BLOCKING;
+    }
+  };
+
+  private Flow flow;
+
+  @After
+  public void after() throws MuleException {
+    getInstance().rollbackCurrentTransaction();
+    if (flow != null) {
+      flow.stop();
+      flow.dispose();
+    }
+  }
+
+  @Test
+  @Description("When virtual threads are not available, blocking operations run in the IO scheduler.")
+  public void blockingSchedulerFallsBackToIo() {
+    Scheduler scheduler = new UnsupportedVirtualThreadsFactory().getBlockingSchedulerSupplier(muleContext, "test").get();
+    try {
+      assertThat(scheduler, not(instanceOf(VirtualThreadScheduler.class)));
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  @Test
+  public void blockingSchedulerUsesVirtualThreads() {
+    assumeThat("Virtual threads not supported by this JVM", VirtualThreadScheduler.isSupported(), is(true));
+
+    Scheduler scheduler =
+        new VirtualThreadProactorStreamEmitterProcessingStrategyFactory().getBlockingSchedulerSupplier(muleContext, "test").get();
+    try {
+      assertThat(scheduler, instanceOf(VirtualThreadScheduler.class));
+      assertThat(scheduler.getName(), is("test.BLOCKING.virtual"));
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  @Test
+  @Description("Events with an active transaction are processed in the caller thread, without virtual threads available.")
+  public void txWithFallback() throws Exception {
+    assertTxRunsInCallerThread(new UnsupportedVirtualThreadsFactory());
+  }
+
+  @Test
+  @Description("Events with an active transaction are processed in the caller thread, even if virtual threads are available.")
+  public void tx() throws Exception {
+    assertTxRunsInCallerThread(new VirtualThreadProactorStreamEmitterProcessingStrategyFactory());
+  }
+
+  private void assertTxRunsInCallerThread(ProcessingStrategyFactory processingStrategyFactory) throws Exception {
+    flow = builder("test", muleContext)
+        .processingStrategyFactory(processingStrategyFactory)
+        .processors(blockingProcessor)
+        .build();
+    flow.setAnnotations(singletonMap(LOCATION_KEY, from("flow")));
+    flow.initialise();
+    flow.start();
+
+    getInstance().bindTransaction(new TestTransaction("appName", getNotificationDispatcher(muleContext)));
+    flow.process(testEvent());
+
+    assertThat(threads, contains(currentThread()));
+  }
+
+  private static class UnsupportedVirtualThreadsFactory extends VirtualThreadProactorStreamEmitterProcessingStrategyFactory {
+
+    @Override
+    protected boolean isVirtualThreadsSupported() {
+      return false;
+    }
+  }
+}
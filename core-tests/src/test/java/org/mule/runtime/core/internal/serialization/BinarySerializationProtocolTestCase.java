@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.internal.context.DefaultMuleContext.currentMuleContext;
+import static org.mule.tck.util.MuleContextUtils.eventBuilder;
+import static org.mule.test.allure.AllureConstants.SerializationFeature.SERIALIZATION;
+import static org.mule.test.allure.AllureConstants.SerializationFeature.SerializationStory.MESSAGE_SERIALIZATION;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.serialization.BinarySerializationProtocol.TypeSerializer;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(SERIALIZATION)
+@Story(MESSAGE_SERIALIZATION)
+public class BinarySerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  private BinarySerializationProtocol binaryProtocol;
+
+  @Before
+  public void setUp() {
+    currentMuleContext.set(muleContext);
+  }
+
+  @After
+  public void teardown() {
+    currentMuleContext.set(null);
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    binaryProtocol = new BinarySerializationProtocol();
+    binaryProtocol.setMuleContext(muleContext);
+    serializationProtocol = binaryProtocol;
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializableInCollection() throws Exception {
+    List<Object> list = new ArrayList<>();
+    list.add(new Object());
+    serializationProtocol.serialize(list);
+  }
+
+  @Test
+  public void simpleValues() throws Exception {
+    assertRoundTrip("Hello World é世");
+    assertRoundTrip("");
+    assertRoundTrip(true);
+    assertRoundTrip(false);
+    assertRoundTrip(0);
+    assertRoundTrip(-1);
+    assertRoundTrip(Integer.MIN_VALUE);
+    assertRoundTrip(Integer.MAX_VALUE);
+    assertRoundTrip(Long.MIN_VALUE);
+    assertRoundTrip(Long.MAX_VALUE);
+    assertRoundTrip(3.14d);
+    assertRoundTrip(2.5f);
+    assertRoundTrip((short) -3);
+    assertRoundTrip((byte) 7);
+    assertRoundTrip('x');
+    assertRoundTrip(new BigDecimal("-12345678901234567890.0042"));
+    assertRoundTrip(new BigInteger("98765432109876543210"));
+    assertRoundTrip(new Date());
+  }
+
+  @Test
+  public void bytes() throws Exception {
+    byte[] bytes = {1, 2, 3, -1};
+    assertThat(serializationProtocol.deserialize(serializationProtocol.serialize(bytes)), equalTo(bytes));
+  }
+
+  @Test
+  public void collectionsKeepTheirTypeAndOrder() throws Exception {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("z", 1L);
+    map.put("a", null);
+    map.put("m", new HashMap<>(singletonMap("nested", 2)));
+
+    List<Object> list = new ArrayList<>();
+    list.add(map);
+    list.add(new LinkedHashSet<>(asList("c", "b", "a")));
+    list.add("last");
+
+    List<Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+
+    assertThat(deserialized, equalTo(list));
+    assertThat(deserialized.get(0), instanceOf(LinkedHashMap.class));
+    assertThat(new ArrayList<>(((Map<String, Object>) deserialized.get(0)).keySet()), equalTo(asList("z", "a", "m")));
+    assertThat(new ArrayList<>((LinkedHashSet<String>) deserialized.get(1)), equalTo(asList("c", "b", "a")));
+  }
+
+  @Test
+  public void cyclicCollection() throws Exception {
+    List<Object> list = new ArrayList<>();
+    list.add("item");
+    list.add(list);
+
+    List<Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+
+    assertThat(deserialized.get(0), equalTo("item"));
+    assertThat(deserialized.get(1), is(sameInstance(deserialized)));
+  }
+
+  @Test
+  public void message() throws Exception {
+    Map<String, Object> payload = new HashMap<>();
+    payload.put("key", "value");
+
+    Message message = serializationProtocol.deserialize(serializationProtocol.serialize(of(payload)));
+    assertThat(message.getPayload().getValue(), equalTo(payload));
+  }
+
+  @Test
+  public void typedValue() throws Exception {
+    DataType dataType = DataType.builder().type(String.class).mediaType(APPLICATION_JSON).charset(UTF_8).build();
+    TypedValue<String> typedValue = new TypedValue<>("{\"key\": 1}", dataType, OptionalLong.of(12));
+
+    TypedValue<String> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(typedValue));
+
+    assertThat(deserialized.getValue(), equalTo(typedValue.getValue()));
+    assertThat(deserialized.getDataType(), equalTo(dataType));
+    assertThat(deserialized.getDataType().getMediaType().getCharset().get(), equalTo(UTF_8));
+    assertThat(deserialized.getByteLength(), equalTo(OptionalLong.of(12)));
+  }
+
+  @Test
+  public void messageIsWrittenWithoutJavaSerialization() throws Exception {
+    Message message = Message.builder().value("payload").mediaType(APPLICATION_JSON).attributesValue(1L).build();
+
+    byte[] bytes = serializationProtocol.serialize(message);
+    Message deserialized = serializationProtocol.deserialize(bytes);
+
+    assertThat(deserialized.getPayload().getValue(), equalTo("payload"));
+    assertThat(deserialized.getPayload().getDataType().getMediaType().matches(APPLICATION_JSON), is(true));
+    assertThat(deserialized.getAttributes().getValue(), equalTo(1L));
+    assertThat(bytes.length, lessThan(new JavaExternalSerializerProtocol().serialize(message).length / 4));
+  }
+
+  @Test
+  public void event() throws Exception {
+    CoreEvent event = eventBuilder(muleContext)
+        .message(of("payload"))
+        .addVariable("count", 1)
+        .addVariable("name", "value", STRING)
+        .correlationId("legacy")
+        .build();
+
+    CoreEvent deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(event));
+
+    assertThat(deserialized.getContext().getId(), equalTo(event.getContext().getId()));
+    assertThat(deserialized.getCorrelationId(), equalTo(event.getCorrelationId()));
+    assertThat(deserialized.getMessage().getPayload().getValue(), equalTo("payload"));
+    assertThat(deserialized.getVariables().keySet(), equalTo(event.getVariables().keySet()));
+    assertThat(deserialized.getVariables().get("count").getValue(), equalTo(1));
+    assertThat(deserialized.getVariables().get("NAME").getDataType(), equalTo(STRING));
+  }
+
+  @Test
+  public void eventIsSmallerThanJava() throws Exception {
+    CoreEvent event = eventBuilder(muleContext).message(of("payload")).addVariable("count", 1).build();
+
+    byte[] javaBytes = new JavaExternalSerializerProtocol().serialize(event);
+    assertThat(serializationProtocol.serialize(event).length, lessThan(javaBytes.length));
+  }
+
+  @Test
+  public void readsJavaSerializedData() throws Exception {
+    Map<String, Object> map = new HashMap<>();
+    map.put("key", 1);
+
+    byte[] bytes = new JavaExternalSerializerProtocol().serialize(map);
+    assertThat(serializationProtocol.deserialize(bytes), equalTo(map));
+  }
+
+  @Test
+  public void smallerThanJava() throws Exception {
+    Map<String, Object> map = new HashMap<>();
+    map.put("key", 1);
+    map.put("other", "value");
+
+    byte[] javaBytes = new JavaExternalSerializerProtocol().serialize(map);
+    assertThat(serializationProtocol.serialize(map).length, lessThan(javaBytes.length / 4));
+  }
+
+  @Test
+  public void registeredType() throws Exception {
+    binaryProtocol.registerType(1, Point.class, new PointSerializer());
+
+    List<Object> list = new ArrayList<>();
+    list.add(new Point(1, -2));
+
+    List<Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+    assertThat(deserialized, equalTo(list));
+  }
+
+  @Test
+  public void registeredTypesAreIdentifiedRegardlessOfRegistrationOrder() throws Exception {
+    binaryProtocol.registerType(1, Point.class, new PointSerializer());
+    binaryProtocol.registerType(2, Label.class, new LabelSerializer());
+
+    BinarySerializationProtocol otherProtocol = new BinarySerializationProtocol();
+    otherProtocol.setMuleContext(muleContext);
+    otherProtocol.registerType(2, Label.class, new LabelSerializer());
+    otherProtocol.registerType(1, Point.class, new PointSerializer());
+
+    List<Object> list = new ArrayList<>();
+    list.add(new Point(1, -2));
+    list.add(new Label("label"));
+
+    List<Object> deserialized = otherProtocol.deserialize(binaryProtocol.serialize(list));
+    assertThat(deserialized, equalTo(list));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void unknownRegisteredTypeId() throws Exception {
+    binaryProtocol.registerType(1, Point.class, new PointSerializer());
+    byte[] bytes = binaryProtocol.serialize(new Point(1, 2));
+
+    BinarySerializationProtocol otherProtocol = new BinarySerializationProtocol();
+    otherProtocol.setMuleContext(muleContext);
+    otherProtocol.registerType(2, Point.class, new PointSerializer());
+    otherProtocol.deserialize(bytes);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void typeRegisteredTwice() {
+    binaryProtocol.registerType(1, Point.class, new PointSerializer());
+    binaryProtocol.registerType(2, Point.class, new PointSerializer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void idRegisteredTwice() {
+    binaryProtocol.registerType(1, Point.class, new PointSerializer());
+    binaryProtocol.registerType(1, Label.class, new LabelSerializer());
+  }
+
+  @Test(expected = SerializationException.class)
+  public void lengthBeyondRemainingBytes() {
+    // a string of Integer.MAX_VALUE bytes, followed by just 3 bytes
+    binaryProtocol.deserialize(binaryData(3, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 'a', 'b', 'c'));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void negativeLength() {
+    binaryProtocol.deserialize(binaryData(3, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 'a', 'b', 'c'));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void overflowingLength() {
+    binaryProtocol.deserialize(binaryData(3, 0xFF, 0xFF, 0xFF, 0xFF, 0x7F, 'a', 'b', 'c'));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void lengthBeyondEndOfStream() {
+    // a list of Integer.MAX_VALUE elements, from a stream whose size is not known up front
+    byte[] bytes = binaryData(15, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 0);
+    binaryProtocol.deserialize(new BufferedInputStream(new ByteArrayInputStream(bytes)));
+  }
+
+  private static byte[] binaryData(int... content) {
+    byte[] bytes = new byte[content.length + 2];
+    // format header and version
+    bytes[0] = 'M';
+    bytes[1] = 1;
+    for (int i = 0; i < content.length; ++i) {
+      bytes[i + 2] = (byte) content[i];
+    }
+    return bytes;
+  }
+
+  private void assertRoundTrip(Serializable value) throws Exception {
+    Object deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(value));
+    assertThat(deserialized, equalTo(value));
+    assertThat(deserialized.getClass(), equalTo(value.getClass()));
+  }
+
+  private static final class Point {
+
+    private final int x;
+    private final int y;
+
+    private Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Point && ((Point) obj).x == x && ((Point) obj).y == y;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * x + y;
+    }
+  }
+
+  private static final class Label {
+
+    private final String text;
+
+    private Label(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Label && ((Label) obj).text.equals(text);
+    }
+
+    @Override
+    public int hashCode() {
+      return text.hashCode();
+    }
+  }
+
+  private static final class LabelSerializer implements TypeSerializer<Label> {
+
+    @Override
+    public void write(Label value, DataOutput out) throws IOException {
+      out.writeUTF(value.text);
+    }
+
+    @Override
+    public Label read(DataInput in) throws IOException {
+      return new Label(in.readUTF());
+    }
+  }
+
+  private static final class PointSerializer implements TypeSerializer<Point> {
+
+    @Override
+    public void write(Point value, DataOutput out) throws IOException {
+      out.writeInt(value.x);
+      out.writeInt(value.y);
+    }
+
+    @Override
+    public Point read(DataInput in) throws IOException {
+      return new Point(in.readInt(), in.readInt());
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.mule.runtime.core.internal.store.ExpiryTimeWheel.TICK_NANOS;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class ExpiryTimeWheelTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+
+  private final ExpiryTimeWheel wheel = new ExpiryTimeWheel();
+  private final List<Object> expired = new ArrayList<>();
+
+  @Test
+  public void removalOfPreviousValueDoesNotAffectStoredAgainKey() {
+    Object previous = new Object();
+    Object current = new Object();
+
+    // the key was removed and stored again before the removal of the previous value got to the wheel
+    wheel.add(KEY, previous, 0);
+    wheel.add(KEY, current, TICK_NANOS * 2);
+    wheel.remove(KEY, previous);
+
+    assertThat(wheel.size(), is(1));
+
+    wheel.expire(TICK_NANOS * 2 + MILLISECONDS.toNanos(10), 5, (key, value) -> expired.add(value));
+    assertThat(expired, contains(current));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void removalOfCurrentValue() {
+    Object value = new Object();
+    wheel.add(KEY, value, 0);
+    wheel.remove(KEY, value);
+
+    assertThat(wheel.size(), is(0));
+    wheel.expire(TICK_NANOS * 10, 1, (key, v) -> expired.add(v));
+    assertThat(expired.isEmpty(), is(true));
+  }
+
+  @Test
+  public void removalOfUnknownValueIsIgnored() {
+    Object value = new Object();
+    wheel.add(KEY, value, 0);
+    wheel.remove(KEY, new Object());
+
+    assertThat(wheel.size(), is(1));
+  }
+
+  @Test
+  public void entriesInTheSameTickExpireIndividually() {
+    Object first = new Object();
+    Object second = new Object();
+    wheel.add(KEY + 1, first, 0);
+    wheel.add(KEY + 2, second, MILLISECONDS.toNanos(10));
+
+    wheel.expire(MILLISECONDS.toNanos(12), 5, (key, value) -> expired.add(value));
+
+    assertThat(expired, contains(first));
+    assertThat(wheel.size(), is(1));
+  }
+}
@@ -58,6 +58,25 @@ public class CursorProviderJanitorTestCase extends AbstractMuleTestCase {
     verify(provider).releaseResources();
   }
 
+  @Test
+  public void leakedResourcesReleasedOnce() {
+    janitor.releaseLeakedResources();
+    janitor.releaseLeakedResources();
+    janitor.releaseResources();
+
+    verify(provider).releaseResources();
+    verify(statistics).incrementLeakedProviders();
+  }
+
+  @Test
+  public void releasedResourcesNotReportedAsLeaked() {
+    janitor.releaseResources();
+    janitor.releaseLeakedResources();
+
+    verify(provider).releaseResources();
+    verify(statistics, never()).incrementLeakedProviders();
+  }
+
   @Test
   public void releaseSingleCursorOnOpenProvider() {
     when(provider.isClosed()).thenReturn(false);
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static org.mule.runtime.core.internal.streaming.IdentifiableCursorProviderDecorator.of;
+import static org.mule.tck.probe.PollingProber.DEFAULT_POLLING_INTERVAL;
+import static org.mule.tck.probe.PollingProber.check;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.STREAM_MANAGEMENT;
+
+import static java.lang.System.gc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.internal.streaming.bytes.ManagedCursorStreamProvider;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(STREAM_MANAGEMENT)
+public class EventStreamingStateTestCase extends AbstractMuleTestCase {
+
+  private static final int GC_POLLING_TIMEOUT = 10000;
+
+  private final AtomicStreamingStatistics statistics = new AtomicStreamingStatistics();
+  private final List<WeakReference<ManagedCursorProvider>> references = new ArrayList<>();
+
+  // not started, so collected providers are only released by the streaming state
+  private final StreamingGhostBuster ghostBuster = new StreamingGhostBuster() {
+
+    @Override
+    public WeakReference<ManagedCursorProvider> track(ManagedCursorProvider cursorProvider) {
+      WeakReference<ManagedCursorProvider> reference = super.track(cursorProvider);
+      references.add(reference);
+      return reference;
+    }
+  };
+
+  private final EventStreamingState state = new EventStreamingState();
+
+  @Test
+  public void disposeReleasesProviders() {
+    CursorStreamProvider provider = mock(CursorStreamProvider.class);
+    state.addProvider(new ManagedCursorStreamProvider(of(provider), statistics), ghostBuster);
+
+    state.dispose();
+
+    verify(provider).releaseResources();
+    assertThat(statistics.getOpenCursorProvidersCount(), is(0));
+    assertThat(statistics.getLeakedCursorProvidersCount(), is(0));
+  }
+
+  @Test
+  public void disposeReleasesCollectedProviders() {
+    CursorStreamProvider provider = mock(CursorStreamProvider.class);
+    state.addProvider(new ManagedCursorStreamProvider(of(provider), statistics), ghostBuster);
+
+    check(GC_POLLING_TIMEOUT, DEFAULT_POLLING_INTERVAL, () -> {
+      gc();
+      return references.get(0).get() == null;
+    });
+
+    state.dispose();
+
+    verify(provider).releaseResources();
+    assertThat(statistics.getOpenCursorProvidersCount(), is(0));
+    assertThat(statistics.getLeakedCursorProvidersCount(), is(0));
+  }
+}
@@ -72,4 +72,24 @@ public class StreamingGhostBusterTestCase extends AbstractMuleContextTestCase {
     });
   }
 
+  @Test
+  public void reportLeakedProviders() {
+    AtomicStreamingStatistics statistics = new AtomicStreamingStatistics();
+    CursorStreamProvider provider = mock(CursorStreamProvider.class);
+    ManagedCursorStreamProvider managedCursorProvider = new ManagedCursorStreamProvider(of(provider), statistics);
+
+    WeakReference<ManagedCursorProvider> reference = ghostBuster.track(managedCursorProvider);
+
+    // Force GC collection
+    managedCursorProvider = null;
+
+    check(GC_POLLING_TIMEOUT, DEFAULT_POLLING_INTERVAL, () -> {
+      gc();
+      assertThat(reference.get(), is(nullValue()));
+      verify(provider).releaseResources();
+      assertThat(statistics.getLeakedCursorProvidersCount(), is(1));
+      return true;
+    });
+  }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.toIntExact;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.core.internal.streaming.bytes.FileStoreStreamBuffer.MAPPED_REGION_SIZE_PROPERTY;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamProvider;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class FileStoreCursorStreamProviderTestCase extends AbstractByteStreamingTestCase {
+
+  private static final int KB_64 = 64 * 1024;
+
+  @Rule
+  public SystemProperty mappedRegionSize = new SystemProperty(MAPPED_REGION_SIZE_PROPERTY, String.valueOf(KB_64));
+
+  private PoolingByteBufferManager bufferManager;
+  private FileStoreCursorStreamProvider streamProvider;
+
+  public FileStoreCursorStreamProviderTestCase() {
+    super(MB_1 + 100);
+  }
+
+  @Before
+  public void before() {
+    bufferManager = new PoolingByteBufferManager();
+    streamProvider = new FileStoreCursorStreamProvider(new ByteArrayInputStream(data.getBytes()),
+                                                       new FileStoreCursorStreamConfig(new DataSize(KB_256, BYTE)),
+                                                       bufferManager, from("log"), false);
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void readFully() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      assertEquals(IOUtils.toString(cursor), data);
+    }
+  }
+
+  @Test
+  public void seekBetweenMemoryAndFile() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      // beyond the in-memory window, in a region still not mapped
+      seekAndAssert(cursor, KB_256 + 10, 100);
+
+      // across the in-memory window boundary
+      seekAndAssert(cursor, KB_256 - 50, 100);
+
+      // in the mapped regions and the trailing unmapped one
+      assertEquals(IOUtils.toString(cursor), data.substring(KB_256 + 50));
+      seekAndAssert(cursor, KB_256 + KB_64 - 20, 40);
+      seekAndAssert(cursor, data.length() - 50, 50);
+
+      seekAndAssert(cursor, 0, data.length());
+    }
+  }
+
+  @Test
+  public void concurrentCursors() throws Exception {
+    try (CursorStream cursor1 = streamProvider.openCursor(); CursorStream cursor2 = streamProvider.openCursor()) {
+      seekAndAssert(cursor1, MB_1, 100);
+      seekAndAssert(cursor2, 0, data.length());
+      seekAndAssert(cursor1, 10, 100);
+    }
+  }
+
+  @Test
+  public void endOfStream() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      cursor.seek(data.length());
+      assertThat(cursor.read(), is(-1));
+    }
+  }
+
+  private void seekAndAssert(CursorStream cursor, long position, int length) throws Exception {
+    byte[] bytes = new byte[length];
+    cursor.seek(position);
+    assertThat(IOUtils.read(cursor, bytes), is(length));
+    assertEquals(toString(bytes), data.substring(toIntExact(position), toIntExact(position + length)));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 1000;
+  private static final int MAX_IN_MEMORY_INSTANCES = 200;
+
+  private CursorIteratorProvider streamProvider;
+
+  public FileStoreCursorIteratorProviderTestCase() {
+    super(DATA_SIZE);
+  }
+
+  @Before
+  public void before() {
+    streamProvider = new FileStoreCursorIteratorProvider(toStreamingIterator(data),
+                                                         new FileStoreCursorIteratorConfig(MAX_IN_MEMORY_INSTANCES),
+                                                         muleContext.getObjectSerializer(), from("log"), false);
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+  }
+
+  @Test
+  @Description("Consume a stream larger than the in-memory buffer")
+  public void readFully() throws Exception {
+    try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+    }
+  }
+
+  @Test
+  @Description("Go back to items that were spilled to disk")
+  public void seekToSpilledItems() throws Exception {
+    try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+
+      seekAndAssert(cursor, 0, 10);
+      seekAndAssert(cursor, DATA_SIZE / 2 - 5, 10);
+      seekAndAssert(cursor, 0, DATA_SIZE);
+    }
+  }
+
+  @Test
+  @Description("Two cursors reading different ends of the stream, forcing buckets to be spilled and read back")
+  public void twoCursorsReadingOppositeEnds() throws Exception {
+    try (CursorIterator<Object> cursor1 = streamProvider.openCursor();
+        CursorIterator<Object> cursor2 = streamProvider.openCursor()) {
+      seekAndAssert(cursor1, DATA_SIZE - 10, 10);
+      for (int i = 0; i < DATA_SIZE; i += 100) {
+        seekAndAssert(cursor2, i, 100);
+        seekAndAssert(cursor1, DATA_SIZE - i - 100, 100);
+      }
+    }
+  }
+
+  @Test
+  @Description("Direct access to the last item without traversing the whole cursor")
+  public void getLastItem() throws Exception {
+    try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+      cursor.seek(DATA_SIZE - 1);
+      assertThat(cursor.next(), is(data.get(DATA_SIZE - 1)));
+      assertThat(cursor.hasNext(), is(false));
+    }
+  }
+
+  private void seekAndAssert(CursorIterator<Object> cursor, long position, int length) throws IOException {
+    cursor.seek(position);
+    checkEquals(read(cursor, length), data.subList((int) position, (int) position + length));
+  }
+}
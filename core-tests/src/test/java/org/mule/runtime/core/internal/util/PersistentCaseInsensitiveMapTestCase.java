@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.mule.runtime.core.internal.event.PersistentEventVariables.persistentCaseInsensitiveMap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void caseInsensitive() {
+    Map<String, Object> map = persistentCaseInsensitiveMap();
+    map.put("FOO", "BAR");
+    map.put("doo", 3);
+
+    assertThat(map.get("foo"), is("BAR"));
+    assertThat(map.get("FOO"), is("BAR"));
+    assertThat(map.get("DOO"), is(3));
+    assertThat(map.containsKey("fOo"), is(true));
+    assertThat(map.keySet(), contains("FOO", "doo"));
+  }
+
+  @Test
+  public void keyCasePreservedOnReplace() {
+    Map<String, Object> map = persistentCaseInsensitiveMap();
+    map.put("FOO", "BAR");
+
+    assertThat(map.put("foo", "BAZ"), is("BAR"));
+    assertThat(map.size(), is(1));
+    assertThat(map.keySet(), contains("FOO"));
+    assertThat(map.get("Foo"), is("BAZ"));
+  }
+
+  @Test
+  public void copyNotAffectedByModifications() {
+    CaseInsensitiveHashMap<String, Object> map = persistentCaseInsensitiveMap();
+    map.put("a", 1);
+    map.put("b", 2);
+
+    CaseInsensitiveHashMap<String, Object> copy = map.copy();
+    copy.put("c", 3);
+    copy.put("A", 10);
+    copy.remove("b");
+    map.put("d", 4);
+
+    assertThat(map, equalTo(mapOf("a", 1, "b", 2, "d", 4)));
+    assertThat(copy, equalTo(mapOf("a", 10, "c", 3)));
+  }
+
+  @Test
+  public void sameAsHashMap() {
+    Random random = new Random(42);
+    Map<String, Integer> expected = new HashMap<>();
+    CaseInsensitiveHashMap<String, Integer> map = persistentCaseInsensitiveMap();
+    CaseInsensitiveHashMap<String, Integer> snapshot = map.copy();
+    Map<String, Integer> expectedSnapshot = new HashMap<>();
+
+    for (int i = 0; i < 20000; ++i) {
+      String key = "key" + random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        assertThat(map.remove(key), is(expected.remove(key)));
+      } else {
+        assertThat(map.put(key, i), is(expected.put(key, i)));
+      }
+
+      if (i % 5000 == 0) {
+        snapshot = map.copy();
+        expectedSnapshot = new HashMap<>(expected);
+      }
+    }
+
+    assertThat(map.size(), is(expected.size()));
+    assertThat(map, equalTo(expected));
+    assertThat(snapshot, equalTo(expectedSnapshot));
+  }
+
+  @Test
+  public void hashCollisions() {
+    // these keys have the same hash code
+    CaseInsensitiveHashMap<String, Object> map = persistentCaseInsensitiveMap();
+    map.put("aa", 1);
+    map.put("bB", 2);
+    map.put("other", 3);
+
+    assertThat(map.get("AA"), is(1));
+    assertThat(map.get("bb"), is(2));
+
+    CaseInsensitiveHashMap<String, Object> copy = map.copy();
+    assertThat(copy.remove("aa"), is(1));
+    assertThat(copy.get("aa"), is(nullValue()));
+    assertThat(copy.get("bb"), is(2));
+    assertThat(map.get("aa"), is(1));
+  }
+
+  @Test
+  public void iteratorRemove() {
+    CaseInsensitiveHashMap<String, Object> map = persistentCaseInsensitiveMap();
+    for (int i = 0; i < 100; ++i) {
+      map.put("key" + i, i);
+    }
+
+    Iterator<Entry<String, Object>> iterator = map.entrySet().iterator();
+    while (iterator.hasNext()) {
+      if (((Integer) iterator.next().getValue()) % 2 == 0) {
+        iterator.remove();
+      }
+    }
+
+    assertThat(map.size(), is(50));
+    map.values().forEach(value -> assertThat(((Integer) value) % 2, is(1)));
+  }
+
+  @Test
+  public void insertionOrder() {
+    CaseInsensitiveHashMap<String, Object> map = persistentCaseInsensitiveMap();
+    List<String> expectedKeys = new ArrayList<>();
+    for (int i = 0; i < 100; ++i) {
+      map.put("key" + i, i);
+      expectedKeys.add("key" + i);
+    }
+    map.remove("key10");
+    expectedKeys.remove("key10");
+    map.put("KEY20", "replaced");
+    map.put("key10", 10);
+    expectedKeys.add("key10");
+
+    CaseInsensitiveHashMap<String, Object> copy = map.copy();
+    copy.put("other", 0);
+
+    assertThat(new ArrayList<>(map.keySet()), equalTo(expectedKeys));
+    expectedKeys.add("other");
+    assertThat(new ArrayList<>(copy.keySet()), equalTo(expectedKeys));
+  }
+
+  @Test
+  public void entrySetValue() {
+    CaseInsensitiveHashMap<String, Object> map = persistentCaseInsensitiveMap();
+    map.put("FOO", "BAR");
+    map.put("doo", 3);
+    CaseInsensitiveHashMap<String, Object> copy = map.copy();
+
+    for (Entry<String, Object> entry : map.entrySet()) {
+      if (entry.getKey().equals("FOO")) {
+        assertThat(entry.setValue("BAZ"), is("BAR"));
+        assertThat(entry.getValue(), is("BAZ"));
+      }
+    }
+
+    assertThat(map.get("foo"), is("BAZ"));
+    assertThat(map.keySet(), contains("FOO", "doo"));
+    assertThat(copy.get("foo"), is("BAR"));
+  }
+
+  @Test
+  public void serialization() {
+    CaseInsensitiveHashMap<String, Object> map = persistentCaseInsensitiveMap();
+    map.put("FOO", "BAR");
+    map.put("doo", 3);
+
+    Map<String, Object> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+    assertThat(deserialized.get("foo"), is("BAR"));
+    assertThat(deserialized.get("DOO"), is(3));
+    assertThat(deserialized.keySet(), contains("FOO", "doo"));
+  }
+
+  private static Map<String, Object> mapOf(Object... keysAndValues) {
+    Map<String, Object> map = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return map;
+  }
+}
@@ -10,9 +10,13 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.GROUP;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.PERIODIC;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
 
 import java.io.File;
 import java.io.Serializable;
@@ -51,6 +55,54 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitEntriesAreWrittenOnceAwaited() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(GROUP);
+    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+
+    LocalQueueTxJournalEntry first = new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "first");
+    LocalQueueTxJournalEntry second = new LocalQueueTxJournalEntry(2, (byte) 6, "queue", "second");
+    journal.append(first, TransactionJournalFile.serialize(serializer, first));
+    long sequence = journal.append(second, TransactionJournalFile.serialize(serializer, second));
+    assertThat(journal.fileLength(), is(0L));
+
+    journal.awaitDurable(sequence);
+    long writtenLength = journal.fileLength();
+    assertThat(writtenLength > 0, is(true));
+    journal.close();
+
+    journal = openJournal(GROUP);
+    assertThat(journal.getLogEntries(1).iterator().next().getValue(), equalTo("first"));
+    assertThat(journal.getLogEntries(2).iterator().next().getValue(), equalTo("second"));
+  }
+
+  @Test
+  public void groupCommitPendingEntriesAreWrittenOnClose() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(GROUP);
+    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+
+    LocalQueueTxJournalEntry entry = new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "value");
+    journal.append(entry, TransactionJournalFile.serialize(serializer, entry));
+    journal.close();
+
+    journal = openJournal(GROUP);
+    assertThat(journal.getLogEntries(1).size(), equalTo(1));
+  }
+
+  @Test
+  public void periodicEntriesAreForcedWhenIdle() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(PERIODIC, 100);
+    try {
+      journal.logOperation(new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "value"));
+      assertThat(journal.fileLength() > 0, is(true));
+
+      // no more entries are logged, so the force is done by the journal itself
+      new PollingProber(5000, 50).check(new JUnitLambdaProbe(() -> !journal.hasUnforcedWrites()));
+    } finally {
+      journal.close();
+    }
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
@@ -58,4 +110,16 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
   }
 
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(JournalDurability durability) {
+    return openJournal(durability, 0);
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(JournalDurability durability,
+                                                                                long forceIntervalMillis) {
+    File journalFile = new File(temporaryFolder.getRoot(), "journal");
+    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, durability, forceIntervalMillis);
+  }
+
 }
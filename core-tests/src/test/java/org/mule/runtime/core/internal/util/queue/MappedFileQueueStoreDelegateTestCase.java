@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static org.mule.runtime.core.internal.util.queue.MappedFileQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class MappedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(SEGMENT_SIZE_PROPERTY_KEY, "1024");
+
+  private MuleContext mockMuleContext;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @Test
+  public void entriesAreTakenInOrder() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    for (int i = 0; i < 100; i++) {
+      queue.putNow(i);
+    }
+
+    assertThat(queue.getSize(), is(100));
+    for (int i = 0; i < 100; i++) {
+      assertThat(queue.poll(10), is(i));
+    }
+    assertThat(queue.poll(10), nullValue());
+  }
+
+  @Test
+  public void entriesAreRecovered() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    for (int i = 0; i < 100; i++) {
+      queue.putNow(i);
+    }
+    for (int i = 0; i < 40; i++) {
+      queue.poll(10);
+    }
+    queue.close();
+
+    MappedFileQueueStoreDelegate recovered = createQueue();
+    assertThat(recovered.getSize(), is(60));
+    assertThat(recovered.peek(), is(40));
+    for (int i = 40; i < 100; i++) {
+      assertThat(recovered.poll(10), is(i));
+    }
+  }
+
+  @Test
+  public void untakenEntryIsTakenFirst() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    queue.putNow("first");
+    queue.putNow("second");
+
+    assertThat(queue.poll(10), is("first"));
+    queue.untake("first");
+
+    assertThat(queue.poll(10), is("first"));
+    assertThat(queue.poll(10), is("second"));
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    queue.putNow("first");
+    queue.putNow("second");
+    queue.putNow("third");
+
+    queue.remove("second");
+
+    assertThat(queue.contains("second"), is(false));
+    assertThat(queue.contains("third"), is(true));
+    queue.close();
+
+    MappedFileQueueStoreDelegate recovered = createQueue();
+    assertThat(recovered.poll(10), is("first"));
+    assertThat(recovered.poll(10), is("third"));
+  }
+
+  @Test
+  public void consumedSegmentsAreReused() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 50; i++) {
+        queue.putNow(i);
+      }
+      for (int i = 0; i < 50; i++) {
+        assertThat(queue.poll(10), is(i));
+      }
+    }
+
+    File queueDirectory =
+        MappedFileQueueStoreDelegate.getQueueDirectory(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath());
+    assertThat(queueDirectory.list().length, lessThanOrEqualTo(8));
+  }
+
+  @Test
+  public void oversizedEntry() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    byte[] entry = new byte[4096];
+    entry[4095] = 1;
+    queue.putNow(entry);
+    queue.putNow("small");
+
+    assertThat(((byte[]) queue.poll(10))[4095], is((byte) 1));
+    assertThat(queue.poll(10), is("small"));
+  }
+
+  @Test
+  public void concurrentConsumersTakeEachEntryOnce() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    int entries = 5000;
+    Set<Integer> taken = newKeySet();
+    AtomicInteger duplicates = new AtomicInteger();
+
+    List<Thread> consumers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      consumers.add(new Thread(() -> {
+        try {
+          Serializable value;
+          while ((value = queue.poll(500)) != null) {
+            if (!taken.add((Integer) value)) {
+              duplicates.incrementAndGet();
+            }
+          }
+        } catch (InterruptedException e) {
+          currentThread().interrupt();
+        }
+      }));
+    }
+    consumers.forEach(Thread::start);
+    for (int i = 0; i < entries; i++) {
+      queue.putNow(i);
+    }
+    for (Thread consumer : consumers) {
+      consumer.join();
+    }
+
+    assertThat(taken.size(), is(entries));
+    assertThat(duplicates.get(), is(0));
+    assertThat(queue.getSize(), is(0));
+  }
+
+  @Test
+  public void offerWaitsForRoom() throws Exception {
+    MappedFileQueueStoreDelegate queue =
+        new MappedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 1);
+    assertThat(queue.offer("first", 0, 10), is(true));
+    assertThat(queue.offer("second", 0, 10), is(false));
+
+    Thread consumer = new Thread(() -> {
+      try {
+        queue.poll(10);
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      }
+    });
+    consumer.start();
+    assertThat(queue.offer("second", 0, 5000), is(true));
+    consumer.join();
+
+    assertThat(queue.poll(10), is("second"));
+  }
+
+  @Test
+  public void clearAndDispose() throws Exception {
+    MappedFileQueueStoreDelegate queue = createQueue();
+    queue.putNow("first");
+    queue.clear();
+    assertThat(queue.getSize(), is(0));
+
+    queue.dispose();
+    assertThat(MappedFileQueueStoreDelegate.getQueueDirectory(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath())
+        .exists(), is(false));
+  }
+
+  private MappedFileQueueStoreDelegate createQueue() {
+    return new MappedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.rx;
+
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.VIRTUAL_THREADS;
+
+import static org.mule.runtime.core.internal.profiling.context.VirtualThreadPinnedProfilingEventContext.PINNED_COUNT;
+import static org.mule.runtime.core.internal.profiling.context.VirtualThreadPinnedProfilingEventContext.THREAD_NAME;
+import static org.mule.runtime.core.internal.profiling.context.VirtualThreadPinnedProfilingEventContext.VIRTUAL_THREAD_PINNED;
+
+import static java.util.Optional.of;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assume.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+@Story(VIRTUAL_THREADS)
+public class VirtualThreadSchedulerTestCase extends AbstractMuleTestCase {
+
+  private final Scheduler delegate = mock(Scheduler.class);
+  private final ProfilingDataProducer<ExtensionProfilingEventContext, Object> pinningDataProducer =
+      mock(ProfilingDataProducer.class);
+  private VirtualThreadScheduler scheduler;
+
+  @Before
+  public void before() {
+    if (VirtualThreadScheduler.isSupported()) {
+      scheduler = new VirtualThreadScheduler("test.BLOCKING.virtual", delegate, pinningDataProducer);
+    }
+  }
+
+  @After
+  public void after() {
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void notCreatedWhenNotSupported() {
+    assumeThat("Virtual threads supported by this JVM", VirtualThreadScheduler.isSupported(), is(false));
+
+    new VirtualThreadScheduler("test.BLOCKING.virtual", delegate);
+  }
+
+  @Test
+  public void pinningIsNotifiedToListenersUntilStopped() {
+    List<String> pinnedThreads = new ArrayList<>();
+    Consumer<String> listener = pinnedThreads::add;
+
+    VirtualThreadPinningMonitor.start(listener);
+    VirtualThreadPinningMonitor.notifyPinned("test.1");
+    VirtualThreadPinningMonitor.stop(listener);
+    VirtualThreadPinningMonitor.notifyPinned("test.2");
+
+    assertThat(pinnedThreads, contains("test.1"));
+  }
+
+  @Test
+  public void pinningOfOwnThreadsIsPublished() {
+    assumeSupported();
+    long pinnedCountBefore = VirtualThreadPinningMonitor.getPinnedCount();
+
+    VirtualThreadPinningMonitor.notifyPinned("test.BLOCKING.virtual.3");
+    VirtualThreadPinningMonitor.notifyPinned("other.BLOCKING.virtual.3");
+
+    assertThat(scheduler.getPinnedCount(), is(1L));
+    assertThat(VirtualThreadPinningMonitor.getPinnedCount(), is(pinnedCountBefore + 2));
+
+    ArgumentCaptor<ExtensionProfilingEventContext> eventContext = ArgumentCaptor.forClass(ExtensionProfilingEventContext.class);
+    verify(pinningDataProducer).triggerProfilingEvent(eventContext.capture());
+    assertThat(eventContext.getValue().getProfilingDataSourceIdentifier(), is("test.BLOCKING.virtual"));
+    assertThat(eventContext.getValue().getExtensionEventSubtypeIdentifier(), is(VIRTUAL_THREAD_PINNED));
+    assertThat(eventContext.getValue().get(THREAD_NAME), is(of("test.BLOCKING.virtual.3")));
+    assertThat(eventContext.getValue().get(PINNED_COUNT), is(of(1L)));
+  }
+
+  @Test
+  public void pinningIsNotPublishedAfterStop() {
+    assumeSupported();
+    scheduler.stop();
+
+    VirtualThreadPinningMonitor.notifyPinned("test.BLOCKING.virtual.3");
+
+    assertThat(scheduler.getPinnedCount(), is(0L));
+    verify(pinningDataProducer, never()).triggerProfilingEvent(any(ExtensionProfilingEventContext.class));
+  }
+
+  @Test
+  public void tasksRunInVirtualThreads() throws Exception {
+    assumeSupported();
+    Thread thread = scheduler.submit(Thread::currentThread).get(5, SECONDS);
+
+    assertThat(Thread.class.getMethod("isVirtual").invoke(thread), is(true));
+    assertThat(thread.getName(), startsWith("test.BLOCKING.virtual."));
+  }
+
+  @Test
+  public void delayedTasksAreDelegated() {
+    assumeSupported();
+    Runnable task = () -> {
+    };
+    scheduler.schedule(task, 1, SECONDS);
+
+    verify(delegate).schedule(task, 1, SECONDS);
+  }
+
+  @Test
+  public void stopDelegate() {
+    assumeSupported();
+    scheduler.stop();
+
+    verify(delegate).stop();
+    assertThat(scheduler.isShutdown(), is(true));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void rejectAfterStop() {
+    assumeSupported();
+    scheduler.stop();
+
+    scheduler.execute(() -> {
+    });
+  }
+
+  private static void assumeSupported() {
+    assumeThat("Virtual threads not supported by this JVM", VirtualThreadScheduler.isSupported(), is(true));
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.SEGMENT_MAX_SIZE_PROPERTY;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition.CORRUPTED_FOLDER;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+  private static final int RECORD_HEADER_SIZE = 21;
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentMaxSize = new SystemProperty(SEGMENT_MAX_SIZE_PROPERTY, "512");
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParentFile().getPath());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    partition.close();
+  }
+
+  @Test
+  public void storeAndRetrieve() throws Exception {
+    partition.store(KEY, VALUE);
+    assertThat(partition.contains(KEY), is(true));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void retrieveRemoved() throws Exception {
+    partition.store(KEY, VALUE);
+    assertThat(partition.remove(KEY), is(VALUE));
+    partition.retrieve(KEY);
+  }
+
+  @Test
+  public void entriesAreRecoveredFromSegments() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      partition.store(KEY + i, VALUE + i);
+    }
+    for (int i = 0; i < 50; i += 2) {
+      partition.remove(KEY + i);
+    }
+
+    assertThat(segmentFiles().length, greaterThan(1));
+
+    LogStructuredObjectStorePartition<String> reloaded = reload();
+    assertThat(reloaded.allKeys().size(), is(25));
+    for (int i = 1; i < 50; i += 2) {
+      assertThat(reloaded.retrieve(KEY + i), is(VALUE + i));
+    }
+    assertThat(reloaded.contains(KEY + 0), is(false));
+  }
+
+  @Test
+  public void tornRecordIsDiscarded() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.store("torn", VALUE);
+
+    File segment = segmentFiles()[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    LogStructuredObjectStorePartition<String> reloaded = reload();
+    assertThat(reloaded.allKeys(), contains(KEY));
+    assertThat(reloaded.retrieve(KEY), is(VALUE));
+
+    reloaded.store("torn", VALUE);
+    assertThat(reload().allKeys(), contains(KEY, "torn"));
+  }
+
+  @Test
+  public void corruptedRecordIsSkipped() throws Exception {
+    partition.store(KEY + 1, VALUE);
+    partition.store(KEY + 2, VALUE);
+    partition.remove(KEY + 1);
+
+    // flips the last byte of the value of the second record, the one right before the tombstone
+    File segment = segmentFiles()[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      flipByteAt(file, file.length() - (RECORD_HEADER_SIZE + (KEY + 1).length()) - 1);
+    }
+
+    // the removal of the first key is after the corrupted record, and it is still applied
+    assertThat(reload().allKeys(), is(empty()));
+    assertThat(corruptedFiles().length, is(1));
+  }
+
+  @Test
+  public void segmentsAfterCorruptedRecordAreReplayed() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      partition.store(KEY + i, VALUE);
+    }
+    File[] segments = segmentFiles();
+    assertThat(segments.length, greaterThan(2));
+
+    File firstSegment = segments[0];
+    try (RandomAccessFile file = new RandomAccessFile(firstSegment, "rw")) {
+      flipByteAt(file, file.length() - 1);
+    }
+
+    LogStructuredObjectStorePartition<String> reloaded = reload();
+    assertThat(segmentFiles().length, is(segments.length));
+    assertThat(reloaded.allKeys().size(), is(49));
+    assertThat(reloaded.contains(KEY + 49), is(true));
+    assertThat(corruptedFiles().length, is(1));
+  }
+
+  @Test
+  public void tornRecordIsCopiedToCorruptedFolder() throws Exception {
+    partition.store(KEY, VALUE);
+    File segment = segmentFiles()[0];
+    long validSize = segment.length();
+    partition.store("torn", VALUE);
+
+    long tornRecordSize = segment.length() - validSize;
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    reload();
+    File[] corrupted = corruptedFiles();
+    assertThat(corrupted.length, is(1));
+    assertThat(corrupted[0].length(), is(tornRecordSize - 3));
+  }
+
+  @Test
+  public void legacyFilesAreMigrated() throws Exception {
+    PersistentObjectStorePartition<String> legacy =
+        new PersistentObjectStorePartition<>(muleContext, "legacy", objectStoreFolder.newFolder("legacy"));
+    legacy.open();
+    legacy.store(KEY, VALUE);
+    legacy.store("other", VALUE);
+
+    LogStructuredObjectStorePartition<String> migrated =
+        new LogStructuredObjectStorePartition<>(muleContext, legacy.getPartitionDirectory());
+    migrated.open();
+
+    assertThat(migrated.getPartitionName(), is("legacy"));
+    assertThat(migrated.retrieve(KEY), is(VALUE));
+    assertThat(migrated.retrieve("other"), is(VALUE));
+    assertThat(legacy.listValuesFiles().length, is(0));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      partition.store(KEY + i, VALUE);
+    }
+
+    partition.expire(UNBOUNDED, 3);
+
+    assertThat(partition.allKeys(), contains(KEY + 7, KEY + 8, KEY + 9));
+    assertThat(reload().allKeys(), contains(KEY + 7, KEY + 8, KEY + 9));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store(KEY, VALUE);
+    Thread.sleep(5);
+
+    partition.expire(1, UNBOUNDED);
+
+    assertThat(partition.allKeys(), is(empty()));
+  }
+
+  @Test
+  public void compactionDeletesDeadSegments() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      partition.store(KEY + i, VALUE);
+    }
+    int segmentsBeforeCompaction = segmentFiles().length;
+
+    partition.expire(UNBOUNDED, 5);
+
+    assertThat(segmentFiles().length, lessThan(segmentsBeforeCompaction));
+    assertThat(partition.allKeys().size(), is(5));
+    assertThat(reload().allKeys(), contains(KEY + 95, KEY + 96, KEY + 97, KEY + 98, KEY + 99));
+  }
+
+  @Test
+  public void compactionWithoutExpiration() throws Exception {
+    for (int i = 0; i < 500; i++) {
+      partition.store(KEY + i, VALUE);
+      partition.remove(KEY + i);
+    }
+
+    // each segment holds a few records, so without compaction there would be hundreds of them
+    assertThat(segmentFiles().length, lessThan(5));
+    assertThat(partition.allKeys(), is(empty()));
+    assertThat(reload().allKeys(), is(empty()));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.clear();
+
+    assertThat(partition.contains(KEY), is(false));
+    assertThat(new File(objectStoreFolder.getRoot(), "partition-descriptor").exists(), is(true));
+    partition.store(KEY, VALUE);
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  private LogStructuredObjectStorePartition<String> reload() throws Exception {
+    LogStructuredObjectStorePartition<String> reloaded =
+        new LogStructuredObjectStorePartition<>(muleContext, objectStoreFolder.getRoot());
+    reloaded.open();
+    return reloaded;
+  }
+
+  private static void flipByteAt(RandomAccessFile file, long position) throws Exception {
+    file.seek(position);
+    int original = file.read();
+    file.seek(position);
+    file.write(~original);
+  }
+
+  private File[] corruptedFiles() {
+    File corruptedFolder =
+        new File(new File(muleConfiguration.getWorkingDirectory(), CORRUPTED_FOLDER), objectStoreFolder.getRoot().getName());
+    File[] files = corruptedFolder.listFiles();
+    return files == null ? new File[0] : files;
+  }
+
+  private File[] segmentFiles() {
+    return objectStoreFolder.getRoot().listFiles(ObjectStoreLogSegment::isSegmentFile);
+  }
+}
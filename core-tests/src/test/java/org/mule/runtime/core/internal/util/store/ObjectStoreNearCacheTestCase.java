@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ObjectStoreNearCacheTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_PARTITION = "testPartition";
+  private static final String TEST_KEY1 = "testKey1";
+  private static final String TEST_KEY2 = "testKey2";
+  private static final String TEST_KEY3 = "testKey3";
+
+  private PartitionedInMemoryObjectStore<ArrayList<String>> baseStore;
+  private ObjectStoreNearCache<ArrayList<String>> nearCache;
+  private ObjectStorePartition<ArrayList<String>> partition;
+
+  @Before
+  public void setup() throws ObjectStoreException {
+    baseStore = spy(new PartitionedInMemoryObjectStore<>());
+    nearCache = new ObjectStoreNearCache<>(2);
+    partition = new ObjectStorePartition<>(TEST_PARTITION, baseStore, nearCache);
+    partition.open();
+  }
+
+  @Test
+  public void hotKeyIsRetrievedOnce() throws ObjectStoreException {
+    ArrayList<String> value = value("a");
+    partition.store(TEST_KEY1, value);
+
+    ArrayList<String> retrieved = partition.retrieve(TEST_KEY1);
+    assertThat(partition.retrieve(TEST_KEY1), is(sameInstance(retrieved)));
+    assertThat(partition.retrieve(TEST_KEY1), is(sameInstance(retrieved)));
+
+    verify(baseStore, times(1)).retrieve(TEST_KEY1, TEST_PARTITION);
+    assertThat(nearCache.getHits(), is(2L));
+    assertThat(nearCache.getMisses(), is(1L));
+  }
+
+  @Test
+  public void storeAfterRemoveIsNotServedStale() throws ObjectStoreException {
+    partition.store(TEST_KEY1, value("a"));
+    partition.retrieve(TEST_KEY1);
+
+    partition.remove(TEST_KEY1);
+    partition.store(TEST_KEY1, value("b"));
+
+    assertThat(partition.retrieve(TEST_KEY1), is(value("b")));
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void keyRemovedFromBaseStoreIsNotServed() throws ObjectStoreException {
+    partition.store(TEST_KEY1, value("a"));
+    partition.retrieve(TEST_KEY1);
+
+    // as expiration does
+    baseStore.remove(TEST_KEY1, TEST_PARTITION);
+
+    partition.retrieve(TEST_KEY1);
+  }
+
+  @Test
+  public void leastRecentlyUsedIsEvicted() throws ObjectStoreException {
+    partition.store(TEST_KEY1, value("a"));
+    partition.store(TEST_KEY2, value("b"));
+    partition.store(TEST_KEY3, value("c"));
+
+    partition.retrieve(TEST_KEY1);
+    partition.retrieve(TEST_KEY2);
+    partition.retrieve(TEST_KEY1);
+    partition.retrieve(TEST_KEY3);
+    assertThat(nearCache.size(), is(2));
+
+    partition.retrieve(TEST_KEY1);
+    verify(baseStore, times(1)).retrieve(TEST_KEY1, TEST_PARTITION);
+    partition.retrieve(TEST_KEY2);
+    verify(baseStore, times(2)).retrieve(TEST_KEY2, TEST_PARTITION);
+  }
+
+  @Test
+  public void clearInvalidatesAll() throws ObjectStoreException {
+    partition.store(TEST_KEY1, value("a"));
+    partition.retrieve(TEST_KEY1);
+
+    partition.clear();
+
+    assertThat(nearCache.size(), is(0));
+    assertThat(partition.contains(TEST_KEY1), is(false));
+  }
+
+  @Test
+  public void valueLoadedDuringInvalidationIsNotCached() {
+    long stamp = nearCache.stamp();
+    nearCache.invalidate(TEST_KEY1);
+    nearCache.put(TEST_KEY1, value("a"), stamp);
+
+    assertThat(nearCache.size(), is(0));
+  }
+
+  private static ArrayList<String> value(String item) {
+    ArrayList<String> value = new ArrayList<>();
+    value.add(item);
+    return value;
+  }
+}
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -97,6 +98,53 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void expireByNumberOfEntriesEvictsOldestWithinTheSameMillisecond() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    currentNanoTime += 1;
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    currentNanoTime += 1;
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void removedKeysAreNotCountedForMaxEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    currentNanoTime = MILLISECONDS.toNanos(2);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+    currentNanoTime = MILLISECONDS.toNanos(3);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 2, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY2, TEST_PARTITION), equalTo(TEST_VALUE));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void keyStoredAgainAfterExpirationIsKept() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    currentNanoTime = MILLISECONDS.toNanos(10);
+    store.expire(5, UNBOUNDED, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    currentNanoTime = MILLISECONDS.toNanos(12);
+    store.expire(5, UNBOUNDED, TEST_PARTITION);
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+
+    currentNanoTime = MILLISECONDS.toNanos(15);
+    store.expire(5, UNBOUNDED, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
   @Test
   public void removesDataOnClear() throws ObjectStoreException {
     PartitionedInMemoryObjectStore os = spy(store);
@@ -108,6 +156,29 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(os.retrieveAll(TEST_PARTITION).size(), is(0));
   }
 
+  @Test
+  public void entriesStoredWhileClearingAreExpired() throws Exception {
+    Thread clearer = new Thread(() -> {
+      for (int i = 0; i < 1000; ++i) {
+        try {
+          store.clear(TEST_PARTITION);
+        } catch (ObjectStoreException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    clearer.start();
+    for (int i = 0; i < 10000; ++i) {
+      store.store(TEST_KEY1 + i, TEST_VALUE, TEST_PARTITION);
+    }
+    clearer.join();
+
+    currentNanoTime = MILLISECONDS.toNanos(10);
+    store.expire(5, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), is(empty()));
+  }
+
   @Test
   public void removesDataOnClose() throws ObjectStoreException {
     PartitionedInMemoryObjectStore os = spy(store);
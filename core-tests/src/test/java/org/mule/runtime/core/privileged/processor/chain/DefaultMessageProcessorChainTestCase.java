@@ -36,6 +36,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.internal.construct.AbstractFlowConstruct.FLOW_FLOW_CONSTRUCT_TYPE;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
@@ -62,11 +63,14 @@ import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.exception.NullExceptionHandler;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatisticsSnapshot;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
 import org.mule.runtime.core.api.util.ObjectUtils;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.management.stats.StripedFlowConstructStatistics;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.processor.strategy.BlockingProcessingStrategyFactory;
 import org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory;
@@ -202,6 +206,32 @@ public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProces
     assertThat(process(messageProcessor, getTestEventUsingFlow("0")).getMessage().getPayload().getValue(), equalTo("0123"));
   }
 
+  @Test
+  public void processorExecutionTimesAddedToStripedFlowStatistics() throws Exception {
+    FlowConstructStatistics originalStatistics = flow.getStatistics();
+    StripedFlowConstructStatistics flowStatistics = new StripedFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow");
+    muleContext.getStatistics().add(flowStatistics);
+    flowStatistics.setEnabled(true);
+    try {
+      AppendingMP mp1 = getAppendingMP("1");
+      mp1.setAnnotations(singletonMap(LOCATION_KEY, from("flow/processors/0")));
+      AppendingMP mp2 = getAppendingMP("2");
+      mp2.setAnnotations(singletonMap(LOCATION_KEY, from("flow/processors/1")));
+
+      DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+      builder.chain(mp1, mp2);
+      messageProcessor = builder.build();
+      process(messageProcessor, getTestEventUsingFlow("0"));
+      process(messageProcessor, getTestEventUsingFlow("0"));
+
+      FlowConstructStatisticsSnapshot snapshot = muleContext.getStatistics().getFlowConstructStatisticsSnapshot("flow").get();
+      assertThat(snapshot.getProcessorProcessingTimes().get("flow/processors/0").getCount(), is(2L));
+      assertThat(snapshot.getProcessorProcessingTimes().get("flow/processors/1").getCount(), is(2L));
+    } finally {
+      muleContext.getStatistics().add(originalStatistics);
+    }
+  }
+
   /*
    * Any MP returns null: - Processing doesn't proceed - Result of chain is Null
    */
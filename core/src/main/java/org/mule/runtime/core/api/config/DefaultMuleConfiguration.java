@@ -46,6 +46,8 @@ import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.NetworkUtils;
 import org.mule.runtime.core.api.util.StringUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveProactorStreamEmitterProcessingStrategyFactory;
+import org.mule.runtime.core.internal.processor.strategy.VirtualThreadProactorStreamEmitterProcessingStrategyFactory;
 import org.mule.runtime.core.privileged.exception.MessagingExceptionHandlerAcceptor;
 
 import java.io.File;
@@ -72,6 +74,17 @@ public class DefaultMuleConfiguration implements MuleConfiguration, MuleContextA
 
   protected static final Logger logger = getLogger(DefaultMuleConfiguration.class);
 
+  /**
+   * Short names that may be set to the {@link ProcessingStrategyFactory} system property instead of the class name of a factory.
+   */
+  private static final Map<String, String> PROCESSING_STRATEGY_FACTORY_ALIASES = new HashMap<>();
+
+  static {
+    PROCESSING_STRATEGY_FACTORY_ALIASES.put("adaptive", AdaptiveProactorStreamEmitterProcessingStrategyFactory.class.getName());
+    PROCESSING_STRATEGY_FACTORY_ALIASES.put("virtualThreads",
+                                            VirtualThreadProactorStreamEmitterProcessingStrategyFactory.class.getName());
+  }
+
   private MuleVersion minMuleVersion;
 
   /**
@@ -335,7 +348,8 @@ public class DefaultMuleConfiguration implements MuleConfiguration, MuleContextA
     try {
       p = getProperty(ProcessingStrategyFactory.class.getName());
       if (p != null) {
-        defaultProcessingStrategyFactory = (ProcessingStrategyFactory) instantiateClass(p);
+        defaultProcessingStrategyFactory =
+            (ProcessingStrategyFactory) instantiateClass(PROCESSING_STRATEGY_FACTORY_ALIASES.getOrDefault(p, p));
       }
     } catch (Throwable e) {
       logger.warn("Unable to instantiate ProcessingStrategyFactory '" + p + "', default will be used instead.");
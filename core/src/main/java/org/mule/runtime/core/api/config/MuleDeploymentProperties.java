@@ -33,5 +33,14 @@ public class MuleDeploymentProperties {
   public static final String MULE_FORCE_TOOLING_APP_LOGS_DEPLOYMENT_PROPERTY =
       DEPLOYMENT_PROPERTY_PREFIX + ".lazyInit.forceLog";
 
+  /**
+   * Makes the artifact serialize the data that is only read by the runtime, such as the content of persistent object stores,
+   * with a compact binary format instead of Java serialization.
+   *
+   * @since 4.6.0
+   */
+  public static final String MULE_BINARY_INTERNAL_SERIALIZATION_DEPLOYMENT_PROPERTY =
+      DEPLOYMENT_PROPERTY_PREFIX + ".binaryInternalSerialization";
+
   private MuleDeploymentProperties() {}
 }
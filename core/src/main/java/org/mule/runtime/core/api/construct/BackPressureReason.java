@@ -34,6 +34,14 @@ public enum BackPressureReason {
   /**
    * The flow did not consume enough of the previous events.
    */
-  EVENTS_ACCUMULATED;
+  EVENTS_ACCUMULATED,
+
+  /**
+   * The admission policy of the flow did not admit the event, because the configured admission rate or the concurrency limit
+   * derived from the flow's latency target was exceeded.
+   *
+   * @since 4.6.0
+   */
+  ADMISSION_REJECTED;
 
 }
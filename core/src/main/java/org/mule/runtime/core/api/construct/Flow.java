@@ -136,6 +136,31 @@ public interface Flow extends ExecutableComponent, Lifecycle, Pipeline, Processo
      */
     Builder maxConcurrency(int maxConcurrency);
 
+    /**
+     * Configures a token bucket admission policy for the events dispatched by the {@link MessageSource} of the {@link Flow}.
+     * Events exceeding the rate are signaled back to the source as back-pressure, according to its back-pressure strategy,
+     * before they reach the {@link ProcessingStrategy}.
+     *
+     * @param maxAdmissionRate  how many events per second are admitted in the long run.
+     * @param maxAdmissionBurst how many events may be admitted at once after a period of inactivity.
+     * @return an {@link Builder}
+     *
+     * @since 4.6.0
+     */
+    Builder maxAdmissionRate(int maxAdmissionRate, int maxAdmissionBurst);
+
+    /**
+     * Configures a concurrency limit admission policy for the events dispatched by the {@link MessageSource} of the {@link Flow}.
+     * The limit is derived with Little's law from the observed throughput of the flow and the given target latency, and is never
+     * greater than the {@link #maxConcurrency(int) maxConcurrency} of the flow.
+     *
+     * @param admissionLatencyTarget the time, in milliseconds, the events are expected to take to be processed.
+     * @return an {@link Builder}
+     *
+     * @since 4.6.0
+     */
+    Builder admissionLatencyTarget(long admissionLatencyTarget);
+
     /**
      * Builds a flow with the provided configuration.
      *
@@ -12,6 +12,8 @@ import static org.mule.runtime.api.util.MuleSystemProperties.MULE_ENABLE_STATIST
 import static java.lang.Boolean.getBoolean;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.emptyMap;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 
 import org.mule.api.annotation.Experimental;
 import org.mule.api.annotation.NoExtend;
@@ -20,10 +22,12 @@ import org.mule.runtime.api.config.MuleRuntimeFeature;
 import org.mule.runtime.core.api.config.FeatureFlaggingRegistry;
 import org.mule.runtime.core.internal.management.stats.ApplicationStatistics;
 import org.mule.runtime.core.internal.management.stats.DefaultFlowsSummaryStatistics;
+import org.mule.runtime.core.internal.management.stats.StripedFlowConstructStatistics;
 
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * <code>AllStatistics</code> TODO
@@ -110,6 +114,24 @@ public class AllStatistics {
     return flowConstructStats.values();
   }
 
+  /**
+   * Takes a snapshot of the statistics of the flow with the given name, including the distribution of the processing times of the
+   * flow and of each of its processors. Those are only kept when the {@code mule.statistics.striped} system property is set.
+   *
+   * @param flowName the name of the flow to get the statistics for.
+   * @return the current values of the statistics of the flow, or an empty value if there is no flow with that name or its
+   *         statistics do not keep the distribution of its processing times.
+   * @since 4.6.0
+   */
+  @Experimental
+  public synchronized Optional<FlowConstructStatisticsSnapshot> getFlowConstructStatisticsSnapshot(String flowName) {
+    FlowConstructStatistics statistics = flowConstructStats.get(flowName);
+    if (statistics instanceof StripedFlowConstructStatistics) {
+      return of(((StripedFlowConstructStatistics) statistics).snapshot());
+    }
+    return empty();
+  }
+
   public FlowConstructStatistics getApplicationStatistics() {
     return appStats;
   }
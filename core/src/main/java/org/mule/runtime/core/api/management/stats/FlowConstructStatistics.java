@@ -45,6 +45,20 @@ public interface FlowConstructStatistics extends Statistics {
    */
   default void incConnectionErrors() {}
 
+  /**
+   * Indicates that an event dispatched by the source of the flow was admitted by its admission policy.
+   *
+   * @since 4.6.0
+   */
+  default void incAdmittedEvents() {}
+
+  /**
+   * Indicates that an event dispatched by the source of the flow was rejected by its admission policy.
+   *
+   * @since 4.6.0
+   */
+  default void incRejectedEvents() {}
+
   /**
    * Adds the execution time of a processed event
    */
@@ -113,6 +127,24 @@ public interface FlowConstructStatistics extends Statistics {
     return 0;
   }
 
+  /**
+   * @return the number of events admitted by the admission policy of the flow at a given time.
+   *
+   * @since 4.6.0
+   */
+  default long getAdmittedEvents() {
+    return 0;
+  }
+
+  /**
+   * @return the number of events rejected by the admission policy of the flow at a given time.
+   *
+   * @since 4.6.0
+   */
+  default long getRejectedEvents() {
+    return 0;
+  }
+
   /**
    * Provides a counter for {@link #getExecutionErrors() execution errors} that is not affected by calls to {@link #clear()} or
    * {@link ResetOnQueryCounter#getAndReset()} calls to other instances returned by this method.
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.util.Collections.unmodifiableMap;
+
+import org.mule.api.annotation.Experimental;
+
+import java.util.Map;
+
+/**
+ * Immutable view of the values of the {@link FlowConstructStatistics} of a flow at a given moment, including the distribution of
+ * the processing times of the flow and of each of its processors.
+ *
+ * @see AllStatistics#getFlowConstructStatisticsSnapshot(String)
+ * @since 4.6.0
+ */
+@Experimental
+public final class FlowConstructStatisticsSnapshot {
+
+  private final String name;
+  private final long timestamp;
+  private final long receivedEvents;
+  private final long dispatchedMessages;
+  private final long executionErrors;
+  private final long fatalErrors;
+  private final long connectionErrors;
+  private final long admittedEvents;
+  private final long rejectedEvents;
+  private final long processedEvents;
+  private final long totalProcessingTime;
+  private final long minProcessingTime;
+  private final long maxProcessingTime;
+  private final ProcessingTimeDistribution processingTimes;
+  private final Map<String, ProcessingTimeDistribution> processorProcessingTimes;
+
+  public FlowConstructStatisticsSnapshot(String name, long timestamp, long receivedEvents, long dispatchedMessages,
+                                         long executionErrors, long fatalErrors, long connectionErrors,
+                                         long admittedEvents, long rejectedEvents, long processedEvents,
+                                         long totalProcessingTime, long minProcessingTime, long maxProcessingTime,
+                                         ProcessingTimeDistribution processingTimes,
+                                         Map<String, ProcessingTimeDistribution> processorProcessingTimes) {
+    this.name = name;
+    this.timestamp = timestamp;
+    this.receivedEvents = receivedEvents;
+    this.dispatchedMessages = dispatchedMessages;
+    this.executionErrors = executionErrors;
+    this.fatalErrors = fatalErrors;
+    this.connectionErrors = connectionErrors;
+    this.admittedEvents = admittedEvents;
+    this.rejectedEvents = rejectedEvents;
+    this.processedEvents = processedEvents;
+    this.totalProcessingTime = totalProcessingTime;
+    this.minProcessingTime = minProcessingTime;
+    this.maxProcessingTime = maxProcessingTime;
+    this.processingTimes = processingTimes;
+    this.processorProcessingTimes = unmodifiableMap(processorProcessingTimes);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the time in milliseconds when this snapshot was taken.
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public long getReceivedEvents() {
+    return receivedEvents;
+  }
+
+  public long getDispatchedMessages() {
+    return dispatchedMessages;
+  }
+
+  public long getExecutionErrors() {
+    return executionErrors;
+  }
+
+  public long getFatalErrors() {
+    return fatalErrors;
+  }
+
+  public long getConnectionErrors() {
+    return connectionErrors;
+  }
+
+  /**
+   * @return how many events dispatched by the source were admitted by the admission policy of the flow.
+   */
+  public long getAdmittedEvents() {
+    return admittedEvents;
+  }
+
+  /**
+   * @return how many events dispatched by the source were rejected by the admission policy of the flow.
+   */
+  public long getRejectedEvents() {
+    return rejectedEvents;
+  }
+
+  public long getProcessedEvents() {
+    return processedEvents;
+  }
+
+  public long getTotalProcessingTime() {
+    return totalProcessingTime;
+  }
+
+  public long getAverageProcessingTime() {
+    return processedEvents == 0 ? 0 : totalProcessingTime / processedEvents;
+  }
+
+  public long getMinProcessingTime() {
+    return minProcessingTime;
+  }
+
+  public long getMaxProcessingTime() {
+    return maxProcessingTime;
+  }
+
+  /**
+   * @return the distribution of the complete processing times of the flow, in milliseconds.
+   */
+  public ProcessingTimeDistribution getProcessingTimes() {
+    return processingTimes;
+  }
+
+  /**
+   * @return the distribution of the processing times of each processor of the flow, in milliseconds, by processor location.
+   */
+  public Map<String, ProcessingTimeDistribution> getProcessorProcessingTimes() {
+    return processorProcessingTimes;
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.Experimental;
+import org.mule.api.annotation.NoImplement;
+
+/**
+ * The distribution of the processing times recorded for a flow or a processor when a {@link FlowConstructStatisticsSnapshot} was
+ * taken.
+ *
+ * @since 4.6.0
+ */
+@Experimental
+@NoImplement
+public interface ProcessingTimeDistribution {
+
+  /**
+   * @return how many processing times had been recorded.
+   */
+  long getCount();
+
+  /**
+   * Returns the processing time below or at which the given {@code percentile} of the recorded times are. The value is
+   * approximate, within a few percent of the actual recorded times.
+   *
+   * @param percentile a value between 0 and 100
+   * @return the processing time of the percentile, in milliseconds, or 0 if no times were recorded.
+   */
+  long getValueAtPercentile(double percentile);
+}
@@ -11,6 +11,7 @@ import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
 import static org.mule.runtime.api.serialization.ObjectSerializer.DEFAULT_OBJECT_SERIALIZER_NAME;
 import static org.mule.runtime.api.store.ObjectStoreManager.BASE_IN_MEMORY_OBJECT_STORE_KEY;
 import static org.mule.runtime.api.store.ObjectStoreManager.BASE_PERSISTENT_OBJECT_STORE_KEY;
+import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_BINARY_INTERNAL_SERIALIZATION_DEPLOYMENT_PROPERTY;
 import static org.mule.runtime.core.api.config.MuleProperties.COMPATIBILITY_PLUGIN_INSTALLED;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_CORE_EVENT_TRACER_KEY;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_CORE_EXPORTER_FACTORY_KEY;
@@ -49,6 +50,7 @@ import static org.mule.runtime.core.internal.profiling.NoopCoreEventTracer.getNo
 import static org.mule.runtime.core.internal.util.store.DefaultObjectStoreFactoryBean.createDefaultInMemoryObjectStore;
 import static org.mule.runtime.core.internal.util.store.DefaultObjectStoreFactoryBean.createDefaultPersistentObjectStore;
 
+import static java.lang.Boolean.parseBoolean;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import org.mule.runtime.api.artifact.Registry;
@@ -91,6 +93,7 @@ import org.mule.runtime.core.internal.profiling.NoopSpanExporterFactory;
 import org.mule.runtime.core.internal.registry.MuleRegistry;
 import org.mule.runtime.core.internal.registry.TypeBasedTransformerResolver;
 import org.mule.runtime.core.internal.security.DefaultMuleSecurityManager;
+import org.mule.runtime.core.internal.serialization.BinaryObjectSerializer;
 import org.mule.runtime.core.internal.serialization.JavaObjectSerializer;
 import org.mule.runtime.core.internal.streaming.StreamingGhostBuster;
 import org.mule.runtime.core.internal.time.LocalTimeSupplier;
@@ -145,7 +148,7 @@ public class MinimalConfigurationBuilder extends AbstractConfigurationBuilder {
 
     registerObject(OBJECT_SECURITY_MANAGER, new DefaultMuleSecurityManager(), muleContext);
     registerObject(OBJECT_MULE_STREAM_CLOSER_SERVICE, new DefaultStreamCloserService(), muleContext);
-    registerObject(DEFAULT_OBJECT_SERIALIZER_NAME, new JavaObjectSerializer(), muleContext);
+    registerObjectSerializer(muleContext);
 
     final ContributedErrorTypeRepository contributedErrorTypeRepository = new ContributedErrorTypeRepository();
     registerObject(ErrorTypeRepository.class.getName(), contributedErrorTypeRepository, muleContext);
@@ -191,6 +194,15 @@ public class MinimalConfigurationBuilder extends AbstractConfigurationBuilder {
     registerObject(OBJECT_STREAMING_MANAGER, new DefaultStreamingManager(), muleContext);
   }
 
+  protected void registerObjectSerializer(MuleContext muleContext) throws RegistrationException {
+    if (parseBoolean(muleContext.getDeploymentProperties()
+        .getProperty(MULE_BINARY_INTERNAL_SERIALIZATION_DEPLOYMENT_PROPERTY, "false"))) {
+      registerObject(DEFAULT_OBJECT_SERIALIZER_NAME, new BinaryObjectSerializer(), muleContext);
+    } else {
+      registerObject(DEFAULT_OBJECT_SERIALIZER_NAME, new JavaObjectSerializer(), muleContext);
+    }
+  }
+
   protected void registerInterceptionApiObjects(MuleContext muleContext) throws RegistrationException {
     registerObject(INTERCEPTOR_MANAGER_REGISTRY_KEY, new DefaultProcessorInterceptorManager(), muleContext);
   }
@@ -25,6 +25,8 @@ import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.slf4j.Logger;
 
 /**
@@ -95,6 +97,15 @@ public class CompositeConnectionManager implements ConnectionManager, Connection
         : parentConnectionManager.getConnection(config);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+    return childConnectionManager.hasBinding(config) ? childConnectionManager.getConnectionAsync(config)
+        : parentConnectionManager.getConnectionAsync(config);
+  }
+
   /**
    * {@inheritDoc}
    */
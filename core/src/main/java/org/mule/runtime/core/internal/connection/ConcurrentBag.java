@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.yield;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Lock-free collection of reusable items, optimized for many threads borrowing and returning them concurrently.
+ * <p>
+ * Each thread remembers the items it returned, and tries to borrow those first, so that under a steady load a thread usually gets
+ * back the same item with a single CAS and without touching any state shared with other threads. When that is not possible, the
+ * items shared by all the threads are scanned, and if none is available, the borrower waits for an item to be handed off to it
+ * directly by the thread that returns it.
+ * <p>
+ * Borrowers may also wait asynchronously, through {@link #borrowAsync()}, in which case the returned item is handed off by
+ * completing the future.
+ * <p>
+ * Items are never created by this class. It is up to the owner to {@link #add(Object) add} them, for instance when a borrow
+ * attempt finds no available items.
+ *
+ * @param <T> the generic type of the items
+ * @since 4.6.0
+ */
+final class ConcurrentBag<T> {
+
+  static final int STATE_NOT_IN_USE = 0;
+  static final int STATE_IN_USE = 1;
+  static final int STATE_REMOVED = -1;
+  static final int STATE_RESERVED = -2;
+
+  private static final int MAX_THREAD_LOCAL_ITEMS = 16;
+
+  // how long a borrower waits for a handoff before checking whether the bag was closed, in case it missed the wake up
+  private static final long CLOSED_CHECK_INTERVAL_NANOS = MILLISECONDS.toNanos(100);
+
+  private final CopyOnWriteArrayList<Entry<T>> sharedList = new CopyOnWriteArrayList<>();
+  // Weak references, so threads shared by different applications do not keep the items of an undeployed one
+  private final ThreadLocal<List<WeakReference<Entry<T>>>> threadList = ThreadLocal.withInitial(ArrayList::new);
+  private final SynchronousQueue<Entry<T>> handoffQueue = new SynchronousQueue<>(true);
+  private final Queue<CompletableFuture<Entry<T>>> asyncWaiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  // handed off to the threads waiting for an item when the bag is closed
+  private final Entry<T> closedEntry = new Entry<>(null, STATE_REMOVED);
+  private volatile boolean closed;
+
+  /**
+   * An item of the bag along with its state.
+   */
+  static final class Entry<T> {
+
+    private static final AtomicIntegerFieldUpdater<Entry> STATE = newUpdater(Entry.class, "state");
+
+    private final T item;
+    private volatile int state;
+    private volatile long lastReturned = nanoTime();
+
+    private Entry(T item, int state) {
+      this.item = item;
+      this.state = state;
+    }
+
+    T getItem() {
+      return item;
+    }
+
+    int getState() {
+      return state;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when this entry was last returned to the bag.
+     */
+    long getLastReturned() {
+      return lastReturned;
+    }
+
+    private boolean compareAndSet(int expected, int update) {
+      return STATE.compareAndSet(this, expected, update);
+    }
+  }
+
+  /**
+   * Adds a new item to the bag, already borrowed by the caller.
+   *
+   * @param item the item to add
+   * @return the entry of the item, to be {@link #requite(Entry) returned} when the caller is done with it
+   */
+  Entry<T> add(T item) {
+    Entry<T> entry = new Entry<>(item, STATE_IN_USE);
+    sharedList.add(entry);
+    return entry;
+  }
+
+  /**
+   * Borrows an available item, waiting up to the given {@code timeout} for another thread to return one.
+   *
+   * @param timeout how long to wait. {@code 0} means not to wait and a negative value to wait indefinitely
+   * @param unit    the unit of {@code timeout}
+   * @return the entry of the borrowed item, or {@code null} if none became available in time or the bag was
+   *         {@link #close(Throwable) closed} while waiting
+   * @throws InterruptedException if interrupted while waiting
+   */
+  Entry<T> borrow(long timeout, TimeUnit unit) throws InterruptedException {
+    Entry<T> entry = borrowFromThreadList();
+    if (entry != null) {
+      return entry;
+    }
+
+    // Registering as a waiter before scanning ensures that an item returned during the scan is handed off to this thread
+    waiters.incrementAndGet();
+    try {
+      entry = borrowFromSharedList();
+      if (entry != null || timeout == 0) {
+        return entry;
+      }
+
+      long remaining = timeout < 0 ? Long.MAX_VALUE : unit.toNanos(timeout);
+      final long start = nanoTime();
+      do {
+        if (closed) {
+          return null;
+        }
+        entry = handoffQueue.poll(min(remaining, CLOSED_CHECK_INTERVAL_NANOS), NANOSECONDS);
+        if (entry == closedEntry) {
+          return null;
+        }
+        if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+          idle.decrementAndGet();
+          return entry;
+        }
+        remaining = timeout < 0 ? Long.MAX_VALUE : unit.toNanos(timeout) - (nanoTime() - start);
+      } while (remaining > 0);
+
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Borrows an available item without blocking the calling thread. If none is available, the returned future is completed when
+   * another thread returns one.
+   * <p>
+   * The caller is responsible for completing the returned future, for instance exceptionally on a timeout, if it no longer wants
+   * to wait.
+   *
+   * @return a future for the entry of the borrowed item
+   */
+  CompletableFuture<Entry<T>> borrowAsync() {
+    Entry<T> entry = borrowFromThreadList();
+    if (entry != null) {
+      return completedFuture(entry);
+    }
+
+    CompletableFuture<Entry<T>> future = new CompletableFuture<>();
+    waiters.incrementAndGet();
+    future.whenComplete((e, t) -> {
+      waiters.decrementAndGet();
+      if (t != null) {
+        asyncWaiters.remove(future);
+      }
+    });
+    asyncWaiters.add(future);
+
+    // An item may have been returned before the future was registered
+    entry = borrowFromSharedList();
+    if (entry != null && !future.complete(entry)) {
+      requite(entry);
+    }
+    return future;
+  }
+
+  /**
+   * Returns a borrowed item to the bag, handing it off to a waiting borrower if there is any.
+   *
+   * @param entry the entry of the item to return
+   */
+  void requite(Entry<T> entry) {
+    entry.lastReturned = nanoTime();
+    idle.incrementAndGet();
+    entry.state = STATE_NOT_IN_USE;
+
+    for (int i = 0; waiters.get() > 0; ++i) {
+      if (entry.getState() != STATE_NOT_IN_USE || handoffToAsyncWaiter(entry) || handoffQueue.offer(entry)) {
+        return;
+      } else if ((i & 0xff) == 0xff) {
+        parkNanos(MICROSECONDS.toNanos(10));
+      } else {
+        yield();
+      }
+    }
+
+    List<WeakReference<Entry<T>>> localList = threadList.get();
+    if (localList.size() < MAX_THREAD_LOCAL_ITEMS) {
+      localList.add(new WeakReference<>(entry));
+    }
+  }
+
+  /**
+   * Reserves an item that is not in use, so it cannot be borrowed until it is {@link #unreserve(Entry) unreserved} or
+   * {@link #remove(Entry) removed}.
+   *
+   * @param entry the entry of the item to reserve
+   * @return whether the item could be reserved
+   */
+  boolean reserve(Entry<T> entry) {
+    if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED)) {
+      idle.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Makes a {@link #reserve(Entry) reserved} item available again.
+   *
+   * @param entry the entry of the item to unreserve
+   */
+  void unreserve(Entry<T> entry) {
+    if (entry.compareAndSet(STATE_RESERVED, STATE_IN_USE)) {
+      requite(entry);
+    }
+  }
+
+  /**
+   * Removes an item that is either borrowed or {@link #reserve(Entry) reserved} by the caller from the bag.
+   *
+   * @param entry the entry of the item to remove
+   * @return whether the item was removed
+   */
+  boolean remove(Entry<T> entry) {
+    if (!entry.compareAndSet(STATE_IN_USE, STATE_REMOVED) && !entry.compareAndSet(STATE_RESERVED, STATE_REMOVED)) {
+      return false;
+    }
+    return sharedList.remove(entry);
+  }
+
+  /**
+   * @return a snapshot of the entries of all the items in this bag, in any state.
+   */
+  List<Entry<T>> entries() {
+    return new ArrayList<>(sharedList);
+  }
+
+  /**
+   * Stops the borrowers from waiting for an item: the ones waiting synchronously get no item, and the futures of the ones waiting
+   * asynchronously are completed exceptionally. Items can still be borrowed, returned and removed after closing.
+   *
+   * @param cause the exception to complete the futures with
+   */
+  void close(Throwable cause) {
+    closed = true;
+
+    CompletableFuture<Entry<T>> waiter;
+    while ((waiter = asyncWaiters.poll()) != null) {
+      waiter.completeExceptionally(cause);
+    }
+    // Wakes up the threads blocked on the handoff right away. The ones that are not blocked yet see the flag before blocking.
+    while (handoffQueue.offer(closedEntry)) {
+      // until no thread is blocked on it
+    }
+  }
+
+  /**
+   * @return how many items are in this bag, in any state.
+   */
+  int size() {
+    return sharedList.size();
+  }
+
+  /**
+   * @return how many items are available to be borrowed.
+   */
+  int getIdleCount() {
+    return idle.get();
+  }
+
+  /**
+   * @return how many threads are waiting for an item, synchronously or asynchronously.
+   */
+  int getWaitingCount() {
+    return waiters.get();
+  }
+
+  private Entry<T> borrowFromThreadList() {
+    List<WeakReference<Entry<T>>> localList = threadList.get();
+    for (int i = localList.size() - 1; i >= 0; --i) {
+      Entry<T> entry = localList.remove(i).get();
+      if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        idle.decrementAndGet();
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private Entry<T> borrowFromSharedList() {
+    for (Entry<T> entry : sharedList) {
+      if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        idle.decrementAndGet();
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private boolean handoffToAsyncWaiter(Entry<T> entry) {
+    CompletableFuture<Entry<T>> waiter;
+    // The waiter is only dequeued once it gets the entry, so it keeps its place in line if someone else takes the entry first
+    while ((waiter = asyncWaiters.peek()) != null) {
+      if (!entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        return true;
+      }
+      idle.decrementAndGet();
+      if (asyncWaiters.remove(waiter) && waiter.complete(entry)) {
+        return true;
+      }
+      // The waiter gave up or was handed off another entry, try with the next one
+      idle.incrementAndGet();
+      entry.state = STATE_NOT_IN_USE;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.util.Preconditions.checkState;
+
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.internal.connection.ConcurrentBag.Entry;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of {@link ConnectionHandlerAdapter} which wraps a {@code Connection} obtained from a
+ * {@link ConcurrentPoolingConnectionManagementStrategy}.
+ *
+ * @param <C> the generic type of the connection to be returned
+ * @since 4.6.0
+ */
+final class ConcurrentPoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
+
+  private final Entry<C> entry;
+  private final ConcurrentPoolingConnectionManagementStrategy<C> pool;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  /**
+   * Creates a new instance
+   *
+   * @param entry the entry of the borrowed connection
+   * @param pool  the pool from which the connection was obtained and to which it has to be returned
+   */
+  ConcurrentPoolingConnectionHandler(Entry<C> entry, ConcurrentPoolingConnectionManagementStrategy<C> pool) {
+    this.entry = entry;
+    this.pool = pool;
+  }
+
+  @Override
+  public C getConnection() throws ConnectionException {
+    checkState(!released.get(), "Connection has been either released or invalidated");
+    return entry.getItem();
+  }
+
+  /**
+   * Returns the connection to the pool
+   */
+  @Override
+  public void release() {
+    if (!released.getAndSet(true)) {
+      pool.release(entry);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void invalidate() {
+    if (!released.getAndSet(true)) {
+      pool.invalidate(entry);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ConnectionProvider<C> getConnectionProvider() {
+    return pool.connectionProvider;
+  }
+
+  /**
+   * Does nothing for this implementation. Connections are only closed when the pool is.
+   */
+  @Override
+  public void close() throws MuleException {
+
+  }
+}
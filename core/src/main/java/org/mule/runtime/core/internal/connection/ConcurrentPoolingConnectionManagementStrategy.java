@@ -0,0 +1,540 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.connection.ConcurrentBag.STATE_NOT_IN_USE;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.connection.ConcurrentBag.Entry;
+import org.mule.runtime.core.internal.management.stats.LatencyHistogram;
+import org.mule.runtime.core.internal.profiling.context.ConnectionPoolBorrowWaitProfilingEventContext;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link ConcurrentBag}, as an alternative to
+ * {@link PoolingConnectionManagementStrategy} for pools borrowed from by many threads concurrently.
+ * <p>
+ * It honors the same {@link PoolingProfile} settings as {@link PoolingConnectionManagementStrategy}. Besides, it:
+ * <ul>
+ * <li>Lets a thread borrow again the connection it last returned without contending with other threads.</li>
+ * <li>Supports waiting for a connection without blocking the calling thread, through {@link #getConnectionHandlerAsync()}.</li>
+ * <li>Validates idle connections in the background, with the same frequency the eviction of idle connections is checked.</li>
+ * <li>When a connection is invalidated while there are threads waiting, creates a new one for them right away instead of
+ * leaving them waiting for another connection to be returned.</li>
+ * <li>Keeps a histogram of the time spent waiting to borrow a connection, in microseconds, which is published with a
+ * {@link ConnectionPoolBorrowWaitProfilingEventContext profiling event} each time a thread has to wait for a connection to be
+ * returned.</li>
+ * </ul>
+ *
+ * @param <C> the generic type of the connections to be managed
+ * @since 4.6.0
+ */
+final class ConcurrentPoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentPoolingConnectionManagementStrategy.class);
+
+  private final PoolingProfile poolingProfile;
+  private final PoolingListener<C> poolingListener;
+  private final String poolId;
+  private final ConcurrentBag<C> bag = new ConcurrentBag<>();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final LatencyHistogram borrowWaitTimes = new LatencyHistogram();
+  private final ProfilingDataProducer<ExtensionProfilingEventContext, Object> borrowWaitDataProducer;
+
+  private final int maxActive;
+  private final int maxIdle;
+  private final long maxWaitMillis;
+
+  private final Scheduler scheduler;
+  private final ScheduledFuture<?> housekeeping;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to manage the connections
+   * @param poolingProfile     the {@link PoolingProfile} which configures the pool
+   * @param poolingListener    a {@link PoolingListener}
+   * @param muleContext        the application's {@link MuleContext}
+   */
+  ConcurrentPoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                                                PoolingListener<C> poolingListener, MuleContext muleContext,
+                                                String ownerConfigName) {
+    this(connectionProvider, poolingProfile, poolingListener, muleContext, ownerConfigName, null);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider     the {@link ConnectionProvider} used to manage the connections
+   * @param poolingProfile         the {@link PoolingProfile} which configures the pool
+   * @param poolingListener        a {@link PoolingListener}
+   * @param muleContext            the application's {@link MuleContext}
+   * @param borrowWaitDataProducer the producer for the {@link ConnectionPoolBorrowWaitProfilingEventContext profiling events} of
+   *                               the pool. May be {@code null}.
+   */
+  ConcurrentPoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                                                PoolingListener<C> poolingListener, MuleContext muleContext,
+                                                String ownerConfigName,
+                                                ProfilingDataProducer<ExtensionProfilingEventContext, Object> borrowWaitDataProducer) {
+    super(connectionProvider, muleContext);
+    this.poolingProfile = poolingProfile;
+    this.poolingListener = poolingListener;
+    this.borrowWaitDataProducer = borrowWaitDataProducer;
+    this.poolId = ownerConfigName.concat("-").concat(UUID.randomUUID().toString());
+
+    switch (poolingProfile.getExhaustedAction()) {
+      case WHEN_EXHAUSTED_GROW:
+        maxActive = MAX_VALUE;
+        maxWaitMillis = 0;
+        break;
+      case WHEN_EXHAUSTED_FAIL:
+        maxActive = unlimitedIfNegative(poolingProfile.getMaxActive());
+        maxWaitMillis = 0;
+        break;
+      default:
+        maxActive = unlimitedIfNegative(poolingProfile.getMaxActive());
+        maxWaitMillis = poolingProfile.getMaxWait();
+        break;
+    }
+    maxIdle = unlimitedIfNegative(poolingProfile.getMaxIdle());
+
+    LOGGER.debug("Creating pool with ID {} for config {}", poolId, ownerConfigName);
+    scheduler = muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withName(poolId + ".housekeeper"));
+    final long evictionCheckInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    housekeeping = evictionCheckInterval > 0
+        ? scheduler.scheduleWithFixedDelay(this::housekeep, evictionCheckInterval, evictionCheckInterval, MILLISECONDS)
+        : null;
+
+    applyInitialisationPolicy();
+    logPoolStatus();
+  }
+
+  private static int unlimitedIfNegative(int value) {
+    return value < 0 ? MAX_VALUE : value;
+  }
+
+  /**
+   * Returns a {@link ConnectionHandler} which wraps a connection obtained from the pool
+   *
+   * @return a {@link ConnectionHandler}
+   * @throws ConnectionException if the connection could not be obtained
+   */
+  @Override
+  public ConnectionHandler<C> getConnectionHandler() throws ConnectionException {
+    checkNotClosed();
+    final long start = nanoTime();
+    try {
+      Entry<C> entry = bag.borrow(0, MILLISECONDS);
+      if (entry == null) {
+        entry = createIfAllowed();
+      }
+      boolean waited = false;
+      if (entry == null && maxWaitMillis != 0) {
+        entry = bag.borrow(maxWaitMillis, MILLISECONDS);
+        waited = true;
+      }
+      if (entry == null) {
+        checkNotClosed();
+        throw new ConnectionException("Connection pool is exhausted");
+      }
+
+      return onBorrow(entry, start, waited);
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new ConnectionException("Interrupted while waiting for a connection from the pool", e);
+    } catch (ConnectionException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ConnectionException("An exception was found trying to obtain a connection: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Returns a {@link ConnectionHandler} which wraps a connection obtained from the pool. If a connection has to be created or
+   * waited for, that happens without blocking the calling thread.
+   *
+   * @return a future for the {@link ConnectionHandler}, completed exceptionally with a {@link ConnectionException} if the
+   *         connection could not be obtained
+   */
+  @Override
+  CompletableFuture<ConnectionHandler<C>> getConnectionHandlerAsync() {
+    final long start = nanoTime();
+    CompletableFuture<ConnectionHandler<C>> result = new CompletableFuture<>();
+    try {
+      checkNotClosed();
+
+      Entry<C> entry = bag.borrow(0, MILLISECONDS);
+      if (entry != null) {
+        return completedFuture(onBorrow(entry, start, false));
+      }
+
+      if (reserveConnectionSlot()) {
+        runAsync(() -> {
+          try {
+            Entry<C> created;
+            try {
+              created = create();
+            } catch (Throwable t) {
+              totalConnections.decrementAndGet();
+              throw t;
+            }
+            completeOrRelease(result, onBorrow(created, start, false));
+          } catch (Throwable t) {
+            result.completeExceptionally(asConnectionException(t));
+          }
+        }, scheduler);
+        return result;
+      }
+
+      if (maxWaitMillis == 0) {
+        throw new ConnectionException("Connection pool is exhausted");
+      }
+
+      CompletableFuture<Entry<C>> borrowed = bag.borrowAsync();
+      final boolean waited = !borrowed.isDone();
+      if (maxWaitMillis > 0 && !borrowed.isDone()) {
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> borrowed
+            .completeExceptionally(new ConnectionException("Connection pool is exhausted")), maxWaitMillis, MILLISECONDS);
+        borrowed.whenComplete((e, t) -> timeout.cancel(false));
+      }
+      borrowed.whenComplete((e, t) -> {
+        if (t != null) {
+          result.completeExceptionally(asConnectionException(t));
+          return;
+        }
+        try {
+          completeOrRelease(result, onBorrow(e, start, waited));
+        } catch (Throwable borrowError) {
+          result.completeExceptionally(asConnectionException(borrowError));
+        }
+      });
+    } catch (Throwable t) {
+      result.completeExceptionally(asConnectionException(t));
+    }
+    return result;
+  }
+
+  private void completeOrRelease(CompletableFuture<ConnectionHandler<C>> result, ConnectionHandler<C> handler) {
+    // The caller may have cancelled the future, in which case nobody will release the connection
+    if (!result.complete(handler)) {
+      handler.release();
+    }
+  }
+
+  private ConnectionHandler<C> onBorrow(Entry<C> entry, long start, boolean waited) throws Exception {
+    final long waitTime = NANOSECONDS.toMicros(nanoTime() - start);
+    borrowWaitTimes.record(waitTime);
+    if (waited && borrowWaitDataProducer != null) {
+      borrowWaitDataProducer
+          .triggerProfilingEvent(new ConnectionPoolBorrowWaitProfilingEventContext(poolId, waitTime, borrowWaitTimes,
+                                                                                  currentTimeMillis()));
+    }
+
+    C connection = entry.getItem();
+    LOGGER.debug("Acquiring connection {} from the pool {}", connection.toString(), poolId);
+    logPoolStatus();
+    try {
+      poolingListener.onBorrow(connection);
+    } catch (Exception e) {
+      destroy(entry);
+      throw e;
+    }
+
+    return new ConcurrentPoolingConnectionHandler<>(entry, this);
+  }
+
+  private Entry<C> createIfAllowed() throws ConnectionException {
+    if (!reserveConnectionSlot()) {
+      return null;
+    }
+
+    try {
+      return create();
+    } catch (ConnectionException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      throw e;
+    }
+  }
+
+  private boolean reserveConnectionSlot() {
+    while (true) {
+      final int current = totalConnections.get();
+      if (current >= maxActive) {
+        return false;
+      }
+      if (totalConnections.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private Entry<C> create() throws ConnectionException {
+    C connection = ConnectionUtils.connect(connectionProvider);
+    LOGGER.debug("Created connection {}", connection.toString());
+    return bag.add(connection);
+  }
+
+  /**
+   * Returns the connection of the given {@code entry} to the pool.
+   */
+  void release(Entry<C> entry) {
+    C connection = entry.getItem();
+    LOGGER.debug("Returning back connection {} to pool {}", connection.toString(), poolId);
+    try {
+      poolingListener.onReturn(connection);
+    } catch (Exception e) {
+      LOGGER.warn("Could not return connection to the pool. Connection will be terminated", e);
+      invalidate(entry);
+      return;
+    }
+
+    if (closed || (bag.getIdleCount() >= maxIdle && bag.getWaitingCount() == 0)) {
+      destroy(entry);
+    } else {
+      bag.requite(entry);
+    }
+    logPoolStatus();
+  }
+
+  /**
+   * Removes the connection of the given {@code entry} from the pool and disconnects it.
+   */
+  void invalidate(Entry<C> entry) {
+    LOGGER.debug("Invalidating connection {} from pool {}", entry.getItem().toString(), poolId);
+    destroy(entry);
+    logPoolStatus();
+  }
+
+  private void destroy(Entry<C> entry) {
+    if (!bag.remove(entry)) {
+      return;
+    }
+    totalConnections.decrementAndGet();
+    replaceForWaiters();
+
+    C connection = entry.getItem();
+    try {
+      LOGGER.debug("Disconnecting connection {}", connection.toString());
+      connectionProvider.disconnect(connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was thrown trying to disconnect connection of type " + connection.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Creates a connection in place of a destroyed one if there are threads waiting for one to be returned, since they would
+   * otherwise keep waiting until another connection is returned, or time out if none is. The connection is created in the
+   * background, so the thread destroying the previous one doesn't wait for it.
+   */
+  private void replaceForWaiters() {
+    if (closed || bag.getWaitingCount() == 0 || !reserveConnectionSlot()) {
+      return;
+    }
+
+    try {
+      scheduler.execute(() -> {
+        Entry<C> entry;
+        try {
+          entry = create();
+        } catch (Throwable t) {
+          totalConnections.decrementAndGet();
+          LOGGER.warn("Could not create a connection for the threads waiting on pool " + poolId, t);
+          return;
+        }
+
+        if (closed) {
+          destroy(entry);
+        } else {
+          bag.requite(entry);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // the pool is being closed
+      totalConnections.decrementAndGet();
+    }
+  }
+
+  /**
+   * Evicts the connections idle for longer than allowed by the {@link PoolingProfile} and validates the rest of the idle ones.
+   */
+  private void housekeep() {
+    final long minEvictionNanos = MILLISECONDS.toNanos(poolingProfile.getMinEvictionMillis());
+    for (Entry<C> entry : bag.entries()) {
+      if (closed) {
+        return;
+      }
+      if (entry.getState() != STATE_NOT_IN_USE || !bag.reserve(entry)) {
+        continue;
+      }
+
+      if (minEvictionNanos > 0 && nanoTime() - entry.getLastReturned() > minEvictionNanos) {
+        LOGGER.debug("Evicting idle connection {} from pool {}", entry.getItem().toString(), poolId);
+        destroy(entry);
+      } else if (!isValid(entry.getItem())) {
+        LOGGER.debug("Evicting invalid connection {} from pool {}", entry.getItem().toString(), poolId);
+        destroy(entry);
+      } else {
+        bag.unreserve(entry);
+      }
+    }
+  }
+
+  private boolean isValid(C connection) {
+    try {
+      ConnectionValidationResult result = connectionProvider.validate(connection);
+      return result != null && result.isValid();
+    } catch (Exception e) {
+      LOGGER.debug("Exception validating connection of pool {}", poolId, e);
+      return false;
+    }
+  }
+
+  /**
+   * Closes the pool, disconnecting the idle connections. The connections in use are disconnected when returned.
+   *
+   * @throws MuleException
+   */
+  @Override
+  public void close() throws MuleException {
+    logPoolStatus();
+    LOGGER.debug("Closing pool {}", poolId);
+    closed = true;
+    try {
+      if (housekeeping != null) {
+        housekeeping.cancel(false);
+      }
+      bag.close(new ConnectionException("Connection pool " + poolId + " is closed"));
+      for (Entry<C> entry : bag.entries()) {
+        if (bag.reserve(entry)) {
+          destroy(entry);
+        }
+      }
+    } catch (Exception e) {
+      throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  private void applyInitialisationPolicy() {
+    int initialConnections;
+    switch (poolingProfile.getInitialisationPolicy()) {
+      case INITIALISE_NONE:
+        initialConnections = 0;
+        break;
+      case INITIALISE_ONE:
+        initialConnections = 1;
+        break;
+      case INITIALISE_ALL:
+        if (poolingProfile.getMaxActive() < 0) {
+          initialConnections = poolingProfile.getMaxIdle();
+        } else if (poolingProfile.getMaxIdle() < 0) {
+          initialConnections = poolingProfile.getMaxActive();
+        } else {
+          initialConnections = min(poolingProfile.getMaxActive(), poolingProfile.getMaxIdle());
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unexpected value for pooling profile initialization policy: "
+            + poolingProfile.getInitialisationPolicy());
+    }
+
+    LOGGER.debug("Initializing pool {} with {} initial connections", poolId, initialConnections);
+    for (int t = 0; t < initialConnections; t++) {
+      try {
+        Entry<C> entry = createIfAllowed();
+        if (entry != null) {
+          bag.requite(entry);
+        }
+      } catch (Exception e) {
+        LOGGER.warn("Failed to create a connection while applying the pool initialization policy.", e);
+      }
+    }
+  }
+
+  private void checkNotClosed() throws ConnectionException {
+    if (closed) {
+      throw new ConnectionException("Connection pool " + poolId + " is closed");
+    }
+  }
+
+  private static ConnectionException asConnectionException(Throwable t) {
+    if (t instanceof ConnectionException) {
+      return (ConnectionException) t;
+    }
+    if (t.getCause() instanceof ConnectionException) {
+      return (ConnectionException) t.getCause();
+    }
+    return new ConnectionException("An exception was found trying to obtain a connection: " + t.getMessage(), t);
+  }
+
+  private void logPoolStatus() {
+    if (LOGGER.isDebugEnabled()) {
+      int idle = bag.getIdleCount();
+      LOGGER
+          .debug("Status for pool {}: {} connections are active out of {} max active limit, {} connections are idle out of {} max idle limit",
+                 poolId, bag.size() - idle, maxActive == MAX_VALUE ? "unlimited" : String.valueOf(maxActive), idle,
+                 maxIdle == MAX_VALUE ? "unlimited" : String.valueOf(maxIdle));
+    }
+  }
+
+  /**
+   * @return the distribution of the time spent waiting to borrow a connection from this pool, in microseconds.
+   */
+  LatencyHistogram.Snapshot getBorrowWaitTimes() {
+    return borrowWaitTimes.snapshot();
+  }
+
+  String getPoolId() {
+    return poolId;
+  }
+
+  PoolingListener<C> getPoolingListener() {
+    return poolingListener;
+  }
+
+  public PoolingProfile getPoolingProfile() {
+    return poolingProfile;
+  }
+}
@@ -13,6 +13,8 @@ import org.mule.runtime.core.api.Closeable;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.exception.MuleException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Strategy to implement different connection management mechanisms.
  * <p>
@@ -48,6 +50,26 @@ abstract class ConnectionManagementStrategy<C> implements Closeable {
    */
   abstract ConnectionHandler<C> getConnectionHandler() throws ConnectionException;
 
+  /**
+   * Same as {@link #getConnectionHandler()}, but for strategies that may have to wait for a connection to be available, that
+   * happens without blocking the calling thread.
+   * <p>
+   * This default implementation obtains the connection in the calling thread.
+   *
+   * @return a future for the {@link ConnectionHandler}, completed exceptionally with a {@link ConnectionException} if the
+   *         connection could not be obtained
+   * @since 4.6.0
+   */
+  CompletableFuture<ConnectionHandler<C>> getConnectionHandlerAsync() {
+    CompletableFuture<ConnectionHandler<C>> result = new CompletableFuture<>();
+    try {
+      result.complete(getConnectionHandler());
+    } catch (Throwable t) {
+      result.completeExceptionally(t);
+    }
+    return result;
+  }
+
   /**
    * Closes all connections and resources allocated through {@code this} instance.
    *
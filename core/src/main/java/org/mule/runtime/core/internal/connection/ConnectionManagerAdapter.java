@@ -6,7 +6,11 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
 import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.lifecycle.Stoppable;
@@ -14,6 +18,8 @@ import org.mule.runtime.core.api.connector.ConnectionManager;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for {@link ConnectionManager} implementations which expands its contract with non API functionality
  *
@@ -46,4 +52,27 @@ public interface ConnectionManagerAdapter extends ConnectionManager, Lifecycle {
    * @return a {@link PoolingProfile}
    */
   PoolingProfile getDefaultPoolingProfile();
+
+  /**
+   * Asynchronous version of {@link #getConnection(Object)}. When the connections of the given {@code config} are pooled and the
+   * pool is exhausted, the returned future is completed once a connection becomes available, without blocking the calling
+   * thread while waiting.
+   * <p>
+   * Failures to obtain the connection, including the {@link ConnectionException} that {@link #getConnection(Object)} would throw,
+   * are notified by completing the returned future exceptionally.
+   *
+   * @param config the config whose connection is requested
+   * @param <C>    the generic type of the connection
+   * @return a future for the {@link ConnectionHandler}
+   * @since 4.6.0
+   */
+  default <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+    try {
+      return completedFuture(getConnection(config));
+    } catch (Throwable t) {
+      CompletableFuture<ConnectionHandler<C>> future = new CompletableFuture<>();
+      future.completeExceptionally(t);
+      return future;
+    }
+  }
 }
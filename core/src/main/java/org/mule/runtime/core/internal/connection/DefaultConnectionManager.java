@@ -30,6 +30,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -232,6 +233,27 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
    */
   @Override
   public <C> ConnectionHandler<C> getConnection(Object config) throws ConnectionException {
+    return this.<C>getManagementStrategy(config).getConnectionHandler();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+    ConnectionManagementStrategy<C> handlingStrategy;
+    try {
+      handlingStrategy = getManagementStrategy(config);
+    } catch (ConnectionException e) {
+      CompletableFuture<ConnectionHandler<C>> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+
+    return handlingStrategy.getConnectionHandlerAsync();
+  }
+
+  private <C> ConnectionManagementStrategy<C> getManagementStrategy(Object config) throws ConnectionException {
     ConnectionManagementStrategy<C> handlingStrategy = null;
     readLock.lock();
     try {
@@ -244,7 +266,7 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
       throw new ConnectionException("No ConnectionProvider has been registered for owner " + config);
     }
 
-    return handlingStrategy.getConnectionHandler();
+    return handlingStrategy;
   }
 
   /**
@@ -35,6 +35,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
   private final String poolId;
   private final PoolingListener poolingListener;
   private final ConnectionProvider connectionProvider;
+  private final Runnable onRelease;
   private final AtomicBoolean released = new AtomicBoolean(false);
 
   /**
@@ -45,11 +46,25 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
    */
   PoolingConnectionHandler(C connection, GenericObjectPool<C> pool, String poolId, PoolingListener poolingListener,
                            ConnectionProvider connectionProvider) {
+    this(connection, pool, poolId, poolingListener, connectionProvider, () -> {
+    });
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param connection the connection to be wrapped
+   * @param pool       the pool from which the {@code connection} was obtained and to which it has to be returned
+   * @param onRelease  invoked once the {@code connection} has been returned to the {@code pool} or invalidated
+   */
+  PoolingConnectionHandler(C connection, GenericObjectPool<C> pool, String poolId, PoolingListener poolingListener,
+                           ConnectionProvider connectionProvider, Runnable onRelease) {
     this.connection = connection;
     this.pool = pool;
     this.poolId = poolId;
     this.poolingListener = poolingListener;
     this.connectionProvider = connectionProvider;
+    this.onRelease = onRelease;
   }
 
   /**
@@ -89,6 +104,10 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
         connection = null;
       }
     }
+
+    if (returnAttempted) {
+      onRelease.run();
+    }
   }
 
   /**
@@ -105,6 +124,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
     } finally {
       connection = null;
     }
+    onRelease.run();
   }
 
   /**
@@ -6,8 +6,10 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.TRUE;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Integer.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ONE;
@@ -22,10 +24,14 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.DefaultMuleException;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.ObjectPool;
@@ -46,11 +52,21 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PoolingConnectionManagementStrategy.class);
 
+  // set while polling for an idle connection, so the pool doesn't create one in the calling thread instead
+  private static final ThreadLocal<Boolean> IDLE_ONLY = new ThreadLocal<>();
+
   private final PoolingProfile poolingProfile;
   private final GenericObjectPool<C> pool;
   private final String poolId;
   private final PoolingListener<C> poolingListener;
 
+  // asynchronous borrowers waiting for a connection to be returned, served in order by whoever returns it
+  private final ConcurrentLinkedQueue<CompletableFuture<ConnectionHandler<C>>> waiters = new ConcurrentLinkedQueue<>();
+
+  // created the first time a connection has to be borrowed asynchronously, guarded by this instance's monitor
+  private Scheduler borrowScheduler;
+  private boolean closed;
+
   /**
    * Creates a new instance
    *
@@ -77,18 +93,193 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   @Override
   public ConnectionHandler<C> getConnectionHandler() throws ConnectionException {
     try {
-      return new PoolingConnectionHandler<>(borrowConnection(), pool, poolId, poolingListener, connectionProvider);
-    } catch (ConnectionException e) {
-      throw e;
-    } catch (NoSuchElementException e) {
-      throw new ConnectionException("Connection pool is exhausted", e);
+      return createHandler(borrowConnection());
     } catch (Exception e) {
-      throw new ConnectionException("An exception was found trying to obtain a connection: " + e.getMessage(), e);
+      throw asConnectionException(e);
+    }
+  }
+
+  private ConnectionHandler<C> createHandler(C connection) {
+    return new PoolingConnectionHandler<>(connection, pool, poolId, poolingListener, connectionProvider,
+                                          this::onConnectionReleased);
+  }
+
+  /**
+   * Returns a {@link ConnectionHandler} which wraps a connection obtained from the {@link #pool}.
+   * <p>
+   * An idle connection is borrowed in the calling thread, but a new one is only created in an IO thread. If the pool is
+   * exhausted, no thread waits for a connection to be returned: the returned future is queued and completed by the thread that
+   * returns one, or failed once the configured max wait elapses.
+   *
+   * @return a future for the {@link ConnectionHandler}, completed exceptionally with a {@link ConnectionException} if the
+   *         connection could not be obtained
+   */
+  @Override
+  CompletableFuture<ConnectionHandler<C>> getConnectionHandlerAsync() {
+    CompletableFuture<ConnectionHandler<C>> result = new CompletableFuture<>();
+    try {
+      C connection = pollIdleConnection();
+      if (connection != null) {
+        result.complete(createHandler(connection));
+        return result;
+      }
+    } catch (Exception e) {
+      result.completeExceptionally(asConnectionException(e));
+      return result;
+    }
+
+    try {
+      getBorrowScheduler().execute(() -> borrowOrWait(result));
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(poolClosedException(e));
+    }
+    return result;
+  }
+
+  /**
+   * Borrows a connection without waiting for one to be returned, creating it if needed. If the pool is exhausted and configured
+   * to wait, {@code result} is queued until a connection is returned.
+   */
+  private void borrowOrWait(CompletableFuture<ConnectionHandler<C>> result) {
+    try {
+      complete(result, createHandler(onBorrow(pool.borrowObject(0))));
+      return;
+    } catch (NoSuchElementException e) {
+      if (!pool.getBlockWhenExhausted() || poolingProfile.getMaxWait() == 0) {
+        result.completeExceptionally(asConnectionException(e));
+        return;
+      }
+    } catch (Throwable t) {
+      result.completeExceptionally(t instanceof Exception ? asConnectionException((Exception) t) : t);
+      return;
+    }
+
+    waiters.add(result);
+    if (isClosed()) {
+      failWaiters();
+      return;
+    }
+    if (poolingProfile.getMaxWait() > 0) {
+      try {
+        getBorrowScheduler().schedule(() -> {
+          if (waiters.remove(result)) {
+            result.completeExceptionally(asConnectionException(new NoSuchElementException("Timeout waiting for idle object")));
+          }
+        }, poolingProfile.getMaxWait(), MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        if (waiters.remove(result)) {
+          result.completeExceptionally(poolClosedException(e));
+        }
+        return;
+      }
+    }
+    // a connection may have been returned before queueing, with nobody to hand it to
+    serveWaiters(false);
+  }
+
+  private void onConnectionReleased() {
+    if (!waiters.isEmpty()) {
+      serveWaiters(true);
+    }
+  }
+
+  /**
+   * Hands idle connections to the queued asynchronous borrowers, in order. When there are none, but an invalidated connection left
+   * room for a new one and {@code mayCreate}, the first borrower gets a new connection created in an IO thread.
+   */
+  private void serveWaiters(boolean mayCreate) {
+    CompletableFuture<ConnectionHandler<C>> waiter;
+    while ((waiter = waiters.peek()) != null) {
+      C connection;
+      try {
+        connection = pollIdleConnection();
+      } catch (Exception e) {
+        if (waiters.remove(waiter)) {
+          waiter.completeExceptionally(asConnectionException(e));
+        }
+        continue;
+      }
+
+      if (connection == null) {
+        if (mayCreate && pool.getNumActive() < pool.getMaxTotal() && waiters.remove(waiter)) {
+          CompletableFuture<ConnectionHandler<C>> next = waiter;
+          try {
+            getBorrowScheduler().execute(() -> borrowOrWait(next));
+          } catch (RejectedExecutionException e) {
+            next.completeExceptionally(poolClosedException(e));
+          }
+        }
+        return;
+      }
+
+      ConnectionHandler<C> handler = createHandler(connection);
+      if (waiters.remove(waiter)) {
+        complete(waiter, handler);
+      } else {
+        // another thread served or timed out this waiter in the meantime
+        handler.release();
+      }
+    }
+  }
+
+  private void complete(CompletableFuture<ConnectionHandler<C>> result, ConnectionHandler<C> handler) {
+    // The caller may have cancelled the future, in which case nobody will release the connection
+    if (!result.complete(handler)) {
+      handler.release();
+    }
+  }
+
+  private ConnectionException poolClosedException(Exception cause) {
+    return new ConnectionException("Connection pool " + poolId + " is closed", cause);
+  }
+
+  private synchronized Scheduler getBorrowScheduler() {
+    if (closed) {
+      throw new RejectedExecutionException("Connection pool " + poolId + " is closed");
+    }
+    if (borrowScheduler == null) {
+      borrowScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName(poolId + ".borrow"));
+    }
+    return borrowScheduler;
+  }
+
+  private static ConnectionException asConnectionException(Exception e) {
+    if (e instanceof ConnectionException) {
+      return (ConnectionException) e;
+    } else if (e instanceof NoSuchElementException) {
+      return new ConnectionException("Connection pool is exhausted", e);
+    } else {
+      return new ConnectionException("An exception was found trying to obtain a connection: " + e.getMessage(), e);
     }
   }
 
   private C borrowConnection() throws Exception {
-    C connection = pool.borrowObject();
+    return onBorrow(pool.borrowObject());
+  }
+
+  /**
+   * @return an idle connection from the pool, or {@code null} if there is none. A new connection is never created.
+   */
+  private C pollIdleConnection() throws Exception {
+    if (pool.getNumIdle() == 0) {
+      return null;
+    }
+
+    C connection;
+    IDLE_ONLY.set(TRUE);
+    try {
+      connection = pool.borrowObject(0);
+    } catch (NoSuchElementException e) {
+      // Another thread borrowed the idle connection first
+      return null;
+    } finally {
+      IDLE_ONLY.remove();
+    }
+    return onBorrow(connection);
+  }
+
+  private C onBorrow(C connection) throws Exception {
     LOGGER.debug("Acquiring connection {} from the pool {}", connection.toString(), poolId);
     logPoolStatus(LOGGER, pool, poolId);
     try {
@@ -115,6 +306,28 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
       pool.close();
     } catch (Exception e) {
       throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    } finally {
+      stopBorrowScheduler();
+      failWaiters();
+    }
+  }
+
+  private void failWaiters() {
+    CompletableFuture<ConnectionHandler<C>> waiter;
+    while ((waiter = waiters.poll()) != null) {
+      waiter.completeExceptionally(poolClosedException(new RejectedExecutionException("Connection pool " + poolId
+          + " is closed")));
+    }
+  }
+
+  private synchronized boolean isClosed() {
+    return closed;
+  }
+
+  private synchronized void stopBorrowScheduler() {
+    closed = true;
+    if (borrowScheduler != null) {
+      borrowScheduler.stop();
     }
   }
 
@@ -196,6 +409,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
 
     @Override
     public C create() throws Exception {
+      if (IDLE_ONLY.get() != null) {
+        throw new NoSuchElementException("No idle connection");
+      }
       C connection = connectionProvider.connect();
       LOGGER.debug("Created connection {}", connection.toString());
       return connection;
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.construct;
 
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.construct.Flow.INITIAL_STATE_STOPPED;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
@@ -15,6 +16,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.getSimpleName;
 import static org.mule.runtime.core.internal.util.FunctionalUtils.safely;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.util.Optional.of;
 
@@ -37,6 +39,7 @@ import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.exception.ErrorHandler;
 import org.mule.runtime.core.internal.lifecycle.EmptyLifecycleCallback;
 import org.mule.runtime.core.internal.management.stats.DefaultFlowConstructStatistics;
+import org.mule.runtime.core.internal.management.stats.StripedFlowConstructStatistics;
 import org.mule.runtime.core.privileged.component.AbstractExecutableComponent;
 import org.mule.runtime.core.privileged.exception.MessagingExceptionHandlerAcceptor;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
@@ -67,6 +70,16 @@ public abstract class AbstractFlowConstruct extends AbstractExecutableComponent
 
   public static final String FLOW_FLOW_CONSTRUCT_TYPE = "Flow";
 
+  /**
+   * System property to keep the statistics of the flows in {@link StripedFlowConstructStatistics}, which scale better when many
+   * threads process events of the same flow and also keep the distribution of the processing times.
+   *
+   * @since 4.6.0
+   */
+  public static final String STRIPED_FLOW_STATISTICS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "statistics.striped";
+
+  private static final boolean STRIPED_STATISTICS = getBoolean(STRIPED_FLOW_STATISTICS_PROPERTY);
+
   protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractFlowConstruct.class);
 
   private final FlowConstructLifecycleManager lifecycleManager;
@@ -211,7 +224,9 @@ public abstract class AbstractFlowConstruct extends AbstractExecutableComponent
   }
 
   public static FlowConstructStatistics createFlowStatistics(String flowName, AllStatistics statistics) {
-    DefaultFlowConstructStatistics flowStatistics = new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, flowName);
+    FlowConstructStatistics flowStatistics = STRIPED_STATISTICS
+        ? new StripedFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, flowName)
+        : new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, flowName);
     flowStatistics.setEnabled(statistics.isEnabled());
     statistics.add(flowStatistics);
     return flowStatistics;
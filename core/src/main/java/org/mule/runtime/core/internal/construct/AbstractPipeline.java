@@ -31,6 +31,7 @@ import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.lang.System.getProperty;
 import static java.util.Arrays.stream;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.function.Function.identity;
@@ -71,6 +72,8 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
 import org.mule.runtime.core.api.source.MessageSource;
 import org.mule.runtime.core.api.tracing.customization.ComponentExecutionInitialSpanInfo;
 import org.mule.runtime.core.api.util.func.CheckedRunnable;
+import org.mule.runtime.core.internal.construct.admission.AdmissionPolicy;
+import org.mule.runtime.core.internal.construct.admission.FlowAdmissionController;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
 import org.mule.runtime.core.internal.exception.MessagingException;
@@ -134,6 +137,7 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
   private final boolean triggerFlow;
   private final boolean apikitFlow;
   private final ComponentInitialStateManager componentInitialStateManager;
+  private final FlowAdmissionController admissionController;
   private final BackPressureStrategySelector backpressureStrategySelector;
   private final ErrorType FLOW_BACKPRESSURE_ERROR_TYPE;
 
@@ -143,6 +147,23 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
                           Integer maxConcurrency,
                           DefaultFlowsSummaryStatistics flowsSummaryStatistics, FlowConstructStatistics flowConstructStatistics,
                           ComponentInitialStateManager componentInitialStateManager) {
+    this(name, muleContext, source, processors, exceptionListener, processingStrategyFactory, initialState, maxConcurrency,
+         flowsSummaryStatistics, flowConstructStatistics, componentInitialStateManager, emptyList());
+  }
+
+  /**
+   * @param admissionPolicies the {@link AdmissionPolicy admission policies} to apply to the events dispatched by the source of
+   *                          this pipeline. May be empty.
+   *
+   * @since 4.6.0
+   */
+  public AbstractPipeline(String name, MuleContext muleContext, MessageSource source, List<Processor> processors,
+                          Optional<FlowExceptionHandler> exceptionListener,
+                          Optional<ProcessingStrategyFactory> processingStrategyFactory, String initialState,
+                          Integer maxConcurrency,
+                          DefaultFlowsSummaryStatistics flowsSummaryStatistics, FlowConstructStatistics flowConstructStatistics,
+                          ComponentInitialStateManager componentInitialStateManager,
+                          List<AdmissionPolicy> admissionPolicies) {
     super(name, muleContext, exceptionListener, initialState, flowConstructStatistics);
 
     try {
@@ -171,6 +192,9 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
     }
 
     processingStrategy = this.processingStrategyFactory.create(muleContext, getName());
+    admissionController = admissionPolicies.isEmpty()
+        ? null
+        : new FlowAdmissionController(admissionPolicies, flowConstructStatistics);
     backpressureStrategySelector = new BackPressureStrategySelector(this);
     FLOW_BACKPRESSURE_ERROR_TYPE = muleContext.getErrorTypeRepository().getErrorType(FLOW_BACK_PRESSURE).get();
   }
@@ -700,4 +724,11 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
   public Map<BackPressureReason, FlowBackPressureException> getBackPressureExceptions() {
     return backPressureExceptions;
   }
+
+  /**
+   * @return the controller applying the admission policies of this pipeline, or {@code null} if it has none.
+   */
+  FlowAdmissionController getAdmissionController() {
+    return admissionController;
+  }
 }
@@ -8,12 +8,14 @@ package org.mule.runtime.core.internal.construct;
 
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.sleep;
+import static org.mule.runtime.core.api.construct.BackPressureReason.ADMISSION_REJECTED;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.WAIT;
 import static org.mule.runtime.core.internal.construct.FlowBackPressureException.createAndThrowIfNeeded;
 
 import org.mule.runtime.core.api.construct.BackPressureReason;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.source.MessageSource;
+import org.mule.runtime.core.internal.construct.admission.FlowAdmissionController;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,19 +88,70 @@ class BackPressureStrategySelector {
     }
   }
 
+  /**
+   * Wait backpressure strategy for the admission policies of the flow. Waits until the event is admitted.
+   * <p>
+   * Unlike {@link #checkWithWaitStrategy(CoreEvent)}, this doesn't poll: the source thread is woken up when an admitted event
+   * completes, or when the time estimated by the policies for the event to be admitted has passed.
+   *
+   * @param event               the event about to begin processing
+   * @param admissionController the controller of the admission policies of the flow
+   * @throws FlowBackPressureException if interrupted while waiting
+   */
+  protected void admitWithWaitStrategy(CoreEvent event, FlowAdmissionController admissionController)
+      throws FlowBackPressureException {
+    try {
+      admissionController.admit(event);
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      admissionController.rejected();
+      createAndThrowIfNeeded(abstractPipeline, ADMISSION_REJECTED, e);
+    }
+  }
+
+  /**
+   * Fail/Drop backpressure strategy for the admission policies of the flow. If the event is not admitted, it is rejected.
+   *
+   * @param event               the event about to begin processing
+   * @param admissionController the controller of the admission policies of the flow
+   * @throws FlowBackPressureException if the event is not admitted
+   */
+  protected void admitWithFailDropStrategy(CoreEvent event, FlowAdmissionController admissionController)
+      throws FlowBackPressureException {
+    if (admissionController.tryAdmit(event) > 0) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("failDropStrategy - @ " + event.getContext().getOriginatingLocation().getRootContainerName() + ": "
+            + ADMISSION_REJECTED);
+      }
+
+      admissionController.rejected();
+      throw abstractPipeline.getBackPressureExceptions().get(ADMISSION_REJECTED);
+    }
+  }
+
   /**
    * Decides which {@link org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy} to apply for a certain
    * {@link MessageSource}, and check whether a backpressure signal will be fired upon entering the processing stage.
+   * <p>
+   * If the flow has admission policies, those are applied after the processing strategy check, so that every event counted as
+   * admitted is actually dispatched to the flow.
    *
    * @param event the event about to begin processing
    * @throws FlowBackPressureException
    */
   public void check(CoreEvent event)
       throws FlowBackPressureException {
+    final FlowAdmissionController admissionController = abstractPipeline.getAdmissionController();
     if (abstractPipeline.getSource().getBackPressureStrategy() == WAIT) {
       checkWithWaitStrategy(event);
+      if (admissionController != null) {
+        admitWithWaitStrategy(event, admissionController);
+      }
     } else {
       checkWithFailDropStrategy(event);
+      if (admissionController != null) {
+        admitWithFailDropStrategy(event, admissionController);
+      }
     }
   }
 }
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.construct;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.construct.Flow.INITIAL_STATE_STARTED;
+import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.internal.construct.AbstractFlowConstruct.createFlowStatistics;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 
@@ -33,10 +34,14 @@ import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
 import org.mule.runtime.core.api.source.MessageSource;
+import org.mule.runtime.core.internal.construct.admission.AdmissionPolicy;
+import org.mule.runtime.core.internal.construct.admission.ConcurrencyLimitAdmissionPolicy;
+import org.mule.runtime.core.internal.construct.admission.TokenBucketAdmissionPolicy;
 import org.mule.runtime.core.internal.management.stats.DefaultFlowsSummaryStatistics;
 import org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory;
 import org.mule.runtime.core.privileged.processor.MessageProcessors;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,6 +66,9 @@ public class DefaultFlowBuilder implements Builder {
   private ProcessingStrategyFactory processingStrategyFactory;
   private String initialState = INITIAL_STATE_STARTED;
   private Integer maxConcurrency;
+  private Integer maxAdmissionRate;
+  private Integer maxAdmissionBurst;
+  private Long admissionLatencyTarget;
 
   private DefaultFlow flow;
 
@@ -174,6 +182,24 @@ public class DefaultFlowBuilder implements Builder {
     return this;
   }
 
+  @Override
+  public Builder maxAdmissionRate(int maxAdmissionRate, int maxAdmissionBurst) {
+    checkImmutable();
+    checkArgument(maxAdmissionRate > 0, "maxAdmissionRate cannot be less than 1");
+    checkArgument(maxAdmissionBurst > 0, "maxAdmissionBurst cannot be less than 1");
+    this.maxAdmissionRate = maxAdmissionRate;
+    this.maxAdmissionBurst = maxAdmissionBurst;
+    return this;
+  }
+
+  @Override
+  public Builder admissionLatencyTarget(long admissionLatencyTarget) {
+    checkImmutable();
+    checkArgument(admissionLatencyTarget > 0, "admissionLatencyTarget cannot be less than 1");
+    this.admissionLatencyTarget = admissionLatencyTarget;
+    return this;
+  }
+
   /**
    * Builds a flow with the provided configuration.
    *
@@ -189,11 +215,25 @@ public class DefaultFlowBuilder implements Builder {
                            ofNullable(exceptionListener), ofNullable(processingStrategyFactory), initialState, maxConcurrency,
                            (DefaultFlowsSummaryStatistics) statistics.getFlowSummaryStatistics(),
                            createFlowStatistics(name, statistics),
-                           componentInitialStateManager);
+                           componentInitialStateManager, createAdmissionPolicies());
 
     return flow;
   }
 
+  private List<AdmissionPolicy> createAdmissionPolicies() {
+    List<AdmissionPolicy> admissionPolicies = new ArrayList<>(2);
+    // The concurrency limit goes first, since it can give back what it admitted if the token bucket rejects the event
+    if (admissionLatencyTarget != null) {
+      admissionPolicies.add(new ConcurrencyLimitAdmissionPolicy(admissionLatencyTarget,
+                                                                maxConcurrency != null ? maxConcurrency
+                                                                    : DEFAULT_MAX_CONCURRENCY));
+    }
+    if (maxAdmissionRate != null) {
+      admissionPolicies.add(new TokenBucketAdmissionPolicy(maxAdmissionRate, maxAdmissionBurst));
+    }
+    return admissionPolicies;
+  }
+
   protected final void checkImmutable() {
     if (flow != null) {
       throw new IllegalStateException("Cannot change attributes once the flow was built");
@@ -215,6 +255,17 @@ public class DefaultFlowBuilder implements Builder {
             flowsSummaryStatistics, flowConstructStatistics, componentInitialStateManager);
     }
 
+    protected DefaultFlow(String name, MuleContext muleContext, MessageSource source, List<Processor> processors,
+                          Optional<FlowExceptionHandler> exceptionListener,
+                          Optional<ProcessingStrategyFactory> processingStrategyFactory, String initialState,
+                          Integer maxConcurrency,
+                          DefaultFlowsSummaryStatistics flowsSummaryStatistics, FlowConstructStatistics flowConstructStatistics,
+                          ComponentInitialStateManager componentInitialStateManager,
+                          List<AdmissionPolicy> admissionPolicies) {
+      super(name, muleContext, source, processors, exceptionListener, processingStrategyFactory, initialState, maxConcurrency,
+            flowsSummaryStatistics, flowConstructStatistics, componentInitialStateManager, admissionPolicies);
+    }
+
     @Override
     public CoreEvent process(final CoreEvent event) throws MuleException {
       return processToApply(event, this);
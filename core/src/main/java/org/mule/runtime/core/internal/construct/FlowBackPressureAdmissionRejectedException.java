@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct;
+
+import org.mule.runtime.api.component.Component;
+
+import static org.mule.runtime.core.api.construct.BackPressureReason.ADMISSION_REJECTED;
+
+/**
+ * The admission policy of the flow did not admit the event.
+ *
+ * @since 4.6.0
+ */
+public class FlowBackPressureAdmissionRejectedException extends FlowBackPressureException {
+
+  private static final long serialVersionUID = -3318257816370853496L;
+
+  /**
+   * Create a new {@link FlowBackPressureAdmissionRejectedException} with no cause.
+   */
+  public FlowBackPressureAdmissionRejectedException(Component flow) {
+    super(flow, ADMISSION_REJECTED);
+  }
+
+  /**
+   * Create a new {@link FlowBackPressureAdmissionRejectedException} with a cause.
+   */
+  public FlowBackPressureAdmissionRejectedException(Component flow, Throwable cause) {
+    super(flow, ADMISSION_REJECTED, cause);
+  }
+
+}
@@ -64,6 +64,8 @@ public abstract class FlowBackPressureException extends MuleException {
         return new FlowBackPressureRequiredSchedulerBusyWithFullBufferException(flow, cause);
       case EVENTS_ACCUMULATED:
         return new FlowBackPressureEventsAccumulatedException(flow, cause);
+      case ADMISSION_REJECTED:
+        return new FlowBackPressureAdmissionRejectedException(flow, cause);
       default:
         throw new IllegalArgumentException("Cannot build a FlowBackPressureException with a cause without a reason");
     }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+/**
+ * Decides whether an event received by the source of a flow may start being processed by it.
+ * <p>
+ * Unlike the back-pressure signaled by the processing strategy, which is only raised once the flow is already saturated, an
+ * admission policy limits the load the flow accepts before its schedulers and buffers fill up.
+ * <p>
+ * Implementations must be thread-safe and non-blocking.
+ *
+ * @since 4.6.0
+ */
+public interface AdmissionPolicy {
+
+  /**
+   * Tries to admit an event.
+   *
+   * @param nowNanos the current value of {@link System#nanoTime()}.
+   * @return {@code 0} if the event was admitted, or an estimation of how many nanoseconds have to pass before it could be.
+   */
+  long tryAdmit(long nowNanos);
+
+  /**
+   * Notifies that an event admitted by this policy has finished being processed.
+   *
+   * @param admittedAtNanos the value of {@link System#nanoTime()} when the event was admitted.
+   * @param nowNanos        the current value of {@link System#nanoTime()}.
+   */
+  default void onCompletion(long admittedAtNanos, long nowNanos) {
+    // Nothing to do
+  }
+
+  /**
+   * Notifies that an event admitted by this policy will not be processed, because another policy rejected it.
+   */
+  default void onAbort() {
+    // Nothing to do
+  }
+
+  /**
+   * @return whether this policy has to be notified of the completion of the events it admits.
+   */
+  default boolean isCompletionAware() {
+    return false;
+  }
+}
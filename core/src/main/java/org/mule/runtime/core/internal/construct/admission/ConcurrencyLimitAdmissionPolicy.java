@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AdmissionPolicy} that limits how many events may be in process at the same time so that, according to Little's law,
+ * the events do not take longer than a target latency to be processed.
+ * <p>
+ * Each time an event completes, the throughput of the flow is estimated as the events in flight divided by the latency of that
+ * event, and smoothed with an exponentially weighted moving average. The concurrency limit is that throughput multiplied by the
+ * target latency, bounded by the {@code maxConcurrency} of the flow. Until the first event completes, only {@code maxConcurrency}
+ * applies.
+ * <p>
+ * Since the throughput can't be observed beyond the current limit, an estimation alone never raises it once the latency is back
+ * within the target. So, while events complete within the target latency, the limit grows by at least one with each of them,
+ * and it is only lowered to the estimation when they take longer.
+ *
+ * @since 4.6.0
+ */
+public final class ConcurrencyLimitAdmissionPolicy implements AdmissionPolicy {
+
+  private static final double SMOOTHING_FACTOR = 0.2;
+
+  private final long targetLatencyNanos;
+  private final int maxConcurrency;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  // events per nanosecond, as the bits of a double; negative until the first sample
+  private final AtomicLong throughput = new AtomicLong(doubleToRawLongBits(-1));
+  private volatile int limit;
+
+  /**
+   * @param targetLatencyMillis the time, in milliseconds, the events are expected to take to be processed.
+   * @param maxConcurrency      the upper bound for the concurrency limit.
+   */
+  public ConcurrencyLimitAdmissionPolicy(long targetLatencyMillis, int maxConcurrency) {
+    checkArgument(targetLatencyMillis > 0, "targetLatencyMillis must be greater than 0");
+    checkArgument(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+
+    this.targetLatencyNanos = MILLISECONDS.toNanos(targetLatencyMillis);
+    this.maxConcurrency = maxConcurrency;
+    this.limit = maxConcurrency;
+  }
+
+  @Override
+  public long tryAdmit(long nowNanos) {
+    while (true) {
+      final int current = inFlight.get();
+      if (current >= limit) {
+        // a slot is freed when an event completes, which is expected to take about the target latency
+        return targetLatencyNanos;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return 0;
+      }
+    }
+  }
+
+  @Override
+  public void onCompletion(long admittedAtNanos, long nowNanos) {
+    final long latency = max(1, nowNanos - admittedAtNanos);
+    final double sample = (double) inFlight.getAndDecrement() / latency;
+
+    long currentBits;
+    double updated;
+    do {
+      currentBits = throughput.get();
+      final double current = longBitsToDouble(currentBits);
+      updated = current < 0 ? sample : current + SMOOTHING_FACTOR * (sample - current);
+    } while (!throughput.compareAndSet(currentBits, doubleToRawLongBits(updated)));
+
+    final int estimated = (int) max(1, min(maxConcurrency, ceil(updated * targetLatencyNanos)));
+    if (latency <= targetLatencyNanos) {
+      // probe for more capacity
+      limit = max(estimated, min(maxConcurrency, limit + 1));
+    } else {
+      limit = estimated;
+    }
+  }
+
+  @Override
+  public void onAbort() {
+    inFlight.decrementAndGet();
+  }
+
+  @Override
+  public boolean isCompletionAware() {
+    return true;
+  }
+
+  /**
+   * @return the current concurrency limit.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return how many events admitted by this policy are being processed.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the {@link AdmissionPolicy admission policies} of a flow to the events dispatched to it by its source, keeping track of
+ * the admitted and rejected events in the {@link FlowConstructStatistics} of the flow.
+ * <p>
+ * An event is admitted only if every policy admits it.
+ * <p>
+ * Threads waiting for admission are woken up each time an admitted event completes, since that may free the capacity they are
+ * waiting for, or after the time estimated by the policies otherwise.
+ *
+ * @since 4.6.0
+ */
+public final class FlowAdmissionController {
+
+  private final AdmissionPolicy[] policies;
+  private final boolean completionAware;
+  private final FlowConstructStatistics statistics;
+
+  private final Object waitersLock = new Object();
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  public FlowAdmissionController(List<AdmissionPolicy> policies, FlowConstructStatistics statistics) {
+    checkArgument(!policies.isEmpty(), "policies cannot be empty");
+
+    this.policies = policies.toArray(new AdmissionPolicy[policies.size()]);
+    this.completionAware = policies.stream().anyMatch(AdmissionPolicy::isCompletionAware);
+    this.statistics = statistics;
+  }
+
+  /**
+   * Tries to admit the given {@code event}. If admitted, the policies will be notified when its processing completes.
+   *
+   * @param event the event about to begin processing
+   * @return {@code 0} if the event was admitted, or an estimation of how many nanoseconds have to pass before it could be.
+   */
+  public long tryAdmit(CoreEvent event) {
+    final long now = nanoTime();
+    for (int i = 0; i < policies.length; ++i) {
+      final long wait = policies[i].tryAdmit(now);
+      if (wait > 0) {
+        for (int j = 0; j < i; ++j) {
+          policies[j].onAbort();
+        }
+        return wait;
+      }
+    }
+
+    statistics.incAdmittedEvents();
+    if (completionAware) {
+      ((BaseEventContext) event.getContext()).onComplete((response, throwable) -> {
+        final long end = nanoTime();
+        for (AdmissionPolicy policy : policies) {
+          policy.onCompletion(now, end);
+        }
+        wakeUpWaiters();
+      });
+    }
+    return 0;
+  }
+
+  /**
+   * Waits until the given {@code event} is admitted. If admitted, the policies will be notified when its processing completes.
+   *
+   * @param event the event about to begin processing
+   * @throws InterruptedException if interrupted while waiting. The event is not admitted in that case.
+   */
+  public void admit(CoreEvent event) throws InterruptedException {
+    if (tryAdmit(event) == 0) {
+      return;
+    }
+
+    waiters.incrementAndGet();
+    try {
+      synchronized (waitersLock) {
+        // a completion after this check has to acquire the lock to wake this thread up, so it is not missed
+        long wait;
+        while ((wait = tryAdmit(event)) > 0) {
+          NANOSECONDS.timedWait(waitersLock, wait);
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Accounts for an event that was turned away because it was not admitted.
+   */
+  public void rejected() {
+    statistics.incRejectedEvents();
+  }
+
+  private void wakeUpWaiters() {
+    if (waiters.get() > 0) {
+      synchronized (waitersLock) {
+        waitersLock.notifyAll();
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct.admission;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AdmissionPolicy} that admits up to {@code maxRate} events per second, allowing bursts of up to {@code maxBurst} events.
+ * <p>
+ * This is a token bucket implemented as a generic cell rate algorithm: instead of refilling tokens periodically, the theoretical
+ * arrival time of the next event is kept in a single {@link AtomicLong}, so admitting an event is just a CAS and the exact time to
+ * wait for a token can be computed when an event is rejected.
+ *
+ * @since 4.6.0
+ */
+public final class TokenBucketAdmissionPolicy implements AdmissionPolicy {
+
+  private final long emissionIntervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong theoreticalArrivalTime;
+
+  /**
+   * @param maxRate  how many events per second are admitted in the long run.
+   * @param maxBurst how many events may be admitted at once after a period of inactivity.
+   */
+  public TokenBucketAdmissionPolicy(int maxRate, int maxBurst) {
+    this(maxRate, maxBurst, nanoTime());
+  }
+
+  TokenBucketAdmissionPolicy(int maxRate, int maxBurst, long startNanos) {
+    checkArgument(maxRate > 0, "maxRate must be greater than 0");
+    checkArgument(maxBurst > 0, "maxBurst must be greater than 0");
+
+    this.emissionIntervalNanos = max(1, SECONDS.toNanos(1) / maxRate);
+    this.toleranceNanos = emissionIntervalNanos * (maxBurst - 1);
+    this.theoreticalArrivalTime = new AtomicLong(startNanos);
+  }
+
+  @Override
+  public long tryAdmit(long nowNanos) {
+    while (true) {
+      final long current = theoreticalArrivalTime.get();
+      // nanoTime values may only be compared through their difference
+      final long arrival = current - nowNanos < 0 ? nowNanos : current;
+      final long wait = arrival - toleranceNanos - nowNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (theoreticalArrivalTime.compareAndSet(current, arrival + emissionIntervalNanos)) {
+        return 0;
+      }
+    }
+  }
+}
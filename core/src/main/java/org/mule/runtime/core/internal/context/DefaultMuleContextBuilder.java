@@ -6,7 +6,9 @@
  */
 package org.mule.runtime.core.internal.context;
 
+import static java.lang.Boolean.parseBoolean;
 import static java.util.Optional.empty;
+import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_BINARY_INTERNAL_SERIALIZATION_DEPLOYMENT_PROPERTY;
 import static org.mule.runtime.core.api.context.notification.ServerNotificationManager.createDefaultNotificationManager;
 
 import org.mule.runtime.api.exception.ErrorTypeRepository;
@@ -31,6 +33,7 @@ import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.internal.exception.DefaultSystemExceptionStrategy;
 import org.mule.runtime.core.internal.lifecycle.MuleContextLifecycleManager;
 import org.mule.runtime.core.internal.registry.SimpleRegistry;
+import org.mule.runtime.core.internal.serialization.BinaryObjectSerializer;
 import org.mule.runtime.core.internal.serialization.JavaObjectSerializer;
 
 import java.util.ArrayList;
@@ -122,7 +125,11 @@ public class DefaultMuleContextBuilder implements MuleContextBuilder {
 
   private void getObjectSerializer(DefaultMuleContext muleContext) {
     if (objectSerializer == null) {
-      objectSerializer = new JavaObjectSerializer();
+      if (parseBoolean(getDeploymentProperties().getProperty(MULE_BINARY_INTERNAL_SERIALIZATION_DEPLOYMENT_PROPERTY, "false"))) {
+        objectSerializer = new BinaryObjectSerializer();
+      } else {
+        objectSerializer = new JavaObjectSerializer();
+      }
     }
 
     if (objectSerializer instanceof MuleContextAware) {
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import static java.lang.Integer.getInteger;
+import static java.util.Collections.emptySet;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.CompiledExpression;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Bounded cache of {@link CompiledExpression}s, keyed by the text of the expression and the {@link Shape} of the
+ * {@link BindingContext} it is evaluated with.
+ * <p>
+ * Only the identifiers of the bindings make up the shape, not their values nor their types, in the same way that expressions
+ * compiled against the bindings of a null event are later evaluated with the bindings of actual events.
+ *
+ * @since 4.6.0
+ */
+public final class CompiledExpressionCache {
+
+  /**
+   * System property to set the maximum amount of compiled expressions to keep for each artifact.
+   */
+  public static final String COMPILED_EXPRESSIONS_CACHE_SIZE_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "expressions.compiledCacheSize";
+
+  private static final int DEFAULT_MAX_SIZE = 1024;
+
+  private static final Shape EMPTY = new Shape(false, false, emptySet());
+  private static final Shape EVENT = new Shape(true, false, emptySet());
+  private static final Shape LOCATION = new Shape(false, true, emptySet());
+  private static final Shape EVENT_AND_LOCATION = new Shape(true, true, emptySet());
+
+  private final Cache<Key, CompiledExpression> cache;
+
+  public CompiledExpressionCache() {
+    this(getInteger(COMPILED_EXPRESSIONS_CACHE_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+  }
+
+  public CompiledExpressionCache(int maxSize) {
+    cache = newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Returns the {@link Shape} of the {@link BindingContext} made of the bindings of an event, if {@code withEvent}, the bindings of
+   * a component location, if {@code withLocation}, and the given {@code context}.
+   * <p>
+   * No new object is created when {@code context} has no bindings.
+   *
+   * @param withEvent    whether the bindings of an event are added to the context
+   * @param withLocation whether the bindings of a component location are added to the context
+   * @param context      the bindings provided by the caller, may be {@code null}
+   * @return the shape of the context
+   */
+  public static Shape shape(boolean withEvent, boolean withLocation, BindingContext context) {
+    if (context == null || context == NULL_BINDING_CONTEXT) {
+      return withEvent ? (withLocation ? EVENT_AND_LOCATION : EVENT) : (withLocation ? LOCATION : EMPTY);
+    }
+
+    Collection<String> identifiers = context.identifiers();
+    return new Shape(withEvent, withLocation, identifiers instanceof Set ? identifiers : new HashSet<>(identifiers));
+  }
+
+  /**
+   * Returns the cached {@link CompiledExpression} for the given {@code expression} and {@code shape}, compiling it with
+   * {@code compiler} if there is none.
+   *
+   * @param expression the expression to compile
+   * @param shape      the shape of the contexts the expression is evaluated with
+   * @param compiler   the function that actually compiles the expression
+   * @return the compiled expression
+   */
+  public CompiledExpression compile(String expression, Shape shape, Function<String, CompiledExpression> compiler) {
+    Key key = new Key(expression, shape);
+    CompiledExpression compiled = cache.getIfPresent(key);
+    return compiled != null ? compiled : cache.get(key, k -> compiler.apply(expression));
+  }
+
+  /**
+   * Discards all the cached expressions.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * The identifiers of the bindings available to an expression.
+   */
+  public static final class Shape {
+
+    private final boolean withEvent;
+    private final boolean withLocation;
+    private final Collection<String> identifiers;
+    private final int hash;
+
+    private Shape(boolean withEvent, boolean withLocation, Collection<String> identifiers) {
+      this.withEvent = withEvent;
+      this.withLocation = withLocation;
+      this.identifiers = identifiers;
+      this.hash = 31 * (31 * Boolean.hashCode(withEvent) + Boolean.hashCode(withLocation)) + identifiers.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Shape)) {
+        return false;
+      }
+      Shape other = (Shape) o;
+      return hash == other.hash && withEvent == other.withEvent && withLocation == other.withLocation
+          && identifiers.equals(other.identifiers);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Key {
+
+    private final String expression;
+    private final Shape shape;
+    private final int hash;
+
+    private Key(String expression, Shape shape) {
+      this.expression = expression;
+      this.shape = shape;
+      this.hash = 31 * expression.hashCode() + shape.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hash == other.hash && expression.equals(other.expression) && shape.equals(other.shape);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
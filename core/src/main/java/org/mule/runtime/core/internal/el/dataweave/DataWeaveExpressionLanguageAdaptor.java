@@ -13,6 +13,7 @@ import static org.mule.runtime.api.metadata.DataType.fromType;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_EXPRESSIONS_COMPILATION_FAIL_DEPLOYMENT;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.expressionEvaluationFailed;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.el.CompiledExpressionCache.shape;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.isSanitizedPayload;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.sanitize;
 
@@ -39,6 +40,8 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.internal.el.CompiledExpressionCache;
+import org.mule.runtime.core.internal.el.CompiledExpressionCache.Shape;
 import org.mule.runtime.core.internal.el.DefaultBindingContextBuilder;
 import org.mule.runtime.core.internal.el.ExpressionLanguageSessionAdaptor;
 import org.mule.runtime.core.internal.el.ExtendedExpressionLanguageAdaptor;
@@ -59,6 +62,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
 
   private final ExpressionLanguage expressionExecutor;
   private final MuleContext muleContext;
+  private final CompiledExpressionCache compiledExpressions = new CompiledExpressionCache();
 
   @Inject
   public DataWeaveExpressionLanguageAdaptor(MuleContext muleContext, Registry registry,
@@ -99,6 +103,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   @Override
   public void addGlobalBindings(BindingContext bindingContext) {
     expressionExecutor.addGlobalBindings(bindingContext);
+    compiledExpressions.invalidateAll();
   }
 
   @Override
@@ -108,7 +113,8 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
       return event.getMessage().getPayload();
     } else {
       BindingContext newContext = bindingContextFor(null, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, newContext));
+      return evaluate(sanitized, exp -> evaluateCompiled(compile(exp, shape(event != null, false, context), newContext),
+                                                         null, newContext));
     }
   }
 
@@ -118,7 +124,9 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public TypedValue evaluate(String expression, DataType expectedOutputType, CoreEvent event, BindingContext context)
       throws ExpressionRuntimeException {
     BindingContext newContext = bindingContextFor(null, event, context);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, newContext));
+    return sanitizeAndEvaluate(expression,
+                               exp -> evaluateCompiled(compile(exp, shape(event != null, false, context), newContext),
+                                                       expectedOutputType, newContext));
   }
 
   @Override
@@ -127,7 +135,10 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
                              BindingContext context, boolean failOnNull)
       throws ExpressionRuntimeException {
     BindingContext newContext = bindingContextFor(componentLocation, event, context);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, newContext));
+    return sanitizeAndEvaluate(expression,
+                               exp -> evaluateCompiled(compile(exp, shape(event != null, componentLocation != null, context),
+                                                               newContext),
+                                                       expectedOutputType, newContext));
   }
 
   @Override
@@ -145,14 +156,16 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
       return resolvePayload(event, context);
     } else {
       BindingContext newContext = bindingContextFor(componentLocation, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, newContext));
+      return evaluate(sanitized,
+                      exp -> evaluateCompiled(compile(exp, shape(event != null, componentLocation != null, context), newContext),
+                                              null, newContext));
     }
   }
 
   @Override
   public CompiledExpression compile(String expression, BindingContext bindingContext) {
     try {
-      return expressionExecutor.compile(sanitize(expression), bindingContext);
+      return compile(sanitize(expression), shape(false, false, bindingContext), bindingContext);
     } catch (ExpressionCompilationException e) {
       if (badExpressionFailsDeployment()) {
         throw e;
@@ -167,6 +180,26 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     return expressionExecutor.collectScopePhaseValidationMessages(script, nameIdentifier, bindings);
   }
 
+  /**
+   * Compiles the already sanitized {@code expression}, reusing the result for every context with the same {@code shape}, so that
+   * evaluating the same expression again does not go through its parsing. The bindings of {@code context} are only used if the
+   * expression has to be compiled.
+   */
+  private CompiledExpression compile(String expression, Shape shape, BindingContext context) {
+    return compiledExpressions.compile(expression, shape, exp -> expressionExecutor.compile(exp, context));
+  }
+
+  private TypedValue<?> evaluateCompiled(CompiledExpression expression, DataType expectedOutputType, BindingContext context) {
+    ExpressionLanguageSession session = expressionExecutor.openSession(context);
+    try {
+      return expectedOutputType == null
+          ? session.evaluate(expression)
+          : session.evaluate(expression, expectedOutputType);
+    } finally {
+      session.close();
+    }
+  }
+
   private boolean badExpressionFailsDeployment() {
     return getProperty(MULE_EXPRESSIONS_COMPILATION_FAIL_DEPLOYMENT) != null;
   }
@@ -184,8 +217,15 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
                                              BindingContext bindingContext)
       throws ExpressionRuntimeException {
     try {
-      return expressionExecutor.evaluateLogExpression(sanitize(expression),
-                                                      bindingContextFor(componentLocation, event, bindingContext));
+      BindingContext context = bindingContextFor(componentLocation, event, bindingContext);
+      CompiledExpression compiled =
+          compile(sanitize(expression), shape(event != null, componentLocation != null, bindingContext), context);
+      ExpressionLanguageSession session = expressionExecutor.openSession(context);
+      try {
+        return session.evaluateLogExpression(compiled);
+      } finally {
+        session.close();
+      }
     } catch (ExpressionExecutionException e) {
       throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), expression), e);
     }
@@ -260,6 +300,16 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     ExpressionLanguageSession session = expressionExecutor.openSession(context);
     return new ExpressionLanguageSessionAdaptor() {
 
+      // the same for every expression evaluated in the session
+      private Shape contextShape;
+
+      private CompiledExpression compiled(String sanitized) {
+        if (contextShape == null) {
+          contextShape = shape(event != null, location != null, baseContext);
+        }
+        return compile(sanitized, contextShape, context);
+      }
+
       @Override
       public TypedValue<?> evaluate(String expression) throws ExpressionRuntimeException {
         String sanitized = sanitize(expression);
@@ -268,7 +318,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
         }
 
         try {
-          return session.evaluate(sanitized);
+          return session.evaluate(compiled(sanitized));
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
@@ -281,7 +331,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
           return resolvePayload(event, context);
         }
         try {
-          return session.evaluate(sanitized, timeout);
+          return session.evaluate(compiled(sanitized), timeout);
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
@@ -291,7 +341,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
       public TypedValue<?> evaluate(String expression, DataType expectedOutputType) throws ExpressionRuntimeException {
         String sanitized = sanitize(expression);
         try {
-          return session.evaluate(sanitized, expectedOutputType);
+          return session.evaluate(compiled(sanitized), expectedOutputType);
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
@@ -301,7 +351,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
       public TypedValue<?> evaluateLogExpression(String expression) throws ExpressionRuntimeException {
         String sanitized = sanitize(expression);
         try {
-          return session.evaluateLogExpression(sanitized);
+          return session.evaluateLogExpression(compiled(sanitized));
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
@@ -80,6 +80,9 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
 
   protected FlowCallStack flowCallStack;
 
+  // created the first time a processor is measured for this context
+  private transient volatile ProcessorStartTimes processorStartTimes;
+
   public AbstractEventContext() {
     this(NULL_EXCEPTION_HANDLER, 0, Optional.empty());
   }
@@ -98,6 +101,20 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     this.exceptionHandler = exceptionHandler;
   }
 
+  ProcessorStartTimes getProcessorStartTimes() {
+    ProcessorStartTimes startTimes = processorStartTimes;
+    if (startTimes == null) {
+      synchronized (this) {
+        startTimes = processorStartTimes;
+        if (startTimes == null) {
+          startTimes = new ProcessorStartTimes();
+          processorStartTimes = startTimes;
+        }
+      }
+    }
+    return startTimes;
+  }
+
   protected void initCompletionLists() {
     if (onBeforeResponseConsumerList == null) {
       onBeforeResponseConsumerList = new ArrayList<>();
@@ -6,12 +6,14 @@
  */
 package org.mule.runtime.core.internal.event;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.System.lineSeparator;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.api.util.collection.SmallMap.copy;
 import static org.mule.runtime.api.util.collection.SmallMap.unmodifiable;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsBytes;
@@ -20,6 +22,7 @@ import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
 import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.basedOn;
 import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.event.PersistentEventVariables.persistentCaseInsensitiveMap;
 import static org.mule.runtime.core.internal.message.EventInternalContext.copyOf;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.toGroupCorrelation;
@@ -67,6 +70,17 @@ import org.slf4j.MDC;
 
 public class DefaultEventBuilder implements InternalEvent.Builder {
 
+  /**
+   * System property to store the variables and logging variables of the events in a
+   * {@link PersistentEventVariables#persistentCaseInsensitiveMap()}, so that building an event from another one does not copy its
+   * variables, and adding or removing a variable shares most of the map with the original event.
+   *
+   * @since 4.6.0
+   */
+  public static final String PERSISTENT_EVENT_VARIABLES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "event.persistentVariables";
+
+  private static final boolean PERSISTENT_VARIABLES = getBoolean(PERSISTENT_EVENT_VARIABLES_PROPERTY);
+
   private BaseEventContext context;
   private Function<EventContext, Message> messageFactory;
 
@@ -120,7 +134,9 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     originalParameters = (CaseInsensitiveHashMap<String, TypedValue<?>>) event.getParameters();
 
     this.loggingVariables = (CaseInsensitiveHashMap<String, String>) event.getLoggingVariables().orElse(null);
-    if (loggingVariables != null) {
+    if (loggingVariables != null && PERSISTENT_VARIABLES) {
+      this.loggingVariables = loggingVariables.copy();
+    } else if (loggingVariables != null) {
       CaseInsensitiveHashMap<String, String> loggingVariablesCopyMap = new CaseInsensitiveHashMap<>();
       loggingVariablesCopyMap.putAll(loggingVariables);
       this.loggingVariables = loggingVariablesCopyMap;
@@ -228,7 +244,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public CoreEvent.Builder parameters(Map<String, ?> parameters) {
-    this.parameters = new CaseInsensitiveHashMap<>();
+    this.parameters = PERSISTENT_VARIABLES ? persistentCaseInsensitiveMap() : new CaseInsensitiveHashMap<>();
     copyFromTo(parameters, this.parameters);
 
     parametersModified = true;
@@ -246,7 +262,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   @Override
   public PrivilegedEvent.Builder addLoggingVariable(String key, String value) {
     if (loggingVariables == null) {
-      loggingVariables = new CaseInsensitiveHashMap<>();
+      loggingVariables = PERSISTENT_VARIABLES ? persistentCaseInsensitiveMap() : new CaseInsensitiveHashMap<>();
     }
     loggingVariables.put(key, value);
     modified = true;
@@ -285,7 +301,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     if ((flowVariables != null && !this.flowVariables.isEmpty()) || !this.originalVars.isEmpty()) {
       this.varsModified = true;
       this.modified = true;
-      flowVariables = basedOn(new SmallMap<>());
+      flowVariables = PERSISTENT_VARIABLES ? persistentCaseInsensitiveMap() : basedOn(new SmallMap<>());
     }
     return this;
   }
@@ -403,7 +419,10 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   protected void initVariables() {
     if (!varsModified && flowVariables == null) {
-      flowVariables = originalVars.copy();
+      // a persistent map is copied in constant time, so events derived from this one get it as well
+      flowVariables = PERSISTENT_VARIABLES && originalVars.isEmpty()
+          ? persistentCaseInsensitiveMap()
+          : originalVars.copy();
     }
   }
 
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
+
+/**
+ * Creates the maps of variables and logging variables of the events built with
+ * {@link DefaultEventBuilder#PERSISTENT_EVENT_VARIABLES_PROPERTY} enabled.
+ *
+ * @since 4.6.0
+ */
+public final class PersistentEventVariables {
+
+  private PersistentEventVariables() {
+    // Nothing to do
+  }
+
+  /**
+   * Creates a new empty {@link CaseInsensitiveHashMap} with {@link String} keys, which shares its entries with its copies.
+   * <p>
+   * {@link CaseInsensitiveHashMap#copy()} is constant time, and adding or removing entries to this map or its copies is
+   * logarithmic, since they only rebuild the part of the structure that changes. Entries are iterated in the order they were
+   * first put, but creating an iterator is {@code O(n log n)}, so this is intended for maps that are copied more often than
+   * iterated.
+   *
+   * @param <V> the generic type of the value
+   * @return a new instance
+   */
+  public static <V> CaseInsensitiveHashMap<String, V> persistentCaseInsensitiveMap() {
+    return new PersistentCaseInsensitiveHashMap<>(new PersistentCaseInsensitiveMap<>());
+  }
+
+  /**
+   * Only replaces the delegate of the map and how it is copied, same as the immutable version of {@link CaseInsensitiveHashMap}
+   * does.
+   */
+  private static final class PersistentCaseInsensitiveHashMap<V> extends CaseInsensitiveHashMap<String, V> {
+
+    private static final long serialVersionUID = -2415769311658243904L;
+
+    private PersistentCaseInsensitiveHashMap(PersistentCaseInsensitiveMap<V> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public CaseInsensitiveHashMap<String, V> copy() {
+      return new PersistentCaseInsensitiveHashMap<>(((PersistentCaseInsensitiveMap<V>) delegate).copy());
+    }
+  }
+}
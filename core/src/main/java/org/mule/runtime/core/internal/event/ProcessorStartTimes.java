@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+import org.mule.runtime.api.event.EventContext;
+
+/**
+ * The times at which the processors being executed for an {@link EventContext} started, kept by the context itself so the
+ * processors can be measured without allocating anything per execution.
+ * <p>
+ * The processors executed for the same context are nested (a scope starts before the processors it contains and ends after
+ * them), so their times are kept in a stack. A processor that fails never ends, so ending a processor also discards the times of
+ * the ones started after it, and starting a processor discards its previous time, for when it is executed again in a loop.
+ *
+ * @since 4.6.0
+ */
+public final class ProcessorStartTimes {
+
+  /**
+   * Returned by {@link #end(EventContext, Object)} when the processor was not started for the context.
+   */
+  public static final long NOT_STARTED = -1;
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private Object[] processors = new Object[INITIAL_CAPACITY];
+  private long[] startTimes = new long[INITIAL_CAPACITY];
+  private int depth;
+
+  /**
+   * Records that {@code processor} started executing for {@code context}.
+   *
+   * @param context   the context of the event being processed
+   * @param processor the processor, or any object that identifies it
+   * @param startTime the time the processor started, as returned by {@link System#nanoTime()}
+   */
+  public static void start(EventContext context, Object processor, long startTime) {
+    if (context instanceof AbstractEventContext) {
+      ((AbstractEventContext) context).getProcessorStartTimes().push(processor, startTime);
+    }
+  }
+
+  /**
+   * Records that {@code processor} ended executing for {@code context}.
+   *
+   * @param context   the context of the processed event
+   * @param processor the processor, or any object that identifies it, same as given to
+   *                  {@link #start(EventContext, Object, long)}
+   * @return the time the processor started, or {@link #NOT_STARTED}
+   */
+  public static long end(EventContext context, Object processor) {
+    if (context instanceof AbstractEventContext) {
+      return ((AbstractEventContext) context).getProcessorStartTimes().pop(processor);
+    }
+    return NOT_STARTED;
+  }
+
+  private synchronized void push(Object processor, long startTime) {
+    int index = indexOf(processor);
+    if (index >= 0) {
+      truncate(index);
+    }
+
+    if (depth == processors.length) {
+      processors = copyOf(processors, depth * 2);
+      startTimes = copyOf(startTimes, depth * 2);
+    }
+    processors[depth] = processor;
+    startTimes[depth] = startTime;
+    ++depth;
+  }
+
+  private synchronized long pop(Object processor) {
+    int index = indexOf(processor);
+    if (index < 0) {
+      return NOT_STARTED;
+    }
+
+    long startTime = startTimes[index];
+    truncate(index);
+    return startTime;
+  }
+
+  private int indexOf(Object processor) {
+    for (int i = depth - 1; i >= 0; --i) {
+      if (processors[i] == processor) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void truncate(int newDepth) {
+    // not to retain the processors
+    fill(processors, newDepth, depth, null);
+    depth = newDepth;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.Thread.currentThread;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link LockGroup} implementation for holding references to created locks inside a mule instance, without a monitor shared by
+ * all the lock ids.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap} and reference counted. When the count of an entry drops to zero it is marked
+ * as dead with a CAS before being removed, so a thread that finds a dead entry just retries with a new one. This way, threads
+ * locking different ids never contend with each other, as opposed to {@link InstanceLockGroup}.
+ *
+ * @since 4.6.0
+ */
+public class ConcurrentInstanceLockGroup implements LockGroup {
+
+  private static final long DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT = 5000L;
+  private static final Logger LOGGER = getLogger(ConcurrentInstanceLockGroup.class);
+
+  private final ConcurrentMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+  private final Object emptyMonitor = new Object();
+  private final LockProvider lockProvider;
+  private final long gracefulShutdownTimeoutMillis;
+
+  public ConcurrentInstanceLockGroup(LockProvider lockProvider, long shutdownTimeoutMillis) {
+    this.lockProvider = lockProvider;
+    this.gracefulShutdownTimeoutMillis = shutdownTimeoutMillis;
+  }
+
+  public ConcurrentInstanceLockGroup(LockProvider lockProvider) {
+    this(lockProvider, DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT);
+  }
+
+  @Override
+  public void lock(String lockId) {
+    LockEntry lockEntry = retainLockEntry(lockId);
+    lockEntry.getLock().lock();
+  }
+
+  @Override
+  public void unlock(String key) {
+    LockEntry lockEntry = locks.get(key);
+    if (lockEntry != null) {
+      lockEntry.getLock().unlock();
+      releaseLockEntry(key, lockEntry);
+    } else {
+      LOGGER.warn("Trying to unlock a lock with id {} that wasn't previously locked", key);
+    }
+  }
+
+  @Override
+  public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
+    LockEntry lockEntry = retainLockEntry(lockId);
+    try {
+      boolean lockAcquired = lockEntry.getLock().tryLock(timeout, timeUnit);
+      if (!lockAcquired) {
+        releaseLockEntry(lockId, lockEntry);
+      }
+      return lockAcquired;
+    } catch (InterruptedException interruptedException) {
+      releaseLockEntry(lockId, lockEntry);
+      throw interruptedException;
+    }
+  }
+
+  @Override
+  public boolean tryLock(String lockId) {
+    LockEntry lockEntry = retainLockEntry(lockId);
+    boolean lockAcquired = lockEntry.getLock().tryLock();
+    if (!lockAcquired) {
+      releaseLockEntry(lockId, lockEntry);
+    }
+    return lockAcquired;
+  }
+
+  @Override
+  public void lockInterruptibly(String lockId) throws InterruptedException {
+    LockEntry lockEntry = retainLockEntry(lockId);
+    try {
+      lockEntry.getLock().lockInterruptibly();
+    } catch (InterruptedException e) {
+      releaseLockEntry(lockId, lockEntry);
+      throw e;
+    }
+  }
+
+  int size() {
+    return locks.size();
+  }
+
+  @Override
+  public void dispose() {
+    waitForLocksToBeUnlocked();
+  }
+
+  private LockEntry retainLockEntry(String lockId) {
+    while (true) {
+      LockEntry lockEntry = locks.computeIfAbsent(lockId, id -> new LockEntry(lockProvider.createLock(id)));
+      if (lockEntry.retain()) {
+        return lockEntry;
+      }
+      // the entry was released concurrently and is about to be removed
+      locks.remove(lockId, lockEntry);
+    }
+  }
+
+  private void releaseLockEntry(String lockId, LockEntry lockEntry) {
+    if (lockEntry.release()) {
+      locks.remove(lockId, lockEntry);
+      if (locks.isEmpty()) {
+        synchronized (emptyMonitor) {
+          emptyMonitor.notifyAll();
+        }
+      }
+    }
+  }
+
+  private void waitForLocksToBeUnlocked() {
+    long timeOutMillis = currentTimeMillis() + gracefulShutdownTimeoutMillis;
+    synchronized (emptyMonitor) {
+      try {
+        long remainingMillis = timeOutMillis - currentTimeMillis();
+        while (!locks.isEmpty() && remainingMillis > 0) {
+          emptyMonitor.wait(remainingMillis);
+          remainingMillis = timeOutMillis - currentTimeMillis();
+        }
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      }
+      if (!locks.isEmpty()) {
+        LOGGER.warn("These locks weren't unlocked before disposing its lock group: {}", locks.keySet());
+      }
+    }
+  }
+
+  private static final class LockEntry {
+
+    private static final int DEAD = -1;
+
+    private final AtomicInteger lockCount = new AtomicInteger(0);
+    private final Lock lock;
+
+    private LockEntry(Lock lock) {
+      this.lock = lock;
+    }
+
+    private Lock getLock() {
+      return lock;
+    }
+
+    /**
+     * @return {@code false} if the entry is dead and must not be used anymore
+     */
+    private boolean retain() {
+      int count;
+      do {
+        count = lockCount.get();
+        if (count == DEAD) {
+          return false;
+        }
+      } while (!lockCount.compareAndSet(count, count + 1));
+      return true;
+    }
+
+    /**
+     * @return {@code true} if this was the last reference to the entry, which is now dead
+     */
+    private boolean release() {
+      return lockCount.decrementAndGet() == 0 && lockCount.compareAndSet(0, DEAD);
+    }
+  }
+}
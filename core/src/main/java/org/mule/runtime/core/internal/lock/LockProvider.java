@@ -27,4 +27,18 @@ public interface LockProvider {
    */
   Lock createLock(String lockId);
 
+  /**
+   * Creates the {@link LockGroup} that keeps track of the {@link Lock}s created by this provider.
+   * <p>
+   * Providers whose locks are local to this mule instance may return a {@link ConcurrentInstanceLockGroup}, so threads locking
+   * different ids don't contend with each other.
+   *
+   * @param shutdownTimeoutMillis the time to wait for the taken locks to be released when the group is disposed
+   * @return a new {@link LockGroup}
+   * @since 4.6.0
+   */
+  default LockGroup createLockGroup(long shutdownTimeoutMillis) {
+    return new InstanceLockGroup(this, shutdownTimeoutMillis);
+  }
+
 }
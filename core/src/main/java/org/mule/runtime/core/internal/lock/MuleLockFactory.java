@@ -23,6 +23,8 @@ import javax.inject.Named;
 
 public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
 
+  private static final long DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT = 5000L;
+
   private LockGroup lockGroup;
   private LockProvider lockProvider;
 
@@ -36,7 +38,7 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
   private MuleContext muleContext;
 
   @Override
-  public synchronized Lock createLock(String lockId) {
+  public Lock createLock(String lockId) {
     return new LockAdapter(lockId, lockGroup, schedulerService);
   }
 
@@ -61,14 +63,14 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
   private LockGroup createLockGroup() {
     // This class is created programmatically, and in such case the mule context isn't injected.
     if (muleContext == null) {
-      return new InstanceLockGroup(lockProvider);
+      return lockProvider.createLockGroup(DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT);
     }
 
     MuleConfiguration muleConfiguration = muleContext.getConfiguration();
     if (muleConfiguration == null) {
-      return new InstanceLockGroup(lockProvider);
+      return lockProvider.createLockGroup(DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT);
     }
 
-    return new InstanceLockGroup(lockProvider, muleConfiguration.getShutdownTimeout());
+    return lockProvider.createLockGroup(muleConfiguration.getShutdownTimeout());
   }
 }
@@ -19,4 +19,9 @@ public class SingleServerLockProvider implements LockProvider {
     return new ReentrantLock(true);
   }
 
+  @Override
+  public LockGroup createLockGroup(long shutdownTimeoutMillis) {
+    return new ConcurrentInstanceLockGroup(this, shutdownTimeoutMillis);
+  }
+
 }
@@ -33,6 +33,8 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
   // Transient to avoid de-serialization backward compatibility problems (MULE-19020)
   private transient final AtomicLong connectionErrors = new AtomicLong(0);
+  private transient final AtomicLong admittedEvents = new AtomicLong(0);
+  private transient final AtomicLong rejectedEvents = new AtomicLong(0);
 
   private transient final List<DefaultResetOnQueryCounter> eventsReceivedCounters = new CopyOnWriteArrayList<>();
   private transient final List<DefaultResetOnQueryCounter> messagesDispatchedCounters = new CopyOnWriteArrayList<>();
@@ -99,6 +101,8 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
     executionError.set(0);
     fatalError.set(0);
+    admittedEvents.set(0);
+    rejectedEvents.set(0);
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
@@ -178,6 +182,30 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
     }
   }
 
+  @Override
+  public void incAdmittedEvents() {
+    if (isEnabled()) {
+      admittedEvents.addAndGet(1);
+    }
+  }
+
+  @Override
+  public void incRejectedEvents() {
+    if (isEnabled()) {
+      rejectedEvents.addAndGet(1);
+    }
+  }
+
+  @Override
+  public long getAdmittedEvents() {
+    return admittedEvents.get();
+  }
+
+  @Override
+  public long getRejectedEvents() {
+    return rejectedEvents.get();
+  }
+
   @Override
   public long getTotalEventsReceived() {
     return receivedEvents.get();
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+
+import org.mule.runtime.core.api.management.stats.ProcessingTimeDistribution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values, with buckets of exponentially growing width like an HDR histogram.
+ * <p>
+ * Values below {@value #LINEAR_LIMIT} have a bucket each. Above that, each power of 2 is split in {@value #SUB_BUCKETS} buckets of
+ * the same width, so the value reported for a bucket is within ~6% of the values recorded in it.
+ * <p>
+ * Recording a value is lock-free and does not allocate once the bucket for it has been used, since each bucket is a
+ * {@link LongAdder} created the first time a value falls in it.
+ *
+ * @since 4.6.0
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+  private static final long LINEAR_LIMIT = 1L << LINEAR_BITS;
+  private static final int BUCKETS = (int) LINEAR_LIMIT + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+  private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+
+  /**
+   * Records a value. Negative values are recorded as 0.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    int index = bucketIndex(value < 0 ? 0 : value);
+    LongAdder bucket = buckets.get(index);
+    if (bucket == null) {
+      buckets.compareAndSet(index, null, new LongAdder());
+      bucket = buckets.get(index);
+    }
+    bucket.increment();
+  }
+
+  /**
+   * @return how many values have been recorded.
+   */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      LongAdder bucket = buckets.get(i);
+      if (bucket != null) {
+        count += bucket.sum();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the value below or at which the given {@code percentile} of the recorded values are.
+   *
+   * @param percentile a value between 0 and 100
+   * @return the highest value of the bucket of the percentile, or 0 if no values were recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    return snapshot().getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the counts of each bucket at this moment, unaffected by values recorded afterwards.
+   */
+  public Snapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i) {
+      LongAdder bucket = buckets.get(i);
+      if (bucket != null) {
+        counts[i] = bucket.sum();
+      }
+    }
+    return new Snapshot(counts);
+  }
+
+  /**
+   * Discards the recorded values. Values recorded concurrently with this call may or may not be kept.
+   */
+  public void clear() {
+    for (int i = 0; i < BUCKETS; ++i) {
+      LongAdder bucket = buckets.get(i);
+      if (bucket != null) {
+        bucket.reset();
+      }
+    }
+  }
+
+  static int bucketIndex(long value) {
+    if (value < LINEAR_LIMIT) {
+      return (int) value;
+    }
+    int magnitude = Long.SIZE - 1 - numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (int) LINEAR_LIMIT + (magnitude - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+  }
+
+  static long highestValueInBucket(int index) {
+    if (index < LINEAR_LIMIT) {
+      return index;
+    }
+    int magnitude = (index - (int) LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+    int subBucket = (index - (int) LINEAR_LIMIT) % SUB_BUCKETS;
+    int shift = magnitude - SUB_BUCKET_BITS;
+    long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  /**
+   * Immutable copy of the counts of a {@link LatencyHistogram}.
+   */
+  public static final class Snapshot implements ProcessingTimeDistribution {
+
+    private final long[] counts;
+    private final long totalCount;
+
+    private Snapshot(long[] counts) {
+      this.counts = counts;
+      long total = 0;
+      for (long count : counts) {
+        total += count;
+      }
+      this.totalCount = total;
+    }
+
+    /**
+     * @return how many values had been recorded when this snapshot was taken.
+     */
+    @Override
+    public long getCount() {
+      return totalCount;
+    }
+
+    /**
+     * @see LatencyHistogram#getValueAtPercentile(double)
+     */
+    @Override
+    public long getValueAtPercentile(double percentile) {
+      if (totalCount == 0) {
+        return 0;
+      }
+      long target = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * totalCount);
+      if (target == 0) {
+        target = 1;
+      }
+
+      long accumulated = 0;
+      for (int i = 0; i < counts.length; ++i) {
+        accumulated += counts[i];
+        if (accumulated >= target) {
+          return highestValueInBucket(i);
+        }
+      }
+      return highestValueInBucket(counts.length - 1);
+    }
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.mule.runtime.core.api.management.stats.ProcessingTime.getEffectiveTime;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.System.currentTimeMillis;
+
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatisticsSnapshot;
+import org.mule.runtime.core.api.management.stats.ProcessingTimeDistribution;
+import org.mule.runtime.core.api.management.stats.ResetOnQueryCounter;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * {@link FlowConstructStatistics} that keeps its counters in {@link LongAdder}s and {@link LongAccumulator}s instead of shared
+ * {@code AtomicLong}s or synchronized blocks, so that threads recording statistics concurrently for the same flow do not contend
+ * with each other.
+ * <p>
+ * Besides the values of {@link DefaultFlowConstructStatistics}, the distribution of the processing times of the flow and of each
+ * of its processors is kept in {@link LatencyHistogram}s, and can be obtained from a {@link #snapshot()}. The message processor
+ * chains of the flow report the times of its processors through {@link #addProcessorExecutionTime(String, long)}.
+ *
+ * @since 4.6.0
+ */
+public class StripedFlowConstructStatistics implements FlowConstructStatistics {
+
+  private static final long serialVersionUID = -2874457226391634417L;
+
+  private final String flowConstructType;
+  private volatile String name;
+  private volatile boolean enabled = false;
+  private volatile long samplePeriod = currentTimeMillis();
+
+  private final LongAdder receivedEvents = new LongAdder();
+  private final LongAdder dispatchedMessages = new LongAdder();
+  private final LongAdder executionErrors = new LongAdder();
+  private final LongAdder fatalErrors = new LongAdder();
+  private final LongAdder connectionErrors = new LongAdder();
+  private final LongAdder admittedEvents = new LongAdder();
+  private final LongAdder rejectedEvents = new LongAdder();
+
+  private final LongAdder processedEvents = new LongAdder();
+  private final LongAdder totalProcessingTime = new LongAdder();
+  // the functions of the accumulators are serialized along with them
+  private final LongAccumulator minProcessingTime =
+      new LongAccumulator((LongBinaryOperator & Serializable) Math::min, MAX_VALUE);
+  private final LongAccumulator maxProcessingTime = new LongAccumulator((LongBinaryOperator & Serializable) Math::max, 0);
+
+  // not serialized, so they are created again when deserializing
+  private transient LatencyHistogram processingTimes;
+  private transient Map<String, LatencyHistogram> processorProcessingTimes;
+
+  private transient List<StripedResetOnQueryCounter> eventsReceivedCounters;
+  private transient List<StripedResetOnQueryCounter> messagesDispatchedCounters;
+  private transient List<StripedResetOnQueryCounter> executionErrorsCounters;
+  private transient List<StripedResetOnQueryCounter> connectionErrorsCounters;
+  private transient List<StripedResetOnQueryCounter> fatalErrorsCounters;
+
+  public StripedFlowConstructStatistics(String flowConstructType, String name) {
+    this.flowConstructType = flowConstructType;
+    this.name = name;
+    initTransientState();
+  }
+
+  private void initTransientState() {
+    processingTimes = new LatencyHistogram();
+    processorProcessingTimes = new ConcurrentHashMap<>();
+
+    eventsReceivedCounters = new CopyOnWriteArrayList<>();
+    messagesDispatchedCounters = new CopyOnWriteArrayList<>();
+    executionErrorsCounters = new CopyOnWriteArrayList<>();
+    connectionErrorsCounters = new CopyOnWriteArrayList<>();
+    fatalErrorsCounters = new CopyOnWriteArrayList<>();
+  }
+
+  private Object readResolve() {
+    initTransientState();
+    return this;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean b) {
+    enabled = b;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getFlowConstructType() {
+    return flowConstructType;
+  }
+
+  @Override
+  public void clear() {
+    receivedEvents.reset();
+    dispatchedMessages.reset();
+    executionErrors.reset();
+    fatalErrors.reset();
+    admittedEvents.reset();
+    rejectedEvents.reset();
+    samplePeriod = currentTimeMillis();
+
+    processedEvents.reset();
+    totalProcessingTime.reset();
+    minProcessingTime.reset();
+    maxProcessingTime.reset();
+    processingTimes.clear();
+    processorProcessingTimes.values().forEach(LatencyHistogram::clear);
+  }
+
+  @Override
+  public void incReceivedEvents() {
+    if (isEnabled()) {
+      receivedEvents.increment();
+      eventsReceivedCounters.forEach(StripedResetOnQueryCounter::increment);
+    }
+  }
+
+  @Override
+  public void incMessagesDispatched() {
+    if (isEnabled()) {
+      dispatchedMessages.increment();
+      messagesDispatchedCounters.forEach(StripedResetOnQueryCounter::increment);
+    }
+  }
+
+  @Override
+  public void incExecutionError() {
+    if (isEnabled()) {
+      executionErrors.increment();
+      executionErrorsCounters.forEach(StripedResetOnQueryCounter::increment);
+    }
+  }
+
+  @Override
+  public void incFatalError() {
+    if (isEnabled()) {
+      fatalErrors.increment();
+      fatalErrorsCounters.forEach(StripedResetOnQueryCounter::increment);
+    }
+  }
+
+  @Override
+  public void incConnectionErrors() {
+    if (isEnabled()) {
+      connectionErrors.increment();
+      connectionErrorsCounters.forEach(StripedResetOnQueryCounter::increment);
+    }
+  }
+
+  @Override
+  public void incAdmittedEvents() {
+    if (isEnabled()) {
+      admittedEvents.increment();
+    }
+  }
+
+  @Override
+  public void incRejectedEvents() {
+    if (isEnabled()) {
+      rejectedEvents.increment();
+    }
+  }
+
+  @Override
+  public void addCompleteFlowExecutionTime(long time) {
+    // same as the default statistics, times of events whose first branch was recorded before a clear are ignored
+    if (processedEvents.sum() > 0) {
+      long effectiveTime = getEffectiveTime(time);
+      minProcessingTime.accumulate(effectiveTime);
+      processingTimes.record(effectiveTime);
+    }
+  }
+
+  @Override
+  public void addFlowExecutionBranchTime(long time, long total) {
+    if (time == total) {
+      processedEvents.increment();
+    }
+    if (processedEvents.sum() > 0) {
+      totalProcessingTime.add(getEffectiveTime(time));
+      maxProcessingTime.accumulate(getEffectiveTime(total));
+    }
+  }
+
+  /**
+   * Records the time it took for the processor at {@code processorLocation} to process an event of this flow.
+   *
+   * @param processorLocation the location of the processor
+   * @param time              the processing time, in milliseconds
+   */
+  public void addProcessorExecutionTime(String processorLocation, long time) {
+    LatencyHistogram histogram = processorProcessingTimes.get(processorLocation);
+    if (histogram == null) {
+      histogram = processorProcessingTimes.computeIfAbsent(processorLocation, l -> new LatencyHistogram());
+    }
+    histogram.record(getEffectiveTime(time));
+  }
+
+  @Override
+  public long getAverageProcessingTime() {
+    long processed = getProcessedEvents();
+    return processed == 0 ? 0 : getTotalProcessingTime() / processed;
+  }
+
+  @Override
+  public long getProcessedEvents() {
+    return processedEvents.sum();
+  }
+
+  @Override
+  public long getMaxProcessingTime() {
+    return maxProcessingTime.get();
+  }
+
+  @Override
+  public long getMinProcessingTime() {
+    long min = minProcessingTime.get();
+    return min == MAX_VALUE ? 0 : min;
+  }
+
+  @Override
+  public long getTotalProcessingTime() {
+    return totalProcessingTime.sum();
+  }
+
+  @Override
+  public long getExecutionErrors() {
+    return executionErrors.sum();
+  }
+
+  @Override
+  public long getFatalErrors() {
+    return fatalErrors.sum();
+  }
+
+  @Override
+  public long getConnectionErrors() {
+    return connectionErrors.sum();
+  }
+
+  @Override
+  public long getAdmittedEvents() {
+    return admittedEvents.sum();
+  }
+
+  @Override
+  public long getRejectedEvents() {
+    return rejectedEvents.sum();
+  }
+
+  @Override
+  public long getTotalEventsReceived() {
+    return receivedEvents.sum();
+  }
+
+  @Override
+  public long getTotalDispatchedMessages() {
+    return dispatchedMessages.sum();
+  }
+
+  public long getSamplePeriod() {
+    return currentTimeMillis() - samplePeriod;
+  }
+
+  /**
+   * @return the values of these statistics at this moment. Values recorded while the snapshot is being taken may or may not be
+   *         part of it.
+   */
+  public FlowConstructStatisticsSnapshot snapshot() {
+    Map<String, ProcessingTimeDistribution> processorSnapshots = new HashMap<>();
+    processorProcessingTimes.forEach((location, histogram) -> processorSnapshots.put(location, histogram.snapshot()));
+
+    return new FlowConstructStatisticsSnapshot(getName(), currentTimeMillis(),
+                                               getTotalEventsReceived(), getTotalDispatchedMessages(),
+                                               getExecutionErrors(), getFatalErrors(), getConnectionErrors(),
+                                               getAdmittedEvents(), getRejectedEvents(),
+                                               getProcessedEvents(), getTotalProcessingTime(),
+                                               getMinProcessingTime(), getMaxProcessingTime(),
+                                               processingTimes.snapshot(), processorSnapshots);
+  }
+
+  @Override
+  public ResetOnQueryCounter getEventsReceivedCounter() {
+    return newCounter(eventsReceivedCounters, getTotalEventsReceived());
+  }
+
+  @Override
+  public ResetOnQueryCounter getDispatchedMessagesCounter() {
+    return newCounter(messagesDispatchedCounters, getTotalDispatchedMessages());
+  }
+
+  @Override
+  public ResetOnQueryCounter getExecutionErrorsCounter() {
+    return newCounter(executionErrorsCounters, getExecutionErrors());
+  }
+
+  @Override
+  public ResetOnQueryCounter getConnectionErrorsCounter() {
+    return newCounter(connectionErrorsCounters, getConnectionErrors());
+  }
+
+  @Override
+  public ResetOnQueryCounter getFatalErrorsCounter() {
+    return newCounter(fatalErrorsCounters, getFatalErrors());
+  }
+
+  private static ResetOnQueryCounter newCounter(List<StripedResetOnQueryCounter> counters, long initialValue) {
+    StripedResetOnQueryCounter counter = new StripedResetOnQueryCounter();
+    counters.add(counter);
+    counter.add(initialValue);
+    return counter;
+  }
+}
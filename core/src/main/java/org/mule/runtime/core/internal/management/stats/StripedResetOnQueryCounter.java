@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import org.mule.runtime.core.api.management.stats.ResetOnQueryCounter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of {@link ResetOnQueryCounter} that holds the counter in a {@link LongAdder}, so concurrent increments do not
+ * contend on the same memory location.
+ * <p>
+ * Increments concurrent with {@link #getAndReset()} may be reported by either the current or the next query.
+ *
+ * @since 4.6.0
+ */
+public class StripedResetOnQueryCounter implements ResetOnQueryCounter {
+
+  private final LongAdder counter = new LongAdder();
+
+  @Override
+  public long getAndReset() {
+    return counter.sumThenReset();
+  }
+
+  @Override
+  public long get() {
+    return counter.sum();
+  }
+
+  public void increment() {
+    counter.increment();
+  }
+
+  public void add(long value) {
+    counter.add(value);
+  }
+}
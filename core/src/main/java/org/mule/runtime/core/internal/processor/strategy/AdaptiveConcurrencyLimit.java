@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limit of the events being processed concurrently by a flow, adjusted from the latency of the events it processes.
+ * <p>
+ * For each window, the average latency of the window is compared with the no load latency, the lowest average seen. While they
+ * are similar the limit grows by the square root of its value, so more concurrency is tried. When the latency of the window goes
+ * up, the limit is reduced proportionally, since the extra events are just waiting for a busy resource instead of making
+ * progress. When a scheduler rejects a task the limit is reduced by a fixed ratio.
+ * <p>
+ * Comparing with a long term average instead would let the limit creep up under sustained load, since the average catches up
+ * with the latency caused by the queueing. On the other hand, the no load latency may become stale if the processing gets
+ * slower for good. So, while the limit is being reduced because of the latency, it is periodically probed: the limit drops to
+ * its minimum until the events in flight are drained, and the latency of the next window becomes the new no load latency.
+ * <p>
+ * The limit only grows when the events in flight get close to it, so an idle flow does not accumulate a limit that would not
+ * protect it from a later burst.
+ * <p>
+ * Each acquired permit belongs to an epoch, which changes when the limit is {@link #reset()}. Releases of permits from a previous
+ * epoch are ignored, so the events that complete after a reset don't make the count of events in flight go negative.
+ *
+ * @since 4.6.0
+ */
+final class AdaptiveConcurrencyLimit {
+
+  /**
+   * Returned by {@link #tryAcquire()} when the event may not be processed.
+   */
+  static final int NO_PERMIT = -1;
+
+  private static final long IN_FLIGHT_MASK = 0xFFFFFFFFL;
+
+  private static final double LATENCY_TOLERANCE = 1.5;
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double OVERLOAD_BACKOFF_RATIO = 0.9;
+  private static final double SMOOTHING = 0.2;
+  private static final int PROBE_INTERVAL_WINDOWS = 100;
+  private static final int PROBE_MAX_DRAIN_WINDOWS = 10;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long windowNanos;
+
+  // the epoch in the high 32 bits and the events in flight in the low 32 bits, so both are updated atomically
+  private final AtomicLong state = new AtomicLong();
+  private volatile int limit;
+
+  private final AtomicLong windowStart;
+  private final LongAdder windowLatency = new LongAdder();
+  private final LongAdder windowSamples = new LongAdder();
+  private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+  private volatile boolean overloaded;
+
+  // only updated by the thread that closes a window
+  private double estimatedLimit;
+  private double noLoadLatency;
+  private int windowsUntilProbe = PROBE_INTERVAL_WINDOWS;
+  private int probeDrainWindows;
+  private boolean probeMeasuring;
+
+  /**
+   * @param initialLimit the limit to start with
+   * @param minLimit     the lowest value the limit may be reduced to
+   * @param maxLimit     the highest value the limit may grow to
+   * @param windowNanos  the time between adjustments of the limit
+   * @param now          the current time, in nanoseconds
+   */
+  AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos, long now) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Invalid limit bounds [" + minLimit + ", " + maxLimit + "]");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.windowNanos = windowNanos;
+    this.estimatedLimit = max(minLimit, min(maxLimit, initialLimit));
+    this.limit = (int) estimatedLimit;
+    this.windowStart = new AtomicLong(now);
+  }
+
+  /**
+   * @return the permit to process the event, or {@link #NO_PERMIT} if it may not be processed. The permit must be passed to
+   *         either {@link #release(int, long, long)} or {@link #releaseWithoutSample(int)} once the event is done.
+   */
+  int tryAcquire() {
+    while (true) {
+      long current = state.get();
+      int currentInFlight = inFlight(current);
+      if (currentInFlight >= limit) {
+        return NO_PERMIT;
+      }
+      if (state.compareAndSet(current, current + 1)) {
+        windowMaxInFlight.accumulateAndGet(currentInFlight + 1, Math::max);
+        return epoch(current);
+      }
+    }
+  }
+
+  /**
+   * Releases an event that completed processing, taking its latency into account for the next adjustment of the limit.
+   *
+   * @param permit       the permit returned by {@link #tryAcquire()} for the event
+   * @param latencyNanos the time it took to process the event
+   * @param now          the current time, in nanoseconds
+   */
+  void release(int permit, long latencyNanos, long now) {
+    if (!decrementInFlight(permit)) {
+      return;
+    }
+    windowLatency.add(latencyNanos);
+    windowSamples.increment();
+    updateIfWindowElapsed(now);
+  }
+
+  /**
+   * Releases an event that was not processed.
+   *
+   * @param permit the permit returned by {@link #tryAcquire()} for the event
+   */
+  void releaseWithoutSample(int permit) {
+    decrementInFlight(permit);
+  }
+
+  private boolean decrementInFlight(int permit) {
+    while (true) {
+      long current = state.get();
+      if (epoch(current) != permit) {
+        // acquired before a reset, it is no longer counted
+        return false;
+      }
+      if (state.compareAndSet(current, current - 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Notifies that a scheduler could not accept more tasks, so the limit is reduced at the end of the current window.
+   */
+  void onOverload() {
+    overloaded = true;
+  }
+
+  /**
+   * Discards the events in flight, for when their completion may not be notified. Permits acquired before the reset are no
+   * longer valid.
+   */
+  void reset() {
+    while (true) {
+      long current = state.get();
+      long next = (long) ((epoch(current) + 1) & Integer.MAX_VALUE) << 32;
+      if (state.compareAndSet(current, next)) {
+        return;
+      }
+    }
+  }
+
+  int getLimit() {
+    return limit;
+  }
+
+  int getInFlight() {
+    return inFlight(state.get());
+  }
+
+  private static int epoch(long state) {
+    return (int) (state >>> 32);
+  }
+
+  private static int inFlight(long state) {
+    return (int) (state & IN_FLIGHT_MASK);
+  }
+
+  private void updateIfWindowElapsed(long now) {
+    long start = windowStart.get();
+    if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+      return;
+    }
+
+    long samples = windowSamples.sumThenReset();
+    long latency = windowLatency.sumThenReset();
+    int maxInFlight = windowMaxInFlight.getAndSet(getInFlight());
+    boolean wasOverloaded = overloaded;
+    overloaded = false;
+
+    if (probeDrainWindows > 0 || probeMeasuring) {
+      probe(samples, latency, maxInFlight);
+      return;
+    }
+
+    double newLimit;
+    if (wasOverloaded) {
+      newLimit = estimatedLimit * OVERLOAD_BACKOFF_RATIO;
+    } else if (samples > 0) {
+      double windowLatency = (double) latency / samples;
+      if (noLoadLatency == 0 || windowLatency < noLoadLatency) {
+        noLoadLatency = windowLatency;
+      }
+
+      double gradient = max(MIN_GRADIENT, min(1.0, LATENCY_TOLERANCE * noLoadLatency / windowLatency));
+      if (gradient < 1.0 && --windowsUntilProbe <= 0) {
+        startProbe();
+        return;
+      }
+      if (gradient == 1.0 && maxInFlight < estimatedLimit / 2) {
+        return;
+      }
+      newLimit = estimatedLimit * gradient + sqrt(estimatedLimit);
+    } else {
+      return;
+    }
+
+    estimatedLimit = max(minLimit, min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    limit = (int) estimatedLimit;
+  }
+
+  private void startProbe() {
+    windowsUntilProbe = PROBE_INTERVAL_WINDOWS;
+    probeDrainWindows = PROBE_MAX_DRAIN_WINDOWS;
+    limit = minLimit;
+  }
+
+  private void probe(long samples, long latency, int maxInFlight) {
+    if (probeMeasuring) {
+      // the events of this window were accepted with the events in flight drained
+      probeMeasuring = false;
+      if (samples > 0) {
+        noLoadLatency = (double) latency / samples;
+      }
+      limit = (int) estimatedLimit;
+    } else if (maxInFlight <= minLimit) {
+      probeDrainWindows = 0;
+      probeMeasuring = true;
+    } else if (--probeDrainWindows == 0) {
+      // the events in flight take too long to complete, try again later
+      limit = (int) estimatedLimit;
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.construct.BackPressureReason.MAX_CONCURRENCY_EXCEEDED;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimit.NO_PERMIT;
+import static reactor.core.publisher.Flux.from;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.BackPressureReason;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
+import org.mule.runtime.core.internal.processor.strategy.ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Creates a processing strategy with the same behavior as {@link TransactionAwareProactorStreamEmitterProcessingStrategyFactory},
+ * apart from the fact that the concurrency of the flow and the amount of emitters the events are distributed to are adjusted
+ * while the flow runs, instead of being fixed when it starts.
+ * <p>
+ * The events accepted by the flow are limited by an {@link AdaptiveConcurrencyLimit}, fed with the latency of each event and
+ * with the rejections of the schedulers, and bounded by the configured {@code maxConcurrency} and by
+ * {@link #ADAPTIVE_MAX_CONCURRENCY}. Events over the limit are rejected with {@link BackPressureReason#MAX_CONCURRENCY_EXCEEDED},
+ * so the source applies its back pressure strategy.
+ * <p>
+ * Events are distributed to only some of the emitters, whose amount is doubled when events queue up in them and reduced by one
+ * when they are not queueing.
+ * <p>
+ * Flows that don't configure a processing strategy use this one when the {@link ProcessingStrategyFactory} system property is
+ * set to {@code adaptive}.
+ *
+ * @since 4.6.0
+ */
+public class AdaptiveProactorStreamEmitterProcessingStrategyFactory extends ProactorStreamEmitterProcessingStrategyFactory
+    implements TransactionAwareProcessingStrategyFactory {
+
+  protected static final int ADAPTIVE_WINDOW_MS = getInteger(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_WINDOW_MS", 100);
+  protected static final int ADAPTIVE_INITIAL_CONCURRENCY =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_INITIAL_CONCURRENCY", CORES * 4);
+  /**
+   * The highest value the limit may grow to, for flows without a {@code maxConcurrency} or with a higher one. Past a few times
+   * the amount of threads that can process the events, extra concurrency only adds to the latency.
+   */
+  protected static final int ADAPTIVE_MAX_CONCURRENCY =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_MAX_CONCURRENCY", CORES * 64);
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    Supplier<Scheduler> cpuLightSchedulerSupplier = getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix);
+    ProcessingStrategy processingStrategy =
+        new AdaptiveProactorStreamEmitterProcessingStrategy(getBufferSize(),
+                                                            getSubscriberCount(),
+                                                            cpuLightSchedulerSupplier,
+                                                            cpuLightSchedulerSupplier,
+                                                            getBlockingSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                                            getCpuIntensiveSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                                            resolveParallelism(),
+                                                            getMaxConcurrency(),
+                                                            isMaxConcurrencyEagerCheck(),
+                                                            () -> muleContext.getConfiguration().getShutdownTimeout(),
+                                                            ADAPTIVE_INITIAL_CONCURRENCY,
+                                                            ADAPTIVE_MAX_CONCURRENCY,
+                                                            MILLISECONDS.toNanos(ADAPTIVE_WINDOW_MS));
+    TransactionAwareStreamEmitterProcessingStrategyDecorator psDecorator =
+        new TransactionAwareStreamEmitterProcessingStrategyDecorator(processingStrategy);
+
+    try {
+      initialiseIfNeeded(psDecorator, muleContext);
+    } catch (MuleException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    return psDecorator;
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return TransactionAwareStreamEmitterProcessingStrategyDecorator.class;
+  }
+
+  static class AdaptiveProactorStreamEmitterProcessingStrategy extends ProactorStreamEmitterProcessingStrategy {
+
+    private final long windowNanos;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    public AdaptiveProactorStreamEmitterProcessingStrategy(int bufferSize,
+                                                           int subscriberCount,
+                                                           Supplier<Scheduler> flowDispatchSchedulerSupplier,
+                                                           Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                                           Supplier<Scheduler> blockingSchedulerSupplier,
+                                                           Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                                           int parallelism,
+                                                           int maxConcurrency,
+                                                           boolean maxConcurrencyEagerCheck,
+                                                           Supplier<Long> shutdownTimeoutSupplier,
+                                                           int initialConcurrency,
+                                                           int maxAdaptiveConcurrency,
+                                                           long windowNanos) {
+      super(bufferSize, subscriberCount, flowDispatchSchedulerSupplier, cpuLightSchedulerSupplier, blockingSchedulerSupplier,
+            cpuIntensiveSchedulerSupplier, parallelism, maxConcurrency, maxConcurrencyEagerCheck, shutdownTimeoutSupplier);
+      this.windowNanos = windowNanos;
+      int minLimit = min(CORES, maxConcurrency);
+      this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialConcurrency, minLimit,
+                                                           max(minLimit, min(maxConcurrency, maxAdaptiveConcurrency)),
+                                                           windowNanos, nanoTime());
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor function) {
+      AtomicInteger queuedEvents = new AtomicInteger();
+      List<ReactorSink<CoreEvent>> sinks =
+          createEmitterSinks(flowConstruct, publisher -> from(publisher)
+              .doOnNext(event -> queuedEvents.decrementAndGet())
+              .transform(function));
+      return new AdaptiveRoundRobinReactorSink<>(sinks, queuedEvents, windowNanos);
+    }
+
+    @Override
+    protected BackPressureReason checkCapacity(CoreEvent event) {
+      int permit = concurrencyLimit.tryAcquire();
+      if (permit == NO_PERMIT) {
+        return MAX_CONCURRENCY_EXCEEDED;
+      }
+
+      BackPressureReason reason = super.checkCapacity(event);
+      if (reason != null) {
+        concurrencyLimit.releaseWithoutSample(permit);
+        return reason;
+      }
+
+      long start = nanoTime();
+      ((BaseEventContext) event.getContext()).onBeforeResponse((e, t) -> {
+        long now = nanoTime();
+        // ignored if the strategy was stopped since the event was accepted
+        concurrencyLimit.release(permit, now - start, now);
+      });
+      return null;
+    }
+
+    @Override
+    protected void onRejected(ScheduledExecutorService scheduler) {
+      super.onRejected(scheduler);
+      concurrencyLimit.onOverload();
+    }
+
+    @Override
+    public void stop() {
+      super.stop();
+      // Same as the in flight events of the parent, the completion of the events being processed may not be notified. Those
+      // which are notified later are discarded by the limit.
+      concurrencyLimit.reset();
+    }
+
+    int getConcurrencyLimit() {
+      return concurrencyLimit.getLimit();
+    }
+
+    int getEventsInFlight() {
+      return concurrencyLimit.getInFlight();
+    }
+  }
+
+  /**
+   * Distributes events in a round robin fashion to the first emitters of a list, adjusting how many of them are used from the
+   * events queued in the emitters.
+   */
+  static class AdaptiveRoundRobinReactorSink<E> implements ReactorSink<E> {
+
+    private static final int GROW_QUEUE_DEPTH = 2;
+
+    private final List<ReactorSink<E>> fluxSinks;
+    private final AtomicInteger queuedEvents;
+    private final AtomicInteger maxQueuedEvents = new AtomicInteger();
+    private final AtomicInteger index = new AtomicInteger();
+    private final long windowNanos;
+    private final AtomicLong nextAdjustment;
+    private volatile int activeSinks;
+
+    /**
+     * @param sinks        the sinks of the emitters to distribute the events to
+     * @param queuedEvents the amount of events accepted by this sink that the emitters have not dispatched yet, to be
+     *                     decremented by the emitters' subscribers
+     * @param windowNanos  the time between adjustments of the amount of emitters used
+     */
+    AdaptiveRoundRobinReactorSink(List<ReactorSink<E>> sinks, AtomicInteger queuedEvents, long windowNanos) {
+      this.fluxSinks = sinks;
+      this.queuedEvents = queuedEvents;
+      this.windowNanos = windowNanos;
+      this.nextAdjustment = new AtomicLong(nanoTime() + windowNanos);
+      this.activeSinks = sinks.size();
+    }
+
+    @Override
+    public void prepareDispose() {
+      fluxSinks.forEach(ReactorSink::prepareDispose);
+    }
+
+    @Override
+    public void dispose() {
+      fluxSinks.forEach(ReactorSink::prepareDispose);
+      fluxSinks.forEach(ReactorSink::dispose);
+    }
+
+    @Override
+    public void accept(CoreEvent event) {
+      ReactorSink<E> sink = nextSink();
+      maxQueuedEvents.accumulateAndGet(queuedEvents.incrementAndGet(), Math::max);
+      try {
+        sink.accept(event);
+      } catch (RuntimeException e) {
+        queuedEvents.decrementAndGet();
+        throw e;
+      }
+    }
+
+    @Override
+    public BackPressureReason emit(CoreEvent event) {
+      ReactorSink<E> sink = nextSink();
+      maxQueuedEvents.accumulateAndGet(queuedEvents.incrementAndGet(), Math::max);
+      BackPressureReason reason;
+      try {
+        reason = sink.emit(event);
+      } catch (RuntimeException e) {
+        queuedEvents.decrementAndGet();
+        throw e;
+      }
+      if (reason != null) {
+        queuedEvents.decrementAndGet();
+      }
+      return reason;
+    }
+
+    @Override
+    public E intoSink(CoreEvent event) {
+      return (E) event;
+    }
+
+    int getActiveSinks() {
+      return activeSinks;
+    }
+
+    private ReactorSink<E> nextSink() {
+      adjustIfWindowElapsed();
+      return fluxSinks.get((index.getAndIncrement() & MAX_VALUE) % activeSinks);
+    }
+
+    private void adjustIfWindowElapsed() {
+      long now = nanoTime();
+      long next = nextAdjustment.get();
+      if (now - next < 0 || !nextAdjustment.compareAndSet(next, now + windowNanos)) {
+        return;
+      }
+
+      int maxQueued = maxQueuedEvents.getAndSet(queuedEvents.get());
+      int active = activeSinks;
+      if (maxQueued >= active * GROW_QUEUE_DEPTH) {
+        activeSinks = min(fluxSinks.size(), active * 2);
+      } else if (maxQueued < active && active > 1) {
+        activeSinks = active - 1;
+      }
+    }
+  }
+}
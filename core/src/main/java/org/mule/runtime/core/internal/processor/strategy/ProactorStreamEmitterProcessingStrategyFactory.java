@@ -50,20 +50,26 @@ public class ProactorStreamEmitterProcessingStrategyFactory extends AbstractStre
                                                        getSubscriberCount(),
                                                        cpuLightSchedulerSupplier,
                                                        cpuLightSchedulerSupplier,
-                                                       () -> muleContext.getSchedulerService()
-                                                           .ioScheduler(muleContext.getSchedulerBaseConfig()
-                                                               .withName(
-                                                                         schedulersNamePrefix + "." + BLOCKING.name())),
-                                                       () -> muleContext.getSchedulerService()
-                                                           .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
-                                                               .withName(schedulersNamePrefix + "."
-                                                                   + CPU_INTENSIVE.name())),
+                                                       getBlockingSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                                       getCpuIntensiveSchedulerSupplier(muleContext, schedulersNamePrefix),
                                                        resolveParallelism(),
                                                        getMaxConcurrency(),
                                                        isMaxConcurrencyEagerCheck(),
                                                        () -> muleContext.getConfiguration().getShutdownTimeout());
   }
 
+  protected Supplier<Scheduler> getBlockingSchedulerSupplier(MuleContext muleContext, String schedulersNamePrefix) {
+    return () -> muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig()
+            .withName(schedulersNamePrefix + "." + BLOCKING.name()));
+  }
+
+  protected Supplier<Scheduler> getCpuIntensiveSchedulerSupplier(MuleContext muleContext, String schedulersNamePrefix) {
+    return () -> muleContext.getSchedulerService()
+        .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+            .withName(schedulersNamePrefix + "." + CPU_INTENSIVE.name()));
+  }
+
   @Override
   public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
     return ProactorStreamEmitterProcessingStrategy.class;
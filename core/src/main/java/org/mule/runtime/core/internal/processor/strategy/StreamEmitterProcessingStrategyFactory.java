@@ -226,6 +226,17 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
 
     @Override
     public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor function) {
+      return new RoundRobinReactorSink<>(createEmitterSinks(flowConstruct, function));
+    }
+
+    /**
+     * Creates the emitters to which the {@link Sink} for a flow distributes the events.
+     *
+     * @param flowConstruct the flow the events are processed by
+     * @param function      the processing to subscribe each emitter to
+     * @return the sinks of the emitters
+     */
+    protected List<ReactorSink<CoreEvent>> createEmitterSinks(FlowConstruct flowConstruct, ReactiveProcessor function) {
       List<ReactorSink<CoreEvent>> sinks = new ArrayList<>();
       final int bufferQueueSize = getBufferQueueSize();
 
@@ -253,7 +264,7 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
       }
 
       activeSinksCount.addAndGet(sinksCount);
-      return new RoundRobinReactorSink<>(sinks);
+      return sinks;
     }
 
     @Override
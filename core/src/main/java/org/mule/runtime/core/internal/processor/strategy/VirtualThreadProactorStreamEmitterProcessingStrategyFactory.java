@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.internal.processor.strategy.util.ProfilingUtils.getExtensionProfilingDataProducer;
+
+import org.mule.runtime.api.profiling.ProfilingService;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
+import org.mule.runtime.core.internal.profiling.context.VirtualThreadPinnedProfilingEventContext;
+import org.mule.runtime.core.internal.util.rx.VirtualThreadScheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates a processing strategy with same behavior as {@link TransactionAwareProactorStreamEmitterProcessingStrategyFactory}
+ * apart from the fact that blocking and IO operations are run in virtual threads instead of the bounded IO scheduler, when the
+ * JVM supports them.
+ * <p>
+ * The {@code maxConcurrency} of the flow still bounds the events being processed, since it is enforced before dispatching to the
+ * virtual threads. The times a virtual thread blocked while pinned to its carrier thread are published through the
+ * {@link ProfilingService} as {@link VirtualThreadPinnedProfilingEventContext extension profiling events}.
+ * <p>
+ * Flows that don't configure a processing strategy use this one when the {@link ProcessingStrategyFactory} system property is
+ * set to {@code virtualThreads}.
+ *
+ * @since 4.6.0
+ */
+public class VirtualThreadProactorStreamEmitterProcessingStrategyFactory
+    extends TransactionAwareProactorStreamEmitterProcessingStrategyFactory {
+
+  @Override
+  protected Supplier<Scheduler> getBlockingSchedulerSupplier(MuleContext muleContext, String schedulersNamePrefix) {
+    Supplier<Scheduler> ioSchedulerSupplier = super.getBlockingSchedulerSupplier(muleContext, schedulersNamePrefix);
+    if (!isVirtualThreadsSupported()) {
+      return ioSchedulerSupplier;
+    }
+
+    // the IO scheduler is kept for any delayed or periodic task, which are not worth a virtual thread
+    return () -> new VirtualThreadScheduler(schedulersNamePrefix + "." + BLOCKING.name() + ".virtual",
+                                            ioSchedulerSupplier.get(),
+                                            getExtensionProfilingDataProducer(muleContext));
+  }
+
+  protected boolean isVirtualThreadsSupported() {
+    return VirtualThreadScheduler.isSupported();
+  }
+}
@@ -7,12 +7,19 @@
 
 package org.mule.runtime.core.internal.processor.strategy.util;
 
+import static org.mule.runtime.api.profiling.type.RuntimeProfilingEventTypes.EXTENSION_PROFILING_EVENT;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROFILING_SERVICE_KEY;
+
 import org.mule.runtime.api.component.Component;
 import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
 import org.mule.runtime.api.profiling.ProfilingEventContext;
+import org.mule.runtime.api.profiling.ProfilingService;
 import org.mule.runtime.api.profiling.type.ProfilingEventType;
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.processor.chain.InterceptedReactiveProcessor;
 import org.mule.runtime.core.api.processor.HasLocation;
 
@@ -70,4 +77,20 @@ public final class ProfilingUtils {
                                                                                                        ProfilingEventType<T> profilingEventType) {
     return profilingEventType.getProfilingEventTypeNamespace() + ":" + profilingEventType.getProfilingEventTypeIdentifier();
   }
+
+  /**
+   * @param muleContext the {@link MuleContext} whose {@link ProfilingService} provides the producer
+   * @return the producer of extension profiling events, or {@code null} if there is no profiling service in the registry.
+   * @since 4.6.0
+   */
+  public static ProfilingDataProducer<ExtensionProfilingEventContext, Object> getExtensionProfilingDataProducer(
+                                                                                                                MuleContext muleContext) {
+    if (!(muleContext instanceof MuleContextWithRegistry)) {
+      return null;
+    }
+
+    ProfilingService profilingService =
+        ((MuleContextWithRegistry) muleContext).getRegistry().lookupObject(MULE_PROFILING_SERVICE_KEY);
+    return profilingService == null ? null : profilingService.getProfilingDataProducer(EXTENSION_PROFILING_EVENT);
+  }
 }
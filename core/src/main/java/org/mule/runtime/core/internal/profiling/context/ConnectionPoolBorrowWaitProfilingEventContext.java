@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.profiling.context;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
+import org.mule.runtime.core.internal.management.stats.LatencyHistogram;
+
+import java.util.Optional;
+
+/**
+ * An {@link ExtensionProfilingEventContext} for the times a thread had to wait for another one to return a connection to a pool.
+ * <p>
+ * The data source is the id of the pool, and the values are available through the {@link #WAIT_TIME} and
+ * {@link #BORROW_WAIT_TIMES} keys.
+ *
+ * @since 4.6.0
+ */
+public class ConnectionPoolBorrowWaitProfilingEventContext implements ExtensionProfilingEventContext {
+
+  public static final String CONNECTION_POOL_BORROW_WAIT = "CONNECTION_POOL_BORROW_WAIT";
+
+  /**
+   * The time the thread waited for the connection, in microseconds.
+   */
+  public static final String WAIT_TIME = "waitTime";
+
+  /**
+   * The {@link LatencyHistogram.Snapshot distribution} of the time spent by every borrow from the pool, including the ones that
+   * didn't have to wait, in microseconds. It is taken the first time it is requested.
+   */
+  public static final String BORROW_WAIT_TIMES = "borrowWaitTimes";
+
+  private final String poolId;
+  private final long waitTime;
+  private final LatencyHistogram borrowWaitTimes;
+  private final long triggerTimestamp;
+
+  private LatencyHistogram.Snapshot borrowWaitTimesSnapshot;
+
+  public ConnectionPoolBorrowWaitProfilingEventContext(String poolId, long waitTime, LatencyHistogram borrowWaitTimes,
+                                                       long triggerTimestamp) {
+    this.poolId = poolId;
+    this.waitTime = waitTime;
+    this.borrowWaitTimes = borrowWaitTimes;
+    this.triggerTimestamp = triggerTimestamp;
+  }
+
+  @Override
+  public long getTriggerTimestamp() {
+    return triggerTimestamp;
+  }
+
+  @Override
+  public String getProfilingDataSourceIdentifier() {
+    return poolId;
+  }
+
+  @Override
+  public String getExtensionEventSubtypeIdentifier() {
+    return CONNECTION_POOL_BORROW_WAIT;
+  }
+
+  @Override
+  public Optional<Object> get(String key) {
+    if (WAIT_TIME.equals(key)) {
+      return of(waitTime);
+    } else if (BORROW_WAIT_TIMES.equals(key)) {
+      return of(getBorrowWaitTimesSnapshot());
+    } else {
+      return empty();
+    }
+  }
+
+  private synchronized LatencyHistogram.Snapshot getBorrowWaitTimesSnapshot() {
+    if (borrowWaitTimesSnapshot == null) {
+      borrowWaitTimesSnapshot = borrowWaitTimes.snapshot();
+    }
+    return borrowWaitTimesSnapshot;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.profiling.context;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
+import org.mule.runtime.core.internal.util.rx.VirtualThreadScheduler;
+
+import java.util.Optional;
+
+/**
+ * An {@link ExtensionProfilingEventContext} for the times a virtual thread of a {@link VirtualThreadScheduler} blocked while
+ * pinned to its carrier thread.
+ * <p>
+ * The data source is the name of the scheduler, and the values are available through the {@link #THREAD_NAME} and
+ * {@link #PINNED_COUNT} keys.
+ *
+ * @since 4.6.0
+ */
+public class VirtualThreadPinnedProfilingEventContext implements ExtensionProfilingEventContext {
+
+  public static final String VIRTUAL_THREAD_PINNED = "VIRTUAL_THREAD_PINNED";
+
+  /**
+   * The name of the virtual thread that was pinned.
+   */
+  public static final String THREAD_NAME = "threadName";
+
+  /**
+   * The amount of times a virtual thread of the scheduler blocked while pinned, including this one.
+   */
+  public static final String PINNED_COUNT = "pinnedCount";
+
+  private final String schedulerName;
+  private final String threadName;
+  private final long pinnedCount;
+  private final long triggerTimestamp;
+
+  public VirtualThreadPinnedProfilingEventContext(String schedulerName, String threadName, long pinnedCount,
+                                                  long triggerTimestamp) {
+    this.schedulerName = schedulerName;
+    this.threadName = threadName;
+    this.pinnedCount = pinnedCount;
+    this.triggerTimestamp = triggerTimestamp;
+  }
+
+  @Override
+  public long getTriggerTimestamp() {
+    return triggerTimestamp;
+  }
+
+  @Override
+  public String getProfilingDataSourceIdentifier() {
+    return schedulerName;
+  }
+
+  @Override
+  public String getExtensionEventSubtypeIdentifier() {
+    return VIRTUAL_THREAD_PINNED;
+  }
+
+  @Override
+  public Optional<Object> get(String key) {
+    if (THREAD_NAME.equals(key)) {
+      return of(threadName);
+    } else if (PINNED_COUNT.equals(key)) {
+      return of(pinnedCount);
+    } else {
+      return empty();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.context.MuleContextAware;
+
+/**
+ * Serializes objects with a {@link BinarySerializationProtocol} for data that is only read by the runtime, and with Java
+ * serialization for data that may be read by other parties.
+ *
+ * @since 4.6.0
+ */
+public class BinaryObjectSerializer implements ObjectSerializer, MuleContextAware {
+
+  private final BinarySerializationProtocol internalProtocol = new BinarySerializationProtocol();
+  private final JavaExternalSerializerProtocol externalProtocol = new JavaExternalSerializerProtocol();
+
+  @Override
+  public SerializationProtocol getInternalProtocol() {
+    return internalProtocol;
+  }
+
+  @Override
+  public SerializationProtocol getExternalProtocol() {
+    return externalProtocol;
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    internalProtocol.setMuleContext(context);
+    externalProtocol.setMuleContext(context);
+  }
+}
@@ -0,0 +1,802 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Optional.ofNullable;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import static org.mule.runtime.core.internal.message.DefaultMessageBuilder.getMessageImplementationClass;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.security.SecurityContext;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.metadata.SimpleDataType;
+import org.mule.runtime.core.internal.util.SerializationUtils;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.DefaultMuleSession;
+import org.mule.runtime.core.privileged.event.MuleSession;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link SerializationProtocol} that writes a compact binary format.
+ * <p>
+ * Strings, boxed primitives, byte arrays, big numbers, dates and the most common {@link Collection} and {@link Map}
+ * implementations are written with a one byte tag and their content, without any class descriptor. {@link TypedValue}s,
+ * {@link Message}s and {@link CoreEvent}s are written field by field, so their content gets the same treatment. Additional types
+ * may be written compactly by {@link #registerType(int, Class, TypeSerializer) registering} a {@link TypeSerializer} for them.
+ * Any other {@link Serializable} object is written with Java serialization and read with the same class loading rules as
+ * {@link JavaExternalSerializerProtocol}.
+ * <p>
+ * The identity of shared collections is not kept. Graphs in which a collection contains itself are written entirely with Java
+ * serialization.
+ * <p>
+ * Data written by {@link JavaExternalSerializerProtocol} is detected and still readable, so this protocol may be enabled for an
+ * artifact with previously persisted data.
+ *
+ * @since 4.6.0
+ */
+public class BinarySerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final int FORMAT_HEADER = 'M';
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Buffers that grow beyond this size are not kept for reuse, to avoid holding memory after serializing a large object
+   */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+  private static final long UNKNOWN_SIZE = -1;
+  private static final int MAX_INITIAL_CAPACITY = 1024;
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte STRING = 3;
+  private static final byte INTEGER = 4;
+  private static final byte LONG = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte FLOAT = 7;
+  private static final byte SHORT = 8;
+  private static final byte BYTE = 9;
+  private static final byte CHARACTER = 10;
+  private static final byte BYTES = 11;
+  private static final byte BIG_DECIMAL = 12;
+  private static final byte BIG_INTEGER = 13;
+  private static final byte DATE = 14;
+  private static final byte ARRAY_LIST = 15;
+  private static final byte HASH_SET = 16;
+  private static final byte LINKED_HASH_SET = 17;
+  private static final byte HASH_MAP = 18;
+  private static final byte LINKED_HASH_MAP = 19;
+  private static final byte REGISTERED = 20;
+  private static final byte JAVA = 21;
+  private static final byte TYPED_VALUE = 22;
+  private static final byte MESSAGE = 23;
+  private static final byte EVENT = 24;
+
+  private static final byte SIMPLE_DATA_TYPE = 0;
+  private static final byte OTHER_DATA_TYPE = 1;
+
+  private static final Class<?> MESSAGE_IMPLEMENTATION = getMessageImplementationClass();
+
+  private final ThreadLocal<BinaryOutput> buffers = ThreadLocal.withInitial(BinaryOutput::new);
+
+  private final Map<Integer, RegisteredType<?>> registeredTypesById = new ConcurrentHashMap<>();
+  private final Map<Class<?>, RegisteredType<?>> registeredTypesByClass = new ConcurrentHashMap<>();
+
+  /**
+   * Writes and reads the instances of a registered type.
+   *
+   * @param <T> the registered type
+   */
+  public interface TypeSerializer<T> {
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+  }
+
+  /**
+   * Registers a {@link TypeSerializer} for the instances of exactly the given class.
+   * <p>
+   * The given {@code id} is written along with each instance, so the protocol that reads the data must have the same type
+   * registered with the same id as the one that wrote it, regardless of the order in which types are registered on each side.
+   *
+   * @param id         the id that identifies {@code type} in the written data
+   * @param type       the class to register
+   * @param serializer the serializer for the instances of {@code type}
+   * @param <T>        the registered type
+   * @throws IllegalArgumentException if {@code id} is negative, or either {@code id} or {@code type} are already registered
+   */
+  public synchronized <T> void registerType(int id, Class<T> type, TypeSerializer<T> serializer) {
+    if (id < 0) {
+      throw new IllegalArgumentException(format("Invalid id %d for type %s, it must not be negative", id, type.getName()));
+    }
+    if (registeredTypesByClass.containsKey(type)) {
+      throw new IllegalArgumentException(format("Type %s is already registered", type.getName()));
+    }
+    if (registeredTypesById.containsKey(id)) {
+      throw new IllegalArgumentException(format("Id %d is already registered for another type", id));
+    }
+
+    RegisteredType<T> registeredType = new RegisteredType<>(id, serializer);
+    registeredTypesById.put(id, registeredType);
+    registeredTypesByClass.put(type, registeredType);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    if (object instanceof CursorStreamProvider) {
+      try (CursorStream cursor = ((CursorStreamProvider) object).openCursor()) {
+        object = toByteArray(cursor);
+      }
+    }
+
+    BinaryOutput output = buffers.get();
+    try {
+      output.reset();
+      output.write(FORMAT_HEADER);
+      output.write(FORMAT_VERSION);
+      try {
+        writeValue(object, output.data, newSetFromMap(new IdentityHashMap<>()));
+      } catch (CyclicGraphException e) {
+        output.reset();
+        output.write(FORMAT_HEADER);
+        output.write(FORMAT_VERSION);
+        writeJava(object, output.data);
+      }
+      return output.toByteArray();
+    } finally {
+      if (output.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+        buffers.remove();
+      }
+    }
+  }
+
+  private void writeValue(Object value, DataOutputStream out, Set<Object> path) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+
+    Class<?> type = value.getClass();
+    if (type == String.class) {
+      out.writeByte(STRING);
+      writeString((String) value, out);
+    } else if (type == Integer.class) {
+      out.writeByte(INTEGER);
+      writeVarInt(encodeZigZag((Integer) value), out);
+    } else if (type == Long.class) {
+      out.writeByte(LONG);
+      writeVarLong(encodeZigZag((Long) value), out);
+    } else if (type == Boolean.class) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (type == Double.class) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (type == Float.class) {
+      out.writeByte(FLOAT);
+      out.writeFloat((Float) value);
+    } else if (type == Short.class) {
+      out.writeByte(SHORT);
+      out.writeShort((Short) value);
+    } else if (type == Byte.class) {
+      out.writeByte(BYTE);
+      out.writeByte((Byte) value);
+    } else if (type == Character.class) {
+      out.writeByte(CHARACTER);
+      out.writeChar((Character) value);
+    } else if (type == byte[].class) {
+      out.writeByte(BYTES);
+      writeBytes((byte[]) value, out);
+    } else if (type == BigDecimal.class) {
+      out.writeByte(BIG_DECIMAL);
+      writeBytes(((BigDecimal) value).unscaledValue().toByteArray(), out);
+      writeVarInt(encodeZigZag(((BigDecimal) value).scale()), out);
+    } else if (type == BigInteger.class) {
+      out.writeByte(BIG_INTEGER);
+      writeBytes(((BigInteger) value).toByteArray(), out);
+    } else if (type == Date.class) {
+      out.writeByte(DATE);
+      out.writeLong(((Date) value).getTime());
+    } else if (type == ArrayList.class) {
+      out.writeByte(ARRAY_LIST);
+      writeCollection((Collection<?>) value, out, path);
+    } else if (type == HashSet.class) {
+      out.writeByte(HASH_SET);
+      writeCollection((Collection<?>) value, out, path);
+    } else if (type == LinkedHashSet.class) {
+      out.writeByte(LINKED_HASH_SET);
+      writeCollection((Collection<?>) value, out, path);
+    } else if (type == HashMap.class) {
+      out.writeByte(HASH_MAP);
+      writeMap((Map<?, ?>) value, out, path);
+    } else if (type == LinkedHashMap.class) {
+      out.writeByte(LINKED_HASH_MAP);
+      writeMap((Map<?, ?>) value, out, path);
+    } else if (type == TypedValue.class) {
+      out.writeByte(TYPED_VALUE);
+      writeTypedValue((TypedValue<?>) value, out, path);
+    } else if (type == MESSAGE_IMPLEMENTATION && isWritableMessage((InternalMessage) value)) {
+      out.writeByte(MESSAGE);
+      writeTypedValue(((Message) value).getPayload(), out, path);
+      writeTypedValue(((Message) value).getAttributes(), out, path);
+    } else if (type == InternalEventImplementation.class) {
+      out.writeByte(EVENT);
+      writeEvent((InternalEventImplementation) value, out, path);
+    } else {
+      RegisteredType<Object> registeredType = (RegisteredType<Object>) registeredTypesByClass.get(type);
+      if (registeredType != null) {
+        out.writeByte(REGISTERED);
+        writeVarInt(registeredType.id, out);
+        registeredType.serializer.write(value, out);
+      } else {
+        writeJava(value, out);
+      }
+    }
+  }
+
+  private void writeCollection(Collection<?> collection, DataOutputStream out, Set<Object> path) throws IOException {
+    if (!path.add(collection)) {
+      throw new CyclicGraphException();
+    }
+
+    writeVarInt(collection.size(), out);
+    for (Object item : collection) {
+      writeValue(item, out, path);
+    }
+    path.remove(collection);
+  }
+
+  private void writeMap(Map<?, ?> map, DataOutputStream out, Set<Object> path) throws IOException {
+    if (!path.add(map)) {
+      throw new CyclicGraphException();
+    }
+
+    writeVarInt(map.size(), out);
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      writeValue(entry.getKey(), out, path);
+      writeValue(entry.getValue(), out, path);
+    }
+    path.remove(map);
+  }
+
+  private void writeTypedValue(TypedValue<?> typedValue, DataOutputStream out, Set<Object> path) throws IOException {
+    writeValue(typedValue.getValue(), out, path);
+    writeDataType(typedValue.getDataType(), out, path);
+    OptionalLong length = typedValue.getByteLength();
+    writeVarLong(length.isPresent() ? length.getAsLong() + 1 : 0, out);
+  }
+
+  private void writeDataType(DataType dataType, DataOutputStream out, Set<Object> path) throws IOException {
+    if (dataType.getClass() == SimpleDataType.class) {
+      out.writeByte(SIMPLE_DATA_TYPE);
+      writeString(dataType.getType().getName(), out);
+      writeString(dataType.getMediaType().toRfcString(), out);
+    } else {
+      out.writeByte(OTHER_DATA_TYPE);
+      writeValue(dataType, out, path);
+    }
+  }
+
+  /**
+   * Properties and attachments are legacy features that the Java form of the message takes care of, as well as payloads that
+   * need to be transformed in order to be serialized.
+   */
+  private static boolean isWritableMessage(InternalMessage message) {
+    return isSerializable(message.getPayload().getValue()) && isSerializable(message.getAttributes().getValue())
+        && message.getInboundPropertyNames().isEmpty() && message.getOutboundPropertyNames().isEmpty()
+        && message.getInboundAttachmentNames().isEmpty() && message.getOutboundAttachmentNames().isEmpty();
+  }
+
+  private static boolean isSerializable(Object value) {
+    return value == null || value instanceof Serializable;
+  }
+
+  private void writeEvent(InternalEventImplementation event, DataOutputStream out, Set<Object> path) throws IOException {
+    // the context keeps the processing state of the event, which only the Java form knows how to write
+    writeValue(event.getContext(), out, path);
+    writeValue(event.getMessage(), out, path);
+    writeTypedValues(event.getVariables(), out, path);
+    writeTypedValues(event.getParameters(), out, path);
+
+    Optional<Map<String, String>> loggingVariables = event.getLoggingVariables();
+    out.writeBoolean(loggingVariables.isPresent());
+    if (loggingVariables.isPresent()) {
+      writeVarInt(loggingVariables.get().size(), out);
+      for (Map.Entry<String, String> entry : loggingVariables.get().entrySet()) {
+        writeString(entry.getKey(), out);
+        writeValue(entry.getValue(), out, path);
+      }
+    }
+
+    MuleSession session = event.getSession();
+    boolean emptySession = session instanceof DefaultMuleSession && session.getPropertyNamesAsSet().isEmpty();
+    out.writeBoolean(emptySession);
+    if (!emptySession) {
+      writeValue(session, out, path);
+    }
+
+    writeValue(event.getSecurityContext(), out, path);
+    writeValue(event.getError().orElse(null), out, path);
+    writeValue(event.getItemSequenceInfo().orElse(null), out, path);
+    writeValue(event.getLegacyCorrelationId(), out, path);
+    out.writeBoolean(event.isNotificationsEnabled());
+  }
+
+  private void writeTypedValues(Map<String, TypedValue<?>> typedValues, DataOutputStream out, Set<Object> path)
+      throws IOException {
+    writeVarInt(typedValues.size(), out);
+    for (Map.Entry<String, TypedValue<?>> entry : typedValues.entrySet()) {
+      writeString(entry.getKey(), out);
+      writeTypedValue(entry.getValue(), out, path);
+    }
+  }
+
+  private void writeJava(Object value, DataOutputStream out) throws IOException {
+    if (value != null && !(value instanceof Serializable)) {
+      throw new SerializationException(format("Was expecting a Serializable type. %s was found instead",
+                                              value.getClass().getName()));
+    }
+
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    org.apache.commons.lang3.SerializationUtils.serialize((Serializable) value, serialized);
+    out.writeByte(JAVA);
+    writeVarInt(serialized.size(), out);
+    serialized.writeTo(out);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, 1);
+    int header = pushbackInputStream.read();
+    if (header != FORMAT_HEADER) {
+      // written by the Java protocol
+      if (header != -1) {
+        pushbackInputStream.unread(header);
+      }
+      return (T) SerializationUtils.deserialize(pushbackInputStream, classLoader, muleContext);
+    }
+
+    // when deserializing an array, the lengths read can be checked against the bytes left
+    long size = inputStream instanceof ByteArrayInputStream ? pushbackInputStream.available() : UNKNOWN_SIZE;
+    BinaryInput in = new BinaryInput(new BufferedInputStream(pushbackInputStream), size);
+    int version = in.readUnsignedByte();
+    if (version != FORMAT_VERSION) {
+      throw new SerializationException(format("Unsupported binary serialization format version %d", version));
+    }
+    return (T) readValue(in, classLoader);
+  }
+
+  private Object readValue(BinaryInput in, ClassLoader classLoader) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case TRUE:
+        return true;
+      case FALSE:
+        return false;
+      case STRING:
+        return new String(readBytes(in), UTF_8);
+      case INTEGER:
+        return decodeZigZag(readVarInt(in));
+      case LONG:
+        return decodeZigZag(readVarLong(in));
+      case DOUBLE:
+        return in.readDouble();
+      case FLOAT:
+        return in.readFloat();
+      case SHORT:
+        return in.readShort();
+      case BYTE:
+        return in.readByte();
+      case CHARACTER:
+        return in.readChar();
+      case BYTES:
+        return readBytes(in);
+      case BIG_DECIMAL:
+        BigInteger unscaledValue = new BigInteger(readBytes(in));
+        return new BigDecimal(unscaledValue, decodeZigZag(readVarInt(in)));
+      case BIG_INTEGER:
+        return new BigInteger(readBytes(in));
+      case DATE:
+        return new Date(in.readLong());
+      case ARRAY_LIST:
+        int listSize = readLength(in, 1);
+        return readCollection(new ArrayList<>(initialCapacity(listSize)), listSize, in, classLoader);
+      case HASH_SET:
+        int setSize = readLength(in, 1);
+        return readCollection(new HashSet<>(mapCapacity(initialCapacity(setSize))), setSize, in, classLoader);
+      case LINKED_HASH_SET:
+        int linkedSetSize = readLength(in, 1);
+        return readCollection(new LinkedHashSet<>(mapCapacity(initialCapacity(linkedSetSize))), linkedSetSize, in,
+                              classLoader);
+      case HASH_MAP:
+        int mapSize = readLength(in, 2);
+        return readMap(new HashMap<>(mapCapacity(initialCapacity(mapSize))), mapSize, in, classLoader);
+      case LINKED_HASH_MAP:
+        int linkedMapSize = readLength(in, 2);
+        return readMap(new LinkedHashMap<>(mapCapacity(initialCapacity(linkedMapSize))), linkedMapSize, in, classLoader);
+      case TYPED_VALUE:
+        return readTypedValue(in, classLoader);
+      case MESSAGE:
+        TypedValue<?> payload = readTypedValue(in, classLoader);
+        return Message.builder().payload(payload).attributes(readTypedValue(in, classLoader)).build();
+      case EVENT:
+        return readEvent(in, classLoader);
+      case REGISTERED:
+        int id = readVarInt(in);
+        RegisteredType<?> registeredType = registeredTypesById.get(id);
+        if (registeredType == null) {
+          throw new SerializationException(format("No type registered with id %d", id));
+        }
+        return registeredType.serializer.read(in);
+      case JAVA:
+        byte[] serialized = readBytes(in);
+        return SerializationUtils.deserialize(new ByteArrayInputStream(serialized), classLoader, muleContext);
+      default:
+        throw new SerializationException(format("Unknown type tag %d", tag));
+    }
+  }
+
+  private Collection<Object> readCollection(Collection<Object> collection, int size, BinaryInput in,
+                                            ClassLoader classLoader)
+      throws IOException {
+    for (int i = 0; i < size; i++) {
+      collection.add(readValue(in, classLoader));
+    }
+    return collection;
+  }
+
+  private Map<Object, Object> readMap(Map<Object, Object> map, int size, BinaryInput in, ClassLoader classLoader)
+      throws IOException {
+    for (int i = 0; i < size; i++) {
+      Object key = readValue(in, classLoader);
+      map.put(key, readValue(in, classLoader));
+    }
+    return map;
+  }
+
+  private TypedValue<?> readTypedValue(BinaryInput in, ClassLoader classLoader) throws IOException {
+    Object value = readValue(in, classLoader);
+    DataType dataType = readDataType(in, classLoader);
+    long length = readVarLong(in);
+    return new TypedValue<>(value, dataType, length == 0 ? OptionalLong.empty() : OptionalLong.of(length - 1));
+  }
+
+  private DataType readDataType(BinaryInput in, ClassLoader classLoader) throws IOException {
+    if (in.readByte() == OTHER_DATA_TYPE) {
+      return (DataType) readValue(in, classLoader);
+    }
+
+    String typeName = new String(readBytes(in), UTF_8);
+    MediaType mediaType = MediaType.parse(new String(readBytes(in), UTF_8));
+    try {
+      return DataType.builder().type(Class.forName(typeName, false, classLoader)).mediaType(mediaType).build();
+    } catch (ClassNotFoundException e) {
+      throw new SerializationException(format("Could not load type %s", typeName), e);
+    }
+  }
+
+  private CoreEvent readEvent(BinaryInput in, ClassLoader classLoader) throws IOException {
+    DefaultEventBuilder builder = new DefaultEventBuilder((BaseEventContext) readValue(in, classLoader));
+    builder.message((Message) readValue(in, classLoader));
+    builder.variablesTyped(readTypedValues(in, classLoader));
+    builder.parameters(readTypedValues(in, classLoader));
+
+    if (in.readBoolean()) {
+      int loggingVariablesSize = readLength(in, 2);
+      for (int i = 0; i < loggingVariablesSize; i++) {
+        String key = new String(readBytes(in), UTF_8);
+        builder.addLoggingVariable(key, (String) readValue(in, classLoader));
+      }
+    }
+
+    if (!in.readBoolean()) {
+      builder.session((MuleSession) readValue(in, classLoader));
+    }
+
+    builder.securityContext((SecurityContext) readValue(in, classLoader));
+    builder.error((Error) readValue(in, classLoader));
+    builder.itemSequenceInfo(ofNullable((ItemSequenceInfo) readValue(in, classLoader)));
+    builder.correlationId((String) readValue(in, classLoader));
+    if (!in.readBoolean()) {
+      builder.disableNotifications();
+    }
+
+    CoreEvent event = builder.build();
+    try {
+      // the same initialization that the Java form of the event gets, so its context is ready to process it again
+      DeserializationPostInitialisable.Implementation.init(event, muleContext);
+    } catch (Exception e) {
+      throw new SerializationException("Could not initialize deserialized event", e);
+    }
+    return event;
+  }
+
+  private CaseInsensitiveHashMap<String, TypedValue<?>> readTypedValues(BinaryInput in, ClassLoader classLoader)
+      throws IOException {
+    // the key, the value, its data type and its length take a byte each at least
+    int size = readLength(in, 4);
+    CaseInsensitiveHashMap<String, TypedValue<?>> typedValues = new CaseInsensitiveHashMap<>();
+    for (int i = 0; i < size; i++) {
+      String key = new String(readBytes(in), UTF_8);
+      typedValues.put(key, readTypedValue(in, classLoader));
+    }
+    return typedValues;
+  }
+
+  /**
+   * Nested values are post initialized while being read by Java serialization, and events written by this protocol are post
+   * initialized as they are read. No other type written by this protocol needs it.
+   */
+  @Override
+  protected <T> T postInitialize(T object) {
+    return object;
+  }
+
+  private static int mapCapacity(int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  /**
+   * When the size of the data is not known, a corrupted length could still be huge, so collections are not sized for more than
+   * {@link #MAX_INITIAL_CAPACITY} elements up front, and grow if there are actually more.
+   */
+  private static int initialCapacity(int size) {
+    return min(size, MAX_INITIAL_CAPACITY);
+  }
+
+  private static void writeString(String value, DataOutputStream out) throws IOException {
+    writeBytes(value.getBytes(UTF_8), out);
+  }
+
+  private static void writeBytes(byte[] value, DataOutputStream out) throws IOException {
+    writeVarInt(value.length, out);
+    out.write(value);
+  }
+
+  private static byte[] readBytes(BinaryInput in) throws IOException {
+    int length = readLength(in, 1);
+    if (in.isSizeKnown()) {
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return bytes;
+    }
+
+    // the array grows as the bytes actually arrive, so a corrupted length fails at the end of the data instead of allocating it
+    byte[] bytes = new byte[initialCapacity(length)];
+    int read = 0;
+    while (read < length) {
+      if (read == bytes.length) {
+        bytes = copyOf(bytes, (int) min(length, bytes.length * 2L));
+      }
+      in.readFully(bytes, read, bytes.length - read);
+      read = bytes.length;
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads the length of a string, array, collection or map, each of whose elements take at least {@code minElementBytes}, and
+   * checks it against the bytes left to read.
+   */
+  private static int readLength(BinaryInput in, int minElementBytes) throws IOException {
+    int length = readVarInt(in);
+    if (length < 0 || (long) length * minElementBytes > in.remaining()) {
+      throw new SerializationException(format("Corrupted data, invalid length %d", length));
+    }
+    return length;
+  }
+
+  private static int encodeZigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static int decodeZigZag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static long encodeZigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long decodeZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarInt(int value, DataOutputStream out) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static void writeVarLong(long value, DataOutputStream out) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static int readVarInt(BinaryInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = in.readByte();
+      if (shift == 28 && (b & 0x70) != 0) {
+        // more bits than an int has
+        break;
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new SerializationException("Malformed variable length integer");
+  }
+
+  private static long readVarLong(BinaryInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      if (shift == 63 && (b & 0x7E) != 0) {
+        // more bits than a long has
+        break;
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new SerializationException("Malformed variable length long");
+  }
+
+  /**
+   * Counts the bytes read, so the lengths read can be checked against the bytes left when the size of the data is known.
+   */
+  private static final class BinaryInput extends DataInputStream {
+
+    private final long size;
+
+    private BinaryInput(InputStream in, long size) {
+      super(new CountingInputStream(in));
+      this.size = size;
+    }
+
+    private boolean isSizeKnown() {
+      return size != UNKNOWN_SIZE;
+    }
+
+    private long remaining() {
+      return isSizeKnown() ? size - ((CountingInputStream) in).count : Long.MAX_VALUE;
+    }
+  }
+
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
+
+  private static final class RegisteredType<T> {
+
+    private final int id;
+    private final TypeSerializer<T> serializer;
+
+    private RegisteredType(int id, TypeSerializer<T> serializer) {
+      this.id = id;
+      this.serializer = serializer;
+    }
+  }
+
+  /**
+   * A reusable buffer, which can be reset without releasing its memory.
+   */
+  private static final class BinaryOutput extends ByteArrayOutputStream {
+
+    private final DataOutputStream data = new DataOutputStream(this);
+
+    private BinaryOutput() {
+      super(1024);
+    }
+
+    private int capacity() {
+      return buf.length;
+    }
+  }
+
+  private static final class CyclicGraphException extends RuntimeException {
+
+    private static final long serialVersionUID = -2478436429531306722L;
+
+    private CyclicGraphException() {
+      super(null, null, false, false);
+    }
+  }
+}
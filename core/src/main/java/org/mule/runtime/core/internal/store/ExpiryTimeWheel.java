@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.Math.floorDiv;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps track of the insertion time of the keys of a partition of a {@link PartitionedInMemoryObjectStore}, so the oldest ones
+ * can be expired or evicted without going through the whole partition.
+ * <p>
+ * Keys are grouped in slots of {@link #TICK_NANOS}, which are appended as time goes by, like the slots of a timing wheel. All
+ * the entries of a partition are expired with the same TTL, so slots expire in order: a slot whose end has expired is dropped as
+ * a whole, and only the entries in the first slot that is still alive need to be checked one by one. The entry of each key is
+ * indexed, so removing a key and getting the size are constant time operations.
+ * <p>
+ * Each entry is tagged with the value stored for its key, and removals only apply to the entry with the given value. That way,
+ * the removal of a value which reaches the wheel after the same key was stored again doesn't affect the new entry.
+ *
+ * @since 4.6.0
+ */
+final class ExpiryTimeWheel {
+
+  static final long TICK_NANOS = MILLISECONDS.toNanos(100);
+
+  private final ConcurrentMap<String, Entry> keyEntries = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  // the linked list of slots is guarded by this instance's monitor
+  private volatile Slot head;
+  private volatile Slot tail;
+
+  /**
+   * @param key   the key that was stored
+   * @param value the value that was stored for the key
+   * @param time  the time when the key was stored, in nanoseconds
+   */
+  void add(String key, Object value, long time) {
+    long tick = floorDiv(time, TICK_NANOS);
+    while (true) {
+      Slot slot = tail;
+      // times from concurrent stores may be slightly out of order, those just go to the last slot
+      if (slot == null || slot.tick < tick) {
+        slot = appendSlot(tick);
+      }
+
+      Entry entry = new Entry(slot, value, time);
+      keyEntries.put(key, entry);
+      size.incrementAndGet();
+      if (slot.add(key, entry)) {
+        return;
+      }
+      // the slot was dropped concurrently
+      size.decrementAndGet();
+      keyEntries.remove(key, entry);
+    }
+  }
+
+  /**
+   * @param key   the key that was removed from the partition
+   * @param value the value that was removed for the key
+   */
+  void remove(String key, Object value) {
+    Entry entry = keyEntries.get(key);
+    if (entry == null || entry.value != value) {
+      // the key was stored again before this removal got here
+      entry = findEntry(key, value);
+    }
+
+    if (entry != null && entry.slot.entries.remove(key, entry)) {
+      size.decrementAndGet();
+      keyEntries.remove(key, entry);
+      if (entry.slot.entries.isEmpty() && entry.slot != tail) {
+        dropIfEmpty(entry.slot);
+      }
+    }
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  /**
+   * Removes the entries stored {@code entryTTL} or more milliseconds before {@code now}.
+   *
+   * @param now       the current time, in nanoseconds
+   * @param entryTTL  the time to live of the entries, in milliseconds
+   * @param onExpired called with each expired key and its value
+   * @return the amount of expired entries
+   */
+  int expire(long now, long entryTTL, BiConsumer<String, Object> onExpired) {
+    int expired = 0;
+    Slot slot;
+    while ((slot = head) != null) {
+      if (slot.entries.isEmpty() || isExpired(now, slot.getMaxTime(), entryTTL)) {
+        expired += drop(slot, onExpired);
+        continue;
+      }
+
+      for (Map.Entry<String, Entry> entry : slot.entries.entrySet()) {
+        if (isExpired(now, entry.getValue().time, entryTTL) && evict(slot, entry.getKey(), entry.getValue(), onExpired)) {
+          expired++;
+        }
+      }
+      break;
+    }
+    return expired;
+  }
+
+  /**
+   * Removes the oldest entries until there are no more than {@code maxEntries}.
+   *
+   * @param maxEntries the max amount of entries to keep
+   * @param onEvicted  called with each evicted key and its value
+   * @return the amount of evicted entries
+   */
+  int trim(int maxEntries, BiConsumer<String, Object> onEvicted) {
+    int evicted = 0;
+    int excess = size.get() - maxEntries;
+    Slot slot;
+    while (excess > evicted && (slot = head) != null) {
+      if (slot.entries.size() <= excess - evicted) {
+        evicted += drop(slot, onEvicted);
+        continue;
+      }
+
+      List<Map.Entry<String, Entry>> entries = new ArrayList<>(slot.entries.entrySet());
+      entries.sort(comparingLong(entry -> entry.getValue().time));
+      for (Map.Entry<String, Entry> entry : entries) {
+        if (evicted >= excess) {
+          break;
+        }
+        if (evict(slot, entry.getKey(), entry.getValue(), onEvicted)) {
+          evicted++;
+        }
+      }
+      break;
+    }
+    return evicted;
+  }
+
+  /**
+   * Removes the slots at the beginning of the wheel that became empty.
+   */
+  void pruneEmptySlots() {
+    Slot slot;
+    while ((slot = head) != null && slot.entries.isEmpty()) {
+      drop(slot, (key, value) -> {
+      });
+    }
+  }
+
+  private static boolean isExpired(long now, long time, long entryTTL) {
+    return NANOSECONDS.toMillis(now - time) >= entryTTL;
+  }
+
+  private boolean evict(Slot slot, String key, Entry entry, BiConsumer<String, Object> onEvicted) {
+    if (!slot.entries.remove(key, entry)) {
+      return false;
+    }
+
+    size.decrementAndGet();
+    keyEntries.remove(key, entry);
+    onEvicted.accept(key, entry.value);
+    return true;
+  }
+
+  /**
+   * Looks for the entry of the given {@code key} and {@code value} in every slot. Only needed when a key is removed and stored
+   * again concurrently, so the entry is not the indexed one.
+   */
+  private synchronized Entry findEntry(String key, Object value) {
+    for (Slot slot = head; slot != null; slot = slot.next) {
+      Entry entry = slot.entries.get(key);
+      if (entry != null && entry.value == value) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private int drop(Slot slot, BiConsumer<String, Object> onEvicted) {
+    if (!slot.markDropped()) {
+      return 0;
+    }
+
+    int dropped = 0;
+    for (Map.Entry<String, Entry> entry : slot.entries.entrySet()) {
+      if (evict(slot, entry.getKey(), entry.getValue(), onEvicted)) {
+        dropped++;
+      }
+    }
+
+    unlink(slot);
+    return dropped;
+  }
+
+  private void dropIfEmpty(Slot slot) {
+    if (slot.entries.isEmpty() && slot.markDropped()) {
+      // an entry may have been added right before the slot was marked
+      for (Map.Entry<String, Entry> entry : slot.entries.entrySet()) {
+        if (slot.entries.remove(entry.getKey(), entry.getValue())) {
+          size.decrementAndGet();
+          keyEntries.remove(entry.getKey(), entry.getValue());
+          add(entry.getKey(), entry.getValue().value, entry.getValue().time);
+        }
+      }
+      unlink(slot);
+    }
+  }
+
+  private synchronized Slot appendSlot(long tick) {
+    if (tail != null && tail.tick >= tick) {
+      return tail;
+    }
+
+    Slot slot = new Slot(tick);
+    slot.prev = tail;
+    if (tail == null) {
+      head = slot;
+    } else {
+      tail.next = slot;
+    }
+    tail = slot;
+    return slot;
+  }
+
+  private synchronized void unlink(Slot slot) {
+    if (slot.prev == null) {
+      head = slot.next;
+    } else {
+      slot.prev.next = slot.next;
+    }
+
+    if (slot.next == null) {
+      tail = slot.prev;
+    } else {
+      slot.next.prev = slot.prev;
+    }
+
+    slot.prev = null;
+    slot.next = null;
+  }
+
+  private static final class Slot {
+
+    private final long tick;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // once set, entries are no longer added to this slot
+    private volatile boolean dropped;
+
+    private Slot prev;
+    private Slot next;
+
+    private Slot(long tick) {
+      this.tick = tick;
+    }
+
+    /**
+     * Entries only go to the last slot, so no entry in this slot is newer than its end.
+     */
+    private long getMaxTime() {
+      return (tick + 1) * TICK_NANOS - 1;
+    }
+
+    private boolean add(String key, Entry entry) {
+      entries.put(key, entry);
+      if (!dropped) {
+        return true;
+      }
+
+      // the slot was dropped concurrently. Whoever removes the entry owns it: if it was the dropping thread, it has been evicted
+      // along with the rest of the slot.
+      return !entries.remove(key, entry);
+    }
+
+    /**
+     * @return whether this call marked the slot as dropped
+     */
+    private synchronized boolean markDropped() {
+      if (dropped) {
+        return false;
+      }
+      dropped = true;
+      return true;
+    }
+  }
+
+  private static final class Entry {
+
+    private final Slot slot;
+    private final Object value;
+    private final long time;
+
+    private Entry(Slot slot, Object value, long time) {
+      this.slot = slot;
+      this.value = value;
+      this.time = time;
+    }
+  }
+}
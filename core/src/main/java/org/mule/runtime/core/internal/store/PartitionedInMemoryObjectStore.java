@@ -6,7 +6,6 @@
  */
 package org.mule.runtime.core.internal.store;
 
-import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
@@ -16,24 +15,32 @@ import org.mule.runtime.core.api.component.InternalComponent;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.Striped;
+
 public class PartitionedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
     implements PartitionableExpirableObjectStore<T>, InternalComponent {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
+  private static final int PARTITION_LOCK_STRIPES = 16;
+
   private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, ExpiryTimeWheel> expiryInfoPartition = new ConcurrentHashMap<>();
+
+  // stores and removals hold the read lock of the stripe of their partition, so that clearing the partition, which holds the
+  // write lock, doesn't leave an entry in the partition which is not in its expiry wheel, or the other way around
+  private final Striped<ReadWriteLock> partitionLocks = Striped.readWriteLock(PARTITION_LOCK_STRIPES);
 
   @Override
   public boolean isPersistent() {
@@ -51,11 +58,24 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
-    T oldValue = getPartition(partitionName).putIfAbsent(key, value);
-    if (oldValue != null) {
-      throw new ObjectAlreadyExistsException();
+    Lock lock = partitionLocks.get(partitionName).readLock();
+    lock.lock();
+    try {
+      ConcurrentMap<String, T> partition = getPartition(partitionName);
+      T oldValue = partition.putIfAbsent(key, value);
+      if (oldValue != null) {
+        throw new ObjectAlreadyExistsException();
+      }
+
+      ExpiryTimeWheel expiryInfo = getExpiryInfoPartition(partitionName);
+      expiryInfo.add(key, value, getCurrentNanoTime());
+      if (partition.get(key) != value) {
+        // removed concurrently before being added to the wheel, so the removal didn't find it there
+        expiryInfo.remove(key, value);
+      }
+    } finally {
+      lock.unlock();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
   }
 
   @Override
@@ -69,21 +89,20 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected T doRemove(String key, String partitionName) throws ObjectStoreException {
-    T removedValue = getPartition(partitionName).remove(key);
-    if (removedValue == null) {
-      throw new ObjectDoesNotExistException();
-    }
-
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
+    Lock lock = partitionLocks.get(partitionName).readLock();
+    lock.lock();
+    try {
+      T removedValue = getPartition(partitionName).remove(key);
+      if (removedValue == null) {
+        throw new ObjectDoesNotExistException();
       }
-    }
 
-    return removedValue;
+      getExpiryInfoPartition(partitionName).remove(key, removedValue);
+
+      return removedValue;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
@@ -98,8 +117,14 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   public void clear(String partitionName) throws ObjectStoreException {
-    getPartition(partitionName).clear();
-    getExpiryInfoPartition(partitionName).clear();
+    Lock lock = partitionLocks.get(partitionName).writeLock();
+    lock.lock();
+    try {
+      getPartition(partitionName).clear();
+      expiryInfoPartition.put(partitionName, new ExpiryTimeWheel());
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
@@ -119,11 +144,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return partition;
   }
 
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
+  private ExpiryTimeWheel getExpiryInfoPartition(String partitionName) {
+    ExpiryTimeWheel partition = expiryInfoPartition.get(partitionName);
     if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
+      partition = new ExpiryTimeWheel();
+      ExpiryTimeWheel previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -149,62 +174,48 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   @Override
   public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
     final long now = getCurrentNanoTime();
-    int expiredEntries = 0;
-    ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
+    ExpiryTimeWheel store = getExpiryInfoPartition(partitionName);
     ConcurrentMap<String, T> partition = getPartition(partitionName);
 
     trimToMaxSize(store, maxEntries, partition);
 
     if (entryTTL == UNBOUNDED) {
+      store.pruneEmptySlots();
       return;
     }
 
-    while ((oldestEntry = store.peek()) != null) {
-      if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
-      } else {
-        break;
-      }
-    }
+    // removals are conditional on the value, in case the key was removed and stored again in the meantime
+    int expiredEntries = store.expire(now, entryTTL, partition::remove);
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Expired " + expiredEntries + " old entries");
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
+  private void trimToMaxSize(ExpiryTimeWheel store, int maxEntries, ConcurrentMap<String, T> partition) {
     if (maxEntries <= UNBOUNDED) {
       return;
     }
 
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
-    if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
-      }
-
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Expired " + excess + " excess entries");
-      }
+    int excess = store.trim(maxEntries, partition::remove);
+    if (excess > 0 && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Expired " + excess + " excess entries");
     }
   }
 
   @Override
   public void disposePartition(String partitionName) throws ObjectStoreException {
-    Map partition = partitions.remove(partitionName);
-    if (partition != null) {
-      partition.clear();
-    }
+    Lock lock = partitionLocks.get(partitionName).writeLock();
+    lock.lock();
+    try {
+      Map partition = partitions.remove(partitionName);
+      if (partition != null) {
+        partition.clear();
+      }
 
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
-    if (entries != null) {
-      entries.clear();
+      expiryInfoPartition.remove(partitionName);
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -216,23 +227,4 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   public boolean shouldAlwaysExpire() {
     return true;
   }
-
-  private static class ExpiryEntry {
-
-    private final long time;
-    private final Serializable key;
-
-    public ExpiryEntry(long time, Serializable key) {
-      this.time = time;
-      this.key = key;
-    }
-
-    public long getTime() {
-      return time;
-    }
-
-    public Serializable getKey() {
-      return key;
-    }
-  }
 }
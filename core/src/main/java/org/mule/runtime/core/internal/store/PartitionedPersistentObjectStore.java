@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -18,6 +20,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -38,10 +41,17 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  /**
+   * If set, partitions are persisted through {@link LogStructuredObjectStorePartition} instead of using one file per entry.
+   * Partitions persisted in the one-file-per-entry layout are migrated when loaded.
+   */
+  public static final String LOG_STRUCTURED_PARTITIONS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectstore.persistent.logStructured";
+
   protected MuleContext muleContext;
   private File storeDirectory;
   private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
   private boolean initialized = false;
+  private final boolean logStructuredPartitions = getBoolean(LOG_STRUCTURED_PARTITIONS_PROPERTY);
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -85,11 +95,37 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
 
   private void createPartition(String partitionName) throws ObjectStoreException {
     PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+        createPartitionObjectStore(partitionName, getNewPartitionDirectory(partitionName));
     persistentObjectStorePartition.open();
     partitionsByName.putIfAbsent(partitionName, persistentObjectStorePartition);
   }
 
+  /**
+   * Creates the store for a new partition.
+   *
+   * @param partitionName      the name of the partition
+   * @param partitionDirectory the directory where the partition data is to be persisted
+   * @return a new, not yet opened, partition
+   */
+  protected PersistentObjectStorePartition createPartitionObjectStore(String partitionName, File partitionDirectory) {
+    return logStructuredPartitions
+        ? new LogStructuredObjectStorePartition(muleContext, partitionName, partitionDirectory)
+        : new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
+  }
+
+  /**
+   * Creates the store for a partition that was persisted by a previous execution.
+   *
+   * @param partitionDirectory the directory where the partition data is persisted
+   * @return a new, not yet opened, partition
+   * @throws ObjectStoreException if the partition descriptor could not be read
+   */
+  protected PersistentObjectStorePartition loadPartitionObjectStore(File partitionDirectory) throws ObjectStoreException {
+    return logStructuredPartitions
+        ? new LogStructuredObjectStorePartition(muleContext, partitionDirectory)
+        : new PersistentObjectStorePartition(muleContext, partitionDirectory);
+  }
+
   private File getNewPartitionDirectory(String partitionName) {
     return new File(storeDirectory, getPartitionDirectoryName(partitionName));
   }
@@ -193,8 +229,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
+        PersistentObjectStorePartition persistentObjectStorePartition = loadPartitionObjectStore(partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.putIfAbsent(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
       } catch (Exception e) {
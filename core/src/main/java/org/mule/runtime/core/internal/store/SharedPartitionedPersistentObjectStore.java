@@ -83,6 +83,17 @@ public class SharedPartitionedPersistentObjectStore<T extends Serializable> exte
     return new PersistentObjectStorePartition<>(muleContext, partitionName, partitionObjectStore.getPartitionDirectory());
   }
 
+  @Override
+  protected PersistentObjectStorePartition createPartitionObjectStore(String partitionName, File partitionDirectory) {
+    // Partitions are re-created for each access in getPartitionObjectStore, so the one-file-per-entry layout is always used
+    return new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
+  }
+
+  @Override
+  protected PersistentObjectStorePartition loadPartitionObjectStore(File partitionDirectory) throws ObjectStoreException {
+    return new PersistentObjectStorePartition(muleContext, partitionDirectory);
+  }
+
   @Override
   public void open() throws ObjectStoreException {
     lock.lock();
@@ -17,6 +17,7 @@ public class AtomicStreamingStatistics implements MutableStreamingStatistics {
 
   private final AtomicInteger openProviders = new AtomicInteger(0);
   private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final AtomicInteger leakedProviders = new AtomicInteger(0);
 
   @Override
   public int incrementOpenProviders() {
@@ -43,6 +44,19 @@ public class AtomicStreamingStatistics implements MutableStreamingStatistics {
     return openCursors.addAndGet(-howMany);
   }
 
+  @Override
+  public int incrementLeakedProviders() {
+    return leakedProviders.incrementAndGet();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLeakedCursorProvidersCount() {
+    return leakedProviders.get();
+  }
+
   /**
    * {@inheritDoc}
    */
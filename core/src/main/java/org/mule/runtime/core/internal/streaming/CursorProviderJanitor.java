@@ -65,10 +65,30 @@ public class CursorProviderJanitor {
    * Releases the resources of the underlying {@link CursorProvider}, including its {@link Cursor cursors}
    */
   public final void releaseResources() {
+    if (released.compareAndSet(false, true)) {
+      doReleaseResources();
+    }
+  }
+
+  /**
+   * Releases the resources of the underlying {@link CursorProvider} after it was garbage collected, if they were not released
+   * already. Providers released this way are reported as leaked to the {@link MutableStreamingStatistics}.
+   *
+   * @since 4.6.0
+   */
+  public void releaseLeakedResources() {
+    // the same flag as releaseResources(), so a provider released concurrently is neither released twice nor reported as leaked
     if (!released.compareAndSet(false, true)) {
       return;
     }
 
+    if (statistics != null) {
+      statistics.incrementLeakedProviders();
+    }
+    doReleaseResources();
+  }
+
+  private void doReleaseResources() {
     try {
       close();
     } catch (Exception e) {
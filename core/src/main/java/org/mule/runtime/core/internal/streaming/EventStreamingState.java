@@ -22,6 +22,10 @@ import org.slf4j.Logger;
 
 /**
  * Tracks the active streaming resources owned by a particular event.
+ * <p>
+ * Besides a {@link WeakReference} to each {@link ManagedCursorProvider}, the {@link CursorProviderJanitor} of each one is kept,
+ * so that when the owning event completes the resources are released even if the provider was already garbage collected but not
+ * yet processed by the {@link StreamingGhostBuster}.
  *
  * @since 4.3.0
  */
@@ -29,7 +33,7 @@ public class EventStreamingState {
 
   private final static Logger LOGGER = getLogger(EventStreamingState.class);
 
-  private final Cache<Integer, WeakReference<ManagedCursorProvider>> providers = Caffeine.newBuilder().build();
+  private final Cache<Integer, TrackedProvider> providers = Caffeine.newBuilder().build();
 
   /**
    * Registers the given {@code provider} as one associated to the owning event.
@@ -71,20 +75,30 @@ public class EventStreamingState {
         LOGGER.info("Added ManagedCursorProvider: {} for delegate: {} opened by: {}", k, identityHashCode(innerDelegate),
                     originatingLocation.map(ComponentLocation::getLocation).orElse("unknown"));
       }
-      return ghostBuster.track(provider);
-    }).get();
+      return new TrackedProvider(ghostBuster.track(provider), provider.getJanitor());
+    }).reference.get();
   }
 
   /**
    * The owning event MUST invoke this method when the event is completed
    */
   public void dispose() {
-    providers.asMap().forEach((hash, weakReference) -> {
-      ManagedCursorProvider provider = weakReference.get();
-      if (provider != null) {
-        weakReference.clear();
-        provider.releaseResources();
-      }
+    providers.asMap().forEach((hash, tracked) -> {
+      // clearing the reference keeps the ghost buster from processing it, even if it was already collected
+      tracked.reference.clear();
+      tracked.janitor.releaseResources();
     });
+    providers.invalidateAll();
+  }
+
+  private static final class TrackedProvider {
+
+    private final WeakReference<ManagedCursorProvider> reference;
+    private final CursorProviderJanitor janitor;
+
+    private TrackedProvider(WeakReference<ManagedCursorProvider> reference, CursorProviderJanitor janitor) {
+      this.reference = reference;
+      this.janitor = janitor;
+    }
   }
 }
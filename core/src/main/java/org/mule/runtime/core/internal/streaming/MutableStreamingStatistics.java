@@ -51,4 +51,23 @@ public interface MutableStreamingStatistics extends StreamingStatistics {
    * @since 4.3.0
    */
   int decrementOpenCursors(int howMany);
+
+  /**
+   * Increases by one the number of providers which resources were not released when their owning event completed nor when they
+   * were closed, but only after they were garbage collected.
+   *
+   * @return the updated value
+   * @since 4.6.0
+   */
+  default int incrementLeakedProviders() {
+    return 0;
+  }
+
+  /**
+   * @return the number of providers counted through {@link #incrementLeakedProviders()}
+   * @since 4.6.0
+   */
+  default int getLeakedCursorProvidersCount() {
+    return 0;
+  }
 }
@@ -44,7 +44,8 @@ import org.slf4j.Logger;
  * <p>
  * Notice that this <b>DOES NOT</b> replace the cleanup and tracking job that is performed in {@link CursorManager}. That still
  * remains the main cleanup mechanism as we cannot rely on garbage collection for releasing streaming resources. This is only a
- * mitigation for cases like described above.
+ * mitigation for cases like described above. Providers released by this class are reported as leaked through
+ * {@link MutableStreamingStatistics#incrementLeakedProviders()}.
  *
  * @since 4.2.0
  */
@@ -161,7 +162,7 @@ public class StreamingGhostBuster implements Lifecycle {
     public void dispose() {
       if (!clear) {
         clear = true;
-        janitor.releaseResources();
+        janitor.releaseLeakedResources();
       }
     }
 
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds up to a configured amount of data in memory, and spills the
+ * rest to a temporal file.
+ * <p>
+ * The in-memory window is made of buckets which are allocated as the stream is consumed, so small streams never hold more memory
+ * than they need. Data beyond the window is appended to the buffer file, which is read back through read-only memory-mapped
+ * regions once each region is fully written, so cursors can seek to any position without the data being copied to the heap.
+ * Positions in the region still being written are read with plain positional reads.
+ *
+ * @since 4.6.0
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  public static final String MAPPED_REGION_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.fileStore.mappedRegionSize";
+
+  private static final Logger LOGGER = getLogger(FileStoreStreamBuffer.class);
+
+  private final int bucketSize;
+  private final long maxInMemorySize;
+  private final int mappedRegionSize = getInteger(MAPPED_REGION_SIZE_PROPERTY, 8 * 1024 * 1024);
+
+  private final List<ManagedByteBufferWrapper> buckets = new ArrayList<>();
+  private final List<MappedByteBuffer> mappedRegions = new ArrayList<>();
+
+  private ManagedByteBufferWrapper spillBuffer;
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    this.bucketSize = config.getBucketSize();
+    this.maxInMemorySize = config.getMaxInMemorySize().toBytes();
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        readLock.unlock();
+        writeLock.lock();
+
+        try {
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+            final int read = consumeForwardData();
+            if (read > 0) {
+              refetch = getFromCurrentData(position, min(length, read));
+              if (refetch != null) {
+                return refetch;
+              }
+            }
+          }
+          return doGet(position, length, false);
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+        } finally {
+          // classic lock downgrade
+          readLock.lock();
+          writeLock.unlock();
+        }
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    return copy(position, toIntExact(min(length, bufferTip - position)));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Data is read into the in-memory window until it's full, and into the buffer file afterwards.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (bufferTip < maxInMemorySize) {
+      return consumeIntoMemory();
+    } else {
+      return consumeIntoFile();
+    }
+  }
+
+  private int consumeIntoMemory() throws IOException {
+    ByteBuffer bucket = buckets.isEmpty() ? null : buckets.get(buckets.size() - 1).getDelegate();
+    if (bucket == null || bucket.position() >= bucketSize) {
+      bucket = allocateBucket();
+    }
+
+    final int read = consumeStream(bucket);
+    if (read > 0) {
+      bufferTip += read;
+    }
+    return read;
+  }
+
+  private ByteBuffer allocateBucket() {
+    ManagedByteBufferWrapper managedBucket = bufferManager.allocateManaged(bucketSize);
+    buckets.add(managedBucket);
+
+    ByteBuffer bucket = managedBucket.getDelegate();
+    bucket.clear();
+    bucket.limit(bucketSize);
+    return bucket;
+  }
+
+  private int consumeIntoFile() throws IOException {
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream");
+      fileChannel = FileChannel.open(bufferFile.toPath(), READ, WRITE);
+      spillBuffer = bufferManager.allocateManaged(bucketSize);
+    }
+
+    ByteBuffer readBuffer = spillBuffer.getDelegate();
+    readBuffer.clear();
+    readBuffer.limit(bucketSize);
+
+    final int read = consumeStream(readBuffer);
+    if (read > 0) {
+      readBuffer.flip();
+      long fileTip = bufferTip - maxInMemorySize;
+      while (readBuffer.hasRemaining()) {
+        fileTip += fileChannel.write(readBuffer, fileTip);
+      }
+      bufferTip += read;
+      mapCompleteRegions(fileTip);
+    }
+    return read;
+  }
+
+  private void mapCompleteRegions(long fileLength) throws IOException {
+    long regionEnd;
+    while ((regionEnd = (long) (mappedRegions.size() + 1) * mappedRegionSize) <= fileLength) {
+      mappedRegions.add(fileChannel.map(READ_ONLY, regionEnd - mappedRegionSize, mappedRegionSize));
+    }
+  }
+
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < maxInMemorySize) {
+      return copyFromMemory(position, length);
+    } else {
+      return copyFromFile(position - maxInMemorySize, length);
+    }
+  }
+
+  private ByteBuffer copyFromMemory(long position, int length) {
+    ByteBuffer bucket = buckets.get(toIntExact(position / bucketSize)).getDelegate();
+    int offset = toIntExact(position % bucketSize);
+
+    // buckets are only appended to, so the written part can be shared without copying
+    ByteBuffer view = bucket.duplicate();
+    view.limit(min(offset + length, bucket.position()));
+    view.position(offset);
+    return view.slice();
+  }
+
+  private ByteBuffer copyFromFile(long filePosition, int length) {
+    int region = toIntExact(filePosition / mappedRegionSize);
+    if (region < mappedRegions.size()) {
+      int offset = toIntExact(filePosition % mappedRegionSize);
+      ByteBuffer view = mappedRegions.get(region).duplicate();
+      view.limit(min(offset + length, mappedRegionSize));
+      view.position(offset);
+      return view.slice();
+    }
+
+    ByteBuffer data = ByteBuffer.allocate(length);
+    try {
+      while (data.hasRemaining()) {
+        if (fileChannel.read(data, filePosition + data.position()) < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from stream buffer file"), e);
+    }
+    data.flip();
+    return data;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    buckets.forEach(ManagedByteBufferWrapper::release);
+    buckets.clear();
+    mappedRegions.clear();
+
+    if (spillBuffer != null) {
+      spillBuffer.release();
+      spillBuffer = null;
+    }
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close stream buffer file", e);
+      }
+      fileChannel = null;
+    }
+
+    if (bufferFile != null && !bufferFile.delete() && bufferFile.exists()) {
+      // mapped regions may keep the file from being deleted until they are garbage collected on some platforms
+      bufferFile.deleteOnExit();
+      LOGGER.debug("Could not delete stream buffer file {}, it will be deleted on exit", bufferFile.getAbsolutePath());
+    }
+  }
+}
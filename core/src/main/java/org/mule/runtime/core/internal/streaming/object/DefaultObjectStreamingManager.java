@@ -6,13 +6,18 @@
  */
 package org.mule.runtime.core.internal.streaming.object;
 
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.streaming.object.factory.FileStoreCursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.streaming.object.factory.InMemoryCursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.streaming.object.factory.NullCursorIteratorProviderFactory;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
 import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
 import org.mule.runtime.core.api.streaming.object.ObjectStreamingManager;
 
+import javax.inject.Inject;
+
 /**
  * Default implementation of {@link ObjectStreamingManager}
  *
@@ -22,6 +27,9 @@ public class DefaultObjectStreamingManager implements ObjectStreamingManager {
 
   protected final StreamingManager streamingManager;
 
+  @Inject
+  private MuleContext muleContext;
+
   public DefaultObjectStreamingManager(StreamingManager streamingManager) {
     this.streamingManager = streamingManager;
   }
@@ -34,6 +42,14 @@ public class DefaultObjectStreamingManager implements ObjectStreamingManager {
     return new InMemoryCursorIteratorProviderFactory(config, streamingManager);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CursorIteratorProviderFactory getFileStoreCursorIteratorProviderFactory(FileStoreCursorIteratorConfig config) {
+    return new FileStoreCursorIteratorProviderFactory(config, muleContext.getObjectSerializer(), streamingManager);
+  }
+
   /**
    * {@inheritDoc}
    */
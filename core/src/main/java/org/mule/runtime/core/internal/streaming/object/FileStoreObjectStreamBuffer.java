@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which keeps up to
+ * {@link FileStoreCursorIteratorConfig#getMaxInMemoryInstances()} items in memory and serializes the rest to a temporal file.
+ * <p>
+ * All buckets have the same capacity, so any {@link Position} can be located without holding its bucket. The most recently used
+ * buckets are kept in memory. When a full bucket is evicted for the first time, it is serialized through the
+ * {@link ObjectSerializer} and appended to the buffer file. Since full buckets never change, evicted buckets are simply dropped
+ * afterwards, and read back from the file when a cursor needs them again.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.6.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private static final Logger LOGGER = getLogger(FileStoreObjectStreamBuffer.class);
+
+  private final ObjectSerializer serializer;
+  private final int bucketSize;
+  private final int maxInMemoryBuckets;
+
+  /**
+   * Guarded by its own monitor, since buckets are loaded from the file while holding the read lock
+   */
+  private Map<Integer, Bucket<T>> inMemoryBuckets;
+
+  /**
+   * Offset and length in the buffer file of each bucket that has been spilled, by bucket index
+   */
+  private final Map<Integer, long[]> spilledBuckets = new HashMap<>();
+
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private long fileTip = 0;
+
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config, ObjectSerializer serializer) {
+    super(stream);
+    this.serializer = serializer;
+    bucketSize = min(DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE, config.getMaxInMemoryInstances());
+    maxInMemoryBuckets = max(1, config.getMaxInMemoryInstances() / bucketSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    return new Position(toIntExact(position / bucketSize), toIntExact(position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    // access ordered, so iteration starts with the least recently used bucket
+    inMemoryBuckets = new LinkedHashMap<>(maxInMemoryBuckets * 2, 0.75f, true);
+    initialBucket = new Bucket<>(0, bucketSize);
+    inMemoryBuckets.put(0, initialBucket);
+    setCurrentBucket(initialBucket);
+  }
+
+  @Override
+  protected Bucket<T> getPresentBucket(Position position) {
+    int index = position.getBucketIndex();
+    synchronized (inMemoryBuckets) {
+      Bucket<T> bucket = inMemoryBuckets.get(index);
+      if (bucket != null || !spilledBuckets.containsKey(index)) {
+        return bucket;
+      }
+    }
+
+    Bucket<T> bucket = readSpilledBucket(index);
+    synchronized (inMemoryBuckets) {
+      inMemoryBuckets.put(index, bucket);
+      evictIfNecessary(getCurrentBucket());
+    }
+    return bucket;
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    Bucket<T> newBucket = new Bucket<>(overflownBucket.getIndex() + 1, bucketSize);
+    synchronized (inMemoryBuckets) {
+      inMemoryBuckets.put(newBucket.getIndex(), newBucket);
+      evictIfNecessary(newBucket);
+    }
+
+    return newBucket;
+  }
+
+  /**
+   * @param fillingBucket the bucket that is being filled, which cannot be spilled since it's not complete yet
+   */
+  private void evictIfNecessary(Bucket<T> fillingBucket) {
+    Iterator<Map.Entry<Integer, Bucket<T>>> lruIterator = inMemoryBuckets.entrySet().iterator();
+    while (inMemoryBuckets.size() > maxInMemoryBuckets && lruIterator.hasNext()) {
+      Bucket<T> bucket = lruIterator.next().getValue();
+      if (bucket == fillingBucket) {
+        continue;
+      }
+
+      if (!spilledBuckets.containsKey(bucket.getIndex())) {
+        spill(bucket);
+      }
+      lruIterator.remove();
+    }
+  }
+
+  private void spill(Bucket<T> bucket) {
+    byte[] serialized;
+    try {
+      serialized = serializer.getInternalProtocol().serialize(bucket);
+    } catch (SerializationException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not serialize streamed items to the buffer file. "
+          + "Items of file store repeatable iterables must be serializable"), e);
+    }
+
+    try {
+      if (fileChannel == null) {
+        bufferFile = createBufferFile("iterator");
+        fileChannel = FileChannel.open(bufferFile.toPath(), READ, WRITE);
+      }
+
+      ByteBuffer data = ByteBuffer.wrap(serialized);
+      long offset = fileTip;
+      while (data.hasRemaining()) {
+        fileTip += fileChannel.write(data, fileTip);
+      }
+      spilledBuckets.put(bucket.getIndex(), new long[] {offset, serialized.length});
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write streamed items to the buffer file"), e);
+    }
+  }
+
+  private Bucket<T> readSpilledBucket(int index) {
+    long[] location;
+    synchronized (inMemoryBuckets) {
+      location = spilledBuckets.get(index);
+    }
+
+    ByteBuffer data = ByteBuffer.allocate(toIntExact(location[1]));
+    try {
+      while (data.hasRemaining()) {
+        if (fileChannel.read(data, location[0] + data.position()) < 0) {
+          throw new IOException("Unexpected end of buffer file");
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read streamed items from the buffer file"), e);
+    }
+
+    return serializer.getInternalProtocol().deserialize(data.array());
+  }
+
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
+    // Items that don't fit in memory go to disk
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    synchronized (inMemoryBuckets) {
+      inMemoryBuckets.clear();
+      spilledBuckets.clear();
+    }
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close iterator buffer file", e);
+      }
+      fileChannel = null;
+    }
+
+    if (bufferFile != null && !bufferFile.delete()) {
+      LOGGER.debug("Could not delete iterator buffer file {}", bufferFile.getAbsolutePath());
+    }
+  }
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.sort;
+import static java.util.Comparator.comparingLong;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.internal.event.PersistentEventVariables;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link Map} with case-insensitive {@link String} keys, backed by a hash array mapped trie whose nodes are never modified once
+ * built. It is used as the delegate of the maps created by {@link PersistentEventVariables#persistentCaseInsensitiveMap()}.
+ * <p>
+ * {@link #copy()} is constant time, since the copy shares all the nodes with this map. Adding or removing an entry is
+ * logarithmic, since it only rebuilds the nodes in the path to that entry, which keeps sharing the rest of the nodes with the
+ * copies of the map.
+ * <p>
+ * As with {@link CaseInsensitiveHashMap}, keys are compared ignoring their case, the case of the key an entry was first put with
+ * is preserved, entries are iterated in the order they were first put, and this class is not thread-safe. Each leaf keeps its
+ * insertion sequence, so creating an iterator sorts the entries of the map. Iterators over the map are not affected by later
+ * modifications of the map, but setting the value of an entry or removing it through the iterator does modify the map.
+ *
+ * @param <V> the type of the values
+ * @since 4.6.0
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = 8217430571926263590L;
+
+  private Node<V> root;
+  private int size;
+  private long nextOrder;
+
+  /**
+   * Creates a new empty map.
+   */
+  public PersistentCaseInsensitiveMap() {}
+
+  private PersistentCaseInsensitiveMap(Node<V> root, int size, long nextOrder) {
+    this.root = root;
+    this.size = size;
+    this.nextOrder = nextOrder;
+  }
+
+  /**
+   * @return a map with the same entries as this one, that can be modified independently of this one
+   */
+  public PersistentCaseInsensitiveMap<V> copy() {
+    return new PersistentCaseInsensitiveMap<>(root, size, nextOrder);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  @Override
+  public V get(Object key) {
+    Leaf<V> leaf = find(key);
+    return leaf == null ? null : leaf.value;
+  }
+
+  private Leaf<V> find(Object key) {
+    if (root == null || !(key instanceof String)) {
+      return null;
+    }
+    String stringKey = (String) key;
+    return root.find(hash(stringKey), stringKey, 0);
+  }
+
+  @Override
+  public V put(String key, V value) {
+    int hash = hash(key);
+    if (root == null) {
+      root = new Leaf<>(hash, key, value, nextOrder++);
+      size = 1;
+      return null;
+    }
+
+    Leaf<V> previous = root.find(hash, key, 0);
+    if (previous == null) {
+      root = root.put(new Leaf<>(hash, key, value, nextOrder++), 0);
+      ++size;
+      return null;
+    }
+
+    // the replaced entry keeps its key and its place in the iteration order
+    root = root.put(new Leaf<>(hash, previous.key, value, previous.order), 0);
+    return previous.value;
+  }
+
+  @Override
+  public V remove(Object key) {
+    Leaf<V> previous = find(key);
+    if (previous == null) {
+      return null;
+    }
+
+    root = root.remove(previous.hash, previous.key, 0);
+    --size;
+    return previous.value;
+  }
+
+  @Override
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<Entry<String, V>>() {
+
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * Same as {@link String#hashCode()} of the key in lower case, without creating the lower case string. Characters are
+   * normalized the same way as {@link String#equalsIgnoreCase(String)} does.
+   */
+  private static int hash(String key) {
+    int hash = 0;
+    for (int i = 0; i < key.length(); ++i) {
+      hash = 31 * hash + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    // spreads the higher bits into the lower ones, since those are the ones used by the first levels of the trie
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Iterates the leaves of the trie in insertion order. Modifications through the iterator or its entries modify the map, which
+   * does not affect the leaves being iterated.
+   */
+  private final class EntryIterator implements Iterator<Entry<String, V>> {
+
+    private final Leaf<V>[] leaves;
+    private int next;
+    private Leaf<V> last;
+
+    private EntryIterator() {
+      leaves = new Leaf[size];
+      if (root != null) {
+        root.collect(leaves, 0);
+      }
+      sort(leaves, comparingLong(leaf -> leaf.order));
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < leaves.length;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      last = leaves[next++];
+      return new MapEntry(last.key, last.value);
+    }
+
+    @Override
+    public void remove() {
+      if (last == null) {
+        throw new IllegalStateException();
+      }
+      PersistentCaseInsensitiveMap.this.remove(last.key);
+      last = null;
+    }
+  }
+
+  /**
+   * Entry returned by the iterators, which puts the value in the map when it is set.
+   */
+  private final class MapEntry extends SimpleEntry<String, V> {
+
+    private static final long serialVersionUID = -2853165127384529372L;
+
+    private MapEntry(String key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      put(getKey(), value);
+      return super.setValue(value);
+    }
+  }
+
+  /**
+   * A node of the trie. Modifications return a new node instead of modifying this one.
+   */
+  private abstract static class Node<V> implements Serializable {
+
+    private static final long serialVersionUID = -1398417452368573015L;
+
+    abstract Leaf<V> find(int hash, String key, int shift);
+
+    /**
+     * @return a node with the entries of this one and {@code leaf}, replacing the one with the same key
+     */
+    abstract Node<V> put(Leaf<V> leaf, int shift);
+
+    /**
+     * @return a node with the entries of this one except the one for {@code key}, or {@code null} if there are no entries left
+     */
+    abstract Node<V> remove(int hash, String key, int shift);
+
+    /**
+     * Adds the leaves of this node to {@code leaves}, starting at {@code index}.
+     *
+     * @return the index after the last added leaf
+     */
+    abstract int collect(Leaf<V>[] leaves, int index);
+  }
+
+  private static final class Leaf<V> extends Node<V> {
+
+    private static final long serialVersionUID = 3040858716633497251L;
+
+    private final int hash;
+    private final String key;
+    private final V value;
+    private final long order;
+
+    private Leaf(int hash, String key, V value, long order) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+      this.order = order;
+    }
+
+    private boolean matches(int hash, String key) {
+      return this.hash == hash && this.key.equalsIgnoreCase(key);
+    }
+
+    @Override
+    Leaf<V> find(int hash, String key, int shift) {
+      return matches(hash, key) ? this : null;
+    }
+
+    @Override
+    Node<V> put(Leaf<V> leaf, int shift) {
+      return matches(leaf.hash, leaf.key) ? leaf : merge(this, leaf, shift);
+    }
+
+    @Override
+    Node<V> remove(int hash, String key, int shift) {
+      return matches(hash, key) ? null : this;
+    }
+
+    @Override
+    int collect(Leaf<V>[] leaves, int index) {
+      leaves[index] = this;
+      return index + 1;
+    }
+  }
+
+  /**
+   * Node with up to 32 children, indexed by the 5 bits of the hash of their keys for the level of the node.
+   */
+  private static final class BitmapNode<V> extends Node<V> {
+
+    private static final long serialVersionUID = 6286620311567002183L;
+
+    private final int bitmap;
+    private final Node<V>[] children;
+
+    private BitmapNode(int bitmap, Node<V>[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Leaf<V> find(int hash, String key, int shift) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      return children[index(bit)].find(hash, key, shift + 5);
+    }
+
+    @Override
+    Node<V> put(Leaf<V> leaf, int shift) {
+      int bit = bit(leaf.hash, shift);
+      int index = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        Node<V>[] newChildren = newArray(children.length + 1);
+        arraycopy(children, 0, newChildren, 0, index);
+        newChildren[index] = leaf;
+        arraycopy(children, index, newChildren, index + 1, children.length - index);
+        return new BitmapNode<>(bitmap | bit, newChildren);
+      }
+
+      Node<V>[] newChildren = children.clone();
+      newChildren[index] = children[index].put(leaf, shift + 5);
+      return new BitmapNode<>(bitmap, newChildren);
+    }
+
+    @Override
+    Node<V> remove(int hash, String key, int shift) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      int index = index(bit);
+      Node<V> child = children[index];
+      Node<V> newChild = child.remove(hash, key, shift + 5);
+      if (newChild == child) {
+        return this;
+      }
+
+      if (newChild != null) {
+        Node<V>[] newChildren = children.clone();
+        newChildren[index] = newChild;
+        return new BitmapNode<>(bitmap, newChildren);
+      }
+
+      if (children.length == 1) {
+        return null;
+      }
+      if (children.length == 2 && children[1 - index] instanceof Leaf) {
+        // a single leaf does not need a node for it
+        return children[1 - index];
+      }
+      Node<V>[] newChildren = newArray(children.length - 1);
+      arraycopy(children, 0, newChildren, 0, index);
+      arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+      return new BitmapNode<>(bitmap & ~bit, newChildren);
+    }
+
+    @Override
+    int collect(Leaf<V>[] leaves, int index) {
+      for (Node<V> child : children) {
+        index = child.collect(leaves, index);
+      }
+      return index;
+    }
+  }
+
+  /**
+   * Node for the leaves with keys that have the same hash.
+   */
+  private static final class CollisionNode<V> extends Node<V> {
+
+    private static final long serialVersionUID = -6547093412862305862L;
+
+    private final int hash;
+    private final Leaf<V>[] leaves;
+
+    private CollisionNode(int hash, Leaf<V>[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < leaves.length; ++i) {
+        if (leaves[i].key.equalsIgnoreCase(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Leaf<V> find(int hash, String key, int shift) {
+      if (hash != this.hash) {
+        return null;
+      }
+      int index = indexOf(key);
+      return index < 0 ? null : leaves[index];
+    }
+
+    @Override
+    Node<V> put(Leaf<V> leaf, int shift) {
+      if (leaf.hash != hash) {
+        return merge(this, hash, leaf, leaf.hash, shift);
+      }
+
+      int index = indexOf(leaf.key);
+      Leaf<V>[] newLeaves;
+      if (index < 0) {
+        newLeaves = new Leaf[leaves.length + 1];
+        arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+        newLeaves[leaves.length] = leaf;
+      } else {
+        newLeaves = leaves.clone();
+        newLeaves[index] = leaf;
+      }
+      return new CollisionNode<>(hash, newLeaves);
+    }
+
+    @Override
+    Node<V> remove(int hash, String key, int shift) {
+      int index = hash == this.hash ? indexOf(key) : -1;
+      if (index < 0) {
+        return this;
+      }
+      if (leaves.length == 2) {
+        return leaves[1 - index];
+      }
+
+      Leaf<V>[] newLeaves = new Leaf[leaves.length - 1];
+      arraycopy(leaves, 0, newLeaves, 0, index);
+      arraycopy(leaves, index + 1, newLeaves, index, leaves.length - index - 1);
+      return new CollisionNode<>(hash, newLeaves);
+    }
+
+    @Override
+    int collect(Leaf<V>[] leaves, int index) {
+      arraycopy(this.leaves, 0, leaves, index, this.leaves.length);
+      return index + this.leaves.length;
+    }
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & 0x1f);
+  }
+
+  private static <V> Node<V>[] newArray(int length) {
+    return new Node[length];
+  }
+
+  private static <V> Node<V> merge(Leaf<V> a, Leaf<V> b, int shift) {
+    if (a.hash == b.hash) {
+      return new CollisionNode<>(a.hash, new Leaf[] {a, b});
+    }
+    return merge(a, a.hash, b, b.hash, shift);
+  }
+
+  /**
+   * @return a node with the entries of {@code a} and {@code b}, which have different hashes
+   */
+  private static <V> Node<V> merge(Node<V> a, int hashA, Node<V> b, int hashB, int shift) {
+    int bitA = bit(hashA, shift);
+    int bitB = bit(hashB, shift);
+    if (bitA == bitB) {
+      Node<V>[] children = newArray(1);
+      children[0] = merge(a, hashA, b, hashB, shift + 5);
+      return new BitmapNode<>(bitA, children);
+    }
+
+    Node<V>[] children = newArray(2);
+    // children are sorted by their bit
+    if (Integer.compareUnsigned(bitA, bitB) < 0) {
+      children[0] = a;
+      children[1] = b;
+    } else {
+      children[0] = b;
+      children[1] = a;
+    }
+    return new BitmapNode<>(bitA | bitB, children);
+  }
+}
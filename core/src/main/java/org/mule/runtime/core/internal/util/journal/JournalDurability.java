@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+/**
+ * Defines when the entries logged in a {@link TransactionJournal} are written and forced to the storage device.
+ *
+ * @since 4.6.0
+ */
+public enum JournalDurability {
+
+  /**
+   * Each entry is written to the journal file when logged, but never explicitly forced to the storage device.
+   */
+  UNFORCED,
+
+  /**
+   * Each entry is written and forced to the storage device when logged, while holding the journal.
+   */
+  PER_COMMIT,
+
+  /**
+   * Entries logged concurrently are written together and forced with a single operation. Each caller waits, without holding the
+   * journal, until the batch containing its entry has been forced.
+   */
+  GROUP,
+
+  /**
+   * Each entry is written to the journal file when logged, and the file is forced to the storage device at most once per
+   * configured interval. Entries not forced by a later write are forced once the interval elapses, even if nothing else is
+   * logged.
+   */
+  PERIODIC
+
+}
@@ -6,6 +6,12 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.GROUP;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.UNFORCED;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournalFile.serialize;
+
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -25,18 +31,27 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * How entries are written to the files is defined by a {@link JournalDurability}, configurable through the
+ * {@link #DURABILITY_PROPERTY_KEY} system property. With {@link JournalDurability#GROUP} durability, callers wait for their
+ * entries to be forced without holding this journal, so entries logged concurrently are forced together.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  public static final String DURABILITY_PROPERTY_KEY = "mule.queue.txJournal.durability";
+  public static final String FORCE_INTERVAL_PROPERTY_KEY = "mule.queue.txJournal.forceInterval";
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer journalEntrySerializer;
+  private final JournalDurability durability;
 
   /**
    * Log file in which we are currently writing new entries.
@@ -62,6 +77,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         JournalDurability.valueOf(getProperty(DURABILITY_PROPERTY_KEY, UNFORCED.name())));
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param durability        when logged entries are written and forced to the storage device.
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            JournalDurability durability) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,11 +98,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    long forceIntervalMillis = getLong(FORCE_INTERVAL_PROPERTY_KEY, 1000);
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, durability, forceIntervalMillis);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, durability, forceIntervalMillis);
     this.transactionCompletePredicate = transactionCompletePredicate;
+    this.journalEntrySerializer = journalEntrySerializer;
+    this.durability = durability;
 
   }
 
@@ -92,9 +121,15 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = serialize(journalEntrySerializer, journalEntry);
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.append(journalEntry, serializedEntry);
+    }
+    awaitDurable(logFile, sequence);
   }
 
   /**
@@ -104,11 +139,24 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = serialize(journalEntrySerializer, journalEntry);
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.append(journalEntry, serializedEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
+    }
+    awaitDurable(logFile, sequence);
+  }
+
+  private void awaitDurable(TransactionJournalFile logFile, long sequence) {
+    // for the other durability levels the entry is already written by the time it is appended
+    if (durability == GROUP) {
+      logFile.awaitDurable(sequence);
     }
   }
 
@@ -6,13 +6,21 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.GROUP;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.PERIODIC;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.PER_COMMIT;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.UNFORCED;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -24,12 +32,24 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 /**
  * Manages a transaction journal file.
+ * <p>
+ * Logged entries are first appended to an in-memory buffer, and then written (and forced, depending on the
+ * {@link JournalDurability}) by whichever caller flushes the buffer first, so operations logged concurrently can be written
+ * together. Journal state is guarded by the monitor of this object, while IO is guarded by a separate lock that is always
+ * acquired before the monitor.
+ * <p>
+ * With {@link JournalDurability#PERIODIC} durability, the file is also forced by a background task once per interval if
+ * anything was written since the last force, so entries logged right before the journal goes idle don't stay unforced.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -44,13 +64,40 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private static final Logger LOGGER = getLogger(TransactionJournalFile.class);
 
+  private static final class PeriodicForceScheduler {
+
+    // shared by all the journals, created only when one with periodic durability is opened
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+      NamedThreadFactory threadFactory = new NamedThreadFactory("transaction-journal-force");
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = threadFactory.newThread(runnable);
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+      return scheduler;
+    }
+  }
+
   private final File journalFile;
   private final JournalEntrySerializer<T, K> journalEntrySerializer;
   private final Long clearFileMinimumSizeInBytes;
+  private final JournalDurability durability;
+  private final long forceIntervalMillis;
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private final Lock flushLock = new ReentrantLock();
+  private final ByteArrayOutputStream pendingEntries = new ByteArrayOutputStream();
+  private long appendedSequence = 0;
+  private volatile long writtenSequence = 0;
+  private long lastForce = currentTimeMillis();
+  private volatile boolean unforcedWrites = false;
+  private final ScheduledFuture<?> periodicForce;
+
+  private FileOutputStream logFileOutputStream;
   private int journalOperations = 0;
 
   /**
@@ -61,24 +108,174 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, UNFORCED, 0);
+  }
+
+  /**
+   * @param journalFile                  journal file to use. Will be created if it doesn't exists. If exists then transaction
+   *                                     entries will get loaded from it.
+   * @param journalEntrySerializer       serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param durability                   when logged entries are written and forced to the storage device
+   * @param forceIntervalMillis          the minimum time between forces when {@code durability} is
+   *                                     {@link JournalDurability#PERIODIC}
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                JournalDurability durability, long forceIntervalMillis) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.durability = durability;
+    this.forceIntervalMillis = forceIntervalMillis;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
     createLogOutputStream();
+
+    if (durability == PERIODIC && forceIntervalMillis > 0) {
+      periodicForce = PeriodicForceScheduler.SCHEDULER.scheduleWithFixedDelay(this::forceIfIdle, forceIntervalMillis,
+                                                                              forceIntervalMillis, MILLISECONDS);
+    } else {
+      periodicForce = null;
+    }
   }
 
   /**
-   * Adds a journal entry for an operation done over a transactional resource
-   * 
+   * Adds a journal entry for an operation done over a transactional resource, returning once it is as durable as defined by
+   * the {@link JournalDurability} of this journal.
+   *
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
-    entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
-    journalOperations++;
+  public void logOperation(K journalEntry) {
+    awaitDurable(append(journalEntry, serialize(journalEntrySerializer, journalEntry)));
+  }
+
+  /**
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param journalEntry           operation details
+   * @return the entry in the format in which it is written to the journal file
+   */
+  static byte[] serialize(JournalEntrySerializer journalEntrySerializer, JournalEntry journalEntry) {
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(serializedEntry));
+    return serializedEntry.toByteArray();
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource. Unless the durability of this journal is
+   * {@link JournalDurability#GROUP}, the entry is written before returning.
+   *
+   * @param journalEntry    operation details
+   * @param serializedEntry the result of {@link #serialize(JournalEntrySerializer, JournalEntry) serializing}
+   *                        {@code journalEntry}
+   * @return the sequence number of the entry, to be used with {@link #awaitDurable(long)}
+   */
+  long append(K journalEntry, byte[] serializedEntry) {
+    long sequence;
+    synchronized (this) {
+      entries.put(journalEntry.getTxId(), journalEntry);
+      pendingEntries.write(serializedEntry, 0, serializedEntry.length);
+      journalOperations++;
+      sequence = ++appendedSequence;
+    }
+
+    if (durability != GROUP) {
+      flush(sequence);
+    }
+    return sequence;
+  }
+
+  /**
+   * Waits until the entry with the given {@code sequence}, and all the ones logged before it, have been written. If no other
+   * caller is already doing it, this caller writes all the pending entries, including the ones logged by other callers that are
+   * waiting.
+   *
+   * @param sequence the sequence number of a logged entry
+   */
+  void awaitDurable(long sequence) {
+    if (writtenSequence < sequence) {
+      flush(sequence);
+    }
+  }
+
+  private void flush(long sequence) {
+    flushLock.lock();
+    try {
+      // The entry may have been written along with others while waiting for the lock
+      if (writtenSequence >= sequence) {
+        return;
+      }
+
+      byte[] batch;
+      long batchSequence;
+      synchronized (this) {
+        batch = pendingEntries.toByteArray();
+        pendingEntries.reset();
+        batchSequence = appendedSequence;
+      }
+
+      write(batch);
+      writtenSequence = batchSequence;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void write(byte[] batch) {
+    try {
+      if (batch.length > 0) {
+        logFileOutputStream.write(batch);
+        unforcedWrites = true;
+      }
+      if (shouldForce()) {
+        force();
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void force() throws IOException {
+    logFileOutputStream.getChannel().force(false);
+    lastForce = currentTimeMillis();
+    unforcedWrites = false;
+  }
+
+  /**
+   * Forces the entries written since the last force if no write did it within the configured interval, that is, if no entries
+   * were logged since then.
+   */
+  private void forceIfIdle() {
+    if (!unforcedWrites) {
+      return;
+    }
+
+    flushLock.lock();
+    try {
+      if (unforcedWrites && currentTimeMillis() - lastForce >= forceIntervalMillis) {
+        force();
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Error forcing transaction journal file: " + e.getMessage());
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Error forcing transaction journal file", e);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * @return whether entries were written to the file since the last time it was forced to the storage device
+   */
+  boolean hasUnforcedWrites() {
+    return unforcedWrites;
+  }
+
+  private boolean shouldForce() {
+    return durability == PER_COMMIT || durability == GROUP
+        || (durability == PERIODIC && currentTimeMillis() - lastForce >= forceIntervalMillis);
   }
 
   /**
@@ -88,8 +285,10 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *
    * @param txId transaction identifier
    */
-  public synchronized void clearEntriesForTransaction(T txId) {
-    doClearEntriesForTransaction(txId);
+  public void clearEntriesForTransaction(T txId) {
+    synchronized (this) {
+      doClearEntriesForTransaction(txId);
+    }
     clearFileIfNeeded();
   }
 
@@ -101,16 +300,34 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   }
 
   protected void clearFileIfNeeded() {
-    if (this.entries.isEmpty()) {
-      if (clearFileMinimumSizeInBytes != null) {
-        if (fileLength() > clearFileMinimumSizeInBytes) {
-          clear();
+    // checked without the flush lock first, since it is rarely met while there are transactions in progress
+    synchronized (this) {
+      if (!shouldClearFile()) {
+        return;
+      }
+    }
+
+    flushLock.lock();
+    try {
+      synchronized (this) {
+        if (shouldClearFile()) {
+          doClear();
           journalOperations = 0;
         }
-      } else if (journalOperations > MINIMUM_ENTRIES_TO_CLEAR_FILE) {
-        clear();
-        journalOperations = 0;
       }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private boolean shouldClearFile() {
+    if (!this.entries.isEmpty()) {
+      return false;
+    }
+    if (clearFileMinimumSizeInBytes != null) {
+      return fileLength() > clearFileMinimumSizeInBytes;
+    } else {
+      return journalOperations > MINIMUM_ENTRIES_TO_CLEAR_FILE;
     }
   }
 
@@ -119,7 +336,41 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *
    * Will not remove the transaction context.
    */
-  public synchronized void close() {
+  public void close() {
+    if (periodicForce != null) {
+      periodicForce.cancel(false);
+    }
+
+    flushLock.lock();
+    try {
+      synchronized (this) {
+        try {
+          byte[] batch = pendingEntries.toByteArray();
+          pendingEntries.reset();
+          if (batch.length > 0) {
+            logFileOutputStream.write(batch);
+          }
+          if (durability != UNFORCED) {
+            force();
+          }
+          writtenSequence = appendedSequence;
+        } catch (IOException e) {
+          LOGGER.warn(e.getMessage());
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Error flushing transaction journal file", e);
+          }
+        }
+        closeLogOutputStream();
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void closeLogOutputStream() {
+    if (logFileOutputStream == null) {
+      return;
+    }
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -155,9 +406,24 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   /**
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
-  public synchronized void clear() {
-    close();
+  public void clear() {
+    flushLock.lock();
+    try {
+      synchronized (this) {
+        doClear();
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void doClear() {
+    closeLogOutputStream();
     entries.clear();
+    // entries pending to be written are discarded along with the file, so whoever is waiting for them can proceed
+    pendingEntries.reset();
+    writtenSequence = appendedSequence;
+    unforcedWrites = false;
     FileUtils.deleteQuietly(journalFile);
     createLogOutputStream();
   }
@@ -171,7 +437,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.logFileOutputStream = new FileOutputStream(journalFile, true);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
@@ -23,10 +23,23 @@ public class DefaultQueueStore implements RecoverableQueueStore {
   private String name;
   private QueueStoreDelegate delegate;
   private MuleContext muleContext;
+  private final boolean mappedFile;
 
   public DefaultQueueStore(String name, MuleContext muleContext, QueueConfiguration config) {
+    this(name, muleContext, config, false);
+  }
+
+  /**
+   * @param name        the name of the queue
+   * @param muleContext the context of the artifact owning the queue
+   * @param config      the configuration of the queue
+   * @param mappedFile  whether a persistent queue is to be backed by memory-mapped files through a
+   *                    {@link MappedFileQueueStoreDelegate}
+   */
+  public DefaultQueueStore(String name, MuleContext muleContext, QueueConfiguration config, boolean mappedFile) {
     this.name = name;
     this.muleContext = muleContext;
+    this.mappedFile = mappedFile;
     setConfigAndDelegate(config);
   }
 
@@ -42,7 +55,10 @@ public class DefaultQueueStore implements RecoverableQueueStore {
     if (this.config == null) {
       this.config = new DefaultQueueConfiguration();
     }
-    if (this.config.isPersistent()) {
+    if (this.config.isPersistent() && mappedFile) {
+      delegate = new MappedFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                  muleContext, this.config.getCapacity());
+    } else if (this.config.isPersistent()) {
       delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
                                                             muleContext, this.config.getCapacity());
     } else {
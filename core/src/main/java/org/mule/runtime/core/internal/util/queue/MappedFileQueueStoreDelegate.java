@@ -0,0 +1,646 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.internal.util.queue.MappedQueueSegment.ENTRY_HEADER_SIZE;
+import static org.mule.runtime.core.internal.util.queue.MappedQueueSegment.HEADER_SIZE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that keeps the queue entries in memory-mapped segment files.
+ * <p>
+ * Entries are appended to the current write segment, and their locations are kept in a primitive index, so taking an entry from
+ * the queue doesn't require any system call: its status is flipped directly in the mapped region. Once all the entries of a
+ * segment have been consumed, the segment file is recycled for new entries, effectively behaving as a ring of segments.
+ * <p>
+ * Producers append entries one at a time, holding a lock, since they write sequentially to the same segment. Consumers don't take
+ * that lock: each one claims the next location of the index by advancing the head cursor with a compare-and-set, and then takes
+ * the entry at that location with another compare-and-set, which it may lose to a concurrent {@link #remove(Serializable)}. The
+ * lock is only taken by consumers to wait for an entry when the queue is empty, and by {@link #peek()},
+ * {@link #contains(Serializable)} and {@link #remove(Serializable)}, so that no segment is recycled while they read it.
+ * <p>
+ * Changes are forced to the storage device in batches of {@link #FORCE_EVERY_PROPERTY_KEY} operations, and when the queue is
+ * closed.
+ *
+ * @since 4.6.0
+ */
+public class MappedFileQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.mappedSegmentSize";
+  public static final String FORCE_EVERY_PROPERTY_KEY = "mule.queue.mappedForceEvery";
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String QUEUE_DIRECTORY_SUFFIX = "-mapped";
+  private static final String SEGMENT_FILE_EXTENSION = ".seg";
+  private static final Pattern SAFE_QUEUE_NAME = Pattern.compile("[\\w.\\-]+");
+
+  private static final int INDEX_CHUNK_SIZE = 1024;
+  // slots are not negative, so no location can be mistaken for this one
+  private static final long NO_LOCATION = -1;
+
+  private static final Logger LOGGER = getLogger(MappedFileQueueStoreDelegate.class);
+
+  private final int segmentSize = getInteger(SEGMENT_SIZE_PROPERTY_KEY, 8 * 1024 * 1024);
+  private final int forceEvery = getInteger(FORCE_EVERY_PROPERTY_KEY, 256);
+  private final int capacity;
+  private final ObjectSerializer serializer;
+  private final File queueDirectory;
+  private final Map<Integer, MappedQueueSegment> segmentsBySlot = new ConcurrentHashMap<>();
+  private final Queue<MappedQueueSegment> freeSegments = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingChanges = new AtomicInteger();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final AtomicInteger waitingProducers = new AtomicInteger();
+
+  // the index of entry locations, from the head cursor, advanced by consumers, to the tail one, advanced by producers
+  private final AtomicReference<IndexChunk> headChunk = new AtomicReference<>();
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicInteger size = new AtomicInteger();
+  // entries returned to the front of the queue, which are rare enough for their locations to be boxed
+  private final ConcurrentLinkedDeque<Long> untaken = new ConcurrentLinkedDeque<>();
+
+  // guarded by lock
+  private IndexChunk tailChunk;
+  private MappedQueueSegment writeSegment;
+  private long nextSequence;
+  private int nextSlot;
+
+  public MappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this.capacity = capacity;
+    serializer = muleContext.getObjectSerializer();
+    queueDirectory = getQueueDirectory(queueName, workingDirectory);
+    if (!queueDirectory.exists()) {
+      Preconditions.checkState(queueDirectory.mkdirs(),
+                               "Could not create queue store directory " + queueDirectory.getAbsolutePath());
+    }
+
+    resetIndex();
+    try {
+      recover();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Queue %s has %s messages", queueName, size.get()));
+    }
+  }
+
+  static File getQueueDirectory(String queueName, String workingDirectory) {
+    String directoryName = SAFE_QUEUE_NAME.matcher(queueName).matches() ? queueName : QueueFileProvider.toHex(queueName);
+    return new File(new File(workingDirectory, QUEUE_STORE_DIRECTORY), directoryName + QUEUE_DIRECTORY_SUFFIX);
+  }
+
+  static long toLocation(int slot, int position) {
+    return ((long) slot << 32) | (position & 0xFFFFFFFFL);
+  }
+
+  private static int slotOf(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static int positionOf(long location) {
+    return (int) location;
+  }
+
+  private void recover() throws IOException {
+    File[] segmentFiles = queueDirectory.listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    List<MappedQueueSegment> inUse = new ArrayList<>();
+    if (segmentFiles != null) {
+      for (File segmentFile : segmentFiles) {
+        String name = segmentFile.getName();
+        int slot = Integer.parseInt(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+        MappedQueueSegment segment = new MappedQueueSegment(segmentFile, slot, 0);
+        segmentsBySlot.put(slot, segment);
+        nextSlot = Math.max(nextSlot, slot + 1);
+        if (segment.isFree()) {
+          release(segment);
+        } else {
+          inUse.add(segment);
+        }
+      }
+    }
+
+    inUse.sort(comparingLong(MappedQueueSegment::getSequence));
+    for (MappedQueueSegment segment : inUse) {
+      segment.recover(this::append);
+      nextSequence = segment.getSequence() + 1;
+    }
+
+    if (inUse.isEmpty()) {
+      writeSegment = acquireSegment(0);
+    } else {
+      writeSegment = inUse.get(inUse.size() - 1);
+      for (MappedQueueSegment segment : inUse) {
+        if (segment != writeSegment) {
+          segment.seal();
+          releaseIfUnused(segment);
+        }
+      }
+    }
+  }
+
+  private MappedQueueSegment acquireSegment(int dataLength) throws IOException {
+    MappedQueueSegment segment = null;
+    if (HEADER_SIZE + ENTRY_HEADER_SIZE + dataLength <= segmentSize) {
+      segment = freeSegments.poll();
+    }
+    if (segment == null) {
+      int slot = nextSlot++;
+      int segmentCapacity = Math.max(segmentSize, HEADER_SIZE + ENTRY_HEADER_SIZE + dataLength);
+      segment = new MappedQueueSegment(new File(queueDirectory, slot + SEGMENT_FILE_EXTENSION), slot, segmentCapacity);
+      segmentsBySlot.put(slot, segment);
+    }
+    segment.reset(nextSequence++);
+    return segment;
+  }
+
+  /**
+   * Releases the given segment if no more entries will be written to it and all the ones it has were consumed. Called both by the
+   * producer that stops writing to the segment and by the consumer that takes its last entry, so only one of them releases it.
+   */
+  private void releaseIfUnused(MappedQueueSegment segment) {
+    if (segment.isSealed() && segment.getLiveEntries() == 0 && segment.claimRelease()) {
+      release(segment);
+    }
+  }
+
+  private void release(MappedQueueSegment segment) {
+    segment.free();
+    if (segment.getCapacity() == segmentSize) {
+      freeSegments.add(segment);
+    } else {
+      // Segments created for an oversized entry are not reused
+      segmentsBySlot.remove(segment.getSlot());
+      segment.force();
+      if (!segment.getFile().delete() && LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Could not delete oversized queue segment " + segment.getFile().getAbsolutePath());
+      }
+    }
+  }
+
+  private long write(Serializable item) {
+    byte[] data = serializer.getInternalProtocol().serialize(item);
+    try {
+      if (!writeSegment.fits(data.length)) {
+        MappedQueueSegment previous = writeSegment;
+        previous.force();
+        writeSegment = acquireSegment(data.length);
+        previous.seal();
+        releaseIfUnused(previous);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    return toLocation(writeSegment.getSlot(), writeSegment.write(data));
+  }
+
+  private byte[] read(long location) {
+    return segmentsBySlot.get(slotOf(location)).read(positionOf(location));
+  }
+
+  /**
+   * Reads an entry that may have been taken by a consumer since its location was found. Must be called holding the lock, so its
+   * segment is not recycled meanwhile.
+   *
+   * @return the entry, or {@code null} if its segment was already deleted
+   */
+  private Serializable readIfPresent(long location) {
+    MappedQueueSegment segment = segmentsBySlot.get(slotOf(location));
+    return segment == null ? null : deserialize(segment.read(positionOf(location)));
+  }
+
+  private void discard(long location) {
+    MappedQueueSegment segment = segmentsBySlot.get(slotOf(location));
+    if (segment.remove(positionOf(location))) {
+      releaseIfUnused(segment);
+    }
+  }
+
+  private void changed() {
+    if (pendingChanges.incrementAndGet() >= forceEvery) {
+      forceAll();
+    }
+  }
+
+  private void forceAll() {
+    pendingChanges.set(0);
+    for (MappedQueueSegment segment : segmentsBySlot.values()) {
+      segment.force();
+    }
+  }
+
+  private void resetIndex() {
+    IndexChunk chunk = new IndexChunk(0);
+    tailChunk = chunk;
+    headChunk.set(chunk);
+    head.set(0);
+    tail.set(0);
+    size.set(0);
+    untaken.clear();
+  }
+
+  /**
+   * Adds a location at the tail of the index. Must be called holding the lock.
+   */
+  private void append(long location) {
+    long index = tail.get();
+    if (index == tailChunk.base + INDEX_CHUNK_SIZE) {
+      IndexChunk chunk = new IndexChunk(index);
+      tailChunk.next = chunk;
+      tailChunk = chunk;
+    }
+    tailChunk.locations.lazySet((int) (index - tailChunk.base), location);
+    size.incrementAndGet();
+    // publishes the location to the consumers
+    tail.set(index + 1);
+  }
+
+  /**
+   * Takes the location of the first entry of the queue, without blocking.
+   *
+   * @return the location of the entry, or {@link #NO_LOCATION} if the queue is empty
+   */
+  private long take() {
+    Long untakenLocation = untaken.pollFirst();
+    if (untakenLocation != null) {
+      size.decrementAndGet();
+      return untakenLocation;
+    }
+
+    while (true) {
+      // read before the cursor, so the chunk never starts after the claimed index
+      IndexChunk chunk = headChunk.get();
+      long index = head.get();
+      if (index >= tail.get()) {
+        return NO_LOCATION;
+      }
+      if (!head.compareAndSet(index, index + 1)) {
+        continue;
+      }
+
+      while (index >= chunk.base + INDEX_CHUNK_SIZE) {
+        chunk = chunk.next;
+      }
+      if (index == chunk.base) {
+        advanceHeadChunk(chunk);
+      }
+
+      long location = chunk.locations.getAndSet((int) (index - chunk.base), NO_LOCATION);
+      if (location != NO_LOCATION) {
+        size.decrementAndGet();
+        return location;
+      }
+      // the entry was removed after its index was published, so try with the next one
+    }
+  }
+
+  private void advanceHeadChunk(IndexChunk chunk) {
+    IndexChunk current;
+    do {
+      current = headChunk.get();
+      if (current.base >= chunk.base) {
+        return;
+      }
+    } while (!headChunk.compareAndSet(current, chunk));
+  }
+
+  /**
+   * Visits the entries of the queue that were not taken yet, in order, until the visitor accepts one. Must be called holding the
+   * lock.
+   *
+   * @return whether the visitor accepted an entry
+   */
+  private boolean visitIndex(IndexVisitor visitor) {
+    IndexChunk chunk = headChunk.get();
+    long end = tail.get();
+    for (long index = head.get(); index < end; index++) {
+      while (index >= chunk.base + INDEX_CHUNK_SIZE) {
+        chunk = chunk.next;
+      }
+      int offset = (int) (index - chunk.base);
+      long location = chunk.locations.get(offset);
+      if (location != NO_LOCATION && visitor.visit(chunk.locations, offset, location)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void taken(long location) {
+    discard(location);
+    changed();
+    if (waitingProducers.get() > 0) {
+      lock.lock();
+      try {
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    lock.lock();
+    try {
+      append(write(o));
+      changed();
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    lock.lock();
+    try {
+      if (capacity > 0) {
+        if (capacity <= room) {
+          throw new IllegalStateException("Can not add more objects than the capacity in one time");
+        }
+        if (!awaitRoom(room, timeout)) {
+          LOGGER.warn(format("Timeout of %d milliseconds reached, object could not be queued. Queue capacity of %d full.",
+                             timeout, capacity));
+          return false;
+        }
+      }
+      if (o != null) {
+        append(write(o));
+        changed();
+      }
+      notEmpty.signalAll();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean awaitRoom(int room, long timeout) throws InterruptedException {
+    if (size.get() < capacity - room) {
+      return true;
+    }
+
+    // consumers only signal when there are waiting producers, and check for them after taking an entry
+    waitingProducers.incrementAndGet();
+    try {
+      long remaining = MILLISECONDS.toNanos(timeout);
+      while (size.get() >= capacity - room) {
+        if (timeout < 0) {
+          // If timeout is negative then wait until notified without a timeout.
+          notFull.await();
+        } else {
+          if (remaining <= 0L) {
+            return false;
+          }
+          remaining = notFull.awaitNanos(remaining);
+        }
+      }
+      return true;
+    } finally {
+      waitingProducers.decrementAndGet();
+    }
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    long location = take();
+    if (location == NO_LOCATION && timeout > 0L) {
+      location = awaitTake(timeout);
+    }
+    if (location == NO_LOCATION) {
+      return null;
+    }
+
+    Serializable value = deserialize(read(location));
+    taken(location);
+    return value;
+  }
+
+  private long awaitTake(long timeout) throws InterruptedException {
+    lock.lock();
+    try {
+      long remaining = MILLISECONDS.toNanos(timeout);
+      long location;
+      // producers append holding the lock, so no entry can be added between taking and waiting
+      while ((location = take()) == NO_LOCATION) {
+        if (remaining <= 0L) {
+          return NO_LOCATION;
+        }
+        remaining = notEmpty.awaitNanos(remaining);
+      }
+      return location;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    lock.lock();
+    try {
+      for (Long location : untaken) {
+        Serializable value = readIfPresent(location);
+        if (value != null) {
+          return value;
+        }
+      }
+
+      Serializable[] first = new Serializable[1];
+      visitIndex((locations, offset, location) -> (first[0] = readIfPresent(location)) != null);
+      return first[0];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    lock.lock();
+    try {
+      long location = write(item);
+      size.incrementAndGet();
+      untaken.addFirst(location);
+      changed();
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return size.get();
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    lock.lock();
+    try {
+      long location;
+      while ((location = take()) != NO_LOCATION) {
+        discard(location);
+      }
+      forceAll();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    lock.lock();
+    try {
+      for (Serializable item : items) {
+        append(write(item));
+      }
+      forceAll();
+      notEmpty.signalAll();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    lock.lock();
+    try {
+      for (Long location : untaken) {
+        if (value.equals(readIfPresent(location)) && untaken.removeFirstOccurrence(location)) {
+          size.decrementAndGet();
+          taken(location);
+          return;
+        }
+      }
+
+      visitIndex((locations, offset, location) -> {
+        // a consumer may take the entry concurrently, in which case it is not the one removed here
+        if (value.equals(readIfPresent(location)) && locations.compareAndSet(offset, location, NO_LOCATION)) {
+          size.decrementAndGet();
+          taken(location);
+          return true;
+        }
+        return false;
+      });
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    lock.lock();
+    try {
+      for (Long location : untaken) {
+        if (value.equals(readIfPresent(location))) {
+          return true;
+        }
+      }
+      return visitIndex((locations, offset, location) -> value.equals(readIfPresent(location)));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    forceAll();
+  }
+
+  @Override
+  public void dispose() {
+    lock.lock();
+    try {
+      resetIndex();
+      segmentsBySlot.clear();
+      freeSegments.clear();
+      writeSegment = null;
+      deleteQuietly(queueDirectory);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  private Serializable deserialize(byte[] bytes) {
+    return serializer.getInternalProtocol().deserialize(bytes);
+  }
+
+  /**
+   * A fixed size part of the index of entry locations. Chunks are linked in order, and the ones before the chunk of the head
+   * cursor are left to the garbage collector.
+   */
+  private static final class IndexChunk {
+
+    private final long base;
+    private final AtomicLongArray locations = new AtomicLongArray(INDEX_CHUNK_SIZE);
+    private volatile IndexChunk next;
+
+    private IndexChunk(long base) {
+      this.base = base;
+    }
+  }
+
+  @FunctionalInterface
+  private interface IndexVisitor {
+
+    /**
+     * @param locations the locations of the chunk being visited
+     * @param offset    the offset of the visited location within the chunk
+     * @param location  the visited location
+     * @return whether to stop visiting
+     */
+    boolean visit(AtomicLongArray locations, int offset, long location);
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * A fixed size, memory-mapped file holding entries of a {@link MappedFileQueueStoreDelegate}.
+ * <p>
+ * The file starts with the sequence number of the segment, which defines the order of segments when the queue is recovered, or
+ * {@link #FREE_SEQUENCE} if the segment holds no live entries and can be reused. It is followed by entries with the layout
+ * {@code | status (1) | length (4) | data |}. A {@link #END} status marks the end of the written entries.
+ * <p>
+ * Entries are only written by the producer holding the lock of the queue, but are removed concurrently by consumers, each one
+ * removing a different entry.
+ *
+ * @since 4.6.0
+ */
+final class MappedQueueSegment {
+
+  static final long FREE_SEQUENCE = -1;
+
+  static final byte END = 0;
+  static final byte LIVE = 1;
+  static final byte REMOVED = 2;
+
+  static final int HEADER_SIZE = 8;
+  static final int ENTRY_HEADER_SIZE = 5;
+
+  private final int slot;
+  private final File file;
+  private final MappedByteBuffer buffer;
+  private long sequence;
+  private int writePosition = HEADER_SIZE;
+  private final AtomicInteger liveEntries = new AtomicInteger();
+  private final AtomicBoolean released = new AtomicBoolean();
+  private volatile boolean sealed;
+  private volatile boolean dirty;
+
+  MappedQueueSegment(File file, int slot, int capacity) throws IOException {
+    this.slot = slot;
+    this.file = file;
+    try (FileChannel channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE)) {
+      // the mapping remains valid after the channel is closed
+      this.buffer = channel.map(READ_WRITE, 0, capacity > 0 ? capacity : channel.size());
+    }
+    this.sequence = buffer.getLong(0);
+  }
+
+  /**
+   * Reuses this segment for new entries, identifying it with the given {@code sequence}.
+   */
+  void reset(long sequence) {
+    buffer.put(HEADER_SIZE, END);
+    buffer.putLong(0, sequence);
+    this.sequence = sequence;
+    writePosition = HEADER_SIZE;
+    liveEntries.set(0);
+    sealed = false;
+    released.set(false);
+    dirty = true;
+  }
+
+  void free() {
+    buffer.putLong(0, FREE_SEQUENCE);
+    sequence = FREE_SEQUENCE;
+    liveEntries.set(0);
+    dirty = true;
+  }
+
+  /**
+   * Marks that no more entries will be written to this segment.
+   */
+  void seal() {
+    sealed = true;
+  }
+
+  boolean isSealed() {
+    return sealed;
+  }
+
+  /**
+   * @return whether the caller is the one to release this segment, {@code false} if it was already claimed since the last
+   *         {@link #reset(long)}
+   */
+  boolean claimRelease() {
+    return released.compareAndSet(false, true);
+  }
+
+  boolean fits(int dataLength) {
+    return writePosition + ENTRY_HEADER_SIZE + dataLength <= buffer.capacity();
+  }
+
+  /**
+   * Writes a new live entry. The status is written last, so a partially written entry is never considered live on recovery.
+   *
+   * @return the position of the entry within the segment
+   */
+  int write(byte[] data) {
+    int position = writePosition;
+    int next = position + ENTRY_HEADER_SIZE + data.length;
+    if (next < buffer.capacity()) {
+      buffer.put(next, END);
+    }
+    buffer.putInt(position + 1, data.length);
+    ByteBuffer target = buffer.duplicate();
+    target.position(position + ENTRY_HEADER_SIZE);
+    target.put(data);
+    buffer.put(position, LIVE);
+
+    writePosition = next;
+    liveEntries.incrementAndGet();
+    dirty = true;
+    return position;
+  }
+
+  byte[] read(int position) {
+    byte[] data = new byte[buffer.getInt(position + 1)];
+    ByteBuffer source = buffer.duplicate();
+    source.position(position + ENTRY_HEADER_SIZE);
+    source.get(data);
+    return data;
+  }
+
+  /**
+   * Marks the entry at the given position as removed.
+   *
+   * @return whether this segment has no more live entries
+   */
+  boolean remove(int position) {
+    buffer.put(position, REMOVED);
+    dirty = true;
+    return liveEntries.decrementAndGet() == 0;
+  }
+
+  /**
+   * Scans the entries of this segment, passing the location of each live one to the given {@code locations}. Leaves the segment
+   * ready to keep appending entries after the last valid one.
+   */
+  void recover(LongConsumer locations) {
+    int position = HEADER_SIZE;
+    while (position + ENTRY_HEADER_SIZE <= buffer.capacity()) {
+      byte status = buffer.get(position);
+      int length = buffer.getInt(position + 1);
+      if ((status != LIVE && status != REMOVED) || length < 0 || position + ENTRY_HEADER_SIZE + length > buffer.capacity()) {
+        break;
+      }
+      if (status == LIVE) {
+        locations.accept(MappedFileQueueStoreDelegate.toLocation(slot, position));
+        liveEntries.incrementAndGet();
+      }
+      position += ENTRY_HEADER_SIZE + length;
+    }
+    writePosition = position;
+    if (position < buffer.capacity()) {
+      buffer.put(position, END);
+    }
+  }
+
+  void force() {
+    if (dirty) {
+      // cleared before forcing, so changes done meanwhile are forced the next time
+      dirty = false;
+      buffer.force();
+    }
+  }
+
+  int getSlot() {
+    return slot;
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  long getSequence() {
+    return sequence;
+  }
+
+  boolean isFree() {
+    return sequence == FREE_SEQUENCE;
+  }
+
+  int getCapacity() {
+    return buffer.capacity();
+  }
+
+  int getLiveEntries() {
+    return liveEntries.get();
+  }
+}
@@ -7,6 +7,9 @@
 
 package org.mule.runtime.core.internal.util.queue;
 
+import static java.lang.System.getProperty;
+import static java.util.Arrays.asList;
+
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
@@ -19,7 +22,9 @@ import org.mule.runtime.core.internal.util.xa.XaTransactionRecoverer;
 
 import java.io.File;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The Transactional Queue Manager is responsible for creating and Managing transactional Queues. Queues can also be persistent by
@@ -27,6 +32,13 @@ import java.util.Map;
  */
 public class TransactionalQueueManager extends AbstractQueueManager {
 
+  /**
+   * Comma separated names of the persistent queues to be backed by a {@link MappedFileQueueStoreDelegate} instead of a
+   * {@link DualRandomAccessFileQueueStoreDelegate}, or {@value #ALL_QUEUES} to do so for every persistent queue.
+   */
+  public static final String MAPPED_FILE_QUEUES_PROPERTY_KEY = "mule.queue.mappedFileQueues";
+  private static final String ALL_QUEUES = "*";
+
   private LocalTxQueueTransactionJournal localTxTransactionJournal;
   private LocalTxQueueTransactionRecoverer localTxQueueTransactionRecoverer;
   private XaTxQueueTransactionJournal xaTransactionJournal;
@@ -36,6 +48,8 @@ public class TransactionalQueueManager extends AbstractQueueManager {
   // since queue configuration is applied after recovery and not taking into consideration once queues are created
   // for recovery. See https://www.mulesoft.org/jira/browse/MULE-7420
   private final Map<String, RecoverableQueueStore> queuesAccessedForRecovery = new HashMap<>();
+  private final Set<String> mappedFileQueues =
+      new HashSet<>(asList(getProperty(MAPPED_FILE_QUEUES_PROPERTY_KEY, "").split("\\s*,\\s*")));
 
   /**
    * {@inheritDoc}
@@ -50,7 +64,11 @@ public class TransactionalQueueManager extends AbstractQueueManager {
 
   @Override
   protected DefaultQueueStore createQueueStore(String name, QueueConfiguration config) {
-    return new DefaultQueueStore(name, getMuleContext(), config);
+    return new DefaultQueueStore(name, getMuleContext(), config, isMappedFileQueue(name));
+  }
+
+  private boolean isMappedFileQueue(String queueName) {
+    return mappedFileQueues.contains(ALL_QUEUES) || mappedFileQueues.contains(queueName);
   }
 
   @Override
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.rx;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * Counts the times a virtual thread blocked while pinned to its carrier thread, for instance while holding a monitor, so it could
+ * not release the carrier for other virtual threads.
+ * <p>
+ * Pinning is reported by the JVM through the {@code jdk.VirtualThreadPinned} JFR event, which is streamed while there is any
+ * {@link VirtualThreadScheduler} active. The JFR streaming API is only available in recent JDKs, so it is looked up reflectively.
+ * <p>
+ * Each active scheduler is notified with the name of the pinned thread, so it can account for the pinning of its own threads.
+ *
+ * @since 4.6.0
+ */
+public final class VirtualThreadPinningMonitor {
+
+  private static final Logger LOGGER = getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String PINNED_EVENT_NAME = "jdk.VirtualThreadPinned";
+
+  private static final LongAdder pinnedCount = new LongAdder();
+  private static final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+  // guarded by the class monitor
+  private static int users;
+  private static AutoCloseable recordingStream;
+
+  private VirtualThreadPinningMonitor() {}
+
+  /**
+   * @return the amount of times a virtual thread blocked while pinned since the JVM started, as far as it was monitored.
+   */
+  public static long getPinnedCount() {
+    return pinnedCount.sum();
+  }
+
+  /**
+   * Starts monitoring, if not already started, and notifies {@code onPinned} with the name of each virtual thread that blocks
+   * while pinned until {@link #stop(Consumer)} is called with it.
+   *
+   * @param onPinned the listener to notify
+   */
+  static synchronized void start(Consumer<String> onPinned) {
+    listeners.add(onPinned);
+    if (users++ > 0) {
+      return;
+    }
+
+    try {
+      Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+      Object stream = streamClass.getConstructor().newInstance();
+      streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT_NAME);
+      Consumer<Object> onEvent = event -> notifyPinned(getThreadName(event));
+      streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT_NAME, onEvent);
+      streamClass.getMethod("startAsync").invoke(stream);
+      recordingStream = (AutoCloseable) stream;
+    } catch (Exception | LinkageError e) {
+      LOGGER.debug("Could not start monitoring the pinning of virtual threads", e);
+    }
+  }
+
+  static synchronized void stop(Consumer<String> onPinned) {
+    if (!listeners.remove(onPinned) || --users > 0 || recordingStream == null) {
+      return;
+    }
+
+    try {
+      recordingStream.close();
+    } catch (Exception e) {
+      LOGGER.debug("Could not stop monitoring the pinning of virtual threads", e);
+    }
+    recordingStream = null;
+  }
+
+  /**
+   * Accounts for a virtual thread that blocked while pinned, and notifies the listeners.
+   *
+   * @param threadName the name of the pinned thread
+   */
+  static void notifyPinned(String threadName) {
+    pinnedCount.increment();
+    for (Consumer<String> listener : listeners) {
+      listener.accept(threadName);
+    }
+  }
+
+  private static String getThreadName(Object event) {
+    try {
+      // RecordedEvent#getThread() and RecordedThread#getJavaName()
+      Method getThread = event.getClass().getMethod("getThread");
+      Object thread = getThread.invoke(event);
+      return thread == null ? "" : (String) thread.getClass().getMethod("getJavaName").invoke(thread);
+    } catch (ReflectiveOperationException e) {
+      LOGGER.debug("Could not get the thread of a virtual thread pinning event", e);
+      return "";
+    }
+  }
+}
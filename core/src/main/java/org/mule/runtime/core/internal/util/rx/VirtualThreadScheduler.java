@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.rx;
+
+import static java.lang.System.currentTimeMillis;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
+import org.mule.runtime.api.profiling.type.context.ExtensionProfilingEventContext;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.internal.profiling.context.VirtualThreadPinnedProfilingEventContext;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link Scheduler} implementation that runs each task submitted for immediate execution in a new virtual thread.
+ * <p>
+ * Virtual threads are only available in recent JDKs, so they are looked up reflectively. {@link #isSupported()} tells whether
+ * they can be used in the running JVM.
+ * <p>
+ * Delayed and periodic tasks are delegated to a platform thread {@link Scheduler}, which is stopped along with this one.
+ * <p>
+ * The times the virtual threads of this scheduler block while pinned to their carriers are reported by the
+ * {@link VirtualThreadPinningMonitor} while this scheduler is active. Those are available through {@link #getPinnedCount()}, and
+ * are published as {@link VirtualThreadPinnedProfilingEventContext profiling events} when a producer is given.
+ *
+ * @since 4.6.0
+ */
+public class VirtualThreadScheduler implements Scheduler {
+
+  private static final Logger LOGGER = getLogger(VirtualThreadScheduler.class);
+
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderFactory = null;
+    Method newThreadPerTaskExecutor = null;
+    try {
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builderName = builderClass.getMethod("name", String.class, long.class);
+      builderFactory = builderClass.getMethod("factory");
+      newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+      // virtual threads are a preview feature in some JDKs, in which case this fails unless previews are enabled
+      ofVirtual.invoke(null);
+    } catch (Exception | LinkageError e) {
+      LOGGER.debug("Virtual threads are not available in this JVM", e);
+      ofVirtual = null;
+    }
+
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_FACTORY = builderFactory;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  /**
+   * @return whether virtual threads can be used in the running JVM.
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  private final String name;
+  private final Scheduler delegate;
+  private final ExecutorService executor;
+  private final ProfilingDataProducer<ExtensionProfilingEventContext, Object> pinningDataProducer;
+  private final LongAdder pinnedCount = new LongAdder();
+  private final Consumer<String> onPinned = this::onPinned;
+  private final AtomicBoolean monitoringPinning = new AtomicBoolean(true);
+
+  /**
+   * @param name     the name of this scheduler, also used as the prefix of the names of its threads
+   * @param delegate the scheduler to run delayed and periodic tasks
+   * @throws IllegalStateException if virtual threads are not {@link #isSupported() supported}
+   */
+  public VirtualThreadScheduler(String name, Scheduler delegate) {
+    this(name, delegate, null);
+  }
+
+  /**
+   * @param name                the name of this scheduler, also used as the prefix of the names of its threads
+   * @param delegate            the scheduler to run delayed and periodic tasks
+   * @param pinningDataProducer the producer to publish the pinning of the threads of this scheduler to. May be {@code null}.
+   * @throws IllegalStateException if virtual threads are not {@link #isSupported() supported}
+   */
+  public VirtualThreadScheduler(String name, Scheduler delegate,
+                                ProfilingDataProducer<ExtensionProfilingEventContext, Object> pinningDataProducer) {
+    if (!isSupported()) {
+      throw new IllegalStateException("Virtual threads are not available in this JVM");
+    }
+
+    this.name = name;
+    this.delegate = delegate;
+    this.pinningDataProducer = pinningDataProducer;
+    try {
+      Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name + ".", 0L);
+      ThreadFactory threadFactory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+      this.executor = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create virtual threads executor", e);
+    }
+    VirtualThreadPinningMonitor.start(onPinned);
+  }
+
+  /**
+   * @return the amount of times a thread of this scheduler blocked while pinned to its carrier.
+   */
+  public long getPinnedCount() {
+    return pinnedCount.sum();
+  }
+
+  private void onPinned(String threadName) {
+    if (!threadName.startsWith(name + ".")) {
+      return;
+    }
+
+    pinnedCount.increment();
+    if (pinningDataProducer != null) {
+      long count = pinnedCount.sum();
+      pinningDataProducer
+          .triggerProfilingEvent(new VirtualThreadPinnedProfilingEventContext(name, threadName, count, currentTimeMillis()));
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(command);
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    return executor.submit(task);
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    return executor.submit(task, result);
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    return executor.submit(task);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    return executor.invokeAll(tasks);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return executor.invokeAll(tasks, timeout, unit);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    return executor.invokeAny(tasks);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return executor.invokeAny(tasks, timeout, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return delegate.schedule(command, delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return delegate.schedule(callable, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    return delegate.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression) {
+    return delegate.scheduleWithCronExpression(command, cronExpression);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression, TimeZone timeZone) {
+    return delegate.scheduleWithCronExpression(command, cronExpression, timeZone);
+  }
+
+  @Override
+  public void stop() {
+    // tasks of a stopped processing strategy are already done, so no need to interrupt them
+    executor.shutdown();
+    delegate.stop();
+    stopMonitoringPinning();
+  }
+
+  @Override
+  public void shutdown() {
+    executor.shutdown();
+    delegate.shutdown();
+    stopMonitoringPinning();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> pending = new ArrayList<>(executor.shutdownNow());
+    pending.addAll(delegate.shutdownNow());
+    stopMonitoringPinning();
+    return pending;
+  }
+
+  private void stopMonitoringPinning() {
+    if (monitoringPinning.compareAndSet(true, false)) {
+      VirtualThreadPinningMonitor.stop(onPinned);
+    }
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executor.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return executor.isTerminated() && delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    return executor.awaitTermination(timeout, unit)
+        && delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "VirtualThreadScheduler{" + name + "}";
+  }
+}
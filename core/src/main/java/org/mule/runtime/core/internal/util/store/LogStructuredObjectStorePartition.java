@@ -0,0 +1,633 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Double.parseDouble;
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link PersistentObjectStorePartition} which, instead of writing each entry into its own file, appends checksummed records
+ * to rolling segment files and keeps an in-memory index from each key to the location of its value.
+ * <p>
+ * Each record has the following layout:
+ *
+ * <pre>
+ * | type (1) | timestamp (8) | key length (4) | value length (4) | CRC32 (4) | key (UTF-8) | value (serialized) |
+ * </pre>
+ *
+ * Removals (explicit or due to expiration) append a tombstone record. Once the amount of bytes belonging to removed or
+ * superseded records in the oldest segments reaches a configurable ratio, the live records of those segments are copied forward
+ * into the active segment and the old segments are deleted. That is checked on every write, so it doesn't depend on the
+ * partition being expired.
+ * <p>
+ * Records are validated against their checksum when the partition is loaded. A record with an invalid checksum is skipped and
+ * the rest of the log is still replayed, since losing the whole store for a single damaged record is worse than bringing back the
+ * previous value of its key. A record whose header can't be read (typically the result of a crash in the middle of a write)
+ * leaves no way to find the next one, so its segment is truncated at that point. In both cases the discarded bytes are copied to
+ * the corrupted files folder first.
+ * <p>
+ * Entries stored in the one-file-per-entry layout of {@link PersistentObjectStorePartition} are migrated into the log the first
+ * time the partition is loaded.
+ *
+ * @param <T> the serializable entity to be persisted by the partition
+ *
+ * @since 4.6.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T> {
+
+  /**
+   * Max size in bytes of each segment file. A segment may be bigger than this if a single record doesn't fit in it.
+   */
+  public static final String SEGMENT_MAX_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectstore.persistent.segmentMaxSize";
+
+  /**
+   * Ratio (between 0 and 1) of non-live bytes in the oldest segments that triggers a compaction.
+   */
+  public static final String COMPACTION_THRESHOLD_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectstore.persistent.compactionThreshold";
+
+  /**
+   * If set, every write is forced to the storage device before returning. Otherwise, writes are forced when a segment is rolled,
+   * on each expiration run and when the partition is closed.
+   */
+  public static final String SYNC_ON_WRITE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectstore.persistent.syncOnWrite";
+
+  private static final Logger LOGGER = getLogger(LogStructuredObjectStorePartition.class);
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+
+  private static final int CRC_OFFSET = 1 + 8 + 4 + 4;
+  private static final int HEADER_SIZE = CRC_OFFSET + 4;
+
+  private static final byte[] EMPTY_VALUE = new byte[0];
+
+  // for the discarded bytes of segments, before moving them to the corrupted files folder
+  private static final String CORRUPTED_FILE_EXTENSION = ".corrupted";
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final long segmentMaxSize = getInteger(SEGMENT_MAX_SIZE_PROPERTY, 16 * 1024 * 1024);
+  private final double compactionThreshold = parseDouble(getProperty(COMPACTION_THRESHOLD_PROPERTY, "0.5"));
+  private final boolean syncOnWrite = getBoolean(SYNC_ON_WRITE_PROPERTY);
+
+  private final TreeMap<Long, ObjectStoreLogSegment> segments = new TreeMap<>();
+  // Iteration order is the order in which entries were stored, which is what expiration relies on.
+  private final LinkedHashMap<String, RecordLocation> index = new LinkedHashMap<>();
+  private ObjectStoreLogSegment activeSegment;
+  private boolean loaded = false;
+
+  private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  private final Lock rLock = rwLock.readLock();
+  private final Lock wLock = rwLock.writeLock();
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    super(muleContext, partitionName, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    super(muleContext, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    wLock.lock();
+    try {
+      closeSegments();
+      super.close();
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+
+    rLock.lock();
+    try {
+      return unmodifiableList(new ArrayList<>(index.keySet()));
+    } finally {
+      rLock.unlock();
+    }
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    rLock.lock();
+    try {
+      return index.containsKey(key);
+    } finally {
+      rLock.unlock();
+    }
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+
+    wLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      byte[] serializedValue = serializer.getInternalProtocol().serialize(value);
+      index.put(key, append(PUT, currentTimeMillis(), key, serializedValue));
+      // storing a key may have rolled the active segment, making the previous one eligible for compaction
+      compactIfRequired();
+      syncIfRequired();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not store key '%s' in partition '%s'", key,
+                                                                getPartitionName())),
+                                     e);
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    wLock.lock();
+    try {
+      closeSegments();
+      super.clear();
+      activeSegment = newSegment(0);
+      loaded = true;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    rLock.lock();
+    try {
+      RecordLocation location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      return load(location);
+    } finally {
+      rLock.unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+
+    rLock.lock();
+    try {
+      Map<String, T> values = new LinkedHashMap<>(index.size());
+      for (Entry<String, RecordLocation> entry : index.entrySet()) {
+        values.put(entry.getKey(), load(entry.getValue()));
+      }
+      return values;
+    } finally {
+      rLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    wLock.lock();
+    try {
+      RecordLocation location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      T value = load(location);
+      removeEntry(key, location);
+      compactIfRequired();
+      syncIfRequired();
+      return value;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not remove key '%s' from partition '%s'", key,
+                                                                getPartitionName())),
+                                     e);
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    wLock.lock();
+    try {
+      Iterator<Entry<String, RecordLocation>> entries = index.entrySet().iterator();
+
+      int excess = maxEntries == UNBOUNDED ? 0 : index.size() - maxEntries;
+      while (excess-- > 0 && entries.hasNext()) {
+        expireEntry(entries);
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = currentTimeMillis();
+        while (entries.hasNext()) {
+          Entry<String, RecordLocation> entry = entries.next();
+          if ((now - entry.getValue().timestamp) >= entryTTL) {
+            appendTombstone(entry.getKey(), entry.getValue());
+            entries.remove();
+          } else {
+            break;
+          }
+        }
+      }
+
+      compactIfRequired();
+      activeSegment.force();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not expire entries of partition '%s'",
+                                                                getPartitionName())),
+                                     e);
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  private void expireEntry(Iterator<Entry<String, RecordLocation>> entries) throws IOException {
+    Entry<String, RecordLocation> entry = entries.next();
+    appendTombstone(entry.getKey(), entry.getValue());
+    entries.remove();
+  }
+
+  private void removeEntry(String key, RecordLocation location) throws IOException {
+    appendTombstone(key, location);
+    index.remove(key);
+  }
+
+  private void appendTombstone(String key, RecordLocation location) throws IOException {
+    RecordLocation tombstone = append(REMOVE, currentTimeMillis(), key, EMPTY_VALUE);
+    location.segment.markDead(location.recordSize);
+    // A tombstone is never live, but it has to be kept until the records it shadows have been compacted away
+    tombstone.segment.markDead(tombstone.recordSize);
+  }
+
+  private T load(RecordLocation location) throws ObjectStoreException {
+    try {
+      return serializer.getInternalProtocol().deserialize(location.segment.read(location.valueOffset, location.valueLength));
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not read value from segment '%s'",
+                                                                location.segment.getFile().getName())),
+                                     e);
+    }
+  }
+
+  private RecordLocation append(byte type, long timestamp, String key, byte[] value) throws IOException {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    int recordSize = HEADER_SIZE + keyBytes.length + value.length;
+
+    if (activeSegment.getSize() > 0 && activeSegment.getSize() + recordSize > segmentMaxSize) {
+      rollSegment();
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(recordSize);
+    record.put(type)
+        .putLong(timestamp)
+        .putInt(keyBytes.length)
+        .putInt(value.length)
+        .putInt(0)
+        .put(keyBytes)
+        .put(value);
+    record.putInt(CRC_OFFSET, checksum(record.array(), 0, keyBytes.length + value.length));
+    record.flip();
+
+    long offset = activeSegment.append(record);
+    return new RecordLocation(activeSegment, offset + HEADER_SIZE + keyBytes.length, value.length, recordSize, timestamp);
+  }
+
+  private void rollSegment() throws IOException {
+    activeSegment.force();
+    activeSegment = newSegment(activeSegment.getId() + 1);
+  }
+
+  private ObjectStoreLogSegment newSegment(long id) throws IOException {
+    ObjectStoreLogSegment segment = new ObjectStoreLogSegment(getPartitionDirectory(), id);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void syncIfRequired() throws IOException {
+    if (syncOnWrite) {
+      activeSegment.force();
+    }
+  }
+
+  /**
+   * Compacts the longest run of oldest segments whose aggregated ratio of non-live bytes reaches the
+   * {@link #COMPACTION_THRESHOLD_PROPERTY threshold}. Only a prefix of the segments is compacted so that no tombstone is dropped
+   * while an older record it shadows is still on disk.
+   * <p>
+   * Called on every write, so finding out that there's nothing to compact only walks the (few) inactive segments.
+   */
+  private void compactIfRequired() throws IOException {
+    long totalBytes = 0;
+    long deadBytes = 0;
+    int segmentsCount = 0;
+    int toCompact = 0;
+    for (ObjectStoreLogSegment segment : segments.headMap(activeSegment.getId()).values()) {
+      totalBytes += segment.getSize();
+      deadBytes += segment.getDeadBytes();
+      segmentsCount++;
+      if (totalBytes == 0 || deadBytes >= totalBytes * compactionThreshold) {
+        toCompact = segmentsCount;
+      }
+    }
+
+    if (toCompact == 0) {
+      return;
+    }
+
+    Set<ObjectStoreLogSegment> compacted = new HashSet<>(toCompact);
+    for (ObjectStoreLogSegment segment : segments.values()) {
+      if (compacted.size() == toCompact) {
+        break;
+      }
+      compacted.add(segment);
+    }
+
+    for (Entry<String, RecordLocation> entry : index.entrySet()) {
+      RecordLocation location = entry.getValue();
+      if (compacted.contains(location.segment)) {
+        byte[] value = location.segment.read(location.valueOffset, location.valueLength);
+        entry.setValue(append(PUT, location.timestamp, entry.getKey(), value));
+      }
+    }
+    activeSegment.force();
+
+    for (ObjectStoreLogSegment segment : compacted) {
+      segments.remove(segment.getId());
+      segment.delete();
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Compacted %d segments of object store partition '%s'", toCompact, getPartitionName()));
+    }
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      loadSegments();
+    }
+  }
+
+  private void loadSegments() throws ObjectStoreException {
+    wLock.lock();
+    try {
+      // Re-checked here to avoid contention in assureLoaded, same as in the parent class
+      if (loaded) {
+        return;
+      }
+
+      try {
+        File[] segmentFiles = getPartitionDirectory().listFiles(ObjectStoreLogSegment::isSegmentFile);
+        if (segmentFiles != null) {
+          Arrays.sort(segmentFiles, comparingLong(ObjectStoreLogSegment::idOf));
+          for (File segmentFile : segmentFiles) {
+            replay(newSegment(ObjectStoreLogSegment.idOf(segmentFile)));
+          }
+        }
+
+        sortIndexByTimestamp();
+        activeSegment = segments.isEmpty() ? newSegment(0) : segments.lastEntry().getValue();
+        migrateLegacyFiles();
+
+        loaded = true;
+      } catch (IOException e) {
+        closeSegments();
+        throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                  getPartitionDirectory().getAbsolutePath())),
+                                       e);
+      }
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  /**
+   * Loads the records of the given {@code segment} into the index, skipping the corrupted ones.
+   */
+  private void replay(ObjectStoreLogSegment segment) throws IOException {
+    ByteBuffer data = segment.readAll();
+    byte[] bytes = data.array();
+
+    while (data.hasRemaining()) {
+      int recordStart = data.position();
+      if (data.remaining() < HEADER_SIZE) {
+        truncateCorruptedTail(segment, bytes, recordStart);
+        return;
+      }
+
+      byte type = data.get();
+      long timestamp = data.getLong();
+      int keyLength = data.getInt();
+      int valueLength = data.getInt();
+      int checksum = data.getInt();
+
+      if ((type != PUT && type != REMOVE) || keyLength < 0 || valueLength < 0
+          || (long) keyLength + valueLength > data.remaining()) {
+        truncateCorruptedTail(segment, bytes, recordStart);
+        return;
+      }
+
+      int recordSize = HEADER_SIZE + keyLength + valueLength;
+      data.position(recordStart + recordSize);
+
+      if (checksum != checksum(bytes, recordStart, keyLength + valueLength)) {
+        skipCorruptedRecord(segment, bytes, recordStart, recordSize);
+        continue;
+      }
+
+      String key = new String(bytes, recordStart + HEADER_SIZE, keyLength, UTF_8);
+      RecordLocation previous;
+      if (type == PUT) {
+        previous = index.put(key, new RecordLocation(segment, recordStart + HEADER_SIZE + keyLength, valueLength, recordSize,
+                                                     timestamp));
+      } else {
+        previous = index.remove(key);
+        segment.markDead(recordSize);
+      }
+
+      if (previous != null) {
+        previous.segment.markDead(previous.recordSize);
+      }
+    }
+  }
+
+  /**
+   * The record is left in place, counted as dead so that compaction drops it.
+   */
+  private void skipCorruptedRecord(ObjectStoreLogSegment segment, byte[] bytes, int recordStart, int recordSize)
+      throws IOException {
+    LOGGER.warn(format("Object store segment '%s' has a corrupted record at position %d. It will be skipped and moved to the "
+        + "Garbage folder", segment.getFile().getAbsolutePath(), recordStart));
+    copyToCorruptedFilesFolder(segment, bytes, recordStart, recordSize);
+    segment.markDead(recordSize);
+  }
+
+  private void truncateCorruptedTail(ObjectStoreLogSegment segment, byte[] bytes, int validSize) throws IOException {
+    LOGGER.warn(format("Object store segment '%s' has an incomplete or corrupted record at position %d. "
+        + "It will be truncated, moving %d bytes to the Garbage folder", segment.getFile().getAbsolutePath(), validSize,
+                       bytes.length - validSize));
+    copyToCorruptedFilesFolder(segment, bytes, validSize, bytes.length - validSize);
+    segment.truncate(validSize);
+  }
+
+  private void copyToCorruptedFilesFolder(ObjectStoreLogSegment segment, byte[] bytes, int offset, int length)
+      throws IOException {
+    File corrupted =
+        new File(getPartitionDirectory(), format("%s.%d%s", segment.getFile().getName(), offset, CORRUPTED_FILE_EXTENSION));
+    try (FileOutputStream out = new FileOutputStream(corrupted)) {
+      out.write(bytes, offset, length);
+    }
+    moveToCorruptedFilesFolder(corrupted);
+  }
+
+  private void sortIndexByTimestamp() {
+    List<Entry<String, RecordLocation>> entries = new ArrayList<>(index.entrySet());
+    entries.sort(comparingLong(entry -> entry.getValue().timestamp));
+    index.clear();
+    for (Entry<String, RecordLocation> entry : entries) {
+      index.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Moves the entries persisted with the one-file-per-entry layout into the log, preserving their store time.
+   */
+  private void migrateLegacyFiles() throws IOException {
+    File[] legacyFiles = listValuesFiles();
+    if (legacyFiles.length == 0) {
+      return;
+    }
+
+    Arrays.sort(legacyFiles, comparingLong(File::lastModified));
+    int migrated = 0;
+    for (File legacyFile : legacyFiles) {
+      StoreValue<T> storeValue;
+      try {
+        storeValue = deserialize(legacyFile);
+      } catch (ObjectStoreException e) {
+        LOGGER.warn(format("Could not deserialize the ObjectStore file: %s. The file will be skipped and moved to the Garbage folder",
+                           legacyFile.getName()));
+        moveToCorruptedFilesFolder(legacyFile);
+        continue;
+      }
+
+      String key = storeValue.getKey().toString();
+      if (!index.containsKey(key)) {
+        byte[] serializedValue = serializer.getInternalProtocol().serialize(storeValue.getValue());
+        index.put(key, append(PUT, legacyFile.lastModified(), key, serializedValue));
+        migrated++;
+      }
+    }
+
+    // Files are only deleted once their content is safely in the log
+    activeSegment.force();
+    for (File legacyFile : legacyFiles) {
+      if (legacyFile.exists() && !legacyFile.delete()) {
+        LOGGER.warn(format("Could not delete migrated ObjectStore file: %s", legacyFile.getAbsolutePath()));
+      }
+    }
+
+    LOGGER.info(format("Migrated %d entries of object store partition '%s' to the log-structured layout", migrated,
+                       getPartitionName()));
+  }
+
+  private void closeSegments() {
+    for (ObjectStoreLogSegment segment : segments.values()) {
+      try {
+        segment.force();
+        segment.close();
+      } catch (IOException e) {
+        LOGGER.warn(format("Could not close object store segment '%s'", segment.getFile().getAbsolutePath()), e);
+      }
+    }
+    segments.clear();
+    index.clear();
+    activeSegment = null;
+    loaded = false;
+  }
+
+  private static int checksum(byte[] record, int recordStart, int payloadLength) {
+    CRC32 crc = new CRC32();
+    crc.update(record, recordStart, CRC_OFFSET);
+    crc.update(record, recordStart + HEADER_SIZE, payloadLength);
+    return (int) crc.getValue();
+  }
+
+  private static final class RecordLocation {
+
+    private final ObjectStoreLogSegment segment;
+    private final long valueOffset;
+    private final int valueLength;
+    private final int recordSize;
+    private final long timestamp;
+
+    private RecordLocation(ObjectStoreLogSegment segment, long valueOffset, int valueLength, int recordSize, long timestamp) {
+      this.segment = segment;
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.recordSize = recordSize;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -7,10 +7,12 @@
 
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.internal.util.store.ObjectStoreNearCache.NEAR_CACHE_SIZE_PROPERTY;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.artifact.Registry;
@@ -50,6 +52,8 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
   private final ConcurrentMap<String, ObjectStore<?>> stores = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, Scheduler> expirationSchedulers = new ConcurrentHashMap<>();
 
+  private final int nearCacheSize = getInteger(NEAR_CACHE_SIZE_PROPERTY, 0);
+
   private String baseTransientStoreKey = BASE_IN_MEMORY_OBJECT_STORE_KEY;
   private String basePersistentStoreKey = BASE_PERSISTENT_OBJECT_STORE_KEY;
 
@@ -177,7 +181,11 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
       throws ObjectStoreException {
 
     if (baseStore instanceof PartitionableObjectStore) {
-      ObjectStorePartition objectStorePartition = new ObjectStorePartition(partitionName, (PartitionableObjectStore) baseStore);
+      ObjectStoreNearCache nearCache = nearCacheSize > 0 && baseStore.isPersistent()
+          ? new ObjectStoreNearCache<>(nearCacheSize)
+          : null;
+      ObjectStorePartition objectStorePartition =
+          new ObjectStorePartition(partitionName, (PartitionableObjectStore) baseStore, nearCache);
       objectStorePartition.open();
       return (T) objectStorePartition;
     } else {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An append-only segment file of a {@link LogStructuredObjectStorePartition}.
+ * <p>
+ * Keeps track of its current size and of how many of its bytes belong to records that are no longer live (removed, expired or
+ * superseded), so the owning partition can decide when it is worth compacting it.
+ *
+ * @since 4.6.0
+ */
+final class ObjectStoreLogSegment {
+
+  static final String SEGMENT_FILE_PREFIX = "segment-";
+  static final String SEGMENT_FILE_EXTENSION = ".log";
+
+  private final long id;
+  private final File file;
+  private final FileChannel channel;
+  private long size;
+  private long deadBytes;
+
+  ObjectStoreLogSegment(File partitionDirectory, long id) throws IOException {
+    this.id = id;
+    this.file = new File(partitionDirectory, fileNameFor(id));
+    this.channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+    this.size = channel.size();
+  }
+
+  static String fileNameFor(long id) {
+    return format("%s%019d%s", SEGMENT_FILE_PREFIX, id, SEGMENT_FILE_EXTENSION);
+  }
+
+  static boolean isSegmentFile(File file) {
+    String name = file.getName();
+    return !file.isDirectory() && name.startsWith(SEGMENT_FILE_PREFIX) && name.endsWith(SEGMENT_FILE_EXTENSION);
+  }
+
+  static long idOf(File segmentFile) {
+    String name = segmentFile.getName();
+    return Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_EXTENSION.length()));
+  }
+
+  /**
+   * Appends the given {@code record} at the end of this segment.
+   *
+   * @return the offset at which the record was written
+   */
+  long append(ByteBuffer record) throws IOException {
+    long offset = size;
+    long position = offset;
+    while (record.hasRemaining()) {
+      position += channel.write(record, position);
+    }
+    size = position;
+    return offset;
+  }
+
+  /**
+   * Reads exactly {@code length} bytes starting at {@code offset}. Safe to be called concurrently.
+   */
+  byte[] read(long offset, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    readFully(buffer, offset);
+    return buffer.array();
+  }
+
+  /**
+   * Reads the whole content of this segment into a heap buffer, ready to be consumed.
+   */
+  ByteBuffer readAll() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+    readFully(buffer, 0);
+    buffer.flip();
+    return buffer;
+  }
+
+  private void readFully(ByteBuffer buffer, long offset) throws IOException {
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException(format("Unexpected end of segment %s at position %d", file.getName(), position));
+      }
+      position += read;
+    }
+  }
+
+  /**
+   * Discards everything after {@code newSize}. Used to drop torn or corrupted records at the tail of a segment.
+   */
+  void truncate(long newSize) throws IOException {
+    channel.truncate(newSize);
+    size = newSize;
+  }
+
+  void force() throws IOException {
+    channel.force(false);
+  }
+
+  void markDead(long bytes) {
+    deadBytes += bytes;
+  }
+
+  void close() throws IOException {
+    channel.close();
+  }
+
+  void delete() throws IOException {
+    close();
+    if (file.exists() && !file.delete()) {
+      throw new IOException("Could not delete segment file " + file.getAbsolutePath());
+    }
+  }
+
+  long getId() {
+    return id;
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  long getSize() {
+    return size;
+  }
+
+  long getDeadBytes() {
+    return deadBytes;
+  }
+}
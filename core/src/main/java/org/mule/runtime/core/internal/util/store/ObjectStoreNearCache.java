@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded, least recently used, cache of the values retrieved from a persistent {@link ObjectStorePartition}, so the most
+ * used keys are served without reading and deserializing them again.
+ * <p>
+ * Values are only added when retrieved from the store, and invalidated when the key is stored, removed or cleared through the
+ * partition. A value loaded concurrently with an invalidation is not cached, so a stale value is never added after the
+ * invalidation.
+ * <p>
+ * Cached instances are shared by all the callers retrieving the same key, so this must only be enabled for stores whose values
+ * are not modified after being retrieved.
+ *
+ * @param <T> the type of the cached values
+ * @since 4.6.0
+ */
+public class ObjectStoreNearCache<T extends Serializable> {
+
+  /**
+   * The amount of values to keep in memory for each persistent object store. The cache is disabled when not set or zero.
+   */
+  public static final String NEAR_CACHE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectstore.persistent.nearCacheSize";
+
+  private final Map<String, T> entries;
+
+  // guarded by the entries monitor
+  private long invalidations = 0;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public ObjectStoreNearCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Near cache capacity must be greater than zero");
+    }
+
+    entries = new LinkedHashMap<String, T>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * @param key the key of the value
+   * @return the cached value, or {@code null} if not cached
+   */
+  T get(String key) {
+    synchronized (entries) {
+      return entries.get(key);
+    }
+  }
+
+  /**
+   * @return a stamp to be passed to {@link #put(String, Serializable, long)} for the value about to be retrieved
+   */
+  long stamp() {
+    synchronized (entries) {
+      return invalidations;
+    }
+  }
+
+  /**
+   * Caches a value retrieved from the store, unless something was invalidated while it was being retrieved.
+   *
+   * @param key   the key of the value
+   * @param value the value retrieved from the store
+   * @param stamp the value returned by {@link #stamp()} before retrieving the value
+   */
+  void put(String key, T value, long stamp) {
+    synchronized (entries) {
+      if (stamp == invalidations) {
+        entries.put(key, value);
+      }
+    }
+  }
+
+  void invalidate(String key) {
+    synchronized (entries) {
+      invalidations++;
+      entries.remove(key);
+    }
+  }
+
+  void clear() {
+    synchronized (entries) {
+      invalidations++;
+      entries.clear();
+    }
+  }
+
+  void recordHit() {
+    hits.increment();
+  }
+
+  void recordMiss() {
+    misses.increment();
+  }
+
+  /**
+   * @return the amount of values served from the cache
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the amount of values that had to be retrieved from the store
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the amount of values currently cached
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+}
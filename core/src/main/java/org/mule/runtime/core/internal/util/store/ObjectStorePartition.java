@@ -16,6 +16,7 @@ import org.mule.runtime.api.store.PartitionableObjectStore;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 
@@ -25,14 +26,30 @@ public class ObjectStorePartition<T extends Serializable> extends TemplateObject
 
   private final String partitionName;
   private final PartitionableObjectStore<T> partitionedObjectStore;
+  private final ObjectStoreNearCache<T> nearCache;
 
   public ObjectStorePartition(String partitionName, PartitionableObjectStore<T> partitionedObjectStore) {
+    this(partitionName, partitionedObjectStore, null);
+  }
+
+  /**
+   * @param partitionName          the name of the partition
+   * @param partitionedObjectStore the store holding the partition
+   * @param nearCache              the cache of retrieved values, or {@code null} to retrieve all values from the store
+   * @since 4.6.0
+   */
+  public ObjectStorePartition(String partitionName, PartitionableObjectStore<T> partitionedObjectStore,
+                              ObjectStoreNearCache<T> nearCache) {
     this.partitionName = partitionName;
     this.partitionedObjectStore = partitionedObjectStore;
+    this.nearCache = nearCache;
   }
 
   @Override
   public void dispose() {
+    if (nearCache != null) {
+      nearCache.clear();
+    }
     disposeIfNeeded(partitionedObjectStore, LOGGER);
   }
 
@@ -43,22 +60,58 @@ public class ObjectStorePartition<T extends Serializable> extends TemplateObject
 
   @Override
   protected void doStore(String key, T value) throws ObjectStoreException {
-    partitionedObjectStore.store(key, value, partitionName);
+    try {
+      partitionedObjectStore.store(key, value, partitionName);
+    } finally {
+      if (nearCache != null) {
+        nearCache.invalidate(key);
+      }
+    }
   }
 
   @Override
   protected T doRetrieve(String key) throws ObjectStoreException {
-    return partitionedObjectStore.retrieve(key, partitionName);
+    if (nearCache == null) {
+      return partitionedObjectStore.retrieve(key, partitionName);
+    }
+
+    T cached = nearCache.get(key);
+    if (cached != null) {
+      // entries may have been expired directly on the base store, checking the key is cheap compared to reading the value
+      if (partitionedObjectStore.contains(key, partitionName)) {
+        nearCache.recordHit();
+        return cached;
+      }
+      nearCache.invalidate(key);
+    }
+
+    nearCache.recordMiss();
+    long stamp = nearCache.stamp();
+    T value = partitionedObjectStore.retrieve(key, partitionName);
+    nearCache.put(key, value, stamp);
+    return value;
   }
 
   @Override
   public void clear() throws ObjectStoreException {
-    this.partitionedObjectStore.clear(this.partitionName);
+    try {
+      this.partitionedObjectStore.clear(this.partitionName);
+    } finally {
+      if (nearCache != null) {
+        nearCache.clear();
+      }
+    }
   }
 
   @Override
   protected T doRemove(String key) throws ObjectStoreException {
-    return partitionedObjectStore.remove(key, partitionName);
+    try {
+      return partitionedObjectStore.remove(key, partitionName);
+    } finally {
+      if (nearCache != null) {
+        nearCache.invalidate(key);
+      }
+    }
   }
 
   @Override
@@ -73,7 +126,13 @@ public class ObjectStorePartition<T extends Serializable> extends TemplateObject
 
   @Override
   public void close() throws ObjectStoreException {
-    partitionedObjectStore.close(partitionName);
+    try {
+      partitionedObjectStore.close(partitionName);
+    } finally {
+      if (nearCache != null) {
+        nearCache.clear();
+      }
+    }
   }
 
   @Override
@@ -94,4 +153,12 @@ public class ObjectStorePartition<T extends Serializable> extends TemplateObject
     return partitionName;
   }
 
+  /**
+   * @return the cache of the values retrieved from this partition, if enabled
+   * @since 4.6.0
+   */
+  public Optional<ObjectStoreNearCache<T>> getNearCache() {
+    return Optional.ofNullable(nearCache);
+  }
+
 }
@@ -24,6 +24,7 @@ import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStream
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 
 import static org.mule.runtime.core.internal.event.NullEventFactory.getNullEvent;
+import static org.mule.runtime.core.internal.event.ProcessorStartTimes.NOT_STARTED;
 import static org.mule.runtime.core.privileged.event.PrivilegedEvent.setCurrentEvent;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 import static org.mule.runtime.core.privileged.processor.chain.ChainErrorHandlingUtils.getLocalOperatorErrorHook;
@@ -40,9 +41,10 @@ import static org.mule.runtime.core.internal.util.rx.RxUtils.propagateCompletion
 
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.toList;
-
 import static org.apache.commons.lang3.StringUtils.replace;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.Exceptions.propagate;
@@ -67,6 +69,8 @@ import org.mule.runtime.core.api.context.notification.ServerNotificationHandler;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
+import org.mule.runtime.core.api.management.stats.AllStatistics;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
@@ -82,10 +86,12 @@ import org.mule.runtime.core.privileged.exception.ErrorTypeLocator;
 import org.mule.runtime.core.privileged.exception.EventProcessingException;
 
 import org.mule.runtime.core.internal.context.DefaultMuleContext;
+import org.mule.runtime.core.internal.event.ProcessorStartTimes;
 import org.mule.runtime.core.internal.exception.GlobalErrorHandler;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.interception.InterceptorManager;
 import org.mule.runtime.core.internal.interception.ReactiveInterceptor;
+import org.mule.runtime.core.internal.management.stats.StripedFlowConstructStatistics;
 import org.mule.runtime.core.internal.processor.chain.InterceptedReactiveProcessor;
 import org.mule.runtime.core.internal.processor.interceptor.ProcessorInterceptorFactoryAdapter;
 import org.mule.runtime.core.internal.processor.interceptor.ReactiveInterceptorAdapter;
@@ -490,12 +496,13 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
       Assertion assertion = new SpanNameAssertion(chainInitialSpanInfo.getName());
 
       final InitialSpanInfo processorInitialSpanInfo = getProcessorInitialSpanInfo(processor);
+      final ProcessorExecutionTimes executionTimes = getProcessorExecutionTimes((Processor) processor);
 
       return stream -> from(stream)
           .doOnNext(event -> beforeComponentProcessingStrategy((Processor) processor, processorPath, processorInitialSpanInfo,
-                                                               assertion, event))
+                                                               assertion, executionTimes, event))
           .transform(next)
-          .map(result -> afterComponentProcessingStrategy((Processor) processor, processorPath, result));
+          .map(result -> afterComponentProcessingStrategy((Processor) processor, processorPath, executionTimes, result));
     });
 
     return interceptors;
@@ -525,8 +532,12 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     triggerOperationExecuted(event, getLocationIfComponent(processor));
   }
 
-  private CoreEvent afterComponentProcessingStrategy(Processor processor, String processorPath, CoreEvent result) {
+  private CoreEvent afterComponentProcessingStrategy(Processor processor, String processorPath,
+                                                     ProcessorExecutionTimes executionTimes, CoreEvent result) {
     try {
+      if (executionTimes != null) {
+        executionTimes.end(result);
+      }
       postNotification(processor).accept(result);
       setCurrentEvent((PrivilegedEvent) result);
       muleEventTracer.endCurrentSpan(result);
@@ -541,7 +552,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   }
 
   private void beforeComponentProcessingStrategy(Processor processor, String processorPath, InitialSpanInfo initialSpanInfo,
-                                                 Assertion assertion, CoreEvent event) {
+                                                 Assertion assertion, ProcessorExecutionTimes executionTimes, CoreEvent event) {
     // The span corresponding to the processor has to be created here because if the processor
     // cannot process a message (by the canProcessMessage condition below), the exception will be considered
     // part of the execution of the processor.
@@ -559,6 +570,35 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
     triggerStartingOperation(event, componentLocation);
     preNotification(event, processor);
+
+    if (executionTimes != null) {
+      executionTimes.start(event);
+    }
+  }
+
+  /**
+   * @return the {@link ProcessorExecutionTimes} for {@code processor}, or {@code null} if the statistics of its flow do not keep
+   *         the times of its processors.
+   */
+  private ProcessorExecutionTimes getProcessorExecutionTimes(Processor processor) {
+    ComponentLocation location = getLocationIfComponent(processor);
+    if (location == null || muleContext == null) {
+      return null;
+    }
+    AllStatistics statistics = muleContext.getStatistics();
+    if (statistics == null) {
+      return null;
+    }
+
+    synchronized (statistics) {
+      for (FlowConstructStatistics flowStatistics : statistics.getServiceStatistics()) {
+        if (flowStatistics instanceof StripedFlowConstructStatistics
+            && location.getRootContainerName().equals(flowStatistics.getName())) {
+          return new ProcessorExecutionTimes((StripedFlowConstructStatistics) flowStatistics, location.getLocation());
+        }
+      }
+    }
+    return null;
   }
 
   private void triggerOperationExecuted(CoreEvent event, ComponentLocation componentLocation) {
@@ -803,4 +843,34 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   public void setInitialSpanInfo(InitialSpanInfo chainInitialSpanInfo) {
     this.chainInitialSpanInfo = chainInitialSpanInfo;
   }
+
+  /**
+   * Measures the time each event takes to go through a processor, including its processing strategy, and adds it to the
+   * statistics of the flow of the processor.
+   * <p>
+   * The start time is kept by the {@link ProcessorStartTimes} of the context of the event, so nothing is allocated per event.
+   */
+  private static final class ProcessorExecutionTimes {
+
+    private final StripedFlowConstructStatistics flowStatistics;
+    private final String processorPath;
+
+    private ProcessorExecutionTimes(StripedFlowConstructStatistics flowStatistics, String processorPath) {
+      this.flowStatistics = flowStatistics;
+      this.processorPath = processorPath;
+    }
+
+    private void start(CoreEvent event) {
+      if (flowStatistics.isEnabled()) {
+        ProcessorStartTimes.start(event.getContext(), this, nanoTime());
+      }
+    }
+
+    private void end(CoreEvent result) {
+      long startTime = ProcessorStartTimes.end(result.getContext(), this);
+      if (startTime != NOT_STARTED) {
+        flowStatistics.addProcessorExecutionTime(processorPath, NANOSECONDS.toMillis(nanoTime() - startTime));
+      }
+    }
+  }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Iterator} that reads the elements of another one in chunks of a fixed size, so the cost of reading from the source (for
+ * instance, a cursor over a stream) is paid once per chunk instead of once per element.
+ * <p>
+ * Besides the chunk being consumed, the next one may be read in advance by calling {@link #prefetch()}, so that it is ready by the
+ * time the current one is exhausted. The two chunk buffers are reused for the whole iteration.
+ * <p>
+ * If the source fails while reading a chunk, the elements read before the failure are still returned, and the failure is thrown
+ * only when the next element would have been the one that failed, same as when iterating the source directly.
+ * <p>
+ * The source is never accessed concurrently, but it may be accessed from the different threads that consume or prefetch the
+ * elements.
+ *
+ * @param <T> the type of the elements
+ * @since 4.6.0
+ */
+class ChunkedIterator<T> implements Iterator<T> {
+
+  private final Iterator<T> source;
+
+  private Chunk current;
+  private Chunk next;
+  private boolean sourceExhausted;
+
+  /**
+   * @param source    the iterator to read the elements from
+   * @param chunkSize the maximum number of elements to read from {@code source} at once
+   */
+  ChunkedIterator(Iterator<T> source, int chunkSize) {
+    this.source = source;
+    this.current = new Chunk(chunkSize);
+    this.next = new Chunk(chunkSize);
+  }
+
+  @Override
+  public synchronized boolean hasNext() {
+    if (current.hasNext()) {
+      return true;
+    }
+
+    if (next.isEmpty()) {
+      read(next);
+    }
+    Chunk exhausted = current;
+    current = next;
+    next = exhausted;
+    return current.hasNext();
+  }
+
+  @Override
+  public synchronized T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  /**
+   * Reads the chunk after the one being consumed, if it was not read already.
+   */
+  synchronized void prefetch() {
+    if (next.isEmpty()) {
+      read(next);
+    }
+  }
+
+  /**
+   * Stops reading from the source and releases the elements read in advance, for when the iteration is finished before reaching
+   * the end of the source.
+   */
+  synchronized void discard() {
+    sourceExhausted = true;
+    current.clear();
+    next.clear();
+  }
+
+  private void read(Chunk chunk) {
+    if (sourceExhausted) {
+      return;
+    }
+
+    try {
+      while (chunk.hasRoom()) {
+        if (!source.hasNext()) {
+          sourceExhausted = true;
+          return;
+        }
+        chunk.add(source.next());
+      }
+    } catch (RuntimeException e) {
+      sourceExhausted = true;
+      chunk.readError = e;
+    }
+  }
+
+  private final class Chunk {
+
+    private final Object[] elements;
+    private int position;
+    private int limit;
+    private RuntimeException readError;
+
+    private Chunk(int size) {
+      this.elements = new Object[size];
+    }
+
+    private boolean hasRoom() {
+      return limit < elements.length;
+    }
+
+    private void add(T element) {
+      elements[limit++] = element;
+    }
+
+    private boolean isEmpty() {
+      return position == limit && readError == null;
+    }
+
+    private boolean hasNext() {
+      if (position < limit) {
+        return true;
+      } else if (readError != null) {
+        RuntimeException error = readError;
+        clear();
+        throw error;
+      } else {
+        return false;
+      }
+    }
+
+    private T next() {
+      T element = (T) elements[position];
+      // not to retain the element once it is consumed
+      elements[position++] = null;
+      if (position == limit && readError == null) {
+        position = 0;
+        limit = 0;
+      }
+      return element;
+    }
+
+    private void clear() {
+      for (int i = position; i < limit; ++i) {
+        elements[i] = null;
+      }
+      position = 0;
+      limit = 0;
+      readError = null;
+    }
+  }
+}
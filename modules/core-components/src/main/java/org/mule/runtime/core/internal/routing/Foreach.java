@@ -8,12 +8,14 @@ package org.mule.runtime.core.internal.routing;
 
 import static org.mule.runtime.api.config.MuleRuntimeFeature.FOREACH_ROUTER_REJECTS_MAP_EXPRESSIONS;
 import static org.mule.runtime.api.metadata.DataType.fromObject;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.internal.routing.ForeachUtils.manageTypedValueForStreaming;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 
+import static java.lang.Integer.getInteger;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.of;
 
@@ -59,12 +61,23 @@ import org.slf4j.Logger;
  * <p>
  * Defining a groupSize greater than one, allows iterating over collections of elements of the specified size.
  * <p>
+ * Defining a chunkSize greater than one makes the elements be read from the collection in chunks of that size, reading the next
+ * chunk while the elements of the current one are processed, without changing what each iteration receives.
+ * <p>
  * The {@link CoreEvent} sent to the next message processor is the same that arrived to foreach.
  */
 public class Foreach extends AbstractMessageProcessorOwner implements Initialisable, Scope {
 
   private static final Logger LOGGER = getLogger(Foreach.class);
 
+  /**
+   * System property to set the default number of elements that are read at once from the collection being iterated. Values
+   * lower than {@code 2} disable reading in chunks.
+   *
+   * @since 4.6.0
+   */
+  public static final String FOREACH_CHUNK_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "foreach.chunkSize";
+
   static final String DEFAULT_COUNTER_VARIABLE = "counter";
   public static final String DEFAULT_ROOT_MESSAGE_VARIABLE = "rootMessage";
   private String counterVariableName = DEFAULT_COUNTER_VARIABLE;
@@ -82,6 +95,7 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   private List<Processor> messageProcessors;
   private String expression = DEFAULT_SPLIT_EXPRESSION;
   private int batchSize = 1;
+  private int chunkSize = getInteger(FOREACH_CHUNK_SIZE_PROPERTY, 1);
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
   private MessageProcessorChain nestedChain;
@@ -132,6 +146,18 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     this.batchSize = batchSize;
   }
 
+  /**
+   * Sets the number of elements that are read at once from the collection being iterated, so that the cost of reading from a
+   * cursor or lazily evaluated collection is paid per chunk instead of per element, and the next chunk is read while the nested
+   * chain processes the current one. Each iteration still processes a single element (or a group of {@code batchSize} elements).
+   *
+   * @param chunkSize the number of elements to read at once, values lower than {@code 2} disable reading in chunks
+   * @since 4.6.0
+   */
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
   public String getRootMessageVariableName() {
     return rootMessageVariableName;
   }
@@ -169,6 +195,10 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
       result = new EventBuilderConfigurerIteratorWrapper((EventBuilderConfigurerIterator) payloadValue);
     } else {
       result = getSplittingStrategy().split(request);
+      if (chunkSize > 1) {
+        // elements of the Batch Module iterators above are not read ahead, since it tracks the ones being processed
+        result = new ChunkedIterator<>(result, chunkSize);
+      }
     }
     if (LOGGER.isDebugEnabled() && !result.hasNext()) {
       LOGGER.debug(
@@ -82,8 +82,10 @@ class ForeachRouter {
           inflightEvents.getAndIncrement();
           final CoreEvent responseEvent = prepareEvent(event, expression);
           if (responseEvent != null) {
+            Iterator<TypedValue<?>> iterator = getContext(responseEvent).getIterator();
             // Inject it into the inner flux
             innerRecorder.next(responseEvent);
+            prefetch(iterator);
           }
         })
         .doOnComplete(() -> {
@@ -117,9 +119,11 @@ class ForeachRouter {
               foreachContext.getOnComplete().get().run();
             }
             // Check if I have more to iterate:
-            if (foreachContext.getIterator().hasNext()) {
+            Iterator<TypedValue<?>> iterator = foreachContext.getIterator();
+            if (iterator.hasNext()) {
               // YES - Inject again inside innerFlux. The Iterator automatically keeps track of the following elements
               innerRecorder.next(evt);
+              prefetch(iterator);
             } else {
               // NO - Propagate the first inside event down to downstreamFlux
               downstreamRecorder.next(right(evt));
@@ -135,6 +139,7 @@ class ForeachRouter {
           }
         })
         .onErrorContinue(MessagingException.class, (e, o) -> {
+          discardPrefetched(((MessagingException) e).getEvent());
           CoreEvent event = this.eventWithCurrentContextDeleted(restoreSequenceInfo(((MessagingException) e).getEvent()));
           ((MessagingException) e).setProcessedEvent(event);
           downstreamRecorder.next(left(e));
@@ -181,6 +186,26 @@ class ForeachRouter {
     downstreamRecorder.complete();
   }
 
+  /**
+   * Reads the next chunk of elements while the nested chain processes the element just injected, when reading in chunks. This
+   * runs in the same thread that would otherwise read the next element once the current one is processed.
+   */
+  private void prefetch(Iterator<TypedValue<?>> iterator) {
+    if (iterator instanceof ChunkedIterator) {
+      ((ChunkedIterator<TypedValue<?>>) iterator).prefetch();
+    }
+  }
+
+  /**
+   * Stops reading ahead from the collection of a failed iteration.
+   */
+  private void discardPrefetched(CoreEvent event) {
+    ForeachContext foreachContext = getContext(event);
+    if (foreachContext != null && foreachContext.getIterator() instanceof ChunkedIterator) {
+      ((ChunkedIterator<TypedValue<?>>) foreachContext.getIterator()).discard();
+    }
+  }
+
   private CoreEvent eventWithCurrentContextDeleted(CoreEvent event) {
     removeContext(event);
     return event;
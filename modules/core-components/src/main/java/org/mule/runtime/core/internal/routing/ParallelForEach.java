@@ -24,12 +24,16 @@ import org.mule.runtime.api.config.FeatureFlaggingService;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
 import org.mule.runtime.core.api.tracing.customization.ComponentExecutionInitialSpanInfo;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingCollectListForkJoinStrategyFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import java.util.Iterator;
@@ -65,6 +69,8 @@ public class ParallelForEach extends AbstractForkJoinRouter {
   protected FeatureFlaggingService featureFlaggingService;
 
   private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
+  private boolean streamResults = false;
+  private CursorIteratorProviderFactory streamingStrategy;
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
   private List<Processor> messageProcessors;
@@ -117,9 +123,21 @@ public class ParallelForEach extends AbstractForkJoinRouter {
 
   @Override
   protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
+    if (streamResults) {
+      return new StreamingCollectListForkJoinStrategyFactory(getResultsCursorProviderFactory(), getLocation());
+    }
     return new CollectListForkJoinStrategyFactory(false);
   }
 
+  private CursorIteratorProviderFactory getResultsCursorProviderFactory() {
+    if (streamingStrategy != null) {
+      return streamingStrategy;
+    }
+
+    // the point of streaming the results is not to keep them all in memory, so they go to disk unless configured otherwise
+    return streamingManager.forObjects().getFileStoreCursorIteratorProviderFactory(FileStoreCursorIteratorConfig.getDefault());
+  }
+
   /**
    * Set the expression used to split the incoming message.
    *
@@ -129,6 +147,29 @@ public class ParallelForEach extends AbstractForkJoinRouter {
     this.collectionExpression = collectionExpression;
   }
 
+  /**
+   * Set whether the messages of the routes are streamed into a {@link CursorIteratorProvider} as they complete, instead of being
+   * collected into a list, so that only a window of {@code maxConcurrency} results is kept in memory apart from the streaming
+   * buffer.
+   *
+   * @param streamResults whether to stream the results
+   * @since 4.6.0
+   */
+  public void setStreamResults(boolean streamResults) {
+    this.streamResults = streamResults;
+  }
+
+  /**
+   * Set the streaming strategy used to buffer the results when {@link #setStreamResults(boolean) streaming them}. If not set, a
+   * file store buffer with the default configuration is used.
+   *
+   * @param streamingStrategy the factory of the providers the results are streamed into
+   * @since 4.6.0
+   */
+  public void setStreamingStrategy(CursorIteratorProviderFactory streamingStrategy) {
+    this.streamingStrategy = streamingStrategy;
+  }
+
   private Message createMessage(TypedValue<?> partTypedValue, CoreEvent event) {
     if (featureFlaggingService.isEnabled(PARALLEL_FOREACH_FLATTEN_MESSAGE) && partTypedValue.getValue() instanceof Message) {
       Message message = (Message) partTypedValue.getValue();
@@ -7,11 +7,13 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.internal.exception.ErrorHandlerContextManager.ERROR_HANDLER_CONTEXT;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContextDontComplete;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Long.MAX_VALUE;
 import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
@@ -76,6 +78,15 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
 
   public static final String TIMEOUT_EXCEPTION_DESCRIPTION = "Route Timeout";
   public static final String TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX = "Timeout while processing route/part:";
+
+  /**
+   * When set to {@code true}, the strategies created by this factory are {@link WorkStealingForkJoinStrategy}s instead of
+   * reactor pipelines.
+   *
+   * @since 4.6.0
+   */
+  public static final String WORK_STEALING_FORK_JOIN_PROPERTY = SYSTEM_PROPERTY_PREFIX + "forkJoin.workStealing";
+
   private final boolean mergeVariables;
 
   public AbstractForkJoinStrategyFactory() {
@@ -90,6 +101,11 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
                                                  boolean isDetailedLogEnabled) {
+    if (getBoolean(WORK_STEALING_FORK_JOIN_PROPERTY)) {
+      return new WorkStealingForkJoinStrategy(this, processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler,
+                                              timeoutErrorType, isDetailedLogEnabled);
+    }
+
     Duration timeoutDuration;
     if (timeout == Long.MAX_VALUE) {
       timeoutDuration = Duration.ofNanos(MAX_VALUE);
@@ -130,12 +146,12 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private boolean isOriginalError(Error newError, Optional<Error> originalError) {
+  boolean isOriginalError(Error newError, Optional<Error> originalError) {
     return originalError.map(error -> error.equals(newError)).orElse(false);
   }
 
-  private Pair<CoreEvent, EventProcessingException> removeOriginalError(Pair<CoreEvent, EventProcessingException> coreEventExceptionPair,
-                                                                        Optional<Error> originalError) {
+  Pair<CoreEvent, EventProcessingException> removeOriginalError(Pair<CoreEvent, EventProcessingException> coreEventExceptionPair,
+                                                                Optional<Error> originalError) {
     CoreEvent coreEvent = coreEventExceptionPair.getFirst();
     EventProcessingException eventProcessingException = coreEventExceptionPair.getSecond();
     return coreEvent.getError()
@@ -168,25 +184,25 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
                                                                                                        reactor.core.scheduler.Scheduler timeoutScheduler,
                                                                                                        ErrorType timeoutErrorType) {
 
-    return pair -> {
-      ReactiveProcessor route = publisher -> from(publisher)
-          .transform(pair.getRoute());
-      return from(processWithChildContextDontComplete(pair.getEvent(),
-                                                      applyProcessingStrategy(processingStrategy, route, maxConcurrency),
-                                                      empty()))
-                                                          .timeout(timeout,
-                                                                   onTimeout(processingStrategy, delayErrors, timeoutErrorType,
-                                                                             pair),
-                                                                   timeoutScheduler)
-                                                          .map(coreEvent -> new Pair<CoreEvent, EventProcessingException>(
-                                                                                                                          ((DefaultEventBuilder) CoreEvent
-                                                                                                                              .builder(coreEvent))
-                                                                                                                                  .removeInternalParameter(ERROR_HANDLER_CONTEXT)
-                                                                                                                                  .build(),
-                                                                                                                          null))
-                                                          .onErrorResume(MessagingException.class,
-                                                                         me -> getPublisher(delayErrors, me));
-    };
+    return pair -> routeResult(from(processRoute(processingStrategy, pair, maxConcurrency))
+        .timeout(timeout, onTimeout(processingStrategy, delayErrors, timeoutErrorType, pair), timeoutScheduler),
+                               delayErrors);
+  }
+
+  Publisher<CoreEvent> processRoute(ProcessingStrategy processingStrategy, RoutingPair pair, int maxConcurrency) {
+    ReactiveProcessor route = publisher -> from(publisher)
+        .transform(pair.getRoute());
+    return processWithChildContextDontComplete(pair.getEvent(),
+                                               applyProcessingStrategy(processingStrategy, route, maxConcurrency),
+                                               empty());
+  }
+
+  Publisher<Pair<CoreEvent, EventProcessingException>> routeResult(Publisher<CoreEvent> routeEvents, boolean delayErrors) {
+    return from(routeEvents)
+        .map(coreEvent -> new Pair<CoreEvent, EventProcessingException>(((DefaultEventBuilder) CoreEvent.builder(coreEvent))
+            .removeInternalParameter(ERROR_HANDLER_CONTEXT)
+            .build(), null))
+        .onErrorResume(MessagingException.class, me -> getPublisher(delayErrors, me));
   }
 
   private Publisher<Pair<CoreEvent, EventProcessingException>> getPublisher(boolean delayErrors, EventProcessingException me) {
@@ -195,8 +211,8 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   }
 
 
-  private Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
-                                    RoutingPair pair) {
+  Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
+                            RoutingPair pair) {
     return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
         : error(new TimeoutException(buildDetailedDescription(pair))))
             .transform(processingStrategy.onPipeline(p -> p));
@@ -228,8 +244,8 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         + pair.getEvent().getGroupCorrelation().get().getSequence() + "'";
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<Pair<CoreEvent, EventProcessingException>> results,
-                                                                    boolean isDetailedLogEnabled) {
+  CompositeRoutingException createCompositeRoutingException(List<Pair<CoreEvent, EventProcessingException>> results,
+                                                            boolean isDetailedLogEnabled) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Pair<Error, EventProcessingException>> errorMap = new LinkedHashMap<>();
 
@@ -253,7 +269,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
 
   }
 
-  private Consumer<List<CoreEvent>> mergeVariables(CoreEvent original, CoreEvent.Builder result) {
+  Consumer<List<CoreEvent>> mergeVariables(CoreEvent original, CoreEvent.Builder result) {
     return list -> {
       if (!mergeVariables) {
         return;
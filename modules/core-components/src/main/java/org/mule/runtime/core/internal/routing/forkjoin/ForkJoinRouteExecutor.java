@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.message.GroupCorrelation;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.exception.EventProcessingException;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Processes the routes of the fork-join strategies that handle each route on its own instead of building a reactor pipeline for
+ * all of them, with the same route semantics as {@link AbstractForkJoinStrategyFactory}.
+ * <p>
+ * Timeouts of all the routes share a {@link HashedWheelTimer}, instead of scheduling a task in the timeout scheduler for each
+ * route.
+ *
+ * @since 4.6.0
+ */
+final class ForkJoinRouteExecutor {
+
+  private static final long MAX_TICK_MILLIS = 10;
+
+  private final AbstractForkJoinStrategyFactory factory;
+  private final ProcessingStrategy processingStrategy;
+  private final int maxConcurrency;
+  private final boolean delayErrors;
+  private final long timeoutNanos;
+  private final HashedWheelTimer timer;
+  private final ErrorType timeoutErrorType;
+
+  ForkJoinRouteExecutor(AbstractForkJoinStrategyFactory factory, ProcessingStrategy processingStrategy, int maxConcurrency,
+                        boolean delayErrors, long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    this.factory = factory;
+    this.processingStrategy = processingStrategy;
+    this.maxConcurrency = maxConcurrency;
+    this.delayErrors = delayErrors;
+    this.timeoutErrorType = timeoutErrorType;
+
+    if (timeout == Long.MAX_VALUE) {
+      this.timeoutNanos = -1;
+      this.timer = null;
+    } else {
+      this.timeoutNanos = MILLISECONDS.toNanos(timeout);
+      // a tenth of the timeout keeps the imprecision of the timer low relative to the timeout
+      this.timer = new HashedWheelTimer(timeoutScheduler, MILLISECONDS.toNanos(max(1, min(MAX_TICK_MILLIS, timeout / 10))));
+    }
+  }
+
+  /**
+   * Processes the route of {@code pair} with a copy of its event correlated with the {@code sequence} of the route. The outcome
+   * is notified to {@code callback} exactly once, unless the returned {@link Disposable} is disposed before the route is done.
+   *
+   * @param sequence the position of the route among the routes of the router
+   * @param pair     the route and event to process
+   * @param callback the callback to notify the outcome of the route to
+   * @return a {@link Disposable} to stop processing the route
+   */
+  Disposable execute(int sequence, RoutingPair pair, RouteCallback callback) {
+    CoreEvent event = builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(sequence))).build();
+    RouteExecution execution = new RouteExecution(sequence, of(event, pair.getRoute()), callback);
+    execution.start();
+    return execution;
+  }
+
+  /**
+   * Receives the outcome of a route processed by a {@link ForkJoinRouteExecutor}.
+   */
+  interface RouteCallback {
+
+    /**
+     * @param sequence the position of the route among the routes of the router
+     * @param result   the resulting event, with an error if the route failed and errors are delayed
+     */
+    void onRouteResult(int sequence, Pair<CoreEvent, EventProcessingException> result);
+
+    /**
+     * @param error the error the route failed with, when errors are not delayed
+     */
+    void onRouteError(Throwable error);
+  }
+
+  private final class RouteExecution implements Runnable, Disposable {
+
+    private final int sequence;
+    private final RoutingPair pair;
+    private final RouteCallback callback;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile Disposable routeSubscription;
+    private volatile HashedWheelTimer.Timeout timeout;
+    private volatile boolean disposed;
+
+    private RouteExecution(int sequence, RoutingPair pair, RouteCallback callback) {
+      this.sequence = sequence;
+      this.pair = pair;
+      this.callback = callback;
+    }
+
+    private void start() {
+      if (timer != null) {
+        timeout = timer.newTimeout(this, timeoutNanos);
+      }
+      routeSubscription = Mono.from(factory.routeResult(factory.processRoute(processingStrategy, pair, maxConcurrency),
+                                                        delayErrors))
+          .subscribe(this::onResult, this::onError);
+      // disposed while subscribing
+      if (disposed) {
+        routeSubscription.dispose();
+      }
+    }
+
+    private void onResult(Pair<CoreEvent, EventProcessingException> result) {
+      if (finished.compareAndSet(false, true)) {
+        cancelTimeout();
+        callback.onRouteResult(sequence, result);
+      }
+    }
+
+    private void onError(Throwable throwable) {
+      if (finished.compareAndSet(false, true)) {
+        cancelTimeout();
+        callback.onRouteError(throwable);
+      }
+    }
+
+    private void cancelTimeout() {
+      HashedWheelTimer.Timeout timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+
+    /**
+     * Stops processing the route without notifying the callback, for when the outcome of the router is already known.
+     */
+    @Override
+    public void dispose() {
+      disposed = true;
+      if (!finished.compareAndSet(false, true)) {
+        return;
+      }
+
+      cancelTimeout();
+      Disposable route = routeSubscription;
+      if (route != null) {
+        route.dispose();
+      }
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return disposed;
+    }
+
+    /**
+     * Invoked by the timer when the route times out.
+     */
+    @Override
+    public void run() {
+      if (!finished.compareAndSet(false, true)) {
+        return;
+      }
+
+      Disposable route = routeSubscription;
+      if (route != null) {
+        route.dispose();
+      }
+      Mono.from(factory.routeResult(factory.onTimeout(processingStrategy, delayErrors, timeoutErrorType, pair), delayErrors))
+          .subscribe(result -> callback.onRouteResult(sequence, result), callback::onRouteError);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs tasks after a timeout with a precision of one tick, sharing a single periodic task of a {@link Scheduler} for all of them
+ * instead of scheduling one task per timeout.
+ * <p>
+ * Timeouts are hashed by their deadline into the buckets of a wheel, and each tick only checks the bucket of the elapsed tick.
+ * Adding and cancelling a timeout is constant time. The periodic task only runs while there are active timeouts.
+ *
+ * @since 4.6.0
+ */
+final class HashedWheelTimer {
+
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  private final Scheduler scheduler;
+  private final long tickNanos;
+  private final long startTime = nanoTime();
+
+  private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger active = new AtomicInteger();
+
+  // only accessed by the ticking task
+  private final Queue<Timeout>[] wheel = new Queue[WHEEL_SIZE];
+  private long lastTick = -1;
+
+  // guarded by this
+  private ScheduledFuture<?> ticker;
+
+  /**
+   * @param scheduler the scheduler where the expired timeouts are checked and run
+   * @param tickNanos the precision of the timeouts
+   */
+  HashedWheelTimer(Scheduler scheduler, long tickNanos) {
+    this.scheduler = scheduler;
+    this.tickNanos = tickNanos;
+    for (int i = 0; i < WHEEL_SIZE; ++i) {
+      wheel[i] = new ArrayDeque<>();
+    }
+  }
+
+  /**
+   * Runs {@code task} in the thread of the timer after {@code delayNanos}, unless it is {@link Timeout#cancel() cancelled}
+   * before. The task must not block, since that would delay the other timeouts.
+   *
+   * @param task       the task to run on timeout
+   * @param delayNanos the time to wait before running the task
+   * @return the handle to cancel the timeout
+   */
+  Timeout newTimeout(Runnable task, long delayNanos) {
+    // rounded up, so timeouts never expire before their delay elapses
+    long deadlineTick = (nanoTime() + delayNanos - startTime + tickNanos - 1) / tickNanos;
+    Timeout timeout = new Timeout(task, deadlineTick);
+    added.add(timeout);
+    if (active.getAndIncrement() == 0) {
+      startTicking();
+    }
+    return timeout;
+  }
+
+  private synchronized void startTicking() {
+    if (ticker == null) {
+      ticker = scheduler.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, NANOSECONDS);
+    }
+  }
+
+  private synchronized void stopTickingIfIdle() {
+    if (active.get() == 0 && ticker != null) {
+      ticker.cancel(false);
+      ticker = null;
+    }
+  }
+
+  private void tick() {
+    long currentTick = (nanoTime() - startTime) / tickNanos;
+
+    Timeout timeout;
+    while ((timeout = added.poll()) != null) {
+      if (!timeout.isCancelled()) {
+        wheel[(int) (Math.max(timeout.deadlineTick, currentTick) & WHEEL_MASK)].add(timeout);
+      }
+    }
+
+    // when the timer was idle or delayed, buckets of several ticks have to be checked, but each one only once
+    long firstTick = lastTick < 0 ? currentTick : Math.max(lastTick + 1, currentTick - WHEEL_MASK);
+    for (long tick = firstTick; tick <= currentTick; ++tick) {
+      expire(wheel[(int) (tick & WHEEL_MASK)], currentTick);
+    }
+    lastTick = currentTick;
+
+    if (active.get() == 0) {
+      stopTickingIfIdle();
+    }
+  }
+
+  private void expire(Queue<Timeout> bucket, long currentTick) {
+    Iterator<Timeout> iterator = bucket.iterator();
+    while (iterator.hasNext()) {
+      Timeout timeout = iterator.next();
+      if (timeout.isCancelled()) {
+        iterator.remove();
+      } else if (timeout.deadlineTick <= currentTick) {
+        iterator.remove();
+        timeout.expire();
+      }
+    }
+  }
+
+  /**
+   * Handle to a task scheduled with {@link HashedWheelTimer#newTimeout(Runnable, long)}.
+   */
+  final class Timeout {
+
+    private final long deadlineTick;
+    private final AtomicReference<Runnable> task;
+
+    private Timeout(Runnable task, long deadlineTick) {
+      this.task = new AtomicReference<>(task);
+      this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Prevents the task from running, if it has not run yet.
+     */
+    void cancel() {
+      if (task.getAndSet(null) != null) {
+        active.decrementAndGet();
+      }
+    }
+
+    private boolean isCancelled() {
+      return task.get() == null;
+    }
+
+    private void expire() {
+      Runnable expired = task.getAndSet(null);
+      if (expired != null) {
+        active.decrementAndGet();
+        expired.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.api.metadata.DataType.CURSOR_ITERATOR_PROVIDER;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+
+/**
+ * {@link ForkJoinStrategy} that:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency}.
+ * <li>Does not merge variables.
+ * <li>Streams the {@link org.mule.runtime.api.message.Message}s of the routes, in the order of the routes, into a
+ * {@link org.mule.runtime.api.streaming.object.CursorIteratorProvider} as they complete, with an optional timeout.
+ * <li>Emits a result {@link org.mule.runtime.core.api.event.CoreEvent} with that provider in the payload once all routes
+ * complete.
+ * <li>Will process all routes, regardless of errors, and propagating a composite exception where there were one or more errors.
+ * </ul>
+ *
+ * @since 4.6.0
+ */
+public class StreamingCollectListForkJoinStrategyFactory extends CollectListForkJoinStrategyFactory {
+
+  private final CursorIteratorProviderFactory cursorProviderFactory;
+  private final ComponentLocation location;
+
+  /**
+   * @param cursorProviderFactory the factory of the providers the results are streamed into
+   * @param location              the location of the router, where the cursors of the results are created
+   */
+  public StreamingCollectListForkJoinStrategyFactory(CursorIteratorProviderFactory cursorProviderFactory,
+                                                     ComponentLocation location) {
+    super(false);
+    this.cursorProviderFactory = cursorProviderFactory;
+    this.location = location;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
+                                                 boolean isDetailedLogEnabled) {
+    return new StreamingForkJoinStrategy(this, processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler,
+                                         timeoutErrorType, isDetailedLogEnabled, cursorProviderFactory, location);
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return CURSOR_ITERATOR_PROVIDER;
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.message.GroupCorrelation;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.forkjoin.ForkJoinRouteExecutor.RouteCallback;
+import org.mule.runtime.core.privileged.exception.EventProcessingException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * {@link ForkJoinStrategy} that, instead of collecting the messages of the routes in a list, streams them in the order of the
+ * routes into a {@link CursorIteratorProvider} created with the configured streaming strategy, which is the payload of the
+ * result event.
+ * <p>
+ * A route only starts when the routes before it are within a window of {@code maxConcurrency} routes, so at most that many route
+ * results are held while waiting for the previous ones to complete. The rest of the results are held only by the streaming
+ * buffer.
+ * <p>
+ * Variables set in the routes are not merged, and when any route fails the
+ * {@link org.mule.runtime.core.privileged.routing.CompositeRoutingException} is built reading back the messages of the successful
+ * routes from the buffer.
+ *
+ * @since 4.6.0
+ */
+final class StreamingForkJoinStrategy implements ForkJoinStrategy {
+
+  static final int DEFAULT_WINDOW = 256;
+
+  private final AbstractForkJoinStrategyFactory factory;
+  private final ForkJoinRouteExecutor routeExecutor;
+  private final int window;
+  private final boolean isDetailedLogEnabled;
+  private final CursorIteratorProviderFactory cursorProviderFactory;
+  private final ComponentLocation location;
+
+  StreamingForkJoinStrategy(AbstractForkJoinStrategyFactory factory, ProcessingStrategy processingStrategy, int maxConcurrency,
+                            boolean delayErrors, long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
+                            boolean isDetailedLogEnabled, CursorIteratorProviderFactory cursorProviderFactory,
+                            ComponentLocation location) {
+    this.factory = factory;
+    this.routeExecutor = new ForkJoinRouteExecutor(factory, processingStrategy, maxConcurrency, delayErrors, timeout,
+                                                   timeoutScheduler, timeoutErrorType);
+    this.window = maxConcurrency == Integer.MAX_VALUE ? DEFAULT_WINDOW : maxConcurrency;
+    this.isDetailedLogEnabled = isDetailedLogEnabled;
+    this.cursorProviderFactory = cursorProviderFactory;
+    this.location = location;
+  }
+
+  @Override
+  public Publisher<CoreEvent> forkJoin(CoreEvent original, Publisher<RoutingPair> routingPairs) {
+    return Mono.create(sink -> routingPairs.subscribe(new StreamingSubscriber(original, sink)));
+  }
+
+  private final class StreamingSubscriber implements Subscriber<RoutingPair>, RouteCallback {
+
+    private final CoreEvent original;
+    private final MonoSink<CoreEvent> sink;
+
+    // guarded by this, items are only requested by the buffer while a result is being fed
+    private final Queue<Message> toFeed = new ArrayDeque<>();
+    private final Iterator<Message> resultsIterator = new Iterator<Message>() {
+
+      @Override
+      public boolean hasNext() {
+        synchronized (StreamingSubscriber.this) {
+          return !toFeed.isEmpty();
+        }
+      }
+
+      @Override
+      public Message next() {
+        synchronized (StreamingSubscriber.this) {
+          if (toFeed.isEmpty()) {
+            throw new NoSuchElementException();
+          }
+          return toFeed.poll();
+        }
+      }
+    };
+
+    private final Object payload;
+    private final CursorIterator<Message> feeder;
+
+    // guarded by this
+    private final Map<Integer, Pair<CoreEvent, EventProcessingException>> completed = new HashMap<>();
+    private final Map<Integer, Pair<CoreEvent, EventProcessingException>> failures = new HashMap<>();
+    private int fed;
+
+    // the routes being processed, plus one until all the routing pairs are received
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    // only accessed from onNext, serialized by the routing pairs publisher
+    private int sequence;
+
+    private Subscription subscription;
+
+    private StreamingSubscriber(CoreEvent original, MonoSink<CoreEvent> sink) {
+      this.original = original;
+      this.sink = sink;
+      this.payload = cursorProviderFactory.of(original.getContext(), resultsIterator, location);
+      // when the streaming strategy does not buffer, the messages are kept in the queue until the payload is consumed
+      this.feeder = payload instanceof CursorIteratorProvider ? ((CursorIteratorProvider) payload).openCursor() : null;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      sink.onCancel(() -> {
+        if (done.compareAndSet(false, true)) {
+          subscription.cancel();
+          closeFeeder();
+        }
+      });
+      subscription.request(window);
+    }
+
+    @Override
+    public void onNext(RoutingPair pair) {
+      if (done.get()) {
+        return;
+      }
+
+      pending.incrementAndGet();
+      routeExecutor.execute(sequence++, pair, this);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      onRouteError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      if (pending.decrementAndGet() == 0) {
+        complete();
+      }
+    }
+
+    @Override
+    public void onRouteResult(int sequence, Pair<CoreEvent, EventProcessingException> result) {
+      int advanced = 0;
+      try {
+        synchronized (this) {
+          if (done.get()) {
+            return;
+          }
+
+          completed.put(sequence, result);
+          Pair<CoreEvent, EventProcessingException> next;
+          while ((next = completed.remove(fed)) != null) {
+            feed(next);
+            ++advanced;
+          }
+        }
+      } catch (RuntimeException e) {
+        onRouteError(e);
+        return;
+      }
+
+      if (pending.decrementAndGet() == 0) {
+        complete();
+      } else if (advanced > 0 && !done.get()) {
+        subscription.request(advanced);
+      }
+    }
+
+    private void feed(Pair<CoreEvent, EventProcessingException> result) {
+      Optional<Error> error = result.getFirst().getError();
+      if (error.isPresent() && !factory.isOriginalError(error.get(), original.getError())) {
+        failures.put(fed, result);
+      } else {
+        toFeed.add(result.getFirst().getMessage());
+        if (feeder != null) {
+          // makes the buffer take the message from the results iterator
+          feeder.next();
+        }
+      }
+      ++fed;
+    }
+
+    @Override
+    public void onRouteError(Throwable error) {
+      if (done.compareAndSet(false, true)) {
+        subscription.cancel();
+        closeFeeder();
+        sink.error(error);
+      }
+    }
+
+    private void complete() {
+      if (!done.compareAndSet(false, true)) {
+        return;
+      }
+
+      closeFeeder();
+      try {
+        synchronized (this) {
+          if (!failures.isEmpty()) {
+            sink.error(factory.createCompositeRoutingException(readResults(), isDetailedLogEnabled));
+            return;
+          }
+        }
+
+        sink.success(builder(original).message(Message.of(payload)).build());
+      } catch (Throwable t) {
+        sink.error(t);
+      }
+    }
+
+    private List<Pair<CoreEvent, EventProcessingException>> readResults() {
+      Iterator<Message> messages = payload instanceof CursorIteratorProvider
+          ? ((CursorIteratorProvider) payload).openCursor()
+          : resultsIterator;
+      try {
+        List<Pair<CoreEvent, EventProcessingException>> results = new ArrayList<>(fed);
+        for (int i = 0; i < fed; ++i) {
+          Pair<CoreEvent, EventProcessingException> failure = failures.get(i);
+          if (failure != null) {
+            results.add(factory.removeOriginalError(failure, original.getError()));
+          } else {
+            results.add(new Pair<>(builder(original)
+                .message(messages.next())
+                .groupCorrelation(Optional.of(GroupCorrelation.of(i)))
+                .build(), null));
+          }
+        }
+        return results;
+      } finally {
+        if (messages instanceof CursorIterator) {
+          closeQuietly((CursorIterator) messages);
+        }
+      }
+    }
+
+    private void closeFeeder() {
+      if (feeder != null) {
+        closeQuietly(feeder);
+      }
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+
+import static java.util.stream.Collectors.toList;
+
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.forkjoin.ForkJoinRouteExecutor.RouteCallback;
+import org.mule.runtime.core.privileged.exception.EventProcessingException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * {@link ForkJoinStrategy} with the same behavior as the one created by {@link AbstractForkJoinStrategyFactory}, that avoids
+ * building a reactor pipeline to merge the results of the routes.
+ * <p>
+ * Routing pairs are requested up to {@code maxConcurrency}, and each time a route completes the thread that completed it takes
+ * the next pending routing pair, instead of handing it over to another thread. The results are stored in the position of their
+ * route as they complete, so they are aggregated in a single pass once all the routes are done.
+ * <p>
+ * Routes are processed by a {@link ForkJoinRouteExecutor}, so their timeouts share a single timer.
+ *
+ * @since 4.6.0
+ */
+final class WorkStealingForkJoinStrategy implements ForkJoinStrategy {
+
+  private final AbstractForkJoinStrategyFactory factory;
+  private final ForkJoinRouteExecutor routeExecutor;
+  private final int maxConcurrency;
+  private final boolean isDetailedLogEnabled;
+
+  WorkStealingForkJoinStrategy(AbstractForkJoinStrategyFactory factory, ProcessingStrategy processingStrategy,
+                               int maxConcurrency, boolean delayErrors, long timeout, Scheduler timeoutScheduler,
+                               ErrorType timeoutErrorType, boolean isDetailedLogEnabled) {
+    this.factory = factory;
+    this.routeExecutor = new ForkJoinRouteExecutor(factory, processingStrategy, maxConcurrency, delayErrors, timeout,
+                                                   timeoutScheduler, timeoutErrorType);
+    this.maxConcurrency = maxConcurrency;
+    this.isDetailedLogEnabled = isDetailedLogEnabled;
+  }
+
+  @Override
+  public Publisher<CoreEvent> forkJoin(CoreEvent original, Publisher<RoutingPair> routingPairs) {
+    return Mono.create(sink -> routingPairs.subscribe(new ForkJoinSubscriber(original, sink)));
+  }
+
+  private final class ForkJoinSubscriber implements Subscriber<RoutingPair>, RouteCallback {
+
+    private final CoreEvent original;
+    private final CoreEvent.Builder resultBuilder;
+    private final MonoSink<CoreEvent> sink;
+
+    // guarded by itself
+    private final List<Pair<CoreEvent, EventProcessingException>> results = new ArrayList<>();
+    // the routes in the same positions as their results, guarded by results
+    private final List<Disposable> routes = new ArrayList<>();
+    // the routes being processed, plus one until all the routing pairs are received
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicBoolean done = new AtomicBoolean();
+    private volatile boolean hasNewError;
+
+    // only accessed from onNext, serialized by the routing pairs publisher
+    private int sequence;
+
+    private Subscription subscription;
+
+    private ForkJoinSubscriber(CoreEvent original, MonoSink<CoreEvent> sink) {
+      this.original = original;
+      this.resultBuilder = builder(original);
+      this.sink = sink;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      sink.onCancel(() -> {
+        done.set(true);
+        subscription.cancel();
+        disposeRoutes();
+      });
+      subscription.request(maxConcurrency);
+    }
+
+    @Override
+    public void onNext(RoutingPair pair) {
+      if (done.get()) {
+        return;
+      }
+
+      synchronized (results) {
+        results.add(null);
+      }
+      pending.incrementAndGet();
+      Disposable route = routeExecutor.execute(sequence++, pair, this);
+      synchronized (results) {
+        routes.add(route);
+      }
+      // failed or cancelled before the route was registered to be disposed
+      if (done.get()) {
+        route.dispose();
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      onRouteError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      if (pending.decrementAndGet() == 0) {
+        complete();
+      }
+    }
+
+    @Override
+    public void onRouteResult(int sequence, Pair<CoreEvent, EventProcessingException> result) {
+      synchronized (results) {
+        results.set(sequence, result);
+      }
+      if (result.getFirst().getError().map(err -> !factory.isOriginalError(err, original.getError())).orElse(false)) {
+        hasNewError = true;
+      }
+
+      if (pending.decrementAndGet() == 0) {
+        complete();
+      } else if (!done.get()) {
+        subscription.request(1);
+      }
+    }
+
+    @Override
+    public void onRouteError(Throwable error) {
+      if (done.compareAndSet(false, true)) {
+        subscription.cancel();
+        disposeRoutes();
+        sink.error(error);
+      }
+    }
+
+    private void disposeRoutes() {
+      List<Disposable> inFlight;
+      synchronized (results) {
+        inFlight = new ArrayList<>(routes);
+      }
+      // the routes already done are not affected
+      inFlight.forEach(Disposable::dispose);
+    }
+
+    private void complete() {
+      if (!done.compareAndSet(false, true)) {
+        return;
+      }
+
+      try {
+        List<Pair<CoreEvent, EventProcessingException>> routeResults;
+        synchronized (results) {
+          routeResults = results;
+        }
+
+        if (hasNewError) {
+          sink.error(factory.createCompositeRoutingException(routeResults.stream()
+              .map(result -> factory.removeOriginalError(result, original.getError()))
+              .collect(toList()), isDetailedLogEnabled));
+          return;
+        }
+
+        List<CoreEvent> events = routeResults.stream().map(Pair::getFirst).collect(toList());
+        factory.mergeVariables(original, resultBuilder).accept(events);
+        sink.success(factory.createResultEvent(original, resultBuilder).apply(events));
+      } catch (Throwable t) {
+        sink.error(t);
+      }
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.test.allure.AllureConstants.ScopeFeature.ForeachStory.FOR_EACH;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.SCOPE;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(SCOPE)
+@Story(FOR_EACH)
+public class ChunkedIteratorTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void readsAllElementsInOrder() {
+    List<Integer> read = new ArrayList<>();
+    new ChunkedIterator<>(asList(1, 2, 3, 4, 5).iterator(), 2).forEachRemaining(read::add);
+
+    assertThat(read, contains(1, 2, 3, 4, 5));
+  }
+
+  @Test
+  public void readsSourceInChunks() {
+    CountingIterator source = new CountingIterator(5, Integer.MAX_VALUE);
+    ChunkedIterator<Integer> iterator = new ChunkedIterator<>(source, 2);
+
+    assertThat(iterator.next(), is(0));
+    assertThat(source.read, is(2));
+    assertThat(iterator.next(), is(1));
+    assertThat(source.read, is(2));
+    assertThat(iterator.next(), is(2));
+    assertThat(source.read, is(4));
+  }
+
+  @Test
+  public void sourceFailureDeferredUntilReached() {
+    CountingIterator source = new CountingIterator(5, 3);
+    ChunkedIterator<Integer> iterator = new ChunkedIterator<>(source, 4);
+
+    assertThat(iterator.next(), is(0));
+    assertThat(iterator.next(), is(1));
+    assertThat(iterator.next(), is(2));
+
+    expectedException.expect(IllegalStateException.class);
+    iterator.hasNext();
+  }
+
+  @Test
+  public void prefetchReadsNextChunk() {
+    CountingIterator source = new CountingIterator(5, Integer.MAX_VALUE);
+    ChunkedIterator<Integer> iterator = new ChunkedIterator<>(source, 2);
+
+    assertThat(iterator.next(), is(0));
+    iterator.prefetch();
+    assertThat(source.read, is(4));
+    iterator.prefetch();
+    assertThat(source.read, is(4));
+
+    List<Integer> read = new ArrayList<>();
+    iterator.forEachRemaining(read::add);
+    assertThat(read, contains(1, 2, 3, 4));
+  }
+
+  @Test
+  public void prefetchFailureDeferredUntilReached() {
+    CountingIterator source = new CountingIterator(5, 3);
+    ChunkedIterator<Integer> iterator = new ChunkedIterator<>(source, 2);
+
+    assertThat(iterator.next(), is(0));
+    iterator.prefetch();
+    assertThat(iterator.next(), is(1));
+    assertThat(iterator.next(), is(2));
+
+    expectedException.expect(IllegalStateException.class);
+    iterator.hasNext();
+  }
+
+  @Test
+  public void discardStopsReading() {
+    CountingIterator source = new CountingIterator(5, Integer.MAX_VALUE);
+    ChunkedIterator<Integer> iterator = new ChunkedIterator<>(source, 2);
+
+    assertThat(iterator.next(), is(0));
+    iterator.discard();
+    iterator.prefetch();
+
+    assertThat(iterator.hasNext(), is(false));
+    assertThat(source.read, is(2));
+  }
+
+  @Test
+  public void exhausted() {
+    ChunkedIterator<Integer> iterator = new ChunkedIterator<>(asList(1).iterator(), 4);
+    iterator.next();
+
+    assertThat(iterator.hasNext(), is(false));
+    expectedException.expect(NoSuchElementException.class);
+    iterator.next();
+  }
+
+  private static class CountingIterator implements Iterator<Integer> {
+
+    private final int size;
+    private final int failAt;
+    private int read;
+
+    private CountingIterator(int size, int failAt) {
+      this.size = size;
+      this.failAt = failAt;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return read < size;
+    }
+
+    @Override
+    public Integer next() {
+      if (read == failAt) {
+        throw new IllegalStateException("Expected");
+      }
+      return read++;
+    }
+  }
+}
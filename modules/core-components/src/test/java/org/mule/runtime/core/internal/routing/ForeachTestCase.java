@@ -370,6 +370,28 @@ public class ForeachTestCase extends AbstractForeachTestCase {
     assertForEachContextConsumption((InternalEvent) processedEvents.get(1));
   }
 
+  @Test
+  public void chunkSize() throws Exception {
+    foreach = createForeach();
+    List<Processor> processors = getSimpleMessageProcessors(new TestMessageProcessor("zas"));
+    foreach.setMessageProcessors(processors);
+    foreach.setChunkSize(2);
+    initialiseIfNeeded(foreach, muleContext);
+
+    CoreEvent in = eventBuilder(muleContext).message(of(asList("a", "b", "c", "d", "e").iterator())).build();
+    CoreEvent result = foreach.process(in);
+
+    assertThat(processedEvents, hasSize(5));
+    assertThat(processedEvents.stream().map(event -> event.getMessage().getPayload().getValue()).collect(toList()),
+               equalTo(asList("a:foo:zas", "b:foo:zas", "c:foo:zas", "d:foo:zas", "e:foo:zas")));
+    for (int i = 0; i < processedEvents.size(); ++i) {
+      assertThat(processedEvents.get(i).getVariables().get(DEFAULT_COUNTER_VARIABLE).getValue(), equalTo(i + 1));
+      assertThat(processedEvents.get(i).getVariables().get(DEFAULT_ROOT_MESSAGE_VARIABLE).getValue(), equalTo(in.getMessage()));
+      assertForEachContextConsumption((InternalEvent) processedEvents.get(i));
+    }
+    assertThat(result.getMessage(), equalTo(in.getMessage()));
+  }
+
   @Test
   public void variables() throws Exception {
     List<String> arrayList = new ArrayList<>();
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.COLLECT_LIST;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.streaming.DefaultStreamingManager;
+import org.mule.runtime.core.internal.streaming.object.factory.FileStoreCursorIteratorProviderFactory;
+import org.mule.runtime.core.internal.streaming.object.factory.InMemoryCursorIteratorProviderFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Story;
+
+@Story(COLLECT_LIST)
+public class StreamingCollectListForkJoinStrategyTestCase extends AbstractForkJoinStrategyTestCase {
+
+  private DefaultStreamingManager streamingManager;
+
+  @Override
+  protected void doSetUp() throws Exception {
+    streamingManager = new DefaultStreamingManager();
+    initialiseIfNeeded(streamingManager, true, muleContext);
+  }
+
+  @Override
+  protected void doTearDown() throws Exception {
+    if (streamingManager != null) {
+      ((Disposable) streamingManager).dispose();
+    }
+  }
+
+  @Override
+  protected ForkJoinStrategy createStrategy(ProcessingStrategy processingStrategy, int concurrency, boolean delayErrors,
+                                            long timeout) {
+    return new StreamingCollectListForkJoinStrategyFactory(new InMemoryCursorIteratorProviderFactory(InMemoryCursorIteratorConfig
+        .getDefault(), streamingManager), from("parallelForeach"))
+            .createForkJoinStrategy(processingStrategy, concurrency, delayErrors, timeout, scheduler, timeoutErrorType, false);
+  }
+
+  @Test
+  @Description("The strategy is used for the factory.")
+  public void strategyType() {
+    assertThat(strategy, instanceOf(StreamingForkJoinStrategy.class));
+  }
+
+  @Test
+  @Description("The messages of the routes are streamed in the order of the routes regardless of the order in which they complete.")
+  public void streamedOrdered() throws Throwable {
+    strategy = createStrategy(processingStrategy, 8, true, 10000);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(), createRoutingPairs(300));
+
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(CursorIteratorProvider.class));
+    assertThat(readPayloads(result), equalTo(range(0, 300).boxed().collect(toList())));
+    // the results can be read more than once
+    assertThat(readPayloads(result), equalTo(range(0, 300).boxed().collect(toList())));
+  }
+
+  @Test
+  @Description("No more routes than the max concurrency are processed at the same time.")
+  public void maxConcurrencyRespected() throws Throwable {
+    int maxConcurrency = 4;
+    strategy = createStrategy(processingStrategy, maxConcurrency, true, 10000);
+
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    List<RoutingPair> pairs = range(0, 100).mapToObj(i -> {
+      try {
+        return createRoutingPair(event -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(1);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          inFlight.decrementAndGet();
+          return builder(event).message(of(i)).build();
+        });
+      } catch (MuleException e) {
+        throw new RuntimeException(e);
+      }
+    }).collect(toList());
+
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(), pairs);
+
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(maxConcurrency));
+    assertThat(readPayloads(result), hasSize(100));
+  }
+
+  @Test
+  @Description("With a file store streaming strategy, the results that don't fit in memory are written to disk as the routes complete.")
+  public void resultsOffloadedWithFileStore() throws Throwable {
+    SerializationProtocol protocol = spy(muleContext.getObjectSerializer().getInternalProtocol());
+    ObjectSerializer serializer = mock(ObjectSerializer.class);
+    when(serializer.getInternalProtocol()).thenReturn(protocol);
+
+    strategy = new StreamingCollectListForkJoinStrategyFactory(new FileStoreCursorIteratorProviderFactory(
+                                                                                                          new FileStoreCursorIteratorConfig(10),
+                                                                                                          serializer,
+                                                                                                          streamingManager),
+                                                               from("parallelForeach"))
+                                                                   .createForkJoinStrategy(processingStrategy, 8, true, 10000,
+                                                                                           scheduler, timeoutErrorType, false);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(), createRoutingPairs(300));
+
+    // only one bucket of 10 results is kept in memory, the rest of the 30 buckets are serialized to the buffer file
+    verify(protocol, atLeast(29)).serialize(any());
+    assertThat(readPayloads(result), equalTo(range(0, 300).boxed().collect(toList())));
+  }
+
+  @Override
+  @Test
+  @Description("Variables set in the routes are not merged into the result, as with parallel-foreach.")
+  public void flowVarsMerged() throws Throwable {
+    CoreEvent original = builder(testEvent()).addVariable("before", "beforeValue").build();
+
+    RoutingPair pair1 = RoutingPair.of(original, createChain(event -> builder(event).addVariable("foo", "fooValue").build()));
+    RoutingPair pair2 = RoutingPair.of(original, createChain(event -> builder(event).addVariable("foo2", "foo2Value").build()));
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(pair1, pair2));
+
+    assertThat(result.getVariables().keySet(), hasSize(1));
+    assertThat(result.getVariables().keySet(), hasItems("before"));
+  }
+
+  private List<Object> readPayloads(CoreEvent result) {
+    List<Object> payloads = new ArrayList<>();
+    try (CursorIterator<Message> cursor =
+        ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor()) {
+      cursor.forEachRemaining(message -> payloads.add(message.getPayload().getValue()));
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return payloads;
+  }
+
+  private List<RoutingPair> createRoutingPairs(int number) {
+    return range(0, number).mapToObj(i -> {
+      try {
+        // some of the routes take longer, so they complete out of order
+        return createRoutingPair(new SleepingProcessor(of(i), i % 4 == 0 ? 2 : 0));
+      } catch (MuleException e) {
+        throw new RuntimeException(e);
+      }
+    }).collect(toList());
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.WORK_STEALING_FORK_JOIN_PROPERTY;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.WORK_STEALING;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Story;
+
+@Story(WORK_STEALING)
+public class WorkStealingForkJoinStrategyTestCase extends AbstractForkJoinStrategyTestCase {
+
+  @Rule
+  public SystemProperty workStealing = new SystemProperty(WORK_STEALING_FORK_JOIN_PROPERTY, "true");
+
+  @Override
+  protected ForkJoinStrategy createStrategy(ProcessingStrategy processingStrategy, int concurrency, boolean delayErrors,
+                                            long timeout) {
+    return new CollectListForkJoinStrategyFactory().createForkJoinStrategy(processingStrategy, concurrency, delayErrors, timeout,
+                                                                           scheduler, timeoutErrorType, false);
+  }
+
+  @Test
+  @Description("The property selects the work stealing strategy.")
+  public void strategyType() {
+    assertThat(strategy, instanceOf(WorkStealingForkJoinStrategy.class));
+  }
+
+  @Test
+  @Description("Results are collected in the order of the routes regardless of the order in which they complete.")
+  public void collectListOrdered() throws Throwable {
+    strategy = createStrategy(processingStrategy, 8, true, 10000);
+
+    List<RoutingPair> pairs = createRoutingPairs(1000);
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(), pairs);
+
+    List<Message> resultList = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(resultList.stream().map(message -> message.getPayload().getValue()).collect(toList()),
+               equalTo(range(0, 1000).boxed().collect(toList())));
+  }
+
+  @Test
+  @Description("Results are collected into a map keyed by the sequence of the routes.")
+  public void collectMap() throws Throwable {
+    strategy = new CollectMapForkJoinStrategyFactory().createForkJoinStrategy(processingStrategy, 8, true, 10000, scheduler,
+                                                                              timeoutErrorType, false);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(), createRoutingPairs(100));
+
+    Map<String, Message> resultMap = (Map<String, Message>) result.getMessage().getPayload().getValue();
+    range(0, 100).forEach(i -> assertThat(resultMap.get(Integer.toString(i)).getPayload().getValue(), equalTo(i)));
+  }
+
+  @Test
+  @Description("No more routes than the max concurrency are processed at the same time.")
+  public void maxConcurrencyRespected() throws Throwable {
+    int maxConcurrency = 4;
+    strategy = createStrategy(processingStrategy, maxConcurrency, true, 10000);
+
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    List<RoutingPair> pairs = range(0, 100).mapToObj(i -> {
+      try {
+        return createRoutingPair(event -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(1);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          inFlight.decrementAndGet();
+          return event;
+        });
+      } catch (MuleException e) {
+        throw new RuntimeException(e);
+      }
+    }).collect(toList());
+
+    invokeStrategyBlocking(strategy, testEvent(), pairs);
+
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(maxConcurrency));
+  }
+
+  private List<RoutingPair> createRoutingPairs(int number) {
+    return range(0, number).mapToObj(i -> {
+      try {
+        // some of the routes take longer, so they complete out of order
+        return createRoutingPair(new SleepingProcessor(of(i), i % 4 == 0 ? 2 : 0));
+      } catch (MuleException e) {
+        throw new RuntimeException(e);
+      }
+    }).collect(toList());
+  }
+}
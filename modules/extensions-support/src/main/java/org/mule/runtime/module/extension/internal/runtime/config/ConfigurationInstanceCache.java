@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.config;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.Comparator.comparingLong;
+
+import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationStats;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A cache of the {@link ConfigurationInstance}s created by a {@link DynamicConfigurationProvider}.
+ * <p>
+ * Instances are spread among shards, each one with its own map, so that lookups for different keys do not contend with each
+ * other. Lookups never block: each cached instance keeps a state which readers and evictors update with compare-and-set
+ * operations, so an instance being evicted is never handed out and an instance being handed out is never evicted.
+ * <p>
+ * The cache can be bounded. When a shard exceeds its share of the capacity, its least recently used idle instance is evicted.
+ * Rather than looking for it on each insertion, a single pass over the shard finds a batch of the least recently used idle
+ * instances, which the following insertions evict in order unless they were used in the meantime.
+ * Instances evicted that way are not disposed here, but handed out by {@link #drainExpired()}, along with the ones for which the
+ * given expiration predicate holds, so that all disposals happen in the same thread.
+ * <p>
+ * Whoever gets an instance from this cache only accounts for its use in the {@link ConfigurationStats#getActiveComponents()
+ * active components} of the instance after this cache returned it, so an instance may be evicted for exceeding the capacity
+ * right after it was handed out, before it is seen as active. Because of that, such instances are only handed out by
+ * {@link #drainExpired()} once they have no active components and were not handed out since the previous call to it.
+ *
+ * @param <K> the type of the keys
+ * @since 4.6.0
+ */
+final class ConfigurationInstanceCache<K> {
+
+  private static final int MAX_SHARDS = 16;
+  private static final int MIN_SHARD_CAPACITY = 16;
+  // the portion of the capacity of a shard found as eviction candidates in each pass
+  private static final int EVICTION_BATCH_DIVISOR = 8;
+
+  private final Shard<K>[] shards;
+  private final int shardMask;
+  private final Predicate<ConfigurationInstance> expired;
+  private final Queue<Entry> evicted = new ConcurrentLinkedQueue<>();
+  private volatile long previousDrain = nanoTime();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxSize the maximum number of instances to keep, although it may be exceeded if all the instances are in use. Must be
+   *                greater than 0.
+   * @param expired a {@link Predicate} which tests if an instance has expired
+   */
+  ConfigurationInstanceCache(int maxSize, Predicate<ConfigurationInstance> expired) {
+    checkArgument(maxSize > 0, "maxSize must be greater than 0");
+
+    int shardCount = min(MAX_SHARDS, highestOneBit(max(1, maxSize / MIN_SHARD_CAPACITY)));
+    int shardCapacity = maxSize / shardCount + (maxSize % shardCount == 0 ? 0 : 1);
+
+    this.shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; ++i) {
+      shards[i] = new Shard<>(shardCapacity);
+    }
+    this.shardMask = shardCount - 1;
+    this.expired = expired;
+  }
+
+  /**
+   * Returns the instance for the given {@code key}, creating it with the given {@code factory} if not present.
+   *
+   * @param key     the key of the instance
+   * @param factory a {@link Function} which creates the instance for a key
+   * @return a {@link ConfigurationInstance}
+   */
+  ConfigurationInstance get(K key, Function<K, ConfigurationInstance> factory) {
+    Shard<K> shard = shardFor(key);
+    while (true) {
+      Entry entry = shard.entries.get(key);
+      if (entry == null) {
+        Entry[] created = new Entry[1];
+        entry = shard.entries.computeIfAbsent(key, k -> created[0] = new Entry(factory.apply(k)));
+        if (entry == created[0]) {
+          misses.increment();
+          evictIfNeeded(shard, entry);
+          return entry.instance;
+        }
+      }
+
+      if (entry.touch()) {
+        hits.increment();
+        return entry.instance;
+      }
+
+      // evicted while looking it up
+      shard.entries.remove(key, entry);
+    }
+  }
+
+  /**
+   * Removes from the cache the instances which have expired, along with the ones evicted for exceeding the capacity.
+   *
+   * @return the removed instances
+   */
+  List<ConfigurationInstance> drainExpired() {
+    final long drainStart = nanoTime();
+    List<ConfigurationInstance> drained = new ArrayList<>();
+    List<Entry> stillInUse = new ArrayList<>();
+    Entry evictedEntry;
+    while ((evictedEntry = evicted.poll()) != null) {
+      if (evictedEntry.instance.getStatistics().getActiveComponents() == 0
+          && evictedEntry.lastHandedOut - previousDrain < 0) {
+        drained.add(evictedEntry.instance);
+      } else {
+        stillInUse.add(evictedEntry);
+      }
+    }
+    evicted.addAll(stillInUse);
+    previousDrain = drainStart;
+
+    for (Shard<K> shard : shards) {
+      for (Map.Entry<K, Entry> mapEntry : shard.entries.entrySet()) {
+        Entry entry = mapEntry.getValue();
+        if (entry.tryEvict(expired)) {
+          shard.entries.remove(mapEntry.getKey(), entry);
+          evictions.increment();
+          drained.add(entry.instance);
+        }
+      }
+    }
+
+    return drained;
+  }
+
+  /**
+   * @return the number of instances currently in the cache
+   */
+  int size() {
+    int size = 0;
+    for (Shard<K> shard : shards) {
+      size += shard.entries.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return how many times a lookup found the instance already in the cache
+   */
+  long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return how many times a lookup had to create a new instance
+   */
+  long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return how many instances have been evicted, either for being expired or for exceeding the capacity
+   */
+  long getEvictions() {
+    return evictions.sum();
+  }
+
+  private Shard<K> shardFor(K key) {
+    int hash = key.hashCode();
+    return shards[(hash ^ (hash >>> 16)) & shardMask];
+  }
+
+  /**
+   * Evicts the least recently used idle instances of the given {@code shard} until it is back within its capacity. If another
+   * thread is already doing so, returns immediately instead of waiting for it.
+   */
+  private void evictIfNeeded(Shard<K> shard, Entry added) {
+    if (shard.entries.size() <= shard.capacity || !shard.evictionLock.tryLock()) {
+      return;
+    }
+
+    try {
+      boolean scanned = false;
+      while (shard.entries.size() > shard.capacity) {
+        Candidate<K> candidate = shard.candidates.poll();
+        if (candidate == null) {
+          // every other instance is in use, or was used since the shard was scanned, so let the shard grow for now
+          if (scanned || !findCandidates(shard, added)) {
+            return;
+          }
+          scanned = true;
+          continue;
+        }
+
+        if (candidate.tryEvict()) {
+          shard.entries.remove(candidate.key, candidate.entry);
+          evictions.increment();
+          evicted.add(candidate.entry);
+        }
+      }
+    } finally {
+      shard.evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Finds the least recently used idle instances of the given {@code shard}, up to a portion of its capacity, and keeps them as
+   * its eviction candidates, oldest first.
+   *
+   * @return whether any candidate was found
+   */
+  private boolean findCandidates(Shard<K> shard, Entry added) {
+    int batchSize = max(1, shard.capacity / EVICTION_BATCH_DIVISOR);
+    // the most recently used candidate on top, to be replaced by older ones
+    PriorityQueue<Candidate<K>> batch =
+        new PriorityQueue<>(batchSize + 1, comparingLong((Candidate<K> candidate) -> candidate.lastUsed).reversed());
+    for (Map.Entry<K, Entry> mapEntry : shard.entries.entrySet()) {
+      Entry entry = mapEntry.getValue();
+      // read before the stats, so that a handout after they are checked is noticed
+      long handouts = entry.handouts.get();
+      ConfigurationStats stats = entry.instance.getStatistics();
+      if (entry != added && stats.getActiveComponents() == 0) {
+        batch.add(new Candidate<>(mapEntry.getKey(), entry, handouts, stats.getLastUsedMillis()));
+        if (batch.size() > batchSize) {
+          batch.poll();
+        }
+      }
+    }
+
+    boolean found = !batch.isEmpty();
+    // polled most recently used first, so the oldest ends up first
+    Candidate<K> candidate;
+    while ((candidate = batch.poll()) != null) {
+      shard.candidates.addFirst(candidate);
+    }
+    return found;
+  }
+
+  private static final class Shard<K> {
+
+    private final Map<K, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // guarded by evictionLock
+    private final Deque<Candidate<K>> candidates = new ArrayDeque<>();
+    private final int capacity;
+
+    private Shard(int capacity) {
+      this.capacity = capacity;
+    }
+  }
+
+  /**
+   * An instance which was idle and among the least recently used of its shard when the shard was scanned.
+   */
+  private static final class Candidate<K> {
+
+    private final K key;
+    private final Entry entry;
+    private final long handouts;
+    private final long lastUsed;
+
+    private Candidate(K key, Entry entry, long handouts, long lastUsed) {
+      this.key = key;
+      this.entry = entry;
+      this.handouts = handouts;
+      this.lastUsed = lastUsed;
+    }
+
+    /**
+     * Evicts the instance unless it was handed out since the shard was scanned, or is in use.
+     */
+    private boolean tryEvict() {
+      return entry.tryEvict(i -> i.getStatistics().getActiveComponents() == 0 && entry.handouts.get() == handouts);
+    }
+  }
+
+  /**
+   * A cached instance, along with its state: the number of readers touching it, or {@link #EVICTING} or {@link #EVICTED}.
+   */
+  private static final class Entry {
+
+    private static final int EVICTING = -1;
+    private static final int EVICTED = -2;
+
+    private final ConfigurationInstance instance;
+    private final AtomicInteger state = new AtomicInteger(0);
+    private final AtomicLong handouts = new AtomicLong();
+    // the value of System#nanoTime() when the instance was last handed out
+    private volatile long lastHandedOut = nanoTime();
+
+    private Entry(ConfigurationInstance instance) {
+      this.instance = instance;
+    }
+
+    /**
+     * Updates the usage statistics of the instance, unless it has been evicted.
+     *
+     * @return whether the instance can still be used
+     */
+    private boolean touch() {
+      while (true) {
+        int current = state.get();
+        if (current == EVICTED) {
+          return false;
+        } else if (current == EVICTING) {
+          // the evictor only re-checks its condition, so this won't last
+          Thread.yield();
+        } else if (state.compareAndSet(current, current + 1)) {
+          break;
+        }
+      }
+
+      try {
+        handouts.incrementAndGet();
+        lastHandedOut = nanoTime();
+        MutableConfigurationStats stats = (MutableConfigurationStats) instance.getStatistics();
+        stats.updateLastUsed();
+        stats.addCacheHit();
+      } finally {
+        state.decrementAndGet();
+      }
+      return true;
+    }
+
+    /**
+     * Evicts this entry if no reader is touching it and the given {@code condition} holds. The condition is checked again once
+     * readers are kept out, since one may have used the instance after the first check.
+     *
+     * @return whether the entry has been evicted
+     */
+    private boolean tryEvict(Predicate<ConfigurationInstance> condition) {
+      if (!condition.test(instance) || !state.compareAndSet(0, EVICTING)) {
+        return false;
+      }
+
+      if (!condition.test(instance)) {
+        state.set(0);
+        return false;
+      }
+
+      state.set(EVICTED);
+      return true;
+    }
+  }
+}
@@ -6,10 +6,13 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.getInteger;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
-import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.assertNotStopping;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
@@ -51,13 +54,8 @@ import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 import org.mule.runtime.module.extension.internal.value.ValueProviderMediator;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 
@@ -69,12 +67,23 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * The cache can be bounded through the {@link #MAX_INSTANCES_PROPERTY} system property, in which case the least recently used
+ * instances are evicted when it is exceeded. Expired and evicted instances are handed out by {@link #getExpired()}.
  *
  * @since 4.0.0
  */
 public final class DynamicConfigurationProvider extends LifecycleAwareConfigurationProvider
     implements ExpirableConfigurationProvider, ConfigurationParameterValueProvider {
 
+  /**
+   * System property to set the maximum amount of instances to keep for each dynamic configuration. Unbounded by default, or if
+   * not greater than 0.
+   *
+   * @since 4.6.0
+   */
+  public static final String MAX_INSTANCES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "dynamicConfig.maxInstances";
+
   private static final Logger LOGGER = getLogger(DynamicConfigurationProvider.class);
 
   private final ConfigurationInstanceFactory configurationInstanceFactory;
@@ -82,10 +91,7 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final ConfigurationInstanceCache<Pair<ResolverSetResult, ResolverSetResult>> cache;
   private final ReflectionCache reflectionCache;
   private final ExpressionManager expressionManager;
 
@@ -111,6 +117,30 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
                                       ReflectionCache reflectionCache,
                                       ExpressionManager expressionManager,
                                       MuleContext muleContext) {
+    this(name, extension, config, resolverSet, connectionProviderResolver, expirationPolicy, reflectionCache, expressionManager,
+         muleContext, getMaxInstances());
+  }
+
+  private static int getMaxInstances() {
+    int maxInstances = getInteger(MAX_INSTANCES_PROPERTY, MAX_VALUE);
+    if (maxInstances <= 0) {
+      LOGGER.warn("Ignoring invalid value {} for system property '{}', it must be greater than 0. Instances of dynamic "
+          + "configurations will not be bounded.", maxInstances, MAX_INSTANCES_PROPERTY);
+      return MAX_VALUE;
+    }
+    return maxInstances;
+  }
+
+  DynamicConfigurationProvider(String name,
+                               ExtensionModel extension,
+                               ConfigurationModel config,
+                               ResolverSet resolverSet,
+                               ConnectionProviderValueResolver connectionProviderResolver,
+                               ExpirationPolicy expirationPolicy,
+                               ReflectionCache reflectionCache,
+                               ExpressionManager expressionManager,
+                               MuleContext muleContext,
+                               int maxInstances) {
     super(name, extension, config, muleContext);
     this.configurationInstanceFactory =
         new ConfigurationInstanceFactory<>(extension, config, resolverSet, expressionManager, muleContext);
@@ -119,6 +149,7 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     this.resolverSet = resolverSet;
     this.connectionProviderResolver = connectionProviderResolver;
     this.expirationPolicy = expirationPolicy;
+    this.cache = new ConfigurationInstanceCache<>(maxInstances, this::isExpired);
   }
 
   /**
@@ -146,24 +177,13 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CoreEvent event)
       throws Exception {
 
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
     try {
-      configuration = cache.computeIfAbsent(resolverSetResult, (r) -> createConfiguration(r, event));
-      updateUsageStatistic(configuration);
-      return configuration;
+      return cache.get(resolverSetResult, r -> createConfiguration(r, event));
     } catch (WrappingRuntimeException e) {
       throw e.getWrappedException();
-    } finally {
-      cacheReadLock.unlock();
     }
   }
 
-  private void updateUsageStatistic(ConfigurationInstance configuration) {
-    MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
-    stats.updateLastUsed();
-  }
-
   private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> values, CoreEvent event) {
     assertNotStopping(muleContext, "Mule is shutting down... Cannot create new dynamic configurations");
 
@@ -228,16 +248,33 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        unRegisterConfiguration(entry.getValue());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
-    }
+    List<ConfigurationInstance> expired = cache.drainExpired();
+    expired.forEach(this::unRegisterConfiguration);
+    return unmodifiableList(expired);
+  }
+
+  /**
+   * @return how many times {@link #get(Event)} resolved to an already existing instance
+   * @since 4.6.0
+   */
+  public long getCacheHits() {
+    return cache.getHits();
+  }
+
+  /**
+   * @return how many times {@link #get(Event)} had to create a new instance
+   * @since 4.6.0
+   */
+  public long getCacheMisses() {
+    return cache.getMisses();
+  }
+
+  /**
+   * @return how many instances have been removed from the cache, either for being expired or for exceeding its size
+   * @since 4.6.0
+   */
+  public long getCacheEvictions() {
+    return cache.getEvictions();
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
@@ -356,7 +393,7 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   /**
    * Used to preserve exception throwing behaviour in {@link #getConfiguration} as the method {@link #createConfiguration} can no
-   * longer throw checked exception as it is used inside {@link Map#computeIfAbsent}.
+   * longer throw checked exception as it is used inside {@link ConfigurationInstanceCache#get}.
    */
   private static class WrappingRuntimeException extends RuntimeException {
 
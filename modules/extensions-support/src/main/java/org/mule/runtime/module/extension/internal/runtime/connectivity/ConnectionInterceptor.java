@@ -6,32 +6,37 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.connectivity;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mule.runtime.core.api.util.ExceptionUtils.extractConnectionException;
 import static org.mule.runtime.core.api.util.StreamingUtils.supportsStreaming;
 import static org.mule.runtime.module.extension.internal.ExtensionProperties.CONNECTION_PARAM;
 
-import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.meta.model.ComponentModel;
 import org.mule.runtime.api.meta.model.operation.OperationModel;
-import org.mule.runtime.api.tx.TransactionException;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
-import org.mule.runtime.extension.api.runtime.operation.Interceptor;
 import org.mule.runtime.extension.internal.property.PagedOperationModelProperty;
 import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
 import org.mule.runtime.module.extension.internal.ExtensionProperties;
+import org.mule.runtime.module.extension.internal.runtime.execution.interceptor.PreparableInterceptor;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 /**
  * Implements simple connection management by using the {@link #before(ExecutionContext)} phase to set a connection as parameter
  * value of key {@link ExtensionProperties#CONNECTION_PARAM} into an {@link ExecutionContext}.
+ * <p>
+ * When {@link #prepare(ExecutionContext) prepared}, the connection is requested asynchronously in advance, so no thread is
+ * blocked waiting for it to become available, and the {@link #before(ExecutionContext)} phase just picks it up.
  *
  * @since 4.0
  */
-public final class ConnectionInterceptor implements Interceptor<ComponentModel> {
+public final class ConnectionInterceptor implements PreparableInterceptor<ComponentModel> {
 
   private static final String CLOSE_CONNECTION_COMMAND = "closeCommand";
+  private static final String PREPARED_CONNECTION = "preparedConnection";
 
   private final ExtensionConnectionSupplier connectionSupplier;
 
@@ -39,6 +44,30 @@ public final class ConnectionInterceptor implements Interceptor<ComponentModel>
     this.connectionSupplier = connectionSupplier;
   }
 
+  /**
+   * Requests the connection for the {@code executionContext} without waiting for it to be available. The future of the request
+   * is kept in the context for the {@link #before(ExecutionContext)} phase to use it.
+   *
+   * @param executionContext the {@link ExecutionContext} for the operation to be executed
+   * @return a future completed when the connection request is done, whatever its outcome
+   */
+  @Override
+  public CompletableFuture<Void> prepare(ExecutionContext<ComponentModel> executionContext) {
+    final ComponentModel componentModel = executionContext.getComponentModel();
+    if (componentModel.getModelProperty(PagedOperationModelProperty.class).isPresent()) {
+      return completedFuture(null);
+    }
+
+    ExecutionContextAdapter<OperationModel> context = (ExecutionContextAdapter) executionContext;
+    if (context.getVariable(CONNECTION_PARAM) != null || context.getVariable(PREPARED_CONNECTION) != null) {
+      return completedFuture(null);
+    }
+
+    CompletableFuture<ConnectionHandler<?>> connection = connectionSupplier.getConnectionAsync(context);
+    context.setVariable(PREPARED_CONNECTION, connection);
+    return connection.handle((handler, t) -> null);
+  }
+
   /**
    * Adds a {@code Connection} as a parameter in the {@code operationContext}, following the considerations in this type's
    * javadoc.
@@ -106,7 +135,17 @@ public final class ConnectionInterceptor implements Interceptor<ComponentModel>
   }
 
   private ConnectionHandler<?> getConnection(ExecutionContextAdapter<? extends ComponentModel> operationContext)
-      throws ConnectionException, TransactionException {
-    return connectionSupplier.getConnection(operationContext);
+      throws Exception {
+    CompletableFuture<ConnectionHandler<?>> prepared = operationContext.removeVariable(PREPARED_CONNECTION);
+    if (prepared == null) {
+      return connectionSupplier.getConnection(operationContext);
+    }
+
+    try {
+      return prepared.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
   }
 }
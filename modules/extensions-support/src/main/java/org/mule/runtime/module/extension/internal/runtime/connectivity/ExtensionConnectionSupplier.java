@@ -8,6 +8,7 @@ package org.mule.runtime.module.extension.internal.runtime.connectivity;
 
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_LAZY_CONNECTIONS_DEPLOYMENT_PROPERTY;
 import static org.mule.runtime.extension.api.util.NameUtils.getComponentModelTypeName;
 
@@ -20,6 +21,7 @@ import org.mule.runtime.api.tx.TransactionException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.connector.ConnectionManager;
 import org.mule.runtime.core.api.transaction.TransactionConfig;
+import org.mule.runtime.core.internal.connection.ConnectionManagerAdapter;
 import org.mule.runtime.extension.api.connectivity.TransactionalConnection;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
@@ -28,6 +30,7 @@ import org.mule.runtime.module.extension.internal.runtime.transaction.ExtensionT
 import org.mule.runtime.module.extension.internal.runtime.transaction.TransactionBindingDelegate;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import javax.inject.Inject;
 
@@ -63,6 +66,35 @@ public class ExtensionConnectionSupplier {
         : getTransactionlessConnectionHandler(executionContext);
   }
 
+  /**
+   * Asynchronous version of {@link #getConnection(ExecutionContextAdapter)}, which doesn't block the calling thread while waiting
+   * for a pooled connection to become available.
+   * <p>
+   * Connections which participate in a transaction are bound to the thread that owns it, so for transacted executions the
+   * connection is obtained synchronously and the returned future is already completed.
+   *
+   * @param executionContext an {@link ExecutionContextAdapter}
+   * @return a future for the {@link ConnectionHandler}, completed exceptionally if the connection could not be obtained
+   * @since 4.6.0
+   */
+  public CompletableFuture<ConnectionHandler<?>> getConnectionAsync(
+                                                                    ExecutionContextAdapter<? extends ComponentModel> executionContext) {
+    try {
+      if (executionContext.getTransactionConfig().map(TransactionConfig::isTransacted).orElse(false)
+          || !(connectionManager instanceof ConnectionManagerAdapter)) {
+        return completedFuture(getConnection(executionContext));
+      }
+
+      Object config = getConnectedConfiguration(executionContext).getValue();
+      return ((ConnectionManagerAdapter) connectionManager).getConnectionAsync(config)
+          .thenApply(handler -> (ConnectionHandler<?>) handler);
+    } catch (Throwable t) {
+      CompletableFuture<ConnectionHandler<?>> future = new CompletableFuture<>();
+      future.completeExceptionally(t);
+      return future;
+    }
+  }
+
   private <T extends TransactionalConnection> ConnectionHandler<T> getTransactedConnectionHandler(
                                                                                                   ExecutionContextAdapter<? extends ComponentModel> executionContext,
                                                                                                   TransactionConfig transactionConfig)
@@ -92,8 +124,10 @@ public class ExtensionConnectionSupplier {
 
   private <T> ConnectionHandler<T> getTransactionlessConnectionHandler(ExecutionContext executionContext)
       throws ConnectionException {
+    return connectionManager.getConnection(getConnectedConfiguration(executionContext).getValue());
+  }
 
-
+  private ConfigurationInstance getConnectedConfiguration(ExecutionContext executionContext) {
     final Optional<ConfigurationInstance> configuration = executionContext.getConfiguration();
     Optional<ConnectionProvider> connectionProvider = configuration.flatMap(ConfigurationInstance::getConnectionProvider);
 
@@ -109,7 +143,7 @@ public class ExtensionConnectionSupplier {
                                              configRef));
     }
 
-    return connectionManager.getConnection(configuration.get().getValue());
+    return configuration.get();
   }
 
   @Inject
@@ -6,12 +6,15 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution.interceptor;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
 import org.mule.runtime.extension.api.runtime.operation.CompletableComponentExecutor.ExecutorCallback;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.extension.api.runtime.operation.Interceptor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Groups an ordered list of {@link Interceptor interceptors} that will be applied as one.
@@ -60,6 +63,22 @@ public interface InterceptorChain {
     return new Builder();
   }
 
+  /**
+   * Executes the {@link PreparableInterceptor#prepare(ExecutionContext)} phase on each added interceptor that supports it, one
+   * after the other. It is meant to be invoked right before {@link #before(ExecutionContext, ExecutorCallback)}, when the caller
+   * prefers not to block while the interceptors get ready.
+   * <p>
+   * The returned future is never completed exceptionally. Any failure is reported by the
+   * {@link #before(ExecutionContext, ExecutorCallback)} phase.
+   *
+   * @param executionContext the {@link ExecutionContext}
+   * @return a future completed when all the interceptors are prepared
+   * @since 4.6.0
+   */
+  default CompletableFuture<Void> prepare(ExecutionContext executionContext) {
+    return completedFuture(null);
+  }
+
   /**
    * Executes the {@link Interceptor#before(ExecutionContext)} phase on each added interceptor.
    * <p>
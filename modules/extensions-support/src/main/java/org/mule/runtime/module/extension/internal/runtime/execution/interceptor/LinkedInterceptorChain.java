@@ -7,6 +7,7 @@
 package org.mule.runtime.module.extension.internal.runtime.execution.interceptor;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -15,6 +16,7 @@ import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.extension.api.runtime.operation.Interceptor;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 
@@ -64,6 +66,19 @@ class LinkedInterceptorChain implements InterceptorChain {
     this.interceptor = interceptor;
   }
 
+  @Override
+  public CompletableFuture<Void> prepare(ExecutionContext executionContext) {
+    CompletableFuture<Void> prepared = interceptor instanceof PreparableInterceptor
+        ? ((PreparableInterceptor) interceptor).prepare(executionContext)
+        : completedFuture(null);
+
+    if (next == null) {
+      return prepared;
+    }
+    // Avoid the composition overhead in the common case where nothing had to be waited for
+    return prepared.isDone() ? next.prepare(executionContext) : prepared.thenCompose(v -> next.prepare(executionContext));
+  }
+
   @Override
   public Throwable before(ExecutionContext executionContext, ExecutorCallback callback) {
     try {
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution.interceptor;
+
+import org.mule.runtime.api.meta.model.ComponentModel;
+import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
+import org.mule.runtime.extension.api.runtime.operation.Interceptor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An {@link Interceptor} which can do the potentially blocking work of its {@link #before(ExecutionContext)} phase in advance,
+ * without blocking the calling thread.
+ * <p>
+ * Whatever is obtained in the {@link #prepare(ExecutionContext)} phase is to be kept in the {@link ExecutionContext} and picked
+ * up by the {@link #before(ExecutionContext)} phase, which is still responsible for the error handling. Hence, the returned
+ * future is never completed exceptionally.
+ *
+ * @since 4.6.0
+ */
+public interface PreparableInterceptor<T extends ComponentModel> extends Interceptor<T> {
+
+  /**
+   * Prepares the execution of the {@link #before(ExecutionContext)} phase.
+   *
+   * @param executionContext the {@link ExecutionContext} for the operation to be executed
+   * @return a future completed when the preparation is done
+   */
+  CompletableFuture<Void> prepare(ExecutionContext<T> executionContext);
+}
@@ -36,6 +36,7 @@ import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -54,6 +55,8 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
   protected final Map<FieldSetter, ValueResolver<Object>> resolvers = new HashMap<>();
   protected final Map<String, ValueResolver<? extends Object>> resolverByFieldName = new HashMap<>();
   protected ReflectionCache reflectionCache;
+  private final InstanceWriter<T> instanceWriter;
+  private volatile PropertyWrite[] propertyWrites;
   private String name = null;
   private String encoding = null;
 
@@ -67,6 +70,7 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
     checkInstantiable(prototypeClass, reflectionCache);
     this.prototypeClass = prototypeClass;
     this.reflectionCache = reflectionCache;
+    this.instanceWriter = reflectionCache.getInstanceWriter(prototypeClass);
   }
 
   /**
@@ -101,6 +105,7 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
     resolverByFieldName.put(field.getName(), resolver);
 
     resolvers.put(new FieldSetter<>(field), (ValueResolver<Object>) resolver);
+    propertyWrites = null;
     return this;
   }
 
@@ -114,14 +119,14 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
 
   @Override
   public T build(ValueResolvingContext context) throws MuleException {
-    T object = createInstance(prototypeClass);
+    T object = createInstance(instanceWriter, prototypeClass);
 
-    for (Map.Entry<FieldSetter, ValueResolver<Object>> entry : resolvers.entrySet()) {
-      final Object resolvedValue = resolveValue(entry.getValue(), context);
+    for (PropertyWrite propertyWrite : getPropertyWrites()) {
+      final Object resolvedValue = resolveValue(propertyWrite.resolver, context);
 
-      entry.getKey().set(object,
-                         context == null || context.resolveCursors() ? resolveCursorAsUnclosable(resolvedValue)
-                             : typedValueAsUnclosable(resolvedValue));
+      propertyWrite.write(instanceWriter, object,
+                          context == null || context.resolveCursors() ? resolveCursorAsUnclosable(resolvedValue)
+                              : typedValueAsUnclosable(resolvedValue));
     }
 
     injectFields(object, name, encoding, getMuleVersion(), reflectionCache);
@@ -129,6 +134,18 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
     return object;
   }
 
+  private PropertyWrite[] getPropertyWrites() {
+    PropertyWrite[] writes = propertyWrites;
+    if (writes == null) {
+      List<Field> fields = reflectionCache.getFields(prototypeClass);
+      writes = resolvers.entrySet().stream()
+          .map(entry -> new PropertyWrite(fields.indexOf(entry.getKey().getField()), entry.getKey(), entry.getValue()))
+          .toArray(PropertyWrite[]::new);
+      propertyWrites = writes;
+    }
+    return writes;
+  }
+
   public void setName(String name) {
     this.name = name;
   }
@@ -160,4 +177,29 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
   public Map<String, ValueResolver<? extends Object>> getParameters() {
     return unmodifiableMap(resolverByFieldName);
   }
+
+  /**
+   * The assignment of the value of a {@link ValueResolver} into a field, through the {@link InstanceWriter} of the
+   * {@link #prototypeClass} if the field has an index on it.
+   */
+  private static final class PropertyWrite {
+
+    private final int fieldIndex;
+    private final FieldSetter setter;
+    private final ValueResolver<Object> resolver;
+
+    private PropertyWrite(int fieldIndex, FieldSetter setter, ValueResolver<Object> resolver) {
+      this.fieldIndex = fieldIndex;
+      this.setter = setter;
+      this.resolver = resolver;
+    }
+
+    private <T> void write(InstanceWriter<T> instanceWriter, T object, Object value) {
+      if (fieldIndex < 0) {
+        setter.set(object, value);
+      } else {
+        instanceWriter.write(object, fieldIndex, value);
+      }
+    }
+  }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+/**
+ * Creates instances of a given type and assigns the values of their fields, which are referred to by their index.
+ * <p>
+ * Implementations are usually generated by {@link InstanceWriterGenerator}, so that doing so doesn't go through reflection.
+ *
+ * @param <T> the generic type of the written instances
+ * @since 4.6.0
+ */
+public interface InstanceWriter<T> {
+
+  /**
+   * @return a new instance, created through its default constructor
+   */
+  T newInstance();
+
+  /**
+   * Assigns the given {@code value} to a field of the {@code target} instance
+   *
+   * @param target     the instance on which the value is to be set
+   * @param fieldIndex the index of the field, as given to {@link InstanceWriterGenerator#generate(Class, java.util.List)}
+   * @param value      the value to set
+   */
+  void write(T target, int fieldIndex, Object value);
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+import static org.mule.runtime.core.internal.util.CompositeClassLoader.from;
+import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectBuilderUtils.createInstance;
+
+import static java.lang.Class.forName;
+import static java.lang.Integer.toHexString;
+import static java.lang.Math.max;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isAbstract;
+import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
+
+import static net.bytebuddy.description.modifier.Visibility.PUBLIC;
+import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.Default.INJECTION;
+import static net.bytebuddy.implementation.bytecode.assign.Assigner.Typing.DYNAMIC;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.core.internal.util.CompositeClassLoader;
+import org.mule.runtime.module.extension.internal.runtime.execution.executor.MethodExecutorGenerator;
+import org.mule.runtime.module.extension.internal.util.FieldSetter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeDescription.ForLoadedType;
+import net.bytebuddy.dynamic.scaffold.InstrumentedType;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.assign.TypeCasting;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.Opcodes;
+
+/**
+ * Uses bytecode manipulation to dynamically generate {@link InstanceWriter} classes, in the same fashion as
+ * {@link MethodExecutorGenerator} does for the methods of operations and sources.
+ * <p>
+ * The generated classes instantiate the type through its default constructor and assign its public fields directly. The fields
+ * which are not accessible from the generated class are assigned through a {@link MethodHandle} on the field, so no setter is
+ * ever invoked, same as with reflection. Fields of primitive types are assigned through reflection, which widens and unboxes the
+ * values and rejects {@code null} with an {@link IllegalArgumentException}. Everything is done through reflection if the type
+ * itself or its default constructor are not public.
+ *
+ * @since 4.6.0
+ */
+public final class InstanceWriterGenerator {
+
+  private static final Logger LOGGER = getLogger(InstanceWriterGenerator.class);
+
+  private static final String WRITER_CLASS_SUFFIX = "$InstanceWriter$";
+
+  /**
+   * Creates an {@link InstanceWriter} for the given {@code type}, in which each field is referred to by its index in the given
+   * {@code fields}.
+   *
+   * @param type   the type of the instances to write
+   * @param fields the fields of {@code type} that may be written
+   * @param <T>    the generic type of the instances
+   * @return an {@link InstanceWriter}
+   */
+  public static <T> InstanceWriter<T> generate(Class<T> type, List<Field> fields) {
+    ReflectiveInstanceWriter<T> reflectiveWriter = new ReflectiveInstanceWriter<>(type, fields);
+    Constructor<T> constructor = getDefaultConstructor(type);
+    if (constructor == null) {
+      return reflectiveWriter;
+    }
+
+    boolean[] generatedFields = new boolean[fields.size()];
+    boolean allGenerated = true;
+    for (int i = 0; i < fields.size(); ++i) {
+      generatedFields[i] = isDirectlyWritable(fields.get(i));
+      allGenerated &= generatedFields[i];
+    }
+
+    InstanceWriter<T> generatedWriter;
+    try {
+      generatedWriter = generateWriter(type, constructor, fields, generatedFields);
+    } catch (Exception e) {
+      LOGGER.debug("Could not generate an InstanceWriter for {}, reflection will be used instead", type.getName(), e);
+      return reflectiveWriter;
+    }
+
+    return allGenerated ? generatedWriter : new MixedInstanceWriter<>(generatedWriter, generatedFields, reflectiveWriter);
+  }
+
+  private static <T> Constructor<T> getDefaultConstructor(Class<T> type) {
+    int modifiers = type.getModifiers();
+    if (!isPublic(modifiers) || isAbstract(modifiers) || type.isInterface()
+        || (type.getEnclosingClass() != null && !isStatic(modifiers))) {
+      return null;
+    }
+
+    try {
+      return type.getConstructor();
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static boolean isDirectlyWritable(Field field) {
+    int modifiers = field.getModifiers();
+    // the generated cast doesn't widen primitives, nor rejects nulls, the same way reflection does
+    return isPublic(modifiers) && !isStatic(modifiers) && !isFinal(modifiers) && !field.getType().isPrimitive()
+        && isPublic(field.getDeclaringClass().getModifiers());
+  }
+
+  private static <T> InstanceWriter<T> generateWriter(Class<T> type, Constructor<T> constructor, List<Field> fields,
+                                                      boolean[] generatedFields)
+      throws ReflectiveOperationException {
+    // the generated code depends on the fields and their order, so they are part of the name
+    String writerName = type.getName() + WRITER_CLASS_SUFFIX + toHexString(fields.hashCode());
+    CompositeClassLoader writerClassLoader = from(type.getClassLoader(), InstanceWriterGenerator.class.getClassLoader());
+
+    Class<?> writerClass;
+    // the class loader is shared, so a class for the same type may be being generated elsewhere
+    synchronized (writerClassLoader) {
+      try {
+        writerClass = forName(writerName, true, writerClassLoader);
+      } catch (ClassNotFoundException e) {
+        // class doesn't exist, generate
+        writerClass = new ByteBuddy()
+            .subclass(Object.class)
+            .implement(InstanceWriter.class)
+            .name(writerName)
+            .defineMethod("newInstance", Object.class, PUBLIC)
+            .intercept(MethodCall.construct(constructor))
+            .defineMethod("write", void.class, PUBLIC)
+            .withParameters(Object.class, int.class, Object.class)
+            .intercept(new FieldWriteImplementation(type, fields, generatedFields))
+            .make()
+            .load(writerClassLoader, INJECTION)
+            .getLoaded();
+      }
+    }
+
+    return (InstanceWriter<T>) writerClass.getConstructor().newInstance();
+  }
+
+  private InstanceWriterGenerator() {}
+
+  /**
+   * Implements {@link InstanceWriter#write(Object, int, Object)} as a switch on the field index, in which each case casts the
+   * value to the type of the field and assigns it. Indexes of fields which are not generated fall into the default case, which
+   * does nothing.
+   */
+  private static class FieldWriteImplementation implements Implementation {
+
+    private final TypeDescription targetType;
+    private final List<FieldDescription> fields = new ArrayList<>();
+    private final List<Integer> indexes = new ArrayList<>();
+    private final int fieldCount;
+
+    private FieldWriteImplementation(Class<?> type, List<Field> fields, boolean[] generatedFields) {
+      this.targetType = new ForLoadedType(type);
+      for (int i = 0; i < fields.size(); ++i) {
+        if (generatedFields[i]) {
+          this.fields.add(new FieldDescription.ForLoadedField(fields.get(i)));
+          this.indexes.add(i);
+        }
+      }
+      this.fieldCount = fields.size();
+    }
+
+    @Override
+    public InstrumentedType prepare(InstrumentedType instrumentedType) {
+      return instrumentedType;
+    }
+
+    @Override
+    public ByteCodeAppender appender(Target implementationTarget) {
+      return (methodVisitor, implementationContext, instrumentedMethod) -> {
+        if (fields.isEmpty()) {
+          StackManipulation.Size size = MethodReturn.VOID.apply(methodVisitor, implementationContext);
+          return new ByteCodeAppender.Size(size.getMaximalSize(), instrumentedMethod.getStackSize());
+        }
+
+        Label defaultCase = new Label();
+        Label[] cases = new Label[fieldCount];
+        for (int i = 0; i < fieldCount; ++i) {
+          cases[i] = defaultCase;
+        }
+        for (Integer index : indexes) {
+          cases[index] = new Label();
+        }
+
+        // switch on the fieldIndex parameter
+        methodVisitor.visitVarInsn(Opcodes.ILOAD, 2);
+        methodVisitor.visitTableSwitchInsn(0, fieldCount - 1, defaultCase, cases);
+
+        int maximalSize = 1;
+        for (int i = 0; i < fields.size(); ++i) {
+          FieldDescription field = fields.get(i);
+          methodVisitor.visitLabel(cases[indexes.get(i)]);
+          methodVisitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+
+          List<StackManipulation> stack = new ArrayList<>();
+
+          // load the target and cast it to its actual type
+          stack.add(MethodVariableAccess.REFERENCE.loadFrom(1));
+          stack.add(TypeCasting.to(targetType));
+
+          // load the value and cast it to the type of the field
+          stack.add(MethodVariableAccess.REFERENCE.loadFrom(3));
+          stack.add(Assigner.DEFAULT.assign(new ForLoadedType(Object.class).asGenericType(), field.getType(), DYNAMIC));
+
+          stack.add(FieldAccess.forField(field).write());
+          stack.add(MethodReturn.VOID);
+
+          StackManipulation.Size size = new StackManipulation.Compound(stack).apply(methodVisitor, implementationContext);
+          maximalSize = max(maximalSize, size.getMaximalSize());
+        }
+
+        methodVisitor.visitLabel(defaultCase);
+        methodVisitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        MethodReturn.VOID.apply(methodVisitor, implementationContext);
+
+        return new ByteCodeAppender.Size(maximalSize, instrumentedMethod.getStackSize());
+      };
+    }
+  }
+
+  /**
+   * An {@link InstanceWriter} which does everything through reflection, or through {@link MethodHandle}s on the fields when
+   * that doesn't change how the values are assigned.
+   */
+  private static final class ReflectiveInstanceWriter<T> implements InstanceWriter<T> {
+
+    private final Class<T> type;
+    private final Field[] fields;
+    private final FieldWriter[] writers;
+
+    private ReflectiveInstanceWriter(Class<T> type, List<Field> fields) {
+      this.type = type;
+      this.fields = fields.toArray(new Field[fields.size()]);
+      this.writers = new FieldWriter[this.fields.length];
+    }
+
+    @Override
+    public T newInstance() {
+      return createInstance(type);
+    }
+
+    @Override
+    public void write(T target, int fieldIndex, Object value) {
+      FieldWriter writer = writers[fieldIndex];
+      if (writer == null) {
+        // lazily created since making every field accessible is not needed, nor always possible.
+        // Racing threads would just create equivalent writers.
+        writer = createFieldWriter(fields[fieldIndex]);
+        writers[fieldIndex] = writer;
+      }
+      writer.write(target, value);
+    }
+
+    private static FieldWriter createFieldWriter(Field field) {
+      // makes the field accessible
+      FieldSetter<Object, Object> setter = new FieldSetter<>(field);
+      if (field.getType().isPrimitive()) {
+        return setter::set;
+      }
+
+      MethodHandle handle;
+      try {
+        handle = lookup().unreflectSetter(field).asType(methodType(void.class, Object.class, Object.class));
+      } catch (IllegalAccessException e) {
+        // final fields, for instance
+        return setter::set;
+      }
+      return (target, value) -> {
+        try {
+          handle.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable t) {
+          throw new IllegalStateException(t);
+        }
+      };
+    }
+  }
+
+  @FunctionalInterface
+  private interface FieldWriter {
+
+    void write(Object target, Object value);
+  }
+
+  /**
+   * An {@link InstanceWriter} which uses the generated one for the fields accessible from it, and reflection for the others.
+   */
+  private static final class MixedInstanceWriter<T> implements InstanceWriter<T> {
+
+    private final InstanceWriter<T> generatedWriter;
+    private final boolean[] generatedFields;
+    private final InstanceWriter<T> reflectiveWriter;
+
+    private MixedInstanceWriter(InstanceWriter<T> generatedWriter, boolean[] generatedFields,
+                                InstanceWriter<T> reflectiveWriter) {
+      this.generatedWriter = generatedWriter;
+      this.generatedFields = generatedFields;
+      this.reflectiveWriter = reflectiveWriter;
+    }
+
+    @Override
+    public T newInstance() {
+      return generatedWriter.newInstance();
+    }
+
+    @Override
+    public void write(T target, int fieldIndex, Object value) {
+      if (generatedFields[fieldIndex]) {
+        generatedWriter.write(target, fieldIndex, value);
+      } else {
+        reflectiveWriter.write(target, fieldIndex, value);
+      }
+    }
+  }
+}
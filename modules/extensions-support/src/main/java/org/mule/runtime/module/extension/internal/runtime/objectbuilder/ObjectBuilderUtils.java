@@ -32,5 +32,23 @@ class ObjectBuilderUtils {
     }
   }
 
+  /**
+   * Creates a new instance of the given {@code prototypeClass} through the given {@code instanceWriter}
+   *
+   * @param instanceWriter the {@link InstanceWriter} for the {@code prototypeClass}
+   * @param prototypeClass the class of the object to create
+   * @param <T>            the generic type of the {@code prototypeClass}
+   * @return a new instance
+   */
+  public static <T> T createInstance(InstanceWriter<T> instanceWriter, Class<T> prototypeClass) {
+    try {
+      return instanceWriter.newInstance();
+    } catch (MuleRuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create instance of " + prototypeClass), e);
+    }
+  }
+
   private ObjectBuilderUtils() {}
 }
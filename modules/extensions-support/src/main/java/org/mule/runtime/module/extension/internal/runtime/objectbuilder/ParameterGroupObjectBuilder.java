@@ -26,6 +26,7 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.StaticValueRe
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext;
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 
+import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -41,6 +42,8 @@ public class ParameterGroupObjectBuilder<T> {
   private final Class<T> prototypeClass;
   private final ExpressionManager expressionManager;
   private final List<FieldElement> groupDescriptorFields;
+  private final InstanceWriter<T> instanceWriter;
+  private final int[] fieldIndexes;
 
   /**
    * Create a new instance
@@ -55,6 +58,12 @@ public class ParameterGroupObjectBuilder<T> {
     checkInstantiable(prototypeClass, reflectionCache);
     this.expressionManager = expressionManager;
     this.groupDescriptorFields = reflectionCache.fieldElementsFor(groupDescriptor);
+    this.instanceWriter = reflectionCache.getInstanceWriter(prototypeClass);
+
+    List<Field> fields = reflectionCache.getFields(prototypeClass);
+    this.fieldIndexes = groupDescriptorFields.stream()
+        .mapToInt(field -> field.getField().map(fields::indexOf).orElse(-1))
+        .toArray();
   }
 
   public T build(EventedExecutionContext executionContext) throws MuleException {
@@ -86,15 +95,20 @@ public class ParameterGroupObjectBuilder<T> {
 
   private T doBuild(Predicate<String> hasParameter, Function<String, Object> parameters, ValueResolvingContext context)
       throws MuleException {
-    T object = createInstance(prototypeClass);
+    T object = createInstance(instanceWriter, prototypeClass);
 
-    for (FieldElement field : groupDescriptorFields) {
+    for (int i = 0; i < fieldIndexes.length; ++i) {
+      FieldElement field = groupDescriptorFields.get(i);
       String name = field.getName();
       if (hasParameter.test(name)) {
         Object resolvedValue = resolveValue(new StaticValueResolver<>(parameters.apply(name)), context);
         Object value = context == null || context.resolveCursors() ? resolveCursorAsUnclosable(resolvedValue)
             : typedValueAsUnclosable(resolvedValue);
-        field.set(object, value);
+        if (fieldIndexes[i] < 0) {
+          field.set(object, value);
+        } else {
+          instanceWriter.write(object, fieldIndexes[i], value);
+        }
       }
     }
 
@@ -19,6 +19,7 @@ import static org.mule.runtime.module.artifact.api.classloader.RegionClassLoader
 import static org.mule.runtime.module.extension.internal.util.MuleExtensionUtils.getClassLoader;
 import static org.mule.runtime.module.extension.internal.util.MuleExtensionUtils.getMutableConfigurationStats;
 import static org.mule.runtime.module.extension.internal.util.MuleExtensionUtils.isConnectedStreamingOperation;
+import static org.mule.runtime.module.extension.internal.util.MuleExtensionUtils.isNonBlocking;
 import static org.mule.runtime.module.extension.internal.util.ReconnectionUtils.NULL_THROWABLE_CONSUMER;
 import static org.mule.runtime.module.extension.internal.util.ReconnectionUtils.shouldRetry;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -30,6 +31,7 @@ import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.declaration.fluent.ConfigurationDeclaration;
 import org.mule.runtime.api.profiling.ProfilingDataProducer;
 import org.mule.runtime.api.profiling.type.context.ComponentThreadingProfilingEventContext;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.execution.ExecutionCallback;
 import org.mule.runtime.core.api.execution.ExecutionTemplate;
@@ -47,6 +49,8 @@ import org.mule.runtime.module.extension.internal.runtime.exception.ModuleExcept
 import org.mule.runtime.module.extension.internal.runtime.execution.interceptor.InterceptorChain;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -63,6 +67,9 @@ import org.slf4j.Logger;
  * available interceptors. If the operation fails with {@link ConnectionException}, then a retry might be attempted depending on
  * the configured {@link RetryPolicyTemplate}. Notice that if a retry is attempted, the entire cycle of interception (before,
  * onSuccess/interceptError, after) will be fired again.
+ * <p>
+ * For non blocking operations, the interceptors are {@link InterceptorChain#prepare(ExecutionContext) prepared} before the
+ * interception cycle, so the thread is not blocked while, for instance, waiting for a connection to become available.
  *
  * @since 4.0
  */
@@ -75,6 +82,7 @@ public final class DefaultExecutionMediator<M extends ComponentModel> implements
   private final ResultTransformer resultTransformer;
   private final ClassLoader executionClassLoader;
   private final ComponentModel operationModel;
+  private final boolean nonBlocking;
   private final ProfilingDataProducer<ComponentThreadingProfilingEventContext, CoreEvent> threadReleaseDataProducer;
 
   private static final Logger LOGGER = getLogger(DefaultExecutionMediator.class);
@@ -92,6 +100,7 @@ public final class DefaultExecutionMediator<M extends ComponentModel> implements
     this.moduleExceptionHandler = new ModuleExceptionHandler(operationModel, extensionModel, typeRepository, suppressErrors);
     this.resultTransformer = resultTransformer;
     this.operationModel = operationModel;
+    this.nonBlocking = isNonBlocking(operationModel);
 
     // The effective execution ClassLoader will be a composition with the extension ClassLoader being used first and
     // then the default execution ClassLoader which may depend on the execution context.
@@ -220,6 +229,55 @@ public final class DefaultExecutionMediator<M extends ComponentModel> implements
   private void executeCommand(CompletableComponentExecutor<M> executor,
                               ExecutionContextAdapter<M> context,
                               ExecutorCallback callback) {
+    // Transactional resources are bound to the current thread, so the execution cannot be resumed in a different one
+    if (nonBlocking && !context.getTransactionConfig().isPresent()) {
+      CompletableFuture<Void> prepared = interceptorChain.prepare(context);
+      if (!prepared.isDone()) {
+        prepared.whenComplete((v, e) -> {
+          if (e != null) {
+            // the preparation failed before any interceptor was applied, so there is nothing to undo
+            callback.error(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+          } else {
+            resumeCommand(executor, context, callback);
+          }
+        });
+        return;
+      }
+    }
+
+    doExecuteCommand(executor, context, callback);
+  }
+
+  private void resumeCommand(CompletableComponentExecutor<M> executor,
+                             ExecutionContextAdapter<M> context,
+                             ExecutorCallback callback) {
+    final Runnable command = () -> {
+      try {
+        doExecuteCommand(executor, context, callback);
+      } catch (Exception e) {
+        callback.error(e);
+      } catch (Throwable t) {
+        callback.error(wrapFatal(t));
+      }
+    };
+
+    Scheduler scheduler = context.getCurrentScheduler();
+    if (scheduler != null) {
+      try {
+        scheduler.execute(command);
+        return;
+      } catch (RejectedExecutionException e) {
+        // The operation is non blocking, so it may as well be executed by the thread that completed the preparation
+        LOGGER.debug("Scheduler {} rejected the execution of the operation, executing it in the current thread", scheduler, e);
+      }
+    }
+
+    command.run();
+  }
+
+  private void doExecuteCommand(CompletableComponentExecutor<M> executor,
+                                ExecutionContextAdapter<M> context,
+                                ExecutorCallback callback) {
     Throwable t = interceptorChain.before(context, callback);
     if (t == null) {
       if (resultTransformer != null) {
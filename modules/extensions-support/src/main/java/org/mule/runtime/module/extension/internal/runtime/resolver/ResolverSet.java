@@ -6,20 +6,27 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
+import static java.util.Arrays.copyOf;
+
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveRecursively;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectBuilder;
 
+import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
+import org.slf4j.Logger;
 
 /**
  * A {@link ValueResolver} which is based on associating a set of keys -&gt; {@link ValueResolver} pairs. The result of evaluating
@@ -31,14 +38,20 @@ import com.google.common.collect.ImmutableMap;
  * be a {@link ResolverSetResult} which then can be used by a {@link ObjectBuilder} to generate an actual object.
  * <p>
  * Instances of this class are to be considered thread safe and reusable
+ * <p>
+ * Upon {@link #initialise() initialisation}, the resolvers are compiled into a positional form in which the values of the static
+ * resolvers that don't depend on the resolution context are precomputed, so only the remaining ones are evaluated each time.
  *
  * @since 3.7.0
  */
 public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisable {
 
+  private static final Logger LOGGER = getLogger(ResolverSet.class);
+
   private final Map<String, ValueResolver<?>> resolvers = new LinkedHashMap<>();
   private boolean dynamic = false;
   private final MuleContext muleContext;
+  private volatile CompiledResolvers compiledResolvers;
 
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
@@ -60,6 +73,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (resolvers.put(key, resolver) != null) {
       throw new IllegalStateException("A value was already given for key " + key);
     }
+    compiledResolvers = null;
 
     if (!dynamic && resolver.isDynamic()) {
       dynamic = true;
@@ -101,6 +115,11 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
    */
   @Override
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
+    final CompiledResolvers compiled = compiledResolvers;
+    if (compiled != null) {
+      return compiled.resolve(context);
+    }
+
     ResolverSetResult.Builder builder = getResolverSetBuilder();
 
     for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
@@ -133,10 +152,102 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   @Override
   public void initialise() throws InitialisationException {
     initialiseIfNeeded(resolvers.values(), muleContext);
+    compiledResolvers = new CompiledResolvers(resolvers);
   }
 
   ResolverSetResult.Builder getResolverSetBuilder() {
     return ResolverSetResult.newBuilder();
   }
 
+  /**
+   * Whether the value of the given {@code resolver} can be computed beforehand and reused for every resolution. That is the case
+   * for the static resolvers known not to depend on the resolution context. Wrappers around other resolvers, such as the ones
+   * in charge of instantiating objects or fetching values from the config, are excluded since their values could change.
+   */
+  private static boolean isPrecomputable(ValueResolver<?> resolver) {
+    if (resolver.isDynamic()) {
+      return false;
+    }
+
+    if (resolver.getClass() == StaticValueResolver.class) {
+      return true;
+    } else if (resolver.getClass() == TypeSafeValueResolverWrapper.class) {
+      // Streams are not cached by the wrapper itself, since they can only be consumed once
+      TypeSafeValueResolverWrapper<?> typeSafeResolver = (TypeSafeValueResolverWrapper<?>) resolver;
+      return !InputStream.class.isAssignableFrom(typeSafeResolver.getExpectedType())
+          && isPrecomputable(typeSafeResolver.getDelegate());
+    } else if (resolver.getClass() == RequiredParameterValueResolverWrapper.class) {
+      return isPrecomputable(((RequiredParameterValueResolverWrapper<?>) resolver).delegate);
+    }
+
+    return false;
+  }
+
+  /**
+   * Positional form of the resolvers of a {@link ResolverSet}, with the precomputable values already resolved.
+   */
+  private static final class CompiledResolvers {
+
+    private final String[] keys;
+    private final Object[] staticValues;
+    private final int[] dynamicPositions;
+    private final ValueResolver<?>[] dynamicResolvers;
+    // When every value is precomputed, the same immutable result is shared by all the resolutions
+    private final ResolverSetResult staticResult;
+
+    private CompiledResolvers(Map<String, ValueResolver<?>> resolvers) {
+      keys = new String[resolvers.size()];
+      staticValues = new Object[resolvers.size()];
+      int[] dynamicPositions = new int[resolvers.size()];
+      ValueResolver<?>[] dynamicResolvers = new ValueResolver[resolvers.size()];
+
+      int position = 0;
+      int dynamicCount = 0;
+      for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
+        keys[position] = entry.getKey();
+        if (!precompute(entry.getKey(), entry.getValue(), position)) {
+          dynamicPositions[dynamicCount] = position;
+          dynamicResolvers[dynamicCount] = entry.getValue();
+          ++dynamicCount;
+        }
+        ++position;
+      }
+
+      this.dynamicPositions = copyOf(dynamicPositions, dynamicCount);
+      this.dynamicResolvers = copyOf(dynamicResolvers, dynamicCount);
+      staticResult = dynamicCount == 0 ? ResolverSetResult.of(keys, staticValues) : null;
+    }
+
+    private boolean precompute(String key, ValueResolver<?> resolver, int position) {
+      if (!isPrecomputable(resolver)) {
+        return false;
+      }
+
+      try {
+        Object value = resolver.resolve(null);
+        if (value instanceof ValueResolver) {
+          return false;
+        }
+        staticValues[position] = value;
+        return true;
+      } catch (Exception e) {
+        // Let the failure, if any, be reported when actually resolving the value
+        LOGGER.debug("Could not precompute the value of '{}', it will be resolved on each evaluation", key, e);
+        return false;
+      }
+    }
+
+    private ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
+      if (staticResult != null) {
+        return staticResult;
+      }
+
+      final Object[] values = staticValues.clone();
+      for (int i = 0; i < dynamicPositions.length; ++i) {
+        values[dynamicPositions[i]] = resolveRecursively(dynamicResolvers[i], context);
+      }
+      return ResolverSetResult.of(keys, values);
+    }
+  }
+
 }
@@ -72,6 +72,24 @@ public class ResolverSetResult {
     return new Builder();
   }
 
+  /**
+   * Creates a new instance in which each of the given {@code keys} is associated to the value in the same position of
+   * {@code values}.
+   *
+   * @param keys   the keys of the values
+   * @param values the values, matching the {@code keys} positionally
+   * @return a new {@link ResolverSetResult}
+   * @since 4.6.0
+   */
+  static ResolverSetResult of(String[] keys, Object[] values) {
+    // Sized so the map is never rehashed while populating it
+    LinkedHashMap<String, Object> evaluationResult = new LinkedHashMap<>((int) (keys.length / 0.75f) + 1);
+    for (int i = 0; i < keys.length; ++i) {
+      evaluationResult.put(keys[i], values[i]);
+    }
+    return new ResolverSetResult(unmodifiableMap(evaluationResult));
+  }
+
   private final Map<String, Object> evaluationResult;
   private final LazyValue<Integer> hashCode = new LazyValue<>(this::calculateHashCode);
 
@@ -72,6 +72,14 @@ public class TypeSafeValueResolverWrapper<T> implements ValueResolver<T>, Initia
     }
   }
 
+  ValueResolver getDelegate() {
+    return valueResolverDelegate;
+  }
+
+  Class<T> getExpectedType() {
+    return expectedType;
+  }
+
   public void setTransformationService(TransformationService transformationService) {
     this.transformationService = transformationService;
   }
@@ -15,6 +15,8 @@ import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.extension.api.exception.IllegalModelDefinitionException;
 import org.mule.runtime.module.extension.api.loader.java.type.FieldElement;
 import org.mule.runtime.module.extension.internal.loader.ParameterGroupDescriptor;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.InstanceWriter;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.InstanceWriterGenerator;
 
 import org.reflections.ReflectionUtils;
 
@@ -38,6 +40,7 @@ public class ReflectionCache {
       new ConcurrentHashMap<>(3, 0.9f);
   private final ConcurrentMap<Class<?>, List<Field>> fieldsByClass = new ConcurrentHashMap<>();
   private final ConcurrentMap<Class<?>, Boolean> hasDefaultConstructorsByClass = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, InstanceWriter<?>> instanceWriters = new ConcurrentHashMap<>();
 
   public List<FieldElement> fieldElementsFor(ParameterGroupDescriptor groupDescriptor) {
     Class<?> clazz = groupDescriptor.getType().getDeclaringClass().get();
@@ -114,4 +117,23 @@ public class ReflectionCache {
     return value;
   }
 
+  /**
+   * Returns an {@link InstanceWriter} for the given {@code clazz}, in which each field is referred to by its index in the result
+   * of {@link #getFields(Class)}.
+   *
+   * @param clazz the type of the instances to write
+   * @param <T>   the generic type of the instances
+   * @return an {@link InstanceWriter}
+   * @since 4.6.0
+   */
+  public <T> InstanceWriter<T> getInstanceWriter(Class<T> clazz) {
+    InstanceWriter<?> writer = instanceWriters.get(clazz);
+    // This pre-check is made in order to avoid the synchronized block in the implementation of ConcurrentHashMap
+    // (https://bugs.openjdk.java.net/browse/JDK-8161372)
+    if (writer == null) {
+      writer = instanceWriters.computeIfAbsent(clazz, cls -> InstanceWriterGenerator.generate(clazz, getFields(clazz)));
+    }
+    return (InstanceWriter<T>) writer;
+  }
+
 }
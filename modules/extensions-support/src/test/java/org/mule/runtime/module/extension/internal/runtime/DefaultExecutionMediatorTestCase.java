@@ -41,6 +41,7 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.junit.MockitoJUnit.rule;
@@ -82,6 +83,7 @@ import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContext
 import org.mule.runtime.module.extension.internal.runtime.config.LifecycleAwareConfigurationInstance;
 import org.mule.runtime.module.extension.internal.runtime.config.MutableConfigurationStats;
 import org.mule.runtime.module.extension.internal.runtime.execution.interceptor.InterceptorChain;
+import org.mule.runtime.module.extension.internal.runtime.execution.interceptor.PreparableInterceptor;
 import org.mule.runtime.module.extension.internal.runtime.operation.DefaultExecutionMediator;
 import org.mule.runtime.module.extension.internal.runtime.operation.ResultTransformer;
 import org.mule.runtime.module.extension.internal.runtime.operation.ExecutionMediator;
@@ -95,6 +97,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.junit.Before;
@@ -590,6 +593,60 @@ public class DefaultExecutionMediatorTestCase extends AbstractMuleContextTestCas
     });
   }
 
+  @Test
+  public void nonBlockingOperationWaitsForPreparedInterceptors() throws Throwable {
+    PreparableInterceptor preparableInterceptor = mock(PreparableInterceptor.class);
+    CompletableFuture<Void> prepared = new CompletableFuture<>();
+    when(preparableInterceptor.prepare(operationContext)).thenReturn(prepared);
+    when(operationModel.isBlocking()).thenReturn(false);
+
+    mediator = new DefaultExecutionMediator(extensionModel,
+                                            operationModel,
+                                            InterceptorChain.builder()
+                                                .addInterceptor(preparableInterceptor)
+                                                .addInterceptor(interceptor1)
+                                                .build(),
+                                            muleContext.getErrorTypeRepository(),
+                                            muleContext.getExecutionClassLoader(),
+                                            null,
+                                            threadReleaseDataProducer, true);
+
+    mediator.execute(operationExecutor, operationContext, executorCallback);
+    verify(preparableInterceptor, never()).before(operationContext);
+    verify(operationExecutor, never()).execute(same(operationContext), any());
+
+    prepared.complete(null);
+    verify(executorCallback, timeout(5000)).complete(result);
+    verify(preparableInterceptor).before(operationContext);
+    verify(interceptor1).before(operationContext);
+  }
+
+  @Test
+  public void nonBlockingOperationFailsIfPreparationFails() throws Throwable {
+    PreparableInterceptor preparableInterceptor = mock(PreparableInterceptor.class);
+    CompletableFuture<Void> prepared = new CompletableFuture<>();
+    when(preparableInterceptor.prepare(operationContext)).thenReturn(prepared);
+    when(operationModel.isBlocking()).thenReturn(false);
+
+    mediator = new DefaultExecutionMediator(extensionModel,
+                                            operationModel,
+                                            InterceptorChain.builder()
+                                                .addInterceptor(preparableInterceptor)
+                                                .addInterceptor(interceptor1)
+                                                .build(),
+                                            muleContext.getErrorTypeRepository(),
+                                            muleContext.getExecutionClassLoader(),
+                                            null,
+                                            threadReleaseDataProducer, true);
+
+    mediator.execute(operationExecutor, operationContext, executorCallback);
+
+    prepared.completeExceptionally(exception);
+    verify(executorCallback, timeout(5000)).error(exception);
+    verify(preparableInterceptor, never()).before(operationContext);
+    verify(operationExecutor, never()).execute(same(operationContext), any());
+  }
+
   @Test
   @Description("Tests the exception raised when trying to get the statistics from a configuration instance before " +
       "initializing it is correctly propagated through the executor's error callback")
@@ -63,4 +63,11 @@ public class DefaultMutableConfigurationStatsTestCase extends AbstractMuleTestCa
     assertThat(stats.discountActiveComponent(), is(0));
     assertThat(stats.getActiveComponents(), is(0));
   }
+
+  @Test
+  public void cacheHits() {
+    assertThat(stats.getCacheHits(), is(0L));
+    assertThat(stats.addCacheHit(), is(1L));
+    assertThat(stats.getCacheHits(), is(1L));
+  }
 }
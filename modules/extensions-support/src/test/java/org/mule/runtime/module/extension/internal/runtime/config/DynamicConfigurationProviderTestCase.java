@@ -14,6 +14,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -278,6 +279,92 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(instance.getDispose(), is(1));
   }
 
+  @Test
+  public void cacheMetrics() throws Exception {
+    ConfigurationInstance instance = provider.get(event);
+    provider.get(event);
+    provider.get(event);
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    assertThat(provider.getCacheMisses(), is(1L));
+    assertThat(provider.getCacheHits(), is(2L));
+    assertThat(((MutableConfigurationStats) instance.getStatistics()).getCacheHits(), is(2L));
+
+    timeSupplier.move(10, MINUTES);
+    provider.getExpired();
+    assertThat(provider.getCacheEvictions(), is(1L));
+  }
+
+  @Test
+  public void leastRecentlyUsedInstanceEvictedWhenFull() throws Exception {
+    useBoundedProvider(1);
+    HeisenbergExtension instance1 = (HeisenbergExtension) provider.get(event).getValue();
+    timeSupplier.move(1, MINUTES);
+    makeAlternateInstance();
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    assertThat(provider.getCacheEvictions(), is(1L));
+
+    // handed out since the previous sweep, so its user may not have accounted for it yet
+    assertThat(provider.getExpired().isEmpty(), is(true));
+    List<Object> configs = provider.getExpired().stream().map(ConfigurationInstance::getValue).collect(toImmutableList());
+    assertThat(configs, contains(instance1));
+    assertThat(provider.getExpired().isEmpty(), is(true));
+  }
+
+  @Test
+  public void evictedInstanceNotDisposedWhileActive() throws Exception {
+    useBoundedProvider(1);
+    ConfigurationInstance instance1 = provider.get(event);
+    timeSupplier.move(1, MINUTES);
+    makeAlternateInstance();
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    assertThat(provider.getCacheEvictions(), is(1L));
+
+    // the user of the instance accounts for it after it was evicted
+    MutableConfigurationStats stats = (MutableConfigurationStats) instance1.getStatistics();
+    stats.addActiveComponent();
+    assertThat(provider.getExpired().isEmpty(), is(true));
+    assertThat(provider.getExpired().isEmpty(), is(true));
+
+    stats.discountActiveComponent();
+    List<Object> configs = provider.getExpired().stream().map(ConfigurationInstance::getValue).collect(toImmutableList());
+    assertThat(configs, contains(instance1.getValue()));
+  }
+
+  @Test
+  public void invalidMaxInstances() throws Exception {
+    expected.expect(IllegalArgumentException.class);
+    useBoundedProvider(0);
+  }
+
+  @Test
+  public void activeInstanceNotEvictedWhenFull() throws Exception {
+    useBoundedProvider(1);
+    MutableConfigurationStats stats = (MutableConfigurationStats) provider.get(event).getStatistics();
+    stats.addActiveComponent();
+    timeSupplier.move(1, MINUTES);
+    makeAlternateInstance();
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    assertThat(provider.getCacheEvictions(), is(0L));
+    assertThat(provider.getExpired().isEmpty(), is(true));
+    stats.discountActiveComponent();
+  }
+
+  private void useBoundedProvider(int maxInstances) throws Exception {
+    stopIfNecessary();
+    disposeIfNecessary();
+
+    provider = new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel, resolverSet,
+                                                connectionProviderResolver, expirationPolicy, new ReflectionCache(),
+                                                expressionManager, muleContext, maxInstances);
+    muleContext.getInjector().inject(provider);
+    provider.initialise();
+    provider.start();
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
@@ -7,9 +7,15 @@
 package org.mule.runtime.module.extension.internal.runtime.connectivity;
 
 import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.CONNECTION_PARAM;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,6 +31,7 @@ import org.mule.test.petstore.extension.PetStoreConnector;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -124,4 +131,53 @@ public class ConnectionInterceptorTestCase extends AbstractMuleContextTestCase {
     interceptor.after(operationContext, null);
     verify(connectionHandler).release();
   }
+
+  @Test
+  public void preparedConnectionIsUsed() throws Exception {
+    CompletableFuture<ConnectionHandler<?>> pending = new CompletableFuture<>();
+    when(connectionSupplier.getConnectionAsync(operationContext)).thenReturn(pending);
+
+    CompletableFuture<Void> prepared = interceptor.prepare(operationContext);
+    assertThat(prepared.isDone(), is(false));
+
+    pending.complete(connectionHandler);
+    assertThat(prepared.isDone(), is(true));
+
+    interceptor.before(operationContext);
+    assertThat(operationContext.getVariable(CONNECTION_PARAM), is(sameInstance(connectionHandler)));
+    verify(connectionSupplier, never()).getConnection(operationContext);
+
+    interceptor.onSuccess(operationContext, null);
+    interceptor.after(operationContext, null);
+    verify(connectionHandler).release();
+  }
+
+  @Test
+  public void preparedConnectionFailureThrownOnBefore() throws Exception {
+    final ConnectionException exception = new ConnectionException("Bleh");
+    CompletableFuture<ConnectionHandler<?>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(exception);
+    when(connectionSupplier.getConnectionAsync(operationContext)).thenReturn(failed);
+
+    assertThat(interceptor.prepare(operationContext).isDone(), is(true));
+    try {
+      interceptor.before(operationContext);
+      fail("Was expecting the connection failure");
+    } catch (ConnectionException e) {
+      assertThat(e, is(sameInstance(exception)));
+    }
+
+    // a retry gets a new connection
+    interceptor.before(operationContext);
+    verify(connectionSupplier, times(1)).getConnection(operationContext);
+  }
+
+  @Test
+  public void pagedOperationNotPrepared() throws Exception {
+    when(operationModel.getModelProperty(PagedOperationModelProperty.class))
+        .thenReturn(Optional.of(new PagedOperationModelProperty()));
+
+    assertThat(interceptor.prepare(operationContext).isDone(), is(true));
+    verify(connectionSupplier, never()).getConnectionAsync(operationContext);
+  }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.module.extension.internal.util.ReflectionCache;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class InstanceWriterGeneratorTestCase extends AbstractMuleTestCase {
+
+  private final ReflectionCache reflectionCache = new ReflectionCache();
+
+  @Test
+  public void publicFieldsWrittenByGeneratedClass() throws Exception {
+    InstanceWriter<PublicFields> writer = generate(PublicFields.class);
+    assertThat(writer.getClass().getName(), startsWith(PublicFields.class.getName() + "$InstanceWriter$"));
+
+    PublicFields instance = writer.newInstance();
+    writer.write(instance, indexOf(PublicFields.class, "name"), "Walter");
+    writer.write(instance, indexOf(PublicFields.class, "age"), 50);
+
+    assertThat(instance.name, is("Walter"));
+    assertThat(instance.age, is(50));
+  }
+
+  @Test
+  public void privateFieldsWrittenThroughReflection() throws Exception {
+    InstanceWriter<MixedFields> writer = generate(MixedFields.class);
+
+    MixedFields instance = writer.newInstance();
+    writer.write(instance, indexOf(MixedFields.class, "name"), "Walter");
+    writer.write(instance, indexOf(MixedFields.class, "alias"), "Heisenberg");
+
+    assertThat(instance.name, is("Walter"));
+    assertThat(instance.getAlias(), is("Heisenberg"));
+  }
+
+  @Test
+  public void settersNotCalled() throws Exception {
+    InstanceWriter<SetterFields> writer = generate(SetterFields.class);
+
+    SetterFields instance = writer.newInstance();
+    writer.write(instance, indexOf(SetterFields.class, "name"), "Walter");
+    writer.write(instance, indexOf(SetterFields.class, "age"), 50);
+
+    assertThat(instance.getName(), is("Walter"));
+    assertThat(instance.getAge(), is(50));
+    assertThat(instance.setterCalls, is(0));
+  }
+
+  @Test
+  public void primitiveFieldsWidened() throws Exception {
+    InstanceWriter<PrimitiveFields> writer = generate(PrimitiveFields.class);
+
+    PrimitiveFields instance = writer.newInstance();
+    writer.write(instance, indexOf(PrimitiveFields.class, "id"), 42);
+    writer.write(instance, indexOf(PrimitiveFields.class, "age"), (short) 50);
+
+    assertThat(instance.id, is(42L));
+    assertThat(instance.getAge(), is(50));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullIntoPublicPrimitiveFieldFails() throws Exception {
+    InstanceWriter<PrimitiveFields> writer = generate(PrimitiveFields.class);
+    writer.write(writer.newInstance(), indexOf(PrimitiveFields.class, "id"), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullIntoPrivatePrimitiveFieldFails() throws Exception {
+    InstanceWriter<PrimitiveFields> writer = generate(PrimitiveFields.class);
+    writer.write(writer.newInstance(), indexOf(PrimitiveFields.class, "age"), null);
+  }
+
+  @Test
+  public void inheritedFieldsWritten() throws Exception {
+    InstanceWriter<ChildFields> writer = generate(ChildFields.class);
+
+    ChildFields instance = writer.newInstance();
+    writer.write(instance, indexOf(ChildFields.class, "name"), "Jesse");
+    writer.write(instance, indexOf(ChildFields.class, "nickname"), "Cap'n Cook");
+
+    assertThat(instance.name, is("Jesse"));
+    assertThat(instance.nickname, is("Cap'n Cook"));
+  }
+
+  @Test
+  public void nonPublicTypeWrittenThroughReflection() throws Exception {
+    InstanceWriter<NonPublicFields> writer = generate(NonPublicFields.class);
+    assertThat(writer.getClass().getName(), not(startsWith(NonPublicFields.class.getName())));
+
+    NonPublicFields instance = writer.newInstance();
+    writer.write(instance, indexOf(NonPublicFields.class, "name"), "Saul");
+
+    assertThat(instance.name, is("Saul"));
+  }
+
+  @Test
+  public void nullValueWritten() throws Exception {
+    InstanceWriter<PublicFields> writer = generate(PublicFields.class);
+
+    PublicFields instance = writer.newInstance();
+    instance.name = "Walter";
+    writer.write(instance, indexOf(PublicFields.class, "name"), null);
+
+    assertThat(instance.name, is(nullValue()));
+  }
+
+  @Test
+  public void sameFieldsReuseGeneratedClass() throws Exception {
+    InstanceWriter<PublicFields> writer1 = generate(PublicFields.class);
+    InstanceWriter<PublicFields> writer2 = generate(PublicFields.class);
+
+    assertThat(writer1, is(not(sameInstance(writer2))));
+    assertThat(writer1.getClass(), is(sameInstance(writer2.getClass())));
+  }
+
+  private <T> InstanceWriter<T> generate(Class<T> type) {
+    return InstanceWriterGenerator.generate(type, reflectionCache.getFields(type));
+  }
+
+  private int indexOf(Class<?> type, String fieldName) {
+    List<Field> fields = reflectionCache.getFields(type);
+    for (int i = 0; i < fields.size(); ++i) {
+      if (fields.get(i).getName().equals(fieldName)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(fieldName);
+  }
+
+  public static class PublicFields {
+
+    public String name;
+    public Integer age;
+  }
+
+  public static class PrimitiveFields {
+
+    public long id;
+    private int age;
+
+    public int getAge() {
+      return age;
+    }
+  }
+
+  public static class MixedFields {
+
+    public String name;
+    private String alias;
+
+    public String getAlias() {
+      return alias;
+    }
+  }
+
+  public static class SetterFields {
+
+    private String name;
+    private int age;
+    public int setterCalls;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+      setterCalls++;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public SetterFields setAge(int age) {
+      this.age = age;
+      setterCalls++;
+      return this;
+    }
+  }
+
+  public static class ChildFields extends PublicFields {
+
+    public String nickname;
+  }
+
+  static class NonPublicFields {
+
+    String name;
+  }
+}
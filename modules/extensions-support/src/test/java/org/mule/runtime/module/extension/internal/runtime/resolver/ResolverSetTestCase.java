@@ -7,12 +7,18 @@
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.getParameter;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.meta.model.parameter.ParameterModel;
+import org.mule.runtime.core.api.Injector;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.event.CoreEvent;
@@ -100,6 +106,51 @@ public class ResolverSetTestCase extends AbstractMuleTestCase {
     assertThat(set.isDynamic(), is(true));
   }
 
+  @Test
+  public void staticValuesPrecomputedOnInitialise() throws Exception {
+    when(muleContext.getInjector()).thenReturn(mock(Injector.class));
+    ResolverSet staticSet = new ResolverSet(muleContext)
+        .add("myName", new StaticValueResolver<>(NAME))
+        .add("age", new RequiredParameterValueResolverWrapper<>(new StaticValueResolver<>(AGE), "age"));
+    staticSet.initialise();
+
+    ResolverSetResult result = staticSet.resolve(resolvingContext);
+    assertThat(result.get("myName"), is(NAME));
+    assertThat(result.get("age"), is(AGE));
+    assertThat(staticSet.resolve(resolvingContext), is(sameInstance(result)));
+  }
+
+  @Test
+  public void onlyDynamicValuesResolvedAfterInitialise() throws Exception {
+    when(muleContext.getInjector()).thenReturn(mock(Injector.class));
+    ValueResolver dynamicResolver = ExtensionsTestUtils.getResolver(AGE, resolvingContext, true);
+    StaticValueResolver<String> staticResolver = new StaticValueResolver<>(NAME);
+    ResolverSet mixedSet = new ResolverSet(muleContext)
+        .add("myName", staticResolver)
+        .add("age", dynamicResolver);
+    mixedSet.initialise();
+
+    ResolverSetResult result = mixedSet.resolve(resolvingContext);
+    ResolverSetResult otherResult = mixedSet.resolve(resolvingContext);
+    assertThat(otherResult, is(not(sameInstance(result))));
+    assertThat(otherResult, is(result));
+    assertThat(result.asMap().keySet().iterator().next(), is("myName"));
+    assertThat(result.get("myName"), is(NAME));
+    assertThat(result.get("age"), is(AGE));
+    verify(dynamicResolver, times(2)).resolve(resolvingContext);
+  }
+
+  @Test
+  public void addAfterInitialise() throws Exception {
+    when(muleContext.getInjector()).thenReturn(mock(Injector.class));
+    ResolverSet staticSet = new ResolverSet(muleContext).add("myName", new StaticValueResolver<>(NAME));
+    staticSet.initialise();
+    staticSet.resolve(resolvingContext);
+
+    staticSet.add("age", new StaticValueResolver<>(AGE));
+    assertThat(staticSet.resolve(resolvingContext).get("age"), is(AGE));
+  }
+
   private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception {
     assertThat(result, is(notNullValue()));
     for (Map.Entry<ParameterModel, ValueResolver> entry : mapping.entrySet()) {
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.internal.memory.bytebuffer;
+
+import static org.mule.runtime.api.memory.provider.type.ByteBufferType.HEAP;
+import static org.mule.runtime.api.profiling.type.RuntimeProfilingEventTypes.MEMORY_BYTE_BUFFER_ALLOCATION;
+import static org.mule.runtime.internal.memory.bytebuffer.ByteBufferProviderBuilder.SIZE_CLASS_POOLING_PROPERTY;
+import static org.mule.runtime.internal.memory.bytebuffer.ByteBufferProviderBuilder.buildByteBufferProviderFrom;
+import static org.mule.runtime.internal.memory.bytebuffer.SizeClassByteBufferProvider.MIN_SIZE_CLASS;
+import static org.mule.runtime.internal.memory.bytebuffer.SizeClassByteBufferProvider.THREAD_CACHE_BYTES_PER_SIZE_CLASS;
+import static org.mule.runtime.internal.memory.bytebuffer.SizeClassByteBufferProvider.THREAD_CACHE_SIZE;
+import static org.mule.tck.junit4.rule.SystemProperty.callWithProperty;
+import static org.mule.test.allure.AllureConstants.MemoryManagement.MEMORY_MANAGEMENT;
+import static org.mule.test.allure.AllureConstants.MemoryManagement.MemoryManagementServiceStory.BYTE_BUFFER_PROVIDER;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.junit.MockitoJUnit.rule;
+
+import org.mule.runtime.api.memory.provider.ByteBufferProvider;
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
+import org.mule.runtime.api.profiling.ProfilingService;
+import org.mule.runtime.api.profiling.type.context.ByteBufferProviderEventContext;
+import org.mule.runtime.internal.memory.bytebuffer.profiling.SizeClassByteBufferProviderEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoRule;
+
+@Feature(MEMORY_MANAGEMENT)
+@Story(BYTE_BUFFER_PROVIDER)
+public class SizeClassByteBufferProviderTestCase extends AbstractMuleTestCase {
+
+  private static final int TEST_MAX_BUFFER_SIZE = 4096;
+  private static final String TEST_SIZE_CLASS_BUFFER_PROVIDER = "test-size-class-buffer-provider";
+
+  @Rule
+  public MockitoRule rule = rule();
+
+  @Mock
+  ProfilingService profilingService;
+
+  @Mock
+  ProfilingDataProducer<ByteBufferProviderEventContext, Object> allocationDataProducer;
+
+  private SizeClassByteBufferProvider provider;
+
+  @Before
+  public void setUp() {
+    when(profilingService.getProfilingDataProducer(any(), any())).thenReturn(mock(ProfilingDataProducer.class));
+    when(profilingService.getProfilingDataProducer(eq(MEMORY_BYTE_BUFFER_ALLOCATION), any())).thenReturn(allocationDataProducer);
+    provider = new SizeClassByteBufferProvider(TEST_SIZE_CLASS_BUFFER_PROVIDER, true, TEST_MAX_BUFFER_SIZE, profilingService);
+  }
+
+  @After
+  public void tearDown() {
+    provider.dispose();
+  }
+
+  @Test
+  public void allocationsAreRoundedToSizeClass() {
+    assertByteBuffer(provider.allocate(1), MIN_SIZE_CLASS, 1);
+    assertByteBuffer(provider.allocate(MIN_SIZE_CLASS + 1), MIN_SIZE_CLASS * 2, MIN_SIZE_CLASS + 1);
+    assertByteBuffer(provider.allocate(1000), 1024, 1000);
+    assertByteBuffer(provider.allocateAtLeast(1000), 1024, 1024);
+  }
+
+  @Test
+  public void releasedBufferIsReused() {
+    ByteBuffer byteBuffer = provider.allocate(100);
+    byteBuffer.put((byte) 1);
+    provider.release(byteBuffer);
+
+    ByteBuffer reused = provider.allocate(120);
+    assertThat(reused, is(sameInstance(byteBuffer)));
+    assertByteBuffer(reused, 128, 120);
+    assertThat(provider.getAllocationsCount(), is(1L));
+    assertThat(provider.getReusesCount(), is(1L));
+  }
+
+  @Test
+  public void differentSizeClassesAreNotMixed() {
+    ByteBuffer byteBuffer = provider.allocate(100);
+    provider.release(byteBuffer);
+
+    assertThat(provider.allocate(300), is(not(sameInstance(byteBuffer))));
+    assertThat(provider.getReusesCount(), is(0L));
+  }
+
+  @Test
+  public void buffersBiggerThanMaxAreNotPooled() {
+    ByteBuffer byteBuffer = provider.allocate(TEST_MAX_BUFFER_SIZE * 2);
+    assertByteBuffer(byteBuffer, TEST_MAX_BUFFER_SIZE * 2, TEST_MAX_BUFFER_SIZE * 2);
+    provider.release(byteBuffer);
+
+    assertThat(provider.allocate(TEST_MAX_BUFFER_SIZE * 2), is(not(sameInstance(byteBuffer))));
+  }
+
+  @Test
+  public void threadCacheOverflowsToSharedFreeList() throws Exception {
+    List<ByteBuffer> byteBuffers = new ArrayList<>();
+    for (int i = 0; i < THREAD_CACHE_SIZE * 2; i++) {
+      byteBuffers.add(provider.allocate(MIN_SIZE_CLASS));
+    }
+    byteBuffers.forEach(provider::release);
+
+    // another thread has an empty cache, so it can only reuse what was flushed to the shared free list
+    Thread thread = new Thread(() -> {
+      for (int i = 0; i < THREAD_CACHE_SIZE; i++) {
+        provider.allocate(MIN_SIZE_CLASS);
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(provider.getReusesCount(), is((long) THREAD_CACHE_SIZE));
+  }
+
+  @Test
+  public void threadCacheIsBoundedInBytes() throws Exception {
+    int cachedPerThread = THREAD_CACHE_BYTES_PER_SIZE_CLASS / TEST_MAX_BUFFER_SIZE;
+    List<ByteBuffer> byteBuffers = new ArrayList<>();
+    for (int i = 0; i < cachedPerThread * 2; i++) {
+      byteBuffers.add(provider.allocate(TEST_MAX_BUFFER_SIZE));
+    }
+    byteBuffers.forEach(provider::release);
+
+    // whatever didn't fit in the cache of this thread went to the shared free list
+    runInOtherThread(() -> {
+      for (int i = 0; i < cachedPerThread * 2; i++) {
+        provider.allocate(TEST_MAX_BUFFER_SIZE);
+      }
+    });
+
+    assertThat(provider.getReusesCount(), is((long) cachedPerThread));
+  }
+
+  @Test
+  public void idleThreadCacheIsFlushedAfterTrims() throws Exception {
+    provider.release(provider.allocate(MIN_SIZE_CLASS));
+
+    // the first trim after the release starts tracking the buffer as unused, the second one flushes it
+    provider.trim();
+    provider.allocate(TEST_MAX_BUFFER_SIZE);
+    provider.trim();
+    provider.allocate(TEST_MAX_BUFFER_SIZE);
+
+    runInOtherThread(() -> provider.allocate(MIN_SIZE_CLASS));
+
+    assertThat(provider.getReusesCount(), is(1L));
+  }
+
+  @Test
+  public void allocationEventsCarryCounters() {
+    ByteBuffer allocated = provider.allocate(MIN_SIZE_CLASS);
+    provider.release(allocated);
+    ByteBuffer reused = provider.allocate(MIN_SIZE_CLASS);
+
+    ArgumentCaptor<Function<Object, ByteBufferProviderEventContext>> transformations = ArgumentCaptor.forClass(Function.class);
+    verify(allocationDataProducer, times(2)).triggerProfilingEvent(any(), transformations.capture());
+
+    SizeClassByteBufferProviderEventContext first =
+        (SizeClassByteBufferProviderEventContext) transformations.getAllValues().get(0).apply(allocated);
+    assertThat(first.isReused(), is(false));
+    assertThat(first.size(), is(MIN_SIZE_CLASS));
+
+    SizeClassByteBufferProviderEventContext second =
+        (SizeClassByteBufferProviderEventContext) transformations.getAllValues().get(1).apply(reused);
+    assertThat(second.isReused(), is(true));
+    assertThat(second.getAllocationsCount(), is(1L));
+    assertThat(second.getReusesCount(), is(1L));
+  }
+
+  @Test
+  public void allocationEventContextsBuiltOnlyWhenConsumed() {
+    provider.allocate(MIN_SIZE_CLASS);
+
+    verify(allocationDataProducer, never()).triggerProfilingEvent(any(ByteBufferProviderEventContext.class));
+  }
+
+  @Test
+  public void reallocateKeepsContent() {
+    ByteBuffer byteBuffer = provider.allocate(MIN_SIZE_CLASS);
+    byteBuffer.put((byte) 7);
+
+    ByteBuffer reallocated = provider.reallocate(byteBuffer, MIN_SIZE_CLASS * 4);
+    assertThat(reallocated.capacity(), is(MIN_SIZE_CLASS * 4));
+    assertThat(reallocated.get(0), is((byte) 7));
+  }
+
+  @Test
+  public void builtWhenEnabled() throws Throwable {
+    ByteBufferProvider<ByteBuffer> built = callWithProperty(SIZE_CLASS_POOLING_PROPERTY, "true",
+                                                            () -> buildByteBufferProviderFrom(HEAP)
+                                                                .withName(TEST_SIZE_CLASS_BUFFER_PROVIDER)
+                                                                .withProfilingService(profilingService).build());
+    assertThat(built, instanceOf(SizeClassByteBufferProvider.class));
+  }
+
+  private static void runInOtherThread(Runnable task) throws InterruptedException {
+    Thread thread = new Thread(task);
+    thread.start();
+    thread.join();
+  }
+
+  private void assertByteBuffer(ByteBuffer byteBuffer, int capacity, int limit) {
+    assertThat(byteBuffer.isDirect(), is(true));
+    assertThat(byteBuffer.capacity(), is(capacity));
+    assertThat(byteBuffer.limit(), is(limit));
+    assertThat(byteBuffer.position(), is(0));
+  }
+}
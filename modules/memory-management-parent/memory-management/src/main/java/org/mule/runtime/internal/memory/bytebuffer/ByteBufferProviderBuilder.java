@@ -8,8 +8,12 @@ package org.mule.runtime.internal.memory.bytebuffer;
 
 import static org.mule.runtime.api.memory.provider.type.ByteBufferPoolStrategy.FIXED_BUFFERS_POOL;
 import static org.mule.runtime.api.memory.provider.type.ByteBufferType.DIRECT;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.internal.memory.bytebuffer.ThreadPoolBasedByteBufferProvider.DEFAULT_MAX_BUFFER_SIZE;
 import static org.mule.runtime.internal.memory.profiling.NoOpMemoryProfilingService.getNoOpMemoryProfilingService;
 
+import static java.lang.Boolean.getBoolean;
+
 import org.mule.runtime.api.memory.provider.ByteBufferPoolConfiguration;
 import org.mule.runtime.api.memory.provider.ByteBufferProvider;
 import org.mule.runtime.api.memory.provider.type.ByteBufferType;
@@ -26,6 +30,13 @@ public final class ByteBufferProviderBuilder {
 
   public static final String BYTE_BUFFER_PROVIDER_NAME_CANNOT_BE_NULL_MESSAGE = "Byte buffer provider name cannot be null.";
   public static final String PROFILING_SERVICE_CANNOT_BE_NULL_MESSAGE = "Profiling service cannot be null.";
+
+  /**
+   * When set, providers that are not configured with a {@code FIXED_BUFFERS_POOL} strategy are built as a
+   * {@link SizeClassByteBufferProvider}.
+   */
+  public static final String SIZE_CLASS_POOLING_PROPERTY = SYSTEM_PROPERTY_PREFIX + "memoryManagement.sizeClassPooling";
+
   private final boolean isDirect;
 
   private ByteBufferPoolConfiguration poolConfiguration;
@@ -49,6 +60,12 @@ public final class ByteBufferProviderBuilder {
       throw new IllegalArgumentException(BYTE_BUFFER_PROVIDER_NAME_CANNOT_BE_NULL_MESSAGE);
     }
 
+    if (getBoolean(SIZE_CLASS_POOLING_PROPERTY)
+        && (poolConfiguration == null || poolConfiguration.getByteBufferPoolStrategy() != FIXED_BUFFERS_POOL)) {
+      int maxBufferSize = poolConfiguration != null ? poolConfiguration.getMaxBufferSize() : DEFAULT_MAX_BUFFER_SIZE;
+      return new SizeClassByteBufferProvider(name, isDirect, maxBufferSize, profilingService);
+    }
+
     if (isDirect) {
       if (poolConfiguration != null) {
         if (poolConfiguration.getByteBufferPoolStrategy() == FIXED_BUFFERS_POOL) {
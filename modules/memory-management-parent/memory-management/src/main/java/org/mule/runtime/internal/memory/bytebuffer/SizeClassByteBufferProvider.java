@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.internal.memory.bytebuffer;
+
+import static org.mule.runtime.api.profiling.type.RuntimeProfilingEventTypes.MEMORY_BYTE_BUFFER_ALLOCATION;
+import static org.mule.runtime.api.profiling.type.RuntimeProfilingEventTypes.MEMORY_BYTE_BUFFER_DEALLOCATION;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.ByteBuffer.allocateDirect;
+
+import org.mule.runtime.api.memory.provider.ByteBufferProvider;
+import org.mule.runtime.api.profiling.ProfilingDataProducer;
+import org.mule.runtime.api.profiling.ProfilingService;
+import org.mule.runtime.api.profiling.type.context.ByteBufferProviderEventContext;
+import org.mule.runtime.internal.memory.bytebuffer.profiling.ContainerProfilingScope;
+import org.mule.runtime.internal.memory.bytebuffer.profiling.DefaultByteBufferProviderEventContext;
+import org.mule.runtime.internal.memory.bytebuffer.profiling.SizeClassByteBufferProviderEventContext;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A {@link ByteBufferProvider} that pools buffers by power-of-two size classes.
+ * <p>
+ * Each thread keeps a small cache of released buffers for each size class, so most allocations and releases don't contend with
+ * other threads. Thread caches are bounded in bytes, so they hold fewer buffers of the bigger size classes, and none of the
+ * biggest ones. When a thread cache overflows, half of it is moved to a free list shared by all threads, which is trimmed from
+ * time to time by dropping the buffers that remained unused since the previous trim. After each trim, every thread also moves
+ * to the shared free lists the buffers of its cache that it didn't need since the previous one, the next time it allocates or
+ * releases a buffer.
+ * <p>
+ * Allocation events carry a {@link SizeClassByteBufferProviderEventContext}, with the allocation and reuse counters of the
+ * provider. Event contexts are only built when the events are consumed, and the counters are only summed when read from them, so
+ * allocating and releasing a buffer just increments a counter when profiling is disabled.
+ * <p>
+ * Direct buffers of the smaller size classes are carved from larger off-heap slabs, reducing the amount of native allocations.
+ * Requests bigger than the largest size class are not pooled.
+ *
+ * Based on the thread caching and size class approach of jemalloc.
+ *
+ * @since 4.6.0
+ */
+public class SizeClassByteBufferProvider implements ByteBufferProvider<ByteBuffer> {
+
+  public static final int MIN_SIZE_CLASS = 64;
+
+  static final int THREAD_CACHE_SIZE = 32;
+  static final int THREAD_CACHE_BYTES_PER_SIZE_CLASS = 16 * 1024;
+  static final int SHARED_FREE_LIST_SIZE = 256;
+  static final int SLAB_SIZE = 1024 * 1024;
+  static final long TRIM_INTERVAL_MILLIS = 10000;
+
+  private final String name;
+  private final boolean direct;
+  private final int maxBufferSize;
+  private final SizeClass[] sizeClasses;
+
+  private volatile ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(this::newThreadCache);
+  private final AtomicLong lastTrim = new AtomicLong(currentTimeMillis());
+  private volatile int trimGeneration;
+  private final LongAdder allocations = new LongAdder();
+  private final LongAdder reuses = new LongAdder();
+
+  private final ProfilingDataProducer<ByteBufferProviderEventContext, Object> allocationDataProducer;
+  private final ProfilingDataProducer<ByteBufferProviderEventContext, Object> deallocationDataProducer;
+
+  // the source of the events is the buffer, so triggering them doesn't capture anything
+  private final Function<Object, ByteBufferProviderEventContext> newBufferAllocation = this::newBufferAllocation;
+  private final Function<Object, ByteBufferProviderEventContext> reusedBufferAllocation = this::reusedBufferAllocation;
+  private final Function<Object, ByteBufferProviderEventContext> deallocation = this::deallocation;
+
+  /**
+   * @param name             the name of the provider
+   * @param direct           whether the provided buffers are direct or heap buffers
+   * @param maxBufferSize    the largest size to be pooled. Will be rounded up to a power of two
+   * @param profilingService the {@link ProfilingService} notified of allocations and releases
+   */
+  public SizeClassByteBufferProvider(String name, boolean direct, int maxBufferSize, ProfilingService profilingService) {
+    if (maxBufferSize <= 0) {
+      throw new IllegalArgumentException("maxBufferSize must be greater than zero");
+    }
+
+    this.name = name;
+    this.direct = direct;
+    this.maxBufferSize = roundToSizeClass(maxBufferSize);
+
+    sizeClasses = new SizeClass[sizeClassIndex(this.maxBufferSize) + 1];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(MIN_SIZE_CLASS << i);
+    }
+
+    allocationDataProducer =
+        profilingService.getProfilingDataProducer(MEMORY_BYTE_BUFFER_ALLOCATION, new ContainerProfilingScope());
+    deallocationDataProducer =
+        profilingService.getProfilingDataProducer(MEMORY_BYTE_BUFFER_DEALLOCATION, new ContainerProfilingScope());
+  }
+
+  static int roundToSizeClass(int size) {
+    if (size <= MIN_SIZE_CLASS) {
+      return MIN_SIZE_CLASS;
+    }
+    return 1 << (32 - numberOfLeadingZeros(size - 1));
+  }
+
+  static int sizeClassIndex(int size) {
+    return numberOfLeadingZeros(MIN_SIZE_CLASS) - numberOfLeadingZeros(roundToSizeClass(size));
+  }
+
+  @Override
+  public ByteBuffer allocate(int size) {
+    return allocateFromSizeClass(size, true);
+  }
+
+  @Override
+  public ByteBuffer allocateAtLeast(int size) {
+    return allocateFromSizeClass(size, false);
+  }
+
+  private ByteBuffer allocateFromSizeClass(int size, boolean limited) {
+    ByteBuffer byteBuffer = size > maxBufferSize ? null : pollReleased(sizeClassIndex(size));
+    boolean reused = byteBuffer != null;
+    if (reused) {
+      reuses.increment();
+      byteBuffer.clear();
+    } else {
+      allocations.increment();
+      byteBuffer = size > maxBufferSize ? doAllocate(size) : sizeClasses[sizeClassIndex(size)].newBuffer();
+    }
+    if (limited) {
+      byteBuffer.limit(size);
+    }
+
+    allocationDataProducer.triggerProfilingEvent(byteBuffer, reused ? reusedBufferAllocation : newBufferAllocation);
+    trimIfNecessary();
+    return byteBuffer;
+  }
+
+  private ByteBuffer pollReleased(int index) {
+    ByteBuffer byteBuffer = threadCaches.get().pop(index);
+    return byteBuffer != null ? byteBuffer : sizeClasses[index].poll();
+  }
+
+  @Override
+  public ByteBuffer reallocate(ByteBuffer oldBuffer, int newSize) {
+    if (oldBuffer.capacity() >= newSize) {
+      oldBuffer.limit(newSize);
+      return oldBuffer;
+    }
+
+    ByteBuffer newBuffer = allocate(newSize);
+    oldBuffer.flip();
+    newBuffer.put(oldBuffer);
+    release(oldBuffer);
+    return newBuffer;
+  }
+
+  @Override
+  public void release(ByteBuffer byteBuffer) {
+    deallocationDataProducer.triggerProfilingEvent(byteBuffer, deallocation);
+
+    int capacity = byteBuffer.capacity();
+    // buffers not obtained from a size class are left to the garbage collector
+    if (capacity <= maxBufferSize && byteBuffer.isDirect() == direct && roundToSizeClass(capacity) == capacity) {
+      threadCaches.get().push(sizeClassIndex(capacity), byteBuffer);
+    }
+
+    trimIfNecessary();
+  }
+
+  private void trimIfNecessary() {
+    long last = lastTrim.get();
+    long now = currentTimeMillis();
+    if (now - last >= TRIM_INTERVAL_MILLIS && lastTrim.compareAndSet(last, now)) {
+      trim();
+    }
+  }
+
+  /**
+   * Drops from the shared free lists the buffers that were not needed since the previous trim, and signals the thread caches to
+   * flush theirs.
+   */
+  void trim() {
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.trim();
+    }
+    trimGeneration++;
+  }
+
+  @Override
+  public byte[] getByteArray(int size) {
+    return new byte[size];
+  }
+
+  @Override
+  public void dispose() {
+    threadCaches = ThreadLocal.withInitial(this::newThreadCache);
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.clear();
+    }
+  }
+
+  /**
+   * @return the amount of buffers that had to be allocated because no released one could be reused
+   */
+  public long getAllocationsCount() {
+    return allocations.sum();
+  }
+
+  /**
+   * @return the amount of allocations that were served with a previously released buffer
+   */
+  public long getReusesCount() {
+    return reuses.sum();
+  }
+
+  private ByteBufferProviderEventContext newBufferAllocation(Object byteBuffer) {
+    return new SizeClassByteBufferProviderEventContext(name, currentTimeMillis(), ((ByteBuffer) byteBuffer).limit(), false, this);
+  }
+
+  private ByteBufferProviderEventContext reusedBufferAllocation(Object byteBuffer) {
+    return new SizeClassByteBufferProviderEventContext(name, currentTimeMillis(), ((ByteBuffer) byteBuffer).limit(), true, this);
+  }
+
+  private ByteBufferProviderEventContext deallocation(Object byteBuffer) {
+    return new DefaultByteBufferProviderEventContext(name, currentTimeMillis(), ((ByteBuffer) byteBuffer).limit());
+  }
+
+  private ByteBuffer doAllocate(int size) {
+    return direct ? allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+
+  private ThreadCache newThreadCache() {
+    return new ThreadCache(sizeClasses.length);
+  }
+
+  private final class SizeClass {
+
+    private final int size;
+    private final ConcurrentLinkedQueue<ByteBuffer> freeList = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+
+    /**
+     * The minimum amount of free buffers since the last trim. These were not needed by any allocation in the meantime.
+     */
+    private final AtomicInteger lowWaterMark = new AtomicInteger();
+
+    private ByteBuffer slab;
+
+    private SizeClass(int size) {
+      this.size = size;
+    }
+
+    private ByteBuffer poll() {
+      ByteBuffer byteBuffer = freeList.poll();
+      if (byteBuffer != null) {
+        int free = freeCount.decrementAndGet();
+        lowWaterMark.accumulateAndGet(free, Math::min);
+      }
+      return byteBuffer;
+    }
+
+    private boolean offer(ByteBuffer byteBuffer) {
+      if (freeCount.incrementAndGet() > SHARED_FREE_LIST_SIZE) {
+        freeCount.decrementAndGet();
+        return false;
+      }
+      freeList.offer(byteBuffer);
+      return true;
+    }
+
+    private ByteBuffer newBuffer() {
+      if (!direct || size > SLAB_SIZE / 8) {
+        return doAllocate(size);
+      }
+
+      synchronized (this) {
+        if (slab == null || slab.remaining() < size) {
+          slab = allocateDirect(SLAB_SIZE);
+        }
+        slab.limit(slab.position() + size);
+        ByteBuffer byteBuffer = slab.slice();
+        slab.position(slab.limit());
+        slab.limit(slab.capacity());
+        return byteBuffer;
+      }
+    }
+
+    private void trim() {
+      int unused = lowWaterMark.getAndSet(freeCount.get());
+      // release gradually, so a burst following an idle period still finds some buffers
+      for (int i = 0; i < unused / 2; i++) {
+        if (freeList.poll() == null) {
+          break;
+        }
+        freeCount.decrementAndGet();
+      }
+      lowWaterMark.set(freeCount.get());
+    }
+
+    private void clear() {
+      freeList.clear();
+      freeCount.set(0);
+      lowWaterMark.set(0);
+      synchronized (this) {
+        slab = null;
+      }
+    }
+  }
+
+  private final class ThreadCache {
+
+    private final ByteBuffer[][] stacks;
+    private final int[] counts;
+
+    /**
+     * The minimum amount of cached buffers of each size class since the last sweep. These were not needed by this thread in the
+     * meantime.
+     */
+    private final int[] lowWaterMarks;
+    private int generation = trimGeneration;
+
+    private ThreadCache(int sizeClassesCount) {
+      stacks = new ByteBuffer[sizeClassesCount][];
+      for (int i = 0; i < sizeClassesCount; i++) {
+        stacks[i] = new ByteBuffer[min(THREAD_CACHE_SIZE, THREAD_CACHE_BYTES_PER_SIZE_CLASS / sizeClasses[i].size)];
+      }
+      counts = new int[sizeClassesCount];
+      lowWaterMarks = new int[sizeClassesCount];
+    }
+
+    private ByteBuffer pop(int index) {
+      sweepIfNecessary();
+      if (counts[index] == 0) {
+        return null;
+      }
+      ByteBuffer byteBuffer = stacks[index][--counts[index]];
+      stacks[index][counts[index]] = null;
+      lowWaterMarks[index] = min(lowWaterMarks[index], counts[index]);
+      return byteBuffer;
+    }
+
+    private void push(int index, ByteBuffer byteBuffer) {
+      sweepIfNecessary();
+      ByteBuffer[] stack = stacks[index];
+      if (stack.length == 0) {
+        sizeClasses[index].offer(byteBuffer);
+        return;
+      }
+
+      if (counts[index] == stack.length) {
+        // flush the older half to the shared free list
+        flush(index, max(1, stack.length / 2));
+      }
+      stack[counts[index]++] = byteBuffer;
+    }
+
+    private void sweepIfNecessary() {
+      if (generation == trimGeneration) {
+        return;
+      }
+
+      generation = trimGeneration;
+      for (int i = 0; i < stacks.length; i++) {
+        flush(i, lowWaterMarks[i]);
+        lowWaterMarks[i] = counts[i];
+      }
+    }
+
+    /**
+     * Moves the {@code flushed} older buffers of the given size class to the shared free list.
+     */
+    private void flush(int index, int flushed) {
+      if (flushed == 0) {
+        return;
+      }
+
+      ByteBuffer[] stack = stacks[index];
+      for (int i = 0; i < flushed; i++) {
+        sizeClasses[index].offer(stack[i]);
+      }
+      System.arraycopy(stack, flushed, stack, 0, counts[index] - flushed);
+      for (int i = counts[index] - flushed; i < counts[index]; i++) {
+        stack[i] = null;
+      }
+      counts[index] -= flushed;
+      lowWaterMarks[index] = min(lowWaterMarks[index], counts[index]);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.internal.memory.bytebuffer.profiling;
+
+import org.mule.runtime.internal.memory.bytebuffer.SizeClassByteBufferProvider;
+
+/**
+ * A {@link DefaultByteBufferProviderEventContext} for the allocations of a {@link SizeClassByteBufferProvider}, which also
+ * carries whether the allocation was served with a previously released buffer and gives access to the counters of the provider.
+ * <p>
+ * The counters are read from the provider when requested, so they reflect the allocations done until the event is consumed.
+ *
+ * @since 4.6.0
+ */
+public class SizeClassByteBufferProviderEventContext extends DefaultByteBufferProviderEventContext {
+
+  private final boolean reused;
+  private final SizeClassByteBufferProvider provider;
+
+  public SizeClassByteBufferProviderEventContext(String byteBufferProviderName, long triggerTimestamp, int size,
+                                                 boolean reused, SizeClassByteBufferProvider provider) {
+    super(byteBufferProviderName, triggerTimestamp, size);
+    this.reused = reused;
+    this.provider = provider;
+  }
+
+  /**
+   * @return whether the allocation was served with a previously released buffer
+   */
+  public boolean isReused() {
+    return reused;
+  }
+
+  /**
+   * @return the amount of buffers the provider had to allocate so far
+   */
+  public long getAllocationsCount() {
+    return provider.getAllocationsCount();
+  }
+
+  /**
+   * @return the amount of allocations the provider served with a previously released buffer so far
+   */
+  public long getReusesCount() {
+    return provider.getReusesCount();
+  }
+}
@@ -302,6 +302,9 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
             .withSetterParameterDefinition(EXCEPTION_LISTENER_ATTRIBUTE,
                                            fromChildConfiguration(FlowExceptionHandler.class).build())
             .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+            .withSetterParameterDefinition("maxAdmissionRate", fromSimpleParameter("maxAdmissionRate").build())
+            .withSetterParameterDefinition("maxAdmissionBurst", fromSimpleParameter("maxAdmissionBurst").build())
+            .withSetterParameterDefinition("admissionLatencyTarget", fromSimpleParameter("admissionLatencyTarget").build())
             .build());
 
     Builder processorRefBuilder = baseDefinition
@@ -336,6 +339,9 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
         .withSetterParameterDefinition("collectionExpression", fromSimpleParameter("collection").build())
         .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").build())
         .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+        .withSetterParameterDefinition("streamResults", fromSimpleParameter("streamResults").build())
+        .withSetterParameterDefinition("streamingStrategy",
+                                       fromChildConfiguration(CursorIteratorProviderFactory.class).build())
         .withSetterParameterDefinition("target", fromSimpleParameter("target").build())
         .withSetterParameterDefinition("targetValue", fromSimpleParameter("targetValue")
             .withDefaultValue("#[payload]")
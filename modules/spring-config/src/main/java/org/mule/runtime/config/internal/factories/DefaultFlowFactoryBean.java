@@ -39,6 +39,9 @@ public class DefaultFlowFactoryBean extends AbstractComponent
   private FlowExceptionHandler exceptionListener;
   private ProcessingStrategyFactory processingStrategyFactory;
   private Integer maxConcurrency;
+  private Integer maxAdmissionRate;
+  private Integer maxAdmissionBurst;
+  private Long admissionLatencyTarget;
 
   @Override
   public Flow getObject() throws Exception {
@@ -59,6 +62,13 @@ public class DefaultFlowFactoryBean extends AbstractComponent
     if (maxConcurrency != null) {
       flowBuilder.maxConcurrency(maxConcurrency.intValue());
     }
+    if (maxAdmissionRate != null) {
+      flowBuilder.maxAdmissionRate(maxAdmissionRate.intValue(),
+                                   maxAdmissionBurst != null ? maxAdmissionBurst.intValue() : maxAdmissionRate.intValue());
+    }
+    if (admissionLatencyTarget != null) {
+      flowBuilder.admissionLatencyTarget(admissionLatencyTarget.longValue());
+    }
 
     final DefaultFlow build = (DefaultFlow) flowBuilder.build();
 
@@ -150,4 +160,16 @@ public class DefaultFlowFactoryBean extends AbstractComponent
   public void setMaxConcurrency(Integer maxConcurrency) {
     this.maxConcurrency = maxConcurrency;
   }
+
+  public void setMaxAdmissionRate(Integer maxAdmissionRate) {
+    this.maxAdmissionRate = maxAdmissionRate;
+  }
+
+  public void setMaxAdmissionBurst(Integer maxAdmissionBurst) {
+    this.maxAdmissionBurst = maxAdmissionBurst;
+  }
+
+  public void setAdmissionLatencyTarget(Long admissionLatencyTarget) {
+    this.admissionLatencyTarget = admissionLatencyTarget;
+  }
 }
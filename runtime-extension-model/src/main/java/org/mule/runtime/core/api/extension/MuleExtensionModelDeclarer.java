@@ -58,6 +58,7 @@ import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.STR
 import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.TYPE_LOADER;
 import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.VOID_TYPE;
 import static org.mule.runtime.extension.api.ExtensionConstants.DYNAMIC_CONFIG_EXPIRATION_DESCRIPTION;
+import static org.mule.runtime.extension.api.ExtensionConstants.STREAMING_STRATEGY_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_DESCRIPTION;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_DESCRIPTION;
@@ -120,6 +121,7 @@ import org.mule.runtime.core.api.source.scheduler.FixedFrequencyScheduler;
 import org.mule.runtime.core.internal.extension.CustomBuildingDefinitionProviderModelProperty;
 import org.mule.runtime.core.privileged.extension.SingletonModelProperty;
 import org.mule.runtime.extension.api.declaration.type.DynamicConfigExpirationTypeBuilder;
+import org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder;
 import org.mule.runtime.extension.api.declaration.type.annotation.TypeDslAnnotation;
 import org.mule.runtime.extension.api.model.deprecated.ImmutableDeprecationModel;
 import org.mule.runtime.extension.api.property.NoRedeliveryPolicyModelProperty;
@@ -699,6 +701,15 @@ class MuleExtensionModelDeclarer {
     flow.onDefaultParameterGroup().withOptionalParameter("maxConcurrency")
         .describedAs("The maximum concurrency. This value determines the maximum level of parallelism that the Flow can use to optimize its performance when processing messages.")
         .ofType(INTEGER_TYPE);
+    flow.onDefaultParameterGroup().withOptionalParameter("maxAdmissionRate")
+        .describedAs("The maximum number of events per second that the source of the Flow may dispatch to it. Events exceeding this rate are handled according to the back-pressure strategy of the source.")
+        .ofType(INTEGER_TYPE);
+    flow.onDefaultParameterGroup().withOptionalParameter("maxAdmissionBurst")
+        .describedAs("The maximum number of events that may be admitted at once after a period of inactivity when 'maxAdmissionRate' is set. Defaults to the value of 'maxAdmissionRate'.")
+        .ofType(INTEGER_TYPE);
+    flow.onDefaultParameterGroup().withOptionalParameter("admissionLatencyTarget")
+        .describedAs("The time, in milliseconds, that events are expected to take to be processed by the Flow. When set, the events the source may dispatch concurrently to the Flow are limited based on its observed throughput, never exceeding 'maxConcurrency'.")
+        .ofType(INTEGER_TYPE);
 
     flow.withOptionalComponent("source")
         .withAllowedStereotypes(MuleStereotypes.SOURCE);
@@ -841,6 +852,28 @@ class MuleExtensionModelDeclarer {
         .defaultingTo(Integer.MAX_VALUE)
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("This value determines the maximum level of parallelism that will be used by this router.");
+    parallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("streamResults")
+        .ofType(BOOLEAN_TYPE)
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .withModelProperty(new SinceMuleVersionModelProperty("4.6.0"))
+        .describedAs("Whether the messages of the routes are streamed into a repeatable iterator as they complete, "
+            + "instead of being collected into a list, keeping in memory only a window of results the size of maxConcurrency "
+            + "apart from the streaming buffer.");
+    parallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter(STREAMING_STRATEGY_PARAMETER_NAME)
+        .ofType(new StreamingStrategyTypeBuilder().getObjectStreamingStrategyType())
+        .withExpressionSupport(NOT_SUPPORTED)
+        .withModelProperty(new SinceMuleVersionModelProperty("4.6.0"))
+        .withDsl(ParameterDslConfiguration.builder()
+            .allowsReferences(false)
+            .allowsInlineDefinition(true)
+            .allowTopLevelDefinition(false)
+            .build())
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build())
+        .describedAs("The streaming strategy used to buffer the messages of the routes when streamResults is set. "
+            + "By default, they are buffered in a file store.");
 
     parallelForeach.onParameterGroup(OUTPUT)
         .withOptionalParameter(TARGET_PARAMETER_NAME)
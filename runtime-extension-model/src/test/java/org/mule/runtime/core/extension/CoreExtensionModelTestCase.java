@@ -32,6 +32,7 @@ import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.MUL
 import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.MULE_VERSION;
 import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.STRING_TYPE;
 import static org.mule.runtime.core.api.extension.MuleExtensionModelProvider.getExtensionModel;
+import static org.mule.runtime.extension.api.ExtensionConstants.STREAMING_STRATEGY_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.error.ErrorConstants.ERROR;
@@ -77,6 +78,7 @@ import org.mule.runtime.api.meta.model.source.SourceModel;
 import org.mule.runtime.api.meta.model.stereotype.StereotypeModel;
 import org.mule.runtime.api.scheduler.SchedulingStrategy;
 import org.mule.runtime.core.api.extension.MuleExtensionModelProvider;
+import org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder;
 import org.mule.runtime.extension.api.property.SinceMuleVersionModelProperty;
 
 import java.util.Iterator;
@@ -168,7 +170,7 @@ public class CoreExtensionModelTestCase {
     assertThat(flow.allowsTopLevelDeclaration(), is(true));
 
     final List<ParameterModel> paramModels = flow.getAllParameterModels();
-    assertThat(paramModels, hasSize(3));
+    assertThat(paramModels, hasSize(6));
 
     ParameterModel nameParam = paramModels.get(0);
     assertThat(nameParam.getName(), is("name"));
@@ -182,6 +184,15 @@ public class CoreExtensionModelTestCase {
     ParameterModel maxConcurrency = paramModels.get(2);
     assertThat(maxConcurrency.getName(), is("maxConcurrency"));
 
+    ParameterModel maxAdmissionRate = paramModels.get(3);
+    assertThat(maxAdmissionRate.getName(), is("maxAdmissionRate"));
+
+    ParameterModel maxAdmissionBurst = paramModels.get(4);
+    assertThat(maxAdmissionBurst.getName(), is("maxAdmissionBurst"));
+
+    ParameterModel admissionLatencyTarget = paramModels.get(5);
+    assertThat(admissionLatencyTarget.getName(), is("admissionLatencyTarget"));
+
     List<? extends NestableElementModel> nestedComponents = flow.getNestedComponents();
     assertThat(nestedComponents, hasSize(3));
 
@@ -535,7 +546,7 @@ public class CoreExtensionModelTestCase {
     assertThat(processorsChain, instanceOf(NestedChainModel.class));
     assertThat(processorsChain.isRequired(), is(true));
 
-    assertThat(parallelForeach.getAllParameterModels(), hasSize(5));
+    assertThat(parallelForeach.getAllParameterModels(), hasSize(7));
 
     final ParameterModel collection = parallelForeach.getAllParameterModels().get(0);
     assertThat(collection.getName(), is("collection"));
@@ -558,13 +569,26 @@ public class CoreExtensionModelTestCase {
     assertThat(maxConcurrency.getType(), instanceOf(DefaultNumberType.class));
     assertThat(maxConcurrency.isRequired(), is(false));
 
-    final ParameterModel target = parallelForeach.getAllParameterModels().get(3);
+    final ParameterModel streamResults = parallelForeach.getAllParameterModels().get(3);
+    assertThat(streamResults.getName(), is("streamResults"));
+    assertThat(streamResults.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(streamResults.getType(), instanceOf(BooleanType.class));
+    assertThat(streamResults.isRequired(), is(false));
+    assertThat(streamResults.getDefaultValue(), is(false));
+
+    final ParameterModel streamingStrategy = parallelForeach.getAllParameterModels().get(4);
+    assertThat(streamingStrategy.getName(), is(STREAMING_STRATEGY_PARAMETER_NAME));
+    assertThat(streamingStrategy.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(streamingStrategy.getType(), equalTo(new StreamingStrategyTypeBuilder().getObjectStreamingStrategyType()));
+    assertThat(streamingStrategy.isRequired(), is(false));
+
+    final ParameterModel target = parallelForeach.getAllParameterModels().get(5);
     assertThat(target.getName(), is(TARGET_PARAMETER_NAME));
     assertThat(target.getExpressionSupport(), is(NOT_SUPPORTED));
     assertThat(target.getType(), instanceOf(DefaultStringType.class));
     assertThat(target.isRequired(), is(false));
 
-    final ParameterModel targetValue = parallelForeach.getAllParameterModels().get(4);
+    final ParameterModel targetValue = parallelForeach.getAllParameterModels().get(6);
     assertThat(targetValue.getName(), is(TARGET_VALUE_PARAMETER_NAME));
     assertThat(targetValue.getExpressionSupport(), is(REQUIRED));
     assertThat(targetValue.getType(), instanceOf(StringType.class));
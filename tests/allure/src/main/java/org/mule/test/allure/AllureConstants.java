@@ -440,6 +440,8 @@ public interface AllureConstants {
       String DIRECT = "Direct";
       String WORK_QUEUE = "Work Queue";
       String ENRICHER = "Enricher";
+      String ADAPTIVE = "Adaptive";
+      String VIRTUAL_THREADS = "Virtual Threads";
     }
 
   }
@@ -453,6 +455,7 @@ public interface AllureConstants {
       String COLLECT_LIST = "Collect List";
       String COLLECT_MAP = "Collect Map";
       String JOIN_ONLY = "Join Only";
+      String WORK_STEALING = "Work Stealing";
     }
 
   }
@@ -27,9 +27,15 @@ import org.mule.runtime.core.privileged.event.DefaultMuleSession;
 import org.mule.runtime.core.privileged.event.PrivilegedEvent;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.TearDown;
 
+/**
+ * Runs with {@code mule.event.persistentVariables} disabled. Since that property is read once per JVM,
+ * {@link PersistentVariablesEventBenchmark} runs these same benchmarks in forks with it enabled.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dmule.event.persistentVariables=false")
 public class EventBenchmark extends AbstractBenchmark {
 
   public static final String KEY = "key";
@@ -41,6 +47,9 @@ public class EventBenchmark extends AbstractBenchmark {
   private CoreEvent eventWith10VariablesProperties;
   private CoreEvent eventWith50VariablesProperties;
   private CoreEvent eventWith100VariablesProperties;
+  private CoreEvent eventWith5Variables;
+  private CoreEvent eventWith50Variables;
+  private CoreEvent eventWith500Variables;
 
   @Setup
   public void setup() throws Exception {
@@ -55,6 +64,9 @@ public class EventBenchmark extends AbstractBenchmark {
     eventWith10VariablesProperties = createMuleEventWithFlowVarsAndProperties(10);
     eventWith50VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
     eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
+    eventWith5Variables = createMuleEvent(of(PAYLOAD), 5);
+    eventWith50Variables = createMuleEvent(of(PAYLOAD), 50);
+    eventWith500Variables = createMuleEvent(of(PAYLOAD), 500);
   }
 
   @TearDown
@@ -127,6 +139,45 @@ public class EventBenchmark extends AbstractBenchmark {
     return CoreEvent.builder(eventWith100VariablesProperties).addVariable(KEY, VALUE).build();
   }
 
+  @Benchmark
+  public CoreEvent addEventVariableEventWith5Variables() {
+    return CoreEvent.builder(eventWith5Variables).addVariable(KEY, VALUE).build();
+  }
+
+  @Benchmark
+  public CoreEvent addEventVariableEventWith50Variables() {
+    return CoreEvent.builder(eventWith50Variables).addVariable(KEY, VALUE).build();
+  }
+
+  @Benchmark
+  public CoreEvent addEventVariableEventWith500Variables() {
+    return CoreEvent.builder(eventWith500Variables).addVariable(KEY, VALUE).build();
+  }
+
+  @Benchmark
+  public CoreEvent addEventVariablesChainEventWith5Variables() {
+    return addVariablesChain(eventWith5Variables);
+  }
+
+  @Benchmark
+  public CoreEvent addEventVariablesChainEventWith50Variables() {
+    return addVariablesChain(eventWith50Variables);
+  }
+
+  @Benchmark
+  public CoreEvent addEventVariablesChainEventWith500Variables() {
+    return addVariablesChain(eventWith500Variables);
+  }
+
+  /**
+   * Simulates a chain of 10 processors, each one adding a variable to the event built by the previous one.
+   */
+  private CoreEvent addVariablesChain(CoreEvent event) {
+    for (int i = 1; i <= 10; i++) {
+      event = CoreEvent.builder(event).addVariable(KEY + i, VALUE).build();
+    }
+    return event;
+  }
 
   @Benchmark
   public CoreEvent copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * Runs the benchmarks of {@link EventBenchmark} with {@code mule.event.persistentVariables} enabled.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dmule.event.persistentVariables=true")
+public class PersistentVariablesEventBenchmark extends EventBenchmark {
+
+}
@@ -11,8 +11,10 @@ import static org.mule.runtime.core.internal.construct.AbstractFlowConstruct.FLO
 import static org.openjdk.jmh.annotations.Level.Trial;
 import static org.openjdk.jmh.annotations.Scope.Benchmark;
 
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 import org.mule.runtime.core.api.management.stats.ResetOnQueryCounter;
 import org.mule.runtime.core.internal.management.stats.DefaultFlowConstructStatistics;
+import org.mule.runtime.core.internal.management.stats.StripedFlowConstructStatistics;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -20,6 +22,7 @@ import java.util.HashSet;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 
 public class StatisticsBenchmark extends AbstractBenchmark {
 
@@ -29,12 +32,16 @@ public class StatisticsBenchmark extends AbstractBenchmark {
     public DefaultFlowConstructStatistics noCounters = new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow0");
     public DefaultFlowConstructStatistics oneCounter = new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow1");
     public DefaultFlowConstructStatistics fiveCounters = new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow5");
+    public DefaultFlowConstructStatistics defaultEnabled = new DefaultFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow");
+    public StripedFlowConstructStatistics stripedEnabled = new StripedFlowConstructStatistics(FLOW_FLOW_CONSTRUCT_TYPE, "flow");
 
     private ResetOnQueryCounter oneEventsReceivedCounters;
     private Collection<ResetOnQueryCounter> fiveEventsReceivedCounters;
 
     @Setup(Trial)
     public void doSetup() {
+      defaultEnabled.setEnabled(true);
+      stripedEnabled.setEnabled(true);
       oneEventsReceivedCounters = oneCounter.getEventsReceivedCounter();
 
       fiveEventsReceivedCounters = new HashSet<>();
@@ -62,4 +69,38 @@ public class StatisticsBenchmark extends AbstractBenchmark {
     return state.fiveCounters.getTotalEventsReceived();
   }
 
+  @Benchmark
+  @Threads(8)
+  public Object recordEventDefault8Threads(MyState state) {
+    return recordEvent(state.defaultEnabled);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object recordEventStriped8Threads(MyState state) {
+    return recordEvent(state.stripedEnabled);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public Object recordEventDefault32Threads(MyState state) {
+    return recordEvent(state.defaultEnabled);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public Object recordEventStriped32Threads(MyState state) {
+    return recordEvent(state.stripedEnabled);
+  }
+
+  /**
+   * Records what a flow records for an event processed in a single branch.
+   */
+  private Object recordEvent(FlowConstructStatistics statistics) {
+    statistics.incReceivedEvents();
+    statistics.addFlowExecutionBranchTime(5, 5);
+    statistics.addCompleteFlowExecutionTime(5);
+    return statistics;
+  }
+
 }
@@ -69,6 +69,16 @@ public class ExpressionBenchmark extends AbstractBenchmark {
     return expressionManager.evaluate("vars.foo == 'bar'", event.asBindingContext()).getValue();
   }
 
+  @Benchmark
+  public Object dwFlowVarsWithEvent() {
+    return expressionManager.evaluate("vars.foo == 'bar'", event).getValue();
+  }
+
+  @Benchmark
+  public Object dwCompile() {
+    return expressionManager.compile("vars.foo == 'bar'", event.asBindingContext());
+  }
+
   @Benchmark
   public Object melGetLocale() {
     return expressionManager.evaluate("mel:java.util.Locale.getDefault().getLanguage()", event).getValue();
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.concurrent;
+
+import static java.util.concurrent.ThreadLocalRandom.current;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.internal.lock.ConcurrentInstanceLockGroup;
+import org.mule.runtime.core.internal.lock.InstanceLockGroup;
+import org.mule.runtime.core.internal.lock.LockGroup;
+import org.mule.runtime.core.internal.lock.SingleServerLockProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class LockGroupBenchmark extends AbstractBenchmark {
+
+  @Param({"instance", "concurrent"})
+  public String lockGroupType;
+
+  @Param({"1", "10000"})
+  public int lockIdsCount;
+
+  private LockGroup lockGroup;
+  private String[] lockIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if ("concurrent".equals(lockGroupType)) {
+      lockGroup = new ConcurrentInstanceLockGroup(new SingleServerLockProvider());
+    } else {
+      lockGroup = new InstanceLockGroup(new SingleServerLockProvider());
+    }
+
+    lockIds = new String[lockIdsCount];
+    for (int i = 0; i < lockIdsCount; i++) {
+      lockIds[i] = "item-" + i;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    lockGroup.dispose();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public String lockUnlock() {
+    String lockId = lockIds[current().nextInt(lockIdsCount)];
+    lockGroup.lock(lockId);
+    try {
+      return lockId;
+    } finally {
+      lockGroup.unlock(lockId);
+    }
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public boolean tryLockUnlock() {
+    String lockId = lockIds[current().nextInt(lockIdsCount)];
+    if (lockGroup.tryLock(lockId)) {
+      lockGroup.unlock(lockId);
+      return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.api.connection.ConnectionValidationResult.success;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.MuleContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the cost of borrowing and returning a connection with {@link PoolingConnectionManagementStrategy} and
+ * {@link ConcurrentPoolingConnectionManagementStrategy}, with pools smaller and bigger than the number of borrowing threads.
+ */
+public class ConnectionPoolBenchmark extends AbstractBenchmark {
+
+  @Param({"commons", "concurrent"})
+  public String poolType;
+
+  @Param({"8", "256"})
+  public int maxActive;
+
+  private MuleContext muleContext;
+  private ConnectionManagementStrategy<Object> strategy;
+
+  @Setup(Level.Trial)
+  public void setUp() throws MuleException {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+
+    PoolingProfile poolingProfile =
+        new PoolingProfile(maxActive, maxActive, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_ALL);
+    if ("concurrent".equals(poolType)) {
+      strategy = new ConcurrentPoolingConnectionManagementStrategy<>(new BenchmarkConnectionProvider(), poolingProfile,
+                                                                     new NullPoolingListener<>(), muleContext, "benchmark");
+    } else {
+      strategy = new PoolingConnectionManagementStrategy<>(new BenchmarkConnectionProvider(), poolingProfile,
+                                                           new NullPoolingListener<>(), muleContext, "benchmark");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws MuleException {
+    strategy.close();
+    disposeIfNeeded(muleContext, getLogger(ConnectionPoolBenchmark.class));
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object borrowAndReturn() throws ConnectionException {
+    ConnectionHandler<Object> handler = strategy.getConnectionHandler();
+    try {
+      return handler.getConnection();
+    } finally {
+      handler.release();
+    }
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object borrowUseAndReturn() throws ConnectionException {
+    ConnectionHandler<Object> handler = strategy.getConnectionHandler();
+    try {
+      Blackhole.consumeCPU(1000);
+      return handler.getConnection();
+    } finally {
+      handler.release();
+    }
+  }
+
+  private static class BenchmarkConnectionProvider implements ConnectionProvider<Object> {
+
+    @Override
+    public Object connect() {
+      return new Object();
+    }
+
+    @Override
+    public void disconnect(Object connection) {}
+
+    @Override
+    public ConnectionValidationResult validate(Object connection) {
+      return success();
+    }
+  }
+}
@@ -41,6 +41,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
@@ -68,10 +69,14 @@ public class ForeachBenchmark extends AbstractBenchmark {
   private static final int PAYLOADS_CONCURRENT = 50000;
   private static final int CONCURRENCY_TIMEOUT_SECONDS = 30;
 
+  @Param({"1", "256"})
+  public int chunkSize;
+
   private ConfigurationComponentLocator configurationComponentLocator;
 
   private MuleContext muleContext;
   private CoreEvent singleForeachEvent;
+  private List<String> singleForeachPayload;
   private CoreEvent nestedForeachEvent;
 
   private CoreEvent foreachEvent;
@@ -90,6 +95,7 @@ public class ForeachBenchmark extends AbstractBenchmark {
     }
 
     singleForeachEvent = eventBuilder(muleContext).message(of(payload)).build();
+    singleForeachPayload = payload;
 
     // Create nested foreach event
     List<List<String>> nestedForeachPayload = new ArrayList<>();
@@ -114,6 +120,7 @@ public class ForeachBenchmark extends AbstractBenchmark {
   private Foreach createForeach() {
     Foreach foreach = new Foreach();
     foreach.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    foreach.setChunkSize(chunkSize);
     return foreach;
   }
 
@@ -143,6 +150,28 @@ public class ForeachBenchmark extends AbstractBenchmark {
     return counter.get();
   }
 
+  @Benchmark
+  @BenchmarkMode(SingleShotTime)
+  public int singleForeachIterator() {
+    AtomicInteger counter = new AtomicInteger();
+    try {
+      Foreach singleForeach = createForeach();
+      Processor capturedEventProcessor = event -> {
+        counter.incrementAndGet();
+        return event;
+      };
+
+      singleForeach.setMessageProcessors(singletonList(capturedEventProcessor));
+      initialiseIfNeeded(singleForeach, muleContext);
+
+      // a lazily evaluated collection, such as a cursor, is only consumed through its iterator
+      singleForeach.process(eventBuilder(muleContext).message(of(singleForeachPayload.iterator())).build());
+    } catch (Throwable t) {
+      LOGGER.error("Unexpected error on singleForeachIterator", t);
+    }
+    return counter.get();
+  }
+
   @Benchmark
   @BenchmarkMode(SingleShotTime)
   public int nestedForeach() {
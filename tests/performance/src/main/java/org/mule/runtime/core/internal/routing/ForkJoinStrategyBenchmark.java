@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory.DIRECT_PROCESSING_STRATEGY_INSTANCE;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.WORK_STEALING_FORK_JOIN_PROPERTY;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.from;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the overhead of the reactor based fork-join strategy with the work stealing one, for routers with a timeout and
+ * different amounts of routes.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(MICROSECONDS)
+public class ForkJoinStrategyBenchmark extends AbstractBenchmark {
+
+  private static final int MAX_CONCURRENCY = 64;
+  private static final long TIMEOUT_MILLIS = 60000;
+
+  @Param({"false", "true"})
+  public boolean workStealing;
+
+  @Param({"10", "1000", "100000"})
+  public int routes;
+
+  private MuleContext muleContext;
+  private Scheduler timeoutScheduler;
+  private MessageProcessorChain route;
+  private ForkJoinStrategy strategy;
+  private CoreEvent event;
+  private List<RoutingPair> routingPairs;
+
+  @Setup(Level.Trial)
+  public void setUp() throws MuleException {
+    muleContext = createMuleContextWithServices();
+    timeoutScheduler = muleContext.getSchedulerService().cpuLightScheduler();
+
+    route = newChain(Optional.empty(), e -> e);
+    initialiseIfNeeded(route, muleContext);
+
+    System.setProperty(WORK_STEALING_FORK_JOIN_PROPERTY, Boolean.toString(workStealing));
+    try {
+      strategy = new CollectListForkJoinStrategyFactory()
+          .createForkJoinStrategy(DIRECT_PROCESSING_STRATEGY_INSTANCE, MAX_CONCURRENCY, true, TIMEOUT_MILLIS, timeoutScheduler,
+                                  muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get(), false);
+    } finally {
+      System.clearProperty(WORK_STEALING_FORK_JOIN_PROPERTY);
+    }
+
+    Flow flow = createFlow(muleContext);
+    event = createEvent(flow);
+    routingPairs = new ArrayList<>(routes);
+    for (int i = 0; i < routes; ++i) {
+      routingPairs.add(of(event, route));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    timeoutScheduler.stop();
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public CoreEvent forkJoin() {
+    return from(strategy.forkJoin(event, fromIterable(routingPairs))).block();
+  }
+}
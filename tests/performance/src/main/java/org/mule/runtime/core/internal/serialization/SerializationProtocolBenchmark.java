@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class SerializationProtocolBenchmark extends AbstractBenchmark {
+
+  @Param({"java", "binary"})
+  public String protocol;
+
+  @Param({"string", "map", "message", "event"})
+  public String payloadType;
+
+  private MuleContext muleContext;
+  private SerializationProtocol serializationProtocol;
+  private Object payload;
+  private byte[] serialized;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    muleContext = createMuleContextWithServices();
+
+    AbstractSerializationProtocol selectedProtocol;
+    if ("binary".equals(protocol)) {
+      selectedProtocol = new BinarySerializationProtocol();
+    } else {
+      selectedProtocol = new JavaExternalSerializerProtocol();
+    }
+    selectedProtocol.setMuleContext(muleContext);
+    serializationProtocol = selectedProtocol;
+
+    if ("string".equals(payloadType)) {
+      payload = PAYLOAD;
+    } else if ("map".equals(payloadType)) {
+      payload = createMap();
+    } else if ("message".equals(payloadType)) {
+      payload = of(createMap());
+    } else {
+      payload = createEvent();
+    }
+    serialized = serializationProtocol.serialize(payload);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializationProtocol.serialize(payload);
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    return serializationProtocol.deserialize(serialized);
+  }
+
+  private CoreEvent createEvent() throws Exception {
+    muleContext.start();
+    Flow flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow);
+
+    CoreEvent.Builder builder = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(of(createMap()));
+    for (int i = 0; i < 10; i++) {
+      builder.addVariable(KEY + i, VALUE + i);
+    }
+    return builder.build();
+  }
+
+  private static Map<String, Object> createMap() {
+    Map<String, Object> map = new HashMap<>();
+    List<Object> items = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Map<String, Object> item = new HashMap<>();
+      item.put("id", i);
+      item.put("name", KEY + i);
+      item.put("value", VALUE + i);
+      item.put("enabled", i % 2 == 0);
+      items.add(item);
+    }
+    map.put("items", items);
+    map.put("count", (long) items.size());
+    return map;
+  }
+}
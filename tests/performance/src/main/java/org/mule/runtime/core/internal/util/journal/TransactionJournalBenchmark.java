@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.nio.file.Files.createTempDirectory;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.DURABILITY_PROPERTY_KEY;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
+import org.mule.runtime.core.internal.util.queue.QueueStore;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+@BenchmarkMode(Mode.Throughput)
+public class TransactionJournalBenchmark extends AbstractBenchmark {
+
+  @Param({"UNFORCED", "PER_COMMIT", "GROUP", "PERIODIC"})
+  public String durability;
+
+  private final AtomicInteger txId = new AtomicInteger();
+
+  private MuleContext muleContext;
+  private File journalDirectory;
+  private QueueStore queue;
+  private LocalTxQueueTransactionJournal journal;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    muleContext = createMuleContextWithServices();
+    journalDirectory = createTempDirectory("tx-journal").toFile();
+    queue = mock(QueueStore.class);
+    when(queue.getName()).thenReturn("queue");
+
+    String previousDurability = System.setProperty(DURABILITY_PROPERTY_KEY, durability);
+    try {
+      journal = new LocalTxQueueTransactionJournal(journalDirectory.getAbsolutePath(), muleContext);
+    } finally {
+      if (previousDurability == null) {
+        System.clearProperty(DURABILITY_PROPERTY_KEY);
+      } else {
+        System.setProperty(DURABILITY_PROPERTY_KEY, previousDurability);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    journal.close();
+    muleContext.dispose();
+    deleteQuietly(journalDirectory);
+  }
+
+  @Benchmark
+  public int addAndCommit() {
+    return doAddAndCommit();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public int concurrentAddAndCommit() {
+    return doAddAndCommit();
+  }
+
+  private int doAddAndCommit() {
+    int id = txId.incrementAndGet();
+    journal.logAdd(id, queue, VALUE);
+    journal.logCommit(id);
+    return id;
+  }
+}
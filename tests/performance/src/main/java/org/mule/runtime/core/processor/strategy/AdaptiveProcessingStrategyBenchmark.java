@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.processor.strategy;
+
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+
+import static java.lang.Thread.sleep;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveProactorStreamEmitterProcessingStrategyFactory;
+import org.mule.runtime.core.internal.processor.strategy.TransactionAwareProactorStreamEmitterProcessingStrategyFactory;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Compares the latency distribution of the default processing strategy with the adaptive one, for a flow with a CPU bound step
+ * and a blocking step, under more concurrent requests than the schedulers can handle at once.
+ * <p>
+ * Sources are emulated with the WAIT back pressure strategy, so the time spent waiting to be accepted is part of the latency.
+ * Run with longer measurement iterations to soak the strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(MICROSECONDS)
+@Measurement(iterations = 5, time = 10)
+public class AdaptiveProcessingStrategyBenchmark extends AbstractBenchmark {
+
+  private static final long WAIT_RETRY_INTERVAL_MS = 2;
+
+  @Param({"proactor", "adaptive"})
+  public String processingStrategyType;
+
+  @Param({"1"})
+  public int blockingMillis;
+
+  private MuleContext muleContext;
+  private ProcessingStrategy processingStrategy;
+  private Flow flow;
+  private Sink sink;
+
+  @Setup(Level.Trial)
+  public void setUp() throws MuleException {
+    muleContext = createMuleContextWithServices();
+
+    if ("adaptive".equals(processingStrategyType)) {
+      processingStrategy = new AdaptiveProactorStreamEmitterProcessingStrategyFactory().create(muleContext, "adaptive_mb");
+    } else {
+      processingStrategy =
+          new TransactionAwareProactorStreamEmitterProcessingStrategyFactory().create(muleContext, "proactor_mb");
+    }
+    startIfNeeded(processingStrategy);
+
+    flow = createFlow(muleContext);
+
+    final ReactiveProcessor cpuProcessor = p -> Flux.from(p).doOnNext(e -> Blackhole.consumeCPU(1000));
+    final ReactiveProcessor blockingProcessor = new ReactiveProcessor() {
+
+      @Override
+      public Flux<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+        return Flux.from(publisher).doOnNext(e -> {
+          try {
+            sleep(blockingMillis);
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+
+      @Override
+      public ProcessingType getProcessingType() {
+        return BLOCKING;
+      }
+    };
+
+    sink = processingStrategy.createSink(flow, publisher -> Flux.from(publisher)
+        .transform(processingStrategy.onPipeline(p -> Flux.from(p)
+            .transform(processingStrategy.onProcessor(cpuProcessor))
+            .transform(processingStrategy.onProcessor(blockingProcessor))))
+        .doOnNext(event -> {
+          ((BaseEventContext) event.getContext()).success(event);
+          ((MonoSink<CoreEvent>) (event.getMessage().getPayload().getValue())).success(event);
+        }));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws MuleException {
+    stopIfNeeded(processingStrategy);
+    disposeIfNeeded(processingStrategy, null);
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public CoreEvent process() {
+    return Mono.<CoreEvent>create(resultSink -> {
+      CoreEvent event = createEvent(flow, resultSink);
+      while (processingStrategy.checkBackpressureEmitting(event) != null) {
+        try {
+          MILLISECONDS.sleep(WAIT_RETRY_INTERVAL_MS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          resultSink.error(e);
+          return;
+        }
+      }
+      sink.accept(event);
+    }).block();
+  }
+}
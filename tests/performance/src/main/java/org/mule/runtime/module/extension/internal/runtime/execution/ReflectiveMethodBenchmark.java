@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution;
 
+import static java.util.Collections.emptyMap;
+
 import org.mule.AbstractBenchmark;
 import org.mule.runtime.api.meta.model.ComponentModel;
 import org.mule.runtime.api.meta.model.ExtensionModel;
@@ -13,10 +15,15 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.module.extension.internal.runtime.execution.executor.MethodExecutor;
 import org.mule.runtime.module.extension.internal.runtime.execution.executor.MethodExecutorGenerator;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.InstanceWriter;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ArgumentResolver;
+import org.mule.runtime.module.extension.internal.util.FieldSetter;
+import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -25,19 +32,85 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.Threads;
 
+/**
+ * Compares invoking the methods of operations and sources through reflection with doing so through generated code, along with
+ * building the parameter groups they receive.
+ */
 @Threads(3)
 public class ReflectiveMethodBenchmark extends AbstractBenchmark {
 
-  private static class Target {
+  public static class Target {
 
     public int doIt(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, int arg7, int arg8, int arg9) {
       return arg0 + arg1 + arg2 + arg3 + arg4 + arg5 + arg6 + arg7 + arg8 + arg9;
 
     }
+
+    public int onSuccess(ResponseGroup response) {
+      return response.statusCode + response.reasonPhrase.length();
+    }
+  }
+
+  /**
+   * Stands for a parameter group of a source callback.
+   */
+  public static class ResponseGroup {
+
+    public int statusCode;
+    public String reasonPhrase;
+    public String contentType;
+    public String encoding;
+    public Object body;
+    public Map<String, String> headers;
+  }
+
+  /**
+   * Stands for a parameter group with private fields and setters, which is how most of them are written.
+   */
+  public static class PrivateResponseGroup {
+
+    private int statusCode;
+    private String reasonPhrase;
+    private String contentType;
+    private String encoding;
+    private Object body;
+    private Map<String, String> headers;
+
+    public void setStatusCode(int statusCode) {
+      this.statusCode = statusCode;
+    }
+
+    public void setReasonPhrase(String reasonPhrase) {
+      this.reasonPhrase = reasonPhrase;
+    }
+
+    public void setContentType(String contentType) {
+      this.contentType = contentType;
+    }
+
+    public void setEncoding(String encoding) {
+      this.encoding = encoding;
+    }
+
+    public void setBody(Object body) {
+      this.body = body;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+      this.headers = headers;
+    }
   }
 
   private Target target;
   private Method method;
+  private Method callbackMethod;
+  private Object[] groupValues;
+  private FieldSetter[] groupFieldSetters;
+  private InstanceWriter<ResponseGroup> groupWriter;
+  private Object[] privateGroupValues;
+  private FieldSetter[] privateGroupFieldSetters;
+  private InstanceWriter<PrivateResponseGroup> privateGroupWriter;
+  private MethodExecutor callbackExecutor;
 
   @Setup
   public void setUp() throws NoSuchMethodException, SecurityException {
@@ -45,6 +118,22 @@ public class ReflectiveMethodBenchmark extends AbstractBenchmark {
     method =
         target.getClass().getDeclaredMethod("doIt", new Class[] {int.class, int.class, int.class, int.class, int.class, int.class,
             int.class, int.class, int.class, int.class});
+    callbackMethod = target.getClass().getDeclaredMethod("onSuccess", ResponseGroup.class);
+
+    ReflectionCache reflectionCache = new ReflectionCache();
+    List<Field> groupFields = reflectionCache.getFields(ResponseGroup.class);
+    groupFieldSetters = groupFields.stream().map(FieldSetter::new).toArray(FieldSetter[]::new);
+    groupValues = groupFields.stream().map(field -> getGroupValue(field.getName())).toArray();
+    groupWriter = reflectionCache.getInstanceWriter(ResponseGroup.class);
+
+    List<Field> privateGroupFields = reflectionCache.getFields(PrivateResponseGroup.class);
+    privateGroupFieldSetters = privateGroupFields.stream().map(FieldSetter::new).toArray(FieldSetter[]::new);
+    privateGroupValues = privateGroupFields.stream().map(field -> getGroupValue(field.getName())).toArray();
+    privateGroupWriter = reflectionCache.getInstanceWriter(PrivateResponseGroup.class);
+
+    MethodExecutorGenerator generator = new MethodExecutorGenerator();
+    generator.setArtifactId("benchmark");
+    callbackExecutor = generator.generate(target, callbackMethod, new CallbackArgumentResolverDelegate(this::generatedGroupBuild));
   }
 
   @Benchmark
@@ -95,43 +184,137 @@ public class ReflectiveMethodBenchmark extends AbstractBenchmark {
       }
     };
 
-    MethodExecutor executor = new MethodExecutorGenerator().generate(target, method, resolverDelegate);
-    return executor.execute(new ExecutionContext() {
+    MethodExecutorGenerator generator = new MethodExecutorGenerator();
+    generator.setArtifactId("benchmark");
+    MethodExecutor executor = generator.generate(target, method, resolverDelegate);
+    return executor.execute(new BenchmarkExecutionContext());
+  }
 
-      @Override
-      public boolean hasParameter(String parameterName) {
-        return false;
-      }
+  @Benchmark
+  public ResponseGroup reflectiveGroupBuild() throws Exception {
+    ResponseGroup group = ResponseGroup.class.newInstance();
+    for (int i = 0; i < groupFieldSetters.length; ++i) {
+      groupFieldSetters[i].set(group, groupValues[i]);
+    }
+    return group;
+  }
 
-      @Override
-      public Object getParameter(String parameterName) {
-        return null;
-      }
+  @Benchmark
+  public ResponseGroup generatedGroupBuild() {
+    ResponseGroup group = groupWriter.newInstance();
+    for (int i = 0; i < groupValues.length; ++i) {
+      groupWriter.write(group, i, groupValues[i]);
+    }
+    return group;
+  }
 
-      @Override
-      public Object getParameterOrDefault(String parameterName, Object defaultValue) {
-        return null;
-      }
+  @Benchmark
+  public PrivateResponseGroup reflectivePrivateGroupBuild() throws Exception {
+    PrivateResponseGroup group = PrivateResponseGroup.class.newInstance();
+    for (int i = 0; i < privateGroupFieldSetters.length; ++i) {
+      privateGroupFieldSetters[i].set(group, privateGroupValues[i]);
+    }
+    return group;
+  }
 
-      @Override
-      public Map<String, Object> getParameters() {
-        return null;
-      }
+  @Benchmark
+  public PrivateResponseGroup generatedPrivateGroupBuild() {
+    PrivateResponseGroup group = privateGroupWriter.newInstance();
+    for (int i = 0; i < privateGroupValues.length; ++i) {
+      privateGroupWriter.write(group, i, privateGroupValues[i]);
+    }
+    return group;
+  }
 
-      @Override
-      public Optional<ConfigurationInstance> getConfiguration() {
-        return Optional.empty();
-      }
+  @Benchmark
+  public Object reflectionCallback() throws Exception {
+    return callbackMethod.invoke(target, reflectiveGroupBuild());
+  }
 
-      @Override
-      public ExtensionModel getExtensionModel() {
-        return null;
-      }
+  @Benchmark
+  public Object generatedCallback() throws Exception {
+    return callbackExecutor.execute(new BenchmarkExecutionContext());
+  }
 
-      @Override
-      public ComponentModel getComponentModel() {
-        return null;
-      }
-    });
+  private static Object getGroupValue(String fieldName) {
+    switch (fieldName) {
+      case "statusCode":
+        return 200;
+      case "reasonPhrase":
+        return "OK";
+      case "contentType":
+        return "application/json";
+      case "encoding":
+        return "UTF-8";
+      case "body":
+        return "{}";
+      default:
+        return emptyMap();
+    }
+  }
+
+  /**
+   * Resolves the only argument of a source callback, which is a parameter group.
+   */
+  private static class CallbackArgumentResolverDelegate implements ArgumentResolverDelegate {
+
+    private final ArgumentResolver<Object> groupResolver;
+
+    private CallbackArgumentResolverDelegate(Supplier<Object> groupBuilder) {
+      this.groupResolver = executionContext -> groupBuilder.get();
+    }
+
+    @Override
+    public ArgumentResolver<?>[] getArgumentResolvers() {
+      return new ArgumentResolver[] {groupResolver};
+    }
+
+    @Override
+    public Object[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+      return new Object[] {groupResolver.resolve(executionContext)};
+    }
+
+    @Override
+    public Supplier<Object>[] resolveDeferred(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+      return new Supplier[] {() -> groupResolver.resolve(executionContext)};
+    }
+  }
+
+  private static class BenchmarkExecutionContext implements ExecutionContext {
+
+    @Override
+    public boolean hasParameter(String parameterName) {
+      return false;
+    }
+
+    @Override
+    public Object getParameter(String parameterName) {
+      return null;
+    }
+
+    @Override
+    public Object getParameterOrDefault(String parameterName, Object defaultValue) {
+      return null;
+    }
+
+    @Override
+    public Map<String, Object> getParameters() {
+      return null;
+    }
+
+    @Override
+    public Optional<ConfigurationInstance> getConfiguration() {
+      return Optional.empty();
+    }
+
+    @Override
+    public ExtensionModel getExtensionModel() {
+      return null;
+    }
+
+    @Override
+    public ComponentModel getComponentModel() {
+      return null;
+    }
   }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.resolver;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the resolution of the parameters of an extension operation, comparing a {@link ResolverSet} which is evaluated
+ * resolver by resolver with one compiled on initialisation, for operations with only static parameters and with a few dynamic
+ * ones.
+ */
+public class ResolverSetBenchmark extends AbstractBenchmark {
+
+  private static final int PARAMETERS = 10;
+
+  @Param({"0", "2"})
+  public int dynamicParameters;
+
+  private MuleContext muleContext;
+  private ValueResolvingContext resolvingContext;
+  private ResolverSet interpretedResolverSet;
+  private ResolverSet compiledResolverSet;
+
+  @Setup
+  public void setUp() throws MuleException {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    Flow flow = createFlow(muleContext);
+    CoreEvent event = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(of(PAYLOAD)).build();
+    resolvingContext = ValueResolvingContext.builder(event).build();
+
+    interpretedResolverSet = createResolverSet();
+    compiledResolverSet = createResolverSet();
+    compiledResolverSet.initialise();
+  }
+
+  @TearDown
+  public void tearDown() throws MuleException {
+    resolvingContext.close();
+    disposeIfNeeded(muleContext, getLogger(ResolverSetBenchmark.class));
+  }
+
+  @Benchmark
+  public ResolverSetResult interpreted() throws MuleException {
+    return interpretedResolverSet.resolve(resolvingContext);
+  }
+
+  @Benchmark
+  public ResolverSetResult compiled() throws MuleException {
+    return compiledResolverSet.resolve(resolvingContext);
+  }
+
+  private ResolverSet createResolverSet() {
+    ResolverSet resolverSet = new ResolverSet(muleContext);
+    for (int i = 0; i < PARAMETERS; ++i) {
+      String name = "parameter" + i;
+      if (i < dynamicParameters) {
+        resolverSet.add(name, new PayloadValueResolver());
+      } else if (i % 2 == 0) {
+        resolverSet.add(name, new StaticValueResolver<>(VALUE + i));
+      } else {
+        resolverSet.add(name, new RequiredParameterValueResolverWrapper<>(new StaticValueResolver<>(i), name));
+      }
+    }
+    return resolverSet;
+  }
+
+  /**
+   * Stands for an expression parameter, without measuring the cost of the expression language itself.
+   */
+  private static class PayloadValueResolver implements ValueResolver<Object> {
+
+    @Override
+    public Object resolve(ValueResolvingContext context) {
+      return context.getEvent().getMessage().getPayload().getValue();
+    }
+
+    @Override
+    public boolean isDynamic() {
+      return true;
+    }
+  }
+}